@@ -0,0 +1,42 @@
+package dk.alexandra.fresco.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks, reporting throughput in operations per second together with the allocation
+ * rate measured by the JMH GC profiler.
+ * <p>
+ * Any JMH command line options can be given, e.g., a regular expression selecting the benchmarks
+ * to run, and override the defaults set here. Results are written to <code>jmh-result.json</code>
+ * so they can be compared between releases.
+ * </p>
+ */
+public class BenchmarkRunner {
+
+  /**
+   * Runs the benchmarks.
+   *
+   * @param args JMH command line options
+   */
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    Options options = new OptionsBuilder()
+        .parent(new CommandLineOptions(args))
+        .addProfiler(GCProfiler.class)
+        .forks(1)
+        .warmupIterations(3)
+        .warmupTime(TimeValue.seconds(2))
+        .measurementIterations(5)
+        .measurementTime(TimeValue.seconds(2))
+        .resultFormat(ResultFormatType.JSON)
+        .build();
+    new Runner(options).run();
+  }
+}
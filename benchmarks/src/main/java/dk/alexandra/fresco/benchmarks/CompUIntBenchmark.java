@@ -0,0 +1,78 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the arithmetic of {@link CompUInt128}, the share type of SPDZ2k with 64 bit values.
+ * The inner product benchmarks compare accumulating with immutable elements to accumulating in a
+ * mutable vector, as done in the mac check.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class CompUIntBenchmark {
+
+  private CompUInt128 left;
+  private CompUInt128 right;
+  private CompUInt128Factory factory;
+  private List<CompUInt128> leftList;
+  private List<CompUInt128> rightList;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    left = new CompUInt128(new BigInteger(128, random));
+    right = new CompUInt128(new BigInteger(128, random));
+    factory = new CompUInt128Factory();
+    leftList = new ArrayList<>();
+    rightList = new ArrayList<>();
+    for (int i = 0; i < 10000; i++) {
+      leftList.add(new CompUInt128(new BigInteger(128, random)));
+      rightList.add(new CompUInt128(new BigInteger(128, random)));
+    }
+  }
+
+  @Benchmark
+  public CompUInt128 add() {
+    return left.add(right);
+  }
+
+  @Benchmark
+  public CompUInt128 subtract() {
+    return left.subtract(right);
+  }
+
+  @Benchmark
+  public CompUInt128 multiply() {
+    return left.multiply(right);
+  }
+
+  @Benchmark
+  public byte[] toByteArray() {
+    return left.toByteArray();
+  }
+
+  @Benchmark
+  public CompUInt128 innerProductImmutable() {
+    return UInt.innerProduct(leftList, rightList);
+  }
+
+  @Benchmark
+  public CompUInt128 innerProductVector() {
+    return factory.innerProduct(leftList, rightList);
+  }
+}
@@ -0,0 +1,77 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.util.ModulusFinder;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the arithmetic of {@link BigIntegerFieldDefinition} and {@link
+ * MersennePrimeFieldDefinition} elements, which is at the core of all arithmetic protocol suites.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class FieldArithmeticBenchmark {
+
+  @Param({"BIG_INTEGER", "MERSENNE_PRIME"})
+  public String field;
+
+  @Param({"128", "256"})
+  public int bitLength;
+
+  private FieldDefinition definition;
+  private FieldElement left;
+  private FieldElement right;
+  private byte[] serialized;
+
+  @Setup
+  public void setup() {
+    if (field.equals("BIG_INTEGER")) {
+      definition = new BigIntegerFieldDefinition(ModulusFinder.findSuitableModulus(bitLength));
+    } else {
+      definition = MersennePrimeFieldDefinition.find(bitLength);
+    }
+    Random random = new Random(42);
+    left = definition.createElement(new BigInteger(bitLength, random));
+    right = definition.createElement(new BigInteger(bitLength, random));
+    serialized = definition.serialize(left);
+  }
+
+  @Benchmark
+  public FieldElement add() {
+    return left.add(right);
+  }
+
+  @Benchmark
+  public FieldElement subtract() {
+    return left.subtract(right);
+  }
+
+  @Benchmark
+  public FieldElement multiply() {
+    return left.multiply(right);
+  }
+
+  @Benchmark
+  public byte[] serialize() {
+    return definition.serialize(left);
+  }
+
+  @Benchmark
+  public FieldElement deserialize() {
+    return definition.deserialize(serialized);
+  }
+}
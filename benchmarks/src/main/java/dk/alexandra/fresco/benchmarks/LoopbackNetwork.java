@@ -0,0 +1,75 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * An in-process network passing messages between parties running in the same JVM through queues.
+ * <p>
+ * Used to benchmark protocols without the noise of a real network, so that the measurements show
+ * the cost of the computation and of the serialization of messages.
+ * </p>
+ */
+public class LoopbackNetwork implements CloseableNetwork {
+
+  private final int myId;
+  private final int noOfParties;
+  // queues.get(from - 1).get(to - 1) holds messages from party 'from' to party 'to'
+  private final List<List<BlockingQueue<byte[]>>> queues;
+
+  private LoopbackNetwork(int myId, List<List<BlockingQueue<byte[]>>> queues) {
+    this.myId = myId;
+    this.noOfParties = queues.size();
+    this.queues = queues;
+  }
+
+  /**
+   * Creates connected networks for a number of parties.
+   *
+   * @param noOfParties the number of parties
+   * @return the networks, the network of party <i>i</i> at index <i>i - 1</i>
+   */
+  public static List<LoopbackNetwork> create(int noOfParties) {
+    List<List<BlockingQueue<byte[]>>> queues = new ArrayList<>(noOfParties);
+    for (int from = 1; from <= noOfParties; from++) {
+      List<BlockingQueue<byte[]>> row = new ArrayList<>(noOfParties);
+      for (int to = 1; to <= noOfParties; to++) {
+        row.add(new LinkedBlockingQueue<>());
+      }
+      queues.add(row);
+    }
+    List<LoopbackNetwork> networks = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      networks.add(new LoopbackNetwork(myId, queues));
+    }
+    return networks;
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    queues.get(myId - 1).get(partyId - 1).add(data);
+  }
+
+  @Override
+  public byte[] receive(int partyId) {
+    try {
+      return queues.get(partyId - 1).get(myId - 1).take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while receiving from party " + partyId, e);
+    }
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return noOfParties;
+  }
+
+  @Override
+  public void close() {
+    // Nothing to release
+  }
+}
@@ -0,0 +1,89 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.tools.mascot.Mascot;
+import dk.alexandra.fresco.tools.mascot.MascotResourcePoolImpl;
+import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
+import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the generation of multiplication triples with MASCOT between two parties, reported
+ * per triple.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class MascotBenchmark {
+
+  private static final int TRIPLES = 256;
+  private static final int NO_OF_PARTIES = 2;
+
+  @Param({"64", "128"})
+  public int modBitLength;
+
+  private Parties parties;
+  private List<Mascot> mascots;
+
+  @Setup
+  public void setup() {
+    parties = new Parties(NO_OF_PARTIES);
+    List<LoopbackNetwork> networks = LoopbackNetwork.create(NO_OF_PARTIES);
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(modBitLength);
+    MascotSecurityParameters parameters = new MascotSecurityParameters();
+    mascots = parties.run(myId -> {
+      Network network = networks.get(myId - 1);
+      Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(new byte[] {(byte) myId});
+      Map<Integer, RotList> seedOts = new HashMap<>();
+      for (int otherId = 1; otherId <= NO_OF_PARTIES; otherId++) {
+        if (otherId != myId) {
+          Ot ot = new DummyOt(otherId, network);
+          RotList rotList = new RotList(drbg, parameters.getPrgSeedLength());
+          if (myId < otherId) {
+            rotList.send(ot);
+            rotList.receive(ot);
+          } else {
+            rotList.receive(ot);
+            rotList.send(ot);
+          }
+          seedOts.put(otherId, rotList);
+        }
+      }
+      FieldElement macKeyShare = definition.createElement(1000 + myId);
+      return new Mascot(new MascotResourcePoolImpl(myId, NO_OF_PARTIES, 1, drbg, seedOts,
+          parameters, definition), network, macKeyShare);
+    });
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(TRIPLES)
+  public List<List<MultiplicationTriple>> getTriples() {
+    return parties.run(myId -> mascots.get(myId - 1).getTriples(TRIPLES));
+  }
+}
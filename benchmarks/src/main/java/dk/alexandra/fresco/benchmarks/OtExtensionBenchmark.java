@@ -0,0 +1,113 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.otextension.AesCorrelationRobustHash;
+import dk.alexandra.fresco.tools.ot.otextension.BristolOtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.BristolOtFactory;
+import dk.alexandra.fresco.tools.ot.otextension.CorrelationRobustHash;
+import dk.alexandra.fresco.tools.ot.otextension.DigestCorrelationRobustHash;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the throughput of the Bristol OT extension between two parties, reported per
+ * transferred pair of messages, using either the SHA-256 or the fixed-key AES correlation robust
+ * hash.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class OtExtensionBenchmark {
+
+  private static final int OTS = 1024;
+  private static final int COMPUTATIONAL_SECURITY = 128;
+  private static final int LAMBDA_SECURITY = 64;
+  private static final int MESSAGE_LENGTH = 128;
+
+  @Param({"SHA-256", "AES"})
+  public String hash;
+
+  private Parties parties;
+  private BristolOtFactory sender;
+  private BristolOtFactory receiver;
+  private StrictBitVector[] messagesZero;
+  private StrictBitVector[] messagesOne;
+  private StrictBitVector choices;
+
+  @Setup
+  public void setup() {
+    parties = new Parties(2);
+    List<LoopbackNetwork> networks = LoopbackNetwork.create(2);
+    List<BristolOtFactory> ots = parties.run(myId -> {
+      int otherId = 3 - myId;
+      LoopbackNetwork network = networks.get(myId - 1);
+      Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(new byte[] {(byte) myId});
+      DummyOt dummyOt = new DummyOt(otherId, network);
+      RotList seedOts = new RotList(drbg, COMPUTATIONAL_SECURITY);
+      if (myId < otherId) {
+        seedOts.send(dummyOt);
+        seedOts.receive(dummyOt);
+      } else {
+        seedOts.receive(dummyOt);
+        seedOts.send(dummyOt);
+      }
+      CoinTossing coinTossing = new CoinTossing(myId, otherId, drbg);
+      coinTossing.initialize(network);
+      OtExtensionResourcePool resources = new BristolOtExtensionResourcePool(myId, otherId,
+          COMPUTATIONAL_SECURITY, LAMBDA_SECURITY, 1, drbg, coinTossing, seedOts, createHash());
+      return new BristolOtFactory(new RotFactory(resources, network), resources, network, OTS);
+    });
+    sender = ots.get(0);
+    receiver = ots.get(1);
+    Drbg drbg = AesCtrDrbgFactory.fromDerivedSeed(new byte[] {42});
+    messagesZero = new StrictBitVector[OTS];
+    messagesOne = new StrictBitVector[OTS];
+    for (int i = 0; i < OTS; i++) {
+      messagesZero[i] = new StrictBitVector(MESSAGE_LENGTH, drbg);
+      messagesOne[i] = new StrictBitVector(MESSAGE_LENGTH, drbg);
+    }
+    choices = new StrictBitVector(OTS, drbg);
+  }
+
+  private CorrelationRobustHash createHash() {
+    return "AES".equals(hash) ? new AesCorrelationRobustHash() : new DigestCorrelationRobustHash();
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OTS)
+  public List<StrictBitVector> transfer() {
+    return parties.run(myId -> {
+      StrictBitVector last = null;
+      for (int i = 0; i < OTS; i++) {
+        if (myId == 1) {
+          sender.send(messagesZero[i], messagesOne[i]);
+        } else {
+          last = receiver.receive(choices.getBit(i, false));
+        }
+      }
+      return last;
+    });
+  }
+}
@@ -0,0 +1,52 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntFunction;
+
+/**
+ * Runs the parties of a benchmarked protocol concurrently, each on its own thread.
+ */
+class Parties implements Closeable {
+
+  private final int noOfParties;
+  private final ExecutorService executor;
+
+  Parties(int noOfParties) {
+    this.noOfParties = noOfParties;
+    this.executor = Executors.newFixedThreadPool(noOfParties, runnable -> {
+      Thread thread = new Thread(runnable, "benchmark-party");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Runs a task for each party and waits for all of them to finish.
+   *
+   * @param task the task, given the id of the party
+   * @return the results, the result of party <i>i</i> at index <i>i - 1</i>
+   */
+  <T> List<T> run(IntFunction<T> task) {
+    List<Future<T>> futures = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      int finalMyId = myId;
+      futures.add(executor.submit(() -> task.apply(finalMyId)));
+    }
+    List<T> results = new ArrayList<>(noOfParties);
+    for (Future<T> future : futures) {
+      results.add(ExceptionConverter.safe(future::get, "Party failed"));
+    }
+    return results;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
@@ -0,0 +1,119 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Collections;
+import dk.alexandra.fresco.lib.common.collections.Collections.SortingAlgorithm;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks sorting a secret list of key-value pairs in SPDZ between two parties, comparing the
+ * sorting network of {@link SortingAlgorithm#ODD_EVEN_MERGE} to {@link
+ * SortingAlgorithm#SHUFFLE_THEN_SORT}. Preprocessed material is supplied by {@link
+ * SpdzDummyDataSupplier}, so only the online phase is measured. Reported per sort.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SortBenchmark {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int MAX_BIT_LENGTH = 32;
+  private static final int KEY_BIT_LENGTH = 16;
+  private static final int PAYLOAD_SIZE = 2;
+
+  @Param({"64", "256"})
+  public int size;
+
+  @Param({"ODD_EVEN_MERGE", "SHUFFLE_THEN_SORT"})
+  public SortingAlgorithm algorithm;
+
+  private Parties parties;
+  private List<LoopbackNetwork> networks;
+  private List<SpdzResourcePool> resourcePools;
+  private SpdzProtocolSuite suite;
+  private BatchedProtocolEvaluator<SpdzResourcePool> evaluator;
+  private List<BigInteger> keys;
+
+  @Setup
+  public void setup() {
+    parties = new Parties(NO_OF_PARTIES);
+    networks = LoopbackNetwork.create(NO_OF_PARTIES);
+    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+    resourcePools = new ArrayList<>(NO_OF_PARTIES);
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      SpdzDummyDataSupplier supplier = new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition,
+          BigInteger.valueOf(1234567));
+      resourcePools.add(new SpdzResourcePoolImpl(myId, NO_OF_PARTIES,
+          new SpdzOpenedValueStoreImpl(), supplier, AesCtrDrbg::new));
+    }
+    suite = new SpdzProtocolSuite(MAX_BIT_LENGTH);
+    evaluator = new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite);
+    Random random = new Random(42);
+    keys = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      keys.add(new BigInteger(KEY_BIT_LENGTH, random));
+    }
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  public List<List<BigInteger>> sort() {
+    return parties.run(myId -> {
+      SpdzResourcePool resourcePool = resourcePools.get(myId - 1);
+      ProtocolBuilderNumeric builder = suite.init(resourcePool).createSequential();
+      DRes<List<DRes<BigInteger>>> opened = builder.par(par -> {
+        List<Pair<DRes<SInt>, List<DRes<SInt>>>> input = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+          List<DRes<SInt>> payload = new ArrayList<>(PAYLOAD_SIZE);
+          for (int j = 0; j < PAYLOAD_SIZE; j++) {
+            payload.add(par.numeric().input(BigInteger.valueOf(i), 2));
+          }
+          input.add(new Pair<>(par.numeric().input(keys.get(i), 1), payload));
+        }
+        return () -> input;
+      }).seq((seq, input) -> Collections.using(seq).sort(input, algorithm))
+          .par((par, sorted) -> {
+            List<DRes<BigInteger>> open = new ArrayList<>(sorted.size());
+            for (Pair<DRes<SInt>, List<DRes<SInt>>> pair : sorted) {
+              open.add(par.numeric().open(pair.getFirst()));
+            }
+            return () -> open;
+          });
+      evaluator.eval(builder.build(), resourcePool, networks.get(myId - 1));
+      List<BigInteger> result = new ArrayList<>(size);
+      for (DRes<BigInteger> value : opened.out()) {
+        result.add(value.out());
+      }
+      return result;
+    });
+  }
+}
@@ -0,0 +1,148 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import dk.alexandra.fresco.suite.spdz.SpdzProtocolSuite;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDummyDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Benchmarks the online phase of SPDZ end-to-end between two parties: values are input,
+ * multiplied or compared, and the results opened. Multiplications are measured both as one
+ * protocol per gate and as a single batched multiplication of the lists. Preprocessed material is
+ * supplied by {@link SpdzDummyDataSupplier}, so only the online phase is measured. Reported per
+ * multiplication or comparison.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+public class SpdzOnlineBenchmark {
+
+  private static final int OPERATIONS = 1024;
+  private static final int NO_OF_PARTIES = 2;
+  private static final int MAX_BIT_LENGTH = 32;
+
+  @Param({"128"})
+  public int modBitLength;
+
+  private Parties parties;
+  private List<LoopbackNetwork> networks;
+  private List<SpdzResourcePool> resourcePools;
+  private SpdzProtocolSuite suite;
+  private BatchedProtocolEvaluator<SpdzResourcePool> evaluator;
+
+  @Setup
+  public void setup() {
+    parties = new Parties(NO_OF_PARTIES);
+    networks = LoopbackNetwork.create(NO_OF_PARTIES);
+    MersennePrimeFieldDefinition definition = MersennePrimeFieldDefinition.find(modBitLength);
+    resourcePools = new ArrayList<>(NO_OF_PARTIES);
+    for (int myId = 1; myId <= NO_OF_PARTIES; myId++) {
+      SpdzDummyDataSupplier supplier = new SpdzDummyDataSupplier(myId, NO_OF_PARTIES, definition,
+          BigInteger.valueOf(1234567));
+      resourcePools.add(new SpdzResourcePoolImpl(myId, NO_OF_PARTIES,
+          new SpdzOpenedValueStoreImpl(), supplier, AesCtrDrbg::new));
+    }
+    suite = new SpdzProtocolSuite(MAX_BIT_LENGTH);
+    evaluator = new BatchedProtocolEvaluator<>(new BatchedStrategy<>(), suite);
+  }
+
+  @TearDown
+  public void tearDown() {
+    parties.close();
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public List<List<BigInteger>> multiply() {
+    return run(builder -> builder.par(this::input).par((par, inputs) -> {
+      List<DRes<SInt>> results = new ArrayList<>(OPERATIONS);
+      for (int i = 0; i < OPERATIONS; i++) {
+        results.add(par.numeric().mult(inputs.getFirst().get(i), inputs.getSecond().get(i)));
+      }
+      return () -> results;
+    }));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public List<List<BigInteger>> multiplyBatched() {
+    return run(builder -> builder.par(this::input)
+        .par((par, inputs) -> par.numeric().mult(inputs.getFirst(), inputs.getSecond())));
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(OPERATIONS)
+  public List<List<BigInteger>> compare() {
+    return run(builder -> builder.par(this::input).par((par, inputs) -> {
+      List<DRes<SInt>> results = new ArrayList<>(OPERATIONS);
+      for (int i = 0; i < OPERATIONS; i++) {
+        results.add(Comparison.using(par)
+            .compareLT(inputs.getFirst().get(i), inputs.getSecond().get(i)));
+      }
+      return () -> results;
+    }));
+  }
+
+  /**
+   * Inputs a list of values from each party.
+   */
+  private DRes<Pair<List<DRes<SInt>>, List<DRes<SInt>>>> input(ProtocolBuilderNumeric par) {
+    List<DRes<SInt>> left = new ArrayList<>(OPERATIONS);
+    List<DRes<SInt>> right = new ArrayList<>(OPERATIONS);
+    for (int i = 0; i < OPERATIONS; i++) {
+      left.add(par.numeric().input(i, 1));
+      right.add(par.numeric().input(OPERATIONS - i, 2));
+    }
+    return () -> new Pair<>(left, right);
+  }
+
+  /**
+   * Runs a computation in all parties and opens the resulting values.
+   */
+  private List<List<BigInteger>> run(
+      Function<ProtocolBuilderNumeric, DRes<List<DRes<SInt>>>> computation) {
+    return parties.run(myId -> {
+      SpdzResourcePool resourcePool = resourcePools.get(myId - 1);
+      ProtocolBuilderNumeric builder = suite.init(resourcePool).createSequential();
+      DRes<List<DRes<BigInteger>>> opened = builder.seq(computation::apply)
+          .par((par, values) -> {
+            List<DRes<BigInteger>> open = new ArrayList<>(values.size());
+            for (DRes<SInt> value : values) {
+              open.add(par.numeric().open(value));
+            }
+            return () -> open;
+          });
+      evaluator.eval(builder.build(), resourcePool, networks.get(myId - 1));
+      List<BigInteger> result = new ArrayList<>();
+      for (DRes<BigInteger> value : opened.out()) {
+        result.add(value.out());
+      }
+      return result;
+    });
+  }
+}
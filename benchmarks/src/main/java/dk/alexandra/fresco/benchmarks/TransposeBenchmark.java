@@ -0,0 +1,50 @@
+package dk.alexandra.fresco.benchmarks;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.ot.otextension.Transpose;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the bit matrix transposition of the OT extension, for a matrix with as many rows as
+ * the computational security parameter and a column per extended OT.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Thread)
+public class TransposeBenchmark {
+
+  @Param({"128"})
+  public int rows;
+
+  @Param({"1024", "65536"})
+  public int columns;
+
+  private List<StrictBitVector> matrix;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    matrix = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      byte[] row = new byte[columns / Byte.SIZE];
+      random.nextBytes(row);
+      matrix.add(new StrictBitVector(row));
+    }
+  }
+
+  @Benchmark
+  public List<StrictBitVector> transpose() {
+    return Transpose.transpose(matrix);
+  }
+}
@@ -1,5 +1,8 @@
 package dk.alexandra.fresco.framework.builder.numeric;
 
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
 import dk.alexandra.fresco.framework.util.TransposeUtils;
 import java.util.ArrayList;
 import java.util.List;
@@ -41,4 +44,20 @@ public interface Addable<T> {
     return sums;
   }
 
+  /**
+   * Adds up field elements in each column. This adds the rows as {@link FieldElementVector}s and
+   * should be preferred over {@link #sumRows(List)} for field elements.
+   *
+   * @param rows rows to be added up, all of the same length
+   * @param definition the definition of the field of the elements
+   * @return sum of rows
+   */
+  static List<FieldElement> sumRows(List<List<FieldElement>> rows, FieldDefinition definition) {
+    FieldElementVector sums = definition.createVector(rows.get(0));
+    for (int i = 1; i < rows.size(); i++) {
+      sums = sums.add(definition.createVector(rows.get(i)));
+    }
+    return new ArrayList<>(sums.toList());
+  }
+
 }
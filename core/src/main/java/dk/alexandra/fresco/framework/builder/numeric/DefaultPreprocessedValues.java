@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric;
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.BuildStep;
 import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -58,6 +59,45 @@ public class DefaultPreprocessedValues implements PreprocessedValues {
     }
   }
 
+  @Override
+  public DRes<List<DRes<SInt>>> getRandomBitMask(int noOfBits) {
+    if (noOfBits < 0) {
+      throw new IllegalArgumentException("Can not create a mask of less than 0 bits");
+    }
+    return builder.seq(seq -> {
+      Numeric numeric = seq.numeric();
+      List<DRes<SInt>> bits = new ArrayList<>(noOfBits);
+      DRes<SInt> value = numeric.known(0);
+      for (int i = 0; i < noOfBits; i++) {
+        DRes<SInt> bit = numeric.randomBit();
+        bits.add(bit);
+        value = numeric.add(value, numeric.mult(BigInteger.ONE.shiftLeft(i), bit));
+      }
+      List<DRes<SInt>> mask = new ArrayList<>(noOfBits + 1);
+      mask.add(value);
+      mask.addAll(bits);
+      return () -> mask;
+    });
+  }
+
+  @Override
+  public DRes<Pair<DRes<SInt>, DRes<SInt>>> getTruncationPair(int noOfBits, int shifts) {
+    if (shifts < 0 || shifts > noOfBits) {
+      throw new IllegalArgumentException(
+          "Can not shift a mask of " + noOfBits + " bits by " + shifts + " positions");
+    }
+    return builder.seq(seq -> seq.preprocessedValues().getRandomBitMask(noOfBits))
+        .seq((seq, mask) -> {
+          Numeric numeric = seq.numeric();
+          DRes<SInt> shifted = numeric.known(0);
+          for (int i = shifts; i < noOfBits; i++) {
+            shifted = numeric.add(shifted,
+                numeric.mult(BigInteger.ONE.shiftLeft(i - shifts), mask.get(i + 1)));
+          }
+          return Pair.lazy(mask.get(0), shifted);
+        });
+  }
+
   public static class Inversion implements Computation<SInt, ProtocolBuilderNumeric> {
 
     private final DRes<SInt> value;
@@ -4,6 +4,9 @@ import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.ComputationDirectory;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
 
 /**
  * Basic interface for numeric applications. This is the interface which an arithmetic protocol
@@ -104,6 +107,32 @@ public interface Numeric extends ComputationDirectory {
     return mult(BigInteger.valueOf(a), b);
   }
 
+  /**
+   * Multiplies two lists of secret values entry-wise and returns the list of products.
+   * <p>
+   * The default implementation multiplies each pair using {@link #mult(DRes, DRes)}, which means
+   * that the multiplications are only done in parallel if this is called in a parallel scope.
+   * Protocol suites are encouraged to override this with a native protocol multiplying all pairs
+   * at once.
+   * </p>
+   *
+   * @param a Secret values 1
+   * @param b Secret values 2, must have the same size as <code>a</code>
+   * @return A deferred result computing the list of a<sub>i</sub>*b<sub>i</sub>
+   */
+  default DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+    if (a.size() != b.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + a.size() + " and " + b.size());
+    }
+    List<DRes<SInt>> products = new ArrayList<>(a.size());
+    Iterator<DRes<SInt>> iteratorB = b.iterator();
+    for (DRes<SInt> left : a) {
+      products.add(mult(left, iteratorB.next()));
+    }
+    return () -> products;
+  }
+
   /**
    * Returns a deferred result which creates a secret shared random bit. (This should be computed
    * beforehand to increase the speed of the application)
@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.framework.builder.numeric;
 
 import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import java.util.List;
 
@@ -21,4 +22,31 @@ public interface PreprocessedValues {
    */
   DRes<List<DRes<SInt>>> getExponentiationPipe(int pipeLength);
 
+  /**
+   * Returns a random mask along with its bit decomposition, of the form [r, r_0, r_1, ...,
+   * r_{noOfBits - 1}], where r is a uniformly random value of noOfBits bits and r_0 is the least
+   * significant bit of r.
+   *
+   * <p>Masks like these are used to mask values before opening them in comparisons and
+   * truncations. Since the bits are random, r is simply their weighted sum, so a protocol suite
+   * which can supply random bits in bulk can supply the mask without any communication.</p>
+   *
+   * @param noOfBits The number of bits of the mask
+   * @return An array of the form [r, r_0, r_1, ..., r_{noOfBits - 1}]
+   */
+  DRes<List<DRes<SInt>>> getRandomBitMask(int noOfBits);
+
+  /**
+   * Returns a truncation pair of the form (r, r &gt;&gt; shifts), where r is a uniformly random value
+   * of noOfBits bits.
+   *
+   * <p>Truncation pairs allow a value to be truncated by opening it masked by r only once, without
+   * using the bits of r online.</p>
+   *
+   * @param noOfBits The number of bits of r
+   * @param shifts The number of positions r is shifted in the second value of the pair
+   * @return A pair of the form (r, r &gt;&gt; shifts)
+   */
+  DRes<Pair<DRes<SInt>, DRes<SInt>>> getTruncationPair(int noOfBits, int shifts);
+
 }
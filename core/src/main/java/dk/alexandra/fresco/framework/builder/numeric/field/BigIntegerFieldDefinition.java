@@ -94,4 +94,14 @@ public final class BigIntegerFieldDefinition implements FieldDefinition {
   public List<FieldElement> deserializeList(byte[] bytes) {
     return utils.deserializeList(bytes);
   }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return BigIntegerFieldElementVector.create(this, modulus, elements);
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(byte[] bytes) {
+    return BigIntegerFieldElementVector.deserialize(this, modulus, bytes);
+  }
 }
@@ -14,7 +14,7 @@ final class BigIntegerFieldElement implements FieldElement {
   private final BigIntegerModulus modulus;
 
   private BigIntegerFieldElement(BigInteger value, BigIntegerModulus modulus) {
-    this.value = modulus.reduceModThis(value);
+    this.value = value;
     this.modulus = modulus;
   }
 
@@ -23,6 +23,13 @@ final class BigIntegerFieldElement implements FieldElement {
   }
 
   static FieldElement create(BigInteger value, BigIntegerModulus modulus) {
+    return new BigIntegerFieldElement(modulus.reduceModThis(value), modulus);
+  }
+
+  /**
+   * Creates an element from a value which is already reduced modulo the modulus.
+   */
+  static FieldElement createReduced(BigInteger value, BigIntegerModulus modulus) {
     return new BigIntegerFieldElement(value, modulus);
   }
 
@@ -0,0 +1,157 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} for fields defined by a {@link BigIntegerFieldDefinition}.
+ * <p>
+ * As no structure of the modulus is known, reductions use schoolbook long division on the limbs
+ * (Knuth, TAOCP vol. 2, algorithm 4.3.1 D), only keeping the remainder. The modulus is normalized
+ * once when the vector is created. Additions and subtractions never need to reduce, and an inner
+ * product only reduces once.
+ * </p>
+ */
+final class BigIntegerFieldElementVector extends LimbFieldElementVector {
+
+  private static final long MASK = 0xFFFFFFFFL;
+  private final BigIntegerModulus bigModulus;
+  private final int shift;
+  private final int[] normalized;
+
+  private BigIntegerFieldElementVector(FieldDefinition definition, BigIntegerModulus bigModulus,
+      int[] modulus, int shift, int[] normalized, int size, int[] values) {
+    super(definition, modulus, size, values);
+    this.bigModulus = bigModulus;
+    this.shift = shift;
+    this.normalized = normalized;
+  }
+
+  private BigIntegerFieldElementVector(FieldDefinition definition, BigIntegerModulus bigModulus,
+      int[] modulus) {
+    this(definition, bigModulus, modulus, Integer.numberOfLeadingZeros(modulus[modulus.length - 1]),
+        normalize(modulus), 0, new int[0]);
+  }
+
+  static FieldElementVector create(FieldDefinition definition, BigIntegerModulus bigModulus,
+      List<FieldElement> elements) {
+    BigIntegerFieldElementVector empty =
+        new BigIntegerFieldElementVector(definition, bigModulus, modulusLimbs(definition));
+    return empty.create(elements.size(), empty.toLimbs(elements));
+  }
+
+  static FieldElementVector deserialize(FieldDefinition definition, BigIntegerModulus bigModulus,
+      byte[] bytes) {
+    BigIntegerFieldElementVector empty =
+        new BigIntegerFieldElementVector(definition, bigModulus, modulusLimbs(definition));
+    int[] values = empty.readLimbs(bytes);
+    return empty.create(values.length / empty.limbs, values);
+  }
+
+  private static int[] modulusLimbs(FieldDefinition definition) {
+    BigInteger modulus = definition.getModulus();
+    int limbs = limbsFor(modulus.bitLength());
+    int[] result = new int[limbs];
+    writeLimbs(modulus, result, 0, limbs);
+    return result;
+  }
+
+  /**
+   * Shifts the modulus left such that the most significant bit of its top limb is set.
+   */
+  private static int[] normalize(int[] modulus) {
+    int shift = Integer.numberOfLeadingZeros(modulus[modulus.length - 1]);
+    int[] result = new int[modulus.length];
+    for (int i = modulus.length - 1; i > 0; i--) {
+      result[i] = shift == 0
+          ? modulus[i]
+          : (modulus[i] << shift) | (modulus[i - 1] >>> (32 - shift));
+    }
+    result[0] = modulus[0] << shift;
+    return result;
+  }
+
+  @Override
+  LimbFieldElementVector create(int size, int[] values) {
+    return new BigIntegerFieldElementVector(definition, bigModulus, modulus, shift, normalized,
+        size, values);
+  }
+
+  @Override
+  FieldElement createElement(BigInteger value) {
+    return BigIntegerFieldElement.createReduced(value, bigModulus);
+  }
+
+  @Override
+  void reduce(int[] wide, int wideLimbs, int[] out, int outOffset) {
+    int length = wideLimbs;
+    while (length > 0 && wide[length - 1] == 0) {
+      length--;
+    }
+    if (limbs == 1) {
+      long divisor = modulus[0] & MASK;
+      long remainder = 0;
+      for (int i = length - 1; i >= 0; i--) {
+        remainder = Long.remainderUnsigned((remainder << 32) | (wide[i] & MASK), divisor);
+      }
+      out[outOffset] = (int) remainder;
+      return;
+    }
+    if (length < limbs) {
+      System.arraycopy(wide, 0, out, outOffset, length);
+      for (int i = length; i < limbs; i++) {
+        out[outOffset + i] = 0;
+      }
+      return;
+    }
+    // Normalize the dividend by the same shift as the modulus, using the spare limb
+    wide[length] = shift == 0 ? 0 : wide[length - 1] >>> (32 - shift);
+    for (int i = length - 1; i > 0; i--) {
+      wide[i] = shift == 0 ? wide[i] : (wide[i] << shift) | (wide[i - 1] >>> (32 - shift));
+    }
+    wide[0] <<= shift;
+    long top = normalized[limbs - 1] & MASK;
+    long next = normalized[limbs - 2] & MASK;
+    for (int j = length - limbs; j >= 0; j--) {
+      // Estimate the next quotient limb from the top two limbs and correct it by at most two
+      long numerator = ((wide[j + limbs] & MASK) << 32) | (wide[j + limbs - 1] & MASK);
+      long quotient = Long.divideUnsigned(numerator, top);
+      long remainder = Long.remainderUnsigned(numerator, top);
+      while (quotient > MASK || Long.compareUnsigned(quotient * next,
+          (remainder << 32) | (wide[j + limbs - 2] & MASK)) > 0) {
+        quotient--;
+        remainder += top;
+        if (remainder > MASK) {
+          break;
+        }
+      }
+      // Subtract quotient times the modulus from the current window of the dividend
+      long borrow = 0;
+      for (int i = 0; i < limbs; i++) {
+        long product = quotient * (normalized[i] & MASK);
+        long difference = (wide[i + j] & MASK) - borrow - (product & MASK);
+        wide[i + j] = (int) difference;
+        borrow = (product >>> 32) - (difference >> 32);
+      }
+      long difference = (wide[j + limbs] & MASK) - borrow;
+      wide[j + limbs] = (int) difference;
+      if (difference < 0) {
+        // The estimate was one too large, add the modulus back
+        long carry = 0;
+        for (int i = 0; i < limbs; i++) {
+          long sum = (wide[i + j] & MASK) + (normalized[i] & MASK) + carry;
+          wide[i + j] = (int) sum;
+          carry = sum >>> 32;
+        }
+        wide[j + limbs] += (int) carry;
+      }
+    }
+    // Undo the normalization of the remainder
+    for (int i = 0; i < limbs - 1; i++) {
+      out[outOffset + i] = shift == 0
+          ? wide[i]
+          : (wide[i] >>> shift) | (wide[i + 1] << (32 - shift));
+    }
+    out[outOffset + limbs - 1] = wide[limbs - 1] >>> shift;
+  }
+}
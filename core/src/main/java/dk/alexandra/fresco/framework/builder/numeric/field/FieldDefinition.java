@@ -3,6 +3,7 @@ package dk.alexandra.fresco.framework.builder.numeric.field;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Describes a finite field.
@@ -85,5 +86,29 @@ public interface FieldDefinition extends ByteSerializer<FieldElement> {
    *     close to modulus
    */
   BigInteger convertToSigned(BigInteger asUnsigned);
-}
 
+  /**
+   * Creates a vector of field elements supporting bulk arithmetic.
+   * <p>
+   * The default implementation simply keeps the elements in a list. Field definitions should
+   * override this with a vector storing the elements in primitive arrays.
+   * </p>
+   *
+   * @param elements the elements of the vector
+   * @return the vector
+   */
+  default FieldElementVector createVector(List<FieldElement> elements) {
+    return new ListFieldElementVector(this, elements);
+  }
+
+  /**
+   * Reads a vector of field elements serialized by {@link #serialize(List)} or {@link
+   * FieldElementVector#serialize()}.
+   *
+   * @param bytes the serialized elements
+   * @return the vector
+   */
+  default FieldElementVector deserializeVector(byte[] bytes) {
+    return createVector(deserializeList(bytes));
+  }
+}
@@ -0,0 +1,87 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.List;
+
+/**
+ * A vector of elements of the same finite field, defined by a {@link FieldDefinition}.
+ * <p>
+ * Implementations store the elements contiguously in primitive arrays rather than as one object
+ * per element, so bulk arithmetic does not allocate an object per element and an inner product
+ * only has to reduce once. Vectors are immutable, all operations return a new vector. Vectors are
+ * created through {@link FieldDefinition#createVector(List)} or {@link
+ * FieldDefinition#deserializeVector(byte[])} and can only be combined with vectors of the same
+ * size created by the same field definition.
+ * </p>
+ */
+public interface FieldElementVector {
+
+  /**
+   * Gets the number of elements in this vector.
+   *
+   * @return the size
+   */
+  int size();
+
+  /**
+   * Gets a single element of this vector.
+   *
+   * @param index the index of the element
+   * @return the element
+   */
+  FieldElement get(int index);
+
+  /**
+   * Converts this vector to a list of field elements.
+   *
+   * @return the elements of this vector
+   */
+  List<FieldElement> toList();
+
+  /**
+   * Computes the entry-wise sum of this and another vector.
+   *
+   * @param other operand
+   * @return <code>this + other</code>
+   */
+  FieldElementVector add(FieldElementVector other);
+
+  /**
+   * Computes the entry-wise difference of this and another vector.
+   *
+   * @param other operand
+   * @return <code>this - other</code>
+   */
+  FieldElementVector subtract(FieldElementVector other);
+
+  /**
+   * Computes the entry-wise product of this and another vector.
+   *
+   * @param other operand
+   * @return <code>this * other</code>
+   */
+  FieldElementVector multiply(FieldElementVector other);
+
+  /**
+   * Multiplies each entry of this vector by a scalar.
+   *
+   * @param scalar the scalar
+   * @return <code>scalar * this</code>
+   */
+  FieldElementVector scale(FieldElement scalar);
+
+  /**
+   * Computes the inner product of this and another vector.
+   *
+   * @param other operand
+   * @return the sum of the entry-wise products
+   */
+  FieldElement innerProduct(FieldElementVector other);
+
+  /**
+   * Serializes this vector in the same format as {@link FieldDefinition#serialize(List)}. The
+   * bytes are written directly from the underlying storage.
+   *
+   * @return the serialized elements
+   */
+  byte[] serialize();
+}
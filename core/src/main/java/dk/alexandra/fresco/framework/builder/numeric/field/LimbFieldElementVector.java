@@ -0,0 +1,341 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.math.BigInteger;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A {@link FieldElementVector} storing all elements in a single int array.
+ * <p>
+ * Each element is stored as a fixed number of 32 bit limbs, least significant limb first, and is
+ * always fully reduced. Addition and subtraction work directly on the limbs. Multiplication
+ * computes the full product on the limbs and leaves the reduction to the subclass, which knows the
+ * structure of the modulus. The inner product accumulates the unreduced products and only reduces
+ * the final sum. Elements are only created when they are read, and {@link #toList()} is a view of
+ * the limbs.
+ * </p>
+ */
+abstract class LimbFieldElementVector implements FieldElementVector {
+
+  private static final long MASK = 0xFFFFFFFFL;
+  final FieldDefinition definition;
+  final int[] modulus;
+  final int limbs;
+  private final int byteLength;
+  private final int size;
+  private final int[] values;
+
+  /**
+   * Creates a new vector.
+   *
+   * @param definition the field definition creating the elements
+   * @param modulus the limbs of the modulus
+   * @param size the number of elements
+   * @param values the limbs of the elements, the array is not copied
+   */
+  LimbFieldElementVector(FieldDefinition definition, int[] modulus, int size, int[] values) {
+    this.definition = definition;
+    this.modulus = modulus;
+    this.limbs = modulus.length;
+    this.byteLength = 1 + (definition.getBitLength() - 1) / 8;
+    this.size = size;
+    this.values = values;
+  }
+
+  /**
+   * Creates a new vector over the same field.
+   *
+   * @param size the number of elements
+   * @param values the limbs of the elements
+   * @return the new vector
+   */
+  abstract LimbFieldElementVector create(int size, int[] values);
+
+  /**
+   * Reduces a value of any length modulo the modulus.
+   *
+   * @param wide the limbs of the value to reduce followed by at least one spare limb, may be
+   *     overwritten
+   * @param wideLimbs the number of limbs of the value, not counting the spare limb
+   * @param out the array to write the reduced value to
+   * @param outOffset the offset of the reduced value in <code>out</code>
+   */
+  abstract void reduce(int[] wide, int wideLimbs, int[] out, int outOffset);
+
+  /**
+   * Creates an element from a value which is already reduced modulo the modulus.
+   *
+   * @param value the reduced value
+   * @return the element
+   */
+  FieldElement createElement(BigInteger value) {
+    return definition.createElement(value);
+  }
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    if (index < 0 || index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + size);
+    }
+    return createElement(toBigInteger(values, index * limbs, limbs));
+  }
+
+  @Override
+  public List<FieldElement> toList() {
+    return new ElementList();
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    int[] otherValues = valuesOf(other);
+    int[] result = new int[values.length];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      long carry = 0;
+      for (int j = offset; j < offset + limbs; j++) {
+        long sum = (values[j] & MASK) + (otherValues[j] & MASK) + carry;
+        result[j] = (int) sum;
+        carry = sum >>> 32;
+      }
+      if (carry != 0 || compare(result, offset, modulus) >= 0) {
+        subtractModulus(result, offset);
+      }
+    }
+    return create(size, result);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    int[] otherValues = valuesOf(other);
+    int[] result = new int[values.length];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      long borrow = 0;
+      for (int j = offset; j < offset + limbs; j++) {
+        long difference = (values[j] & MASK) - (otherValues[j] & MASK) - borrow;
+        result[j] = (int) difference;
+        borrow = difference >>> 63;
+      }
+      if (borrow != 0) {
+        addModulus(result, offset);
+      }
+    }
+    return create(size, result);
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    int[] otherValues = valuesOf(other);
+    int[] result = new int[values.length];
+    int[] product = new int[2 * limbs + 1];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      Arrays.fill(product, 0);
+      multiplyAdd(values, offset, otherValues, offset, product);
+      reduce(product, 2 * limbs, result, offset);
+    }
+    return create(size, result);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    int[] scalarLimbs = new int[limbs];
+    writeLimbs(scalar.toBigInteger().mod(definition.getModulus()), scalarLimbs, 0, limbs);
+    int[] result = new int[values.length];
+    int[] product = new int[2 * limbs + 1];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      Arrays.fill(product, 0);
+      multiplyAdd(values, offset, scalarLimbs, 0, product);
+      reduce(product, 2 * limbs, result, offset);
+    }
+    return create(size, result);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    int[] otherValues = valuesOf(other);
+    // Two extra limbs allow accumulating up to 2^64 products without overflow
+    int[] accumulator = new int[2 * limbs + 3];
+    for (int offset = 0; offset < values.length; offset += limbs) {
+      multiplyAdd(values, offset, otherValues, offset, accumulator);
+    }
+    int[] result = new int[limbs];
+    reduce(accumulator, 2 * limbs + 2, result, 0);
+    return createElement(toBigInteger(result, 0, limbs));
+  }
+
+  @Override
+  public byte[] serialize() {
+    byte[] bytes = new byte[size * byteLength];
+    for (int i = 0; i < size; i++) {
+      int offset = i * limbs;
+      int end = (i + 1) * byteLength - 1;
+      for (int j = 0; j < byteLength; j++) {
+        bytes[end - j] = (byte) (values[offset + j / 4] >>> (8 * (j % 4)));
+      }
+    }
+    return bytes;
+  }
+
+  /**
+   * Reads serialized elements into limbs, reducing any element that is not smaller than the
+   * modulus.
+   *
+   * @param bytes the serialized elements
+   * @return the limbs of the elements
+   */
+  int[] readLimbs(byte[] bytes) {
+    int count = bytes.length / byteLength;
+    int[] result = new int[count * limbs];
+    int[] element = new int[limbs + 1];
+    for (int i = 0; i < count; i++) {
+      int offset = i * limbs;
+      int end = (i + 1) * byteLength - 1;
+      for (int j = 0; j < byteLength; j++) {
+        result[offset + j / 4] |= (bytes[end - j] & 0xFF) << (8 * (j % 4));
+      }
+      if (compare(result, offset, modulus) >= 0) {
+        System.arraycopy(result, offset, element, 0, limbs);
+        reduce(element, limbs, result, offset);
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Converts elements to limbs.
+   *
+   * @param elements the elements
+   * @return the limbs of the elements
+   */
+  int[] toLimbs(List<FieldElement> elements) {
+    int[] result = new int[elements.size() * limbs];
+    int offset = 0;
+    for (FieldElement element : elements) {
+      BigInteger value = element.toBigInteger();
+      if (value.signum() < 0 || value.compareTo(definition.getModulus()) >= 0) {
+        value = value.mod(definition.getModulus());
+      }
+      writeLimbs(value, result, offset, limbs);
+      offset += limbs;
+    }
+    return result;
+  }
+
+  private int[] valuesOf(FieldElementVector other) {
+    if (!(other instanceof LimbFieldElementVector)
+        || ((LimbFieldElementVector) other).definition != definition) {
+      throw new IllegalArgumentException("Vectors must be created by the same field definition");
+    }
+    if (other.size() != size) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + size + " and " + other.size());
+    }
+    return ((LimbFieldElementVector) other).values;
+  }
+
+  /**
+   * An unmodifiable view of the elements of this vector.
+   */
+  private class ElementList extends AbstractList<FieldElement> implements RandomAccess {
+
+    @Override
+    public FieldElement get(int index) {
+      return LimbFieldElementVector.this.get(index);
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+  }
+
+  private int compare(int[] value, int offset, int[] other) {
+    for (int j = limbs - 1; j >= 0; j--) {
+      int comparison = Integer.compareUnsigned(value[offset + j], other[j]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private void subtractModulus(int[] value, int offset) {
+    long borrow = 0;
+    for (int j = 0; j < limbs; j++) {
+      long difference = (value[offset + j] & MASK) - (modulus[j] & MASK) - borrow;
+      value[offset + j] = (int) difference;
+      borrow = difference >>> 63;
+    }
+  }
+
+  private void addModulus(int[] value, int offset) {
+    long carry = 0;
+    for (int j = 0; j < limbs; j++) {
+      long sum = (value[offset + j] & MASK) + (modulus[j] & MASK) + carry;
+      value[offset + j] = (int) sum;
+      carry = sum >>> 32;
+    }
+  }
+
+  /**
+   * Adds the product of two elements to an accumulator of at least <code>2 * limbs</code> limbs.
+   */
+  private void multiplyAdd(int[] a, int aOffset, int[] b, int bOffset, int[] accumulator) {
+    for (int i = 0; i < limbs; i++) {
+      long left = a[aOffset + i] & MASK;
+      if (left == 0) {
+        continue;
+      }
+      long carry = 0;
+      for (int j = 0; j < limbs; j++) {
+        long product = left * (b[bOffset + j] & MASK) + (accumulator[i + j] & MASK) + carry;
+        accumulator[i + j] = (int) product;
+        carry = product >>> 32;
+      }
+      for (int k = i + limbs; carry != 0 && k < accumulator.length; k++) {
+        long sum = (accumulator[k] & MASK) + carry;
+        accumulator[k] = (int) sum;
+        carry = sum >>> 32;
+      }
+    }
+  }
+
+  /**
+   * Writes a non-negative value as limbs.
+   */
+  static void writeLimbs(BigInteger value, int[] out, int offset, int limbs) {
+    Arrays.fill(out, offset, offset + limbs, 0);
+    byte[] bytes = value.toByteArray();
+    for (int j = 0; j < Math.min(bytes.length, 4 * limbs); j++) {
+      out[offset + j / 4] |= (bytes[bytes.length - 1 - j] & 0xFF) << (8 * (j % 4));
+    }
+  }
+
+  /**
+   * Reads a non-negative value from limbs.
+   */
+  static BigInteger toBigInteger(int[] value, int offset, int limbs) {
+    byte[] bytes = new byte[4 * limbs];
+    for (int j = 0; j < limbs; j++) {
+      int limb = value[offset + j];
+      int end = bytes.length - 1 - 4 * j;
+      bytes[end] = (byte) limb;
+      bytes[end - 1] = (byte) (limb >>> 8);
+      bytes[end - 2] = (byte) (limb >>> 16);
+      bytes[end - 3] = (byte) (limb >>> 24);
+    }
+    return new BigInteger(1, bytes);
+  }
+
+  /**
+   * Computes the number of limbs needed for values of the given bit length.
+   */
+  static int limbsFor(int bitLength) {
+    return (bitLength + 31) / 32;
+  }
+}
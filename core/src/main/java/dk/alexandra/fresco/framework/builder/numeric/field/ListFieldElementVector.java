@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} backed by a list of field elements. This is used for field
+ * definitions that do not provide a specialized vector.
+ */
+final class ListFieldElementVector implements FieldElementVector {
+
+  private final FieldDefinition definition;
+  private final List<FieldElement> elements;
+
+  ListFieldElementVector(FieldDefinition definition, List<FieldElement> elements) {
+    this.definition = definition;
+    this.elements = Collections.unmodifiableList(new ArrayList<>(elements));
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return elements.get(index);
+  }
+
+  @Override
+  public List<FieldElement> toList() {
+    return elements;
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    checkSize(other);
+    List<FieldElement> result = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      result.add(elements.get(i).add(other.get(i)));
+    }
+    return new ListFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    checkSize(other);
+    List<FieldElement> result = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      result.add(elements.get(i).subtract(other.get(i)));
+    }
+    return new ListFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    checkSize(other);
+    List<FieldElement> result = new ArrayList<>(size());
+    for (int i = 0; i < size(); i++) {
+      result.add(elements.get(i).multiply(other.get(i)));
+    }
+    return new ListFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    List<FieldElement> result = new ArrayList<>(size());
+    for (FieldElement element : elements) {
+      result.add(element.multiply(scalar));
+    }
+    return new ListFieldElementVector(definition, result);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    checkSize(other);
+    FieldElement result = definition.createElement(0);
+    for (int i = 0; i < size(); i++) {
+      result = result.add(elements.get(i).multiply(other.get(i)));
+    }
+    return result;
+  }
+
+  @Override
+  public byte[] serialize() {
+    return definition.serialize(elements);
+  }
+
+  private void checkSize(FieldElementVector other) {
+    if (other.size() != size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + size() + " and " + other.size());
+    }
+  }
+}
@@ -0,0 +1,150 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Defines a field for an odd prime modulus smaller than <i>2<sup>63</sup></i>.
+ * <p>
+ * Elements are backed by a primitive long and use Montgomery reduction, so unlike {@link
+ * BigIntegerFieldDefinition} no {@link BigInteger} is allocated when adding or multiplying. The
+ * serialization is the same as for the other field definitions, i.e., each element is written as
+ * a fixed length big-endian number of as many bytes as the modulus, but is computed directly from
+ * the long values.
+ * </p>
+ */
+public final class LongFieldDefinition implements FieldDefinition {
+
+  private final LongModulus modulus;
+  private final BigInteger modulusHalf;
+  private final int modulusBitLength;
+  private final int modulusLength;
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be an odd prime less than 2<sup>63</sup>
+   */
+  public LongFieldDefinition(BigInteger modulus) {
+    this.modulus = new LongModulus(modulus);
+    this.modulusHalf = modulus.shiftRight(1);
+    this.modulusBitLength = modulus.bitLength();
+    this.modulusLength = 1 + ((modulusBitLength - 1) / 8);
+  }
+
+  /**
+   * Construct a new field definition for a specified modulus.
+   *
+   * @param modulus the modulus, must be an odd prime less than 2<sup>63</sup>
+   */
+  public LongFieldDefinition(long modulus) {
+    this(BigInteger.valueOf(modulus));
+  }
+
+  @Override
+  public FieldElement createElement(long value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(String value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public FieldElement createElement(BigInteger value) {
+    return LongFieldElement.create(value, modulus);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return modulus.getBigInteger();
+  }
+
+  @Override
+  public int getBitLength() {
+    return modulusBitLength;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    return new StrictBitVector(serialize(fieldElement));
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return value.toBigInteger();
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    return FieldUtils.convertRepresentation(asUnsigned, getModulus(), modulusHalf);
+  }
+
+  @Override
+  public byte[] serialize(FieldElement fieldElement) {
+    byte[] bytes = new byte[modulusLength];
+    write(fieldElement, bytes, 0);
+    return bytes;
+  }
+
+  @Override
+  public byte[] serialize(List<FieldElement> fieldElements) {
+    byte[] bytes = new byte[modulusLength * fieldElements.size()];
+    int offset = 0;
+    for (FieldElement fieldElement : fieldElements) {
+      write(fieldElement, bytes, offset);
+      offset += modulusLength;
+    }
+    return bytes;
+  }
+
+  @Override
+  public FieldElement deserialize(byte[] bytes) {
+    return read(bytes, 0);
+  }
+
+  @Override
+  public List<FieldElement> deserializeList(byte[] bytes) {
+    List<FieldElement> elements = new ArrayList<>(bytes.length / modulusLength);
+    for (int offset = 0; offset < bytes.length; offset += modulusLength) {
+      elements.add(read(bytes, offset));
+    }
+    return elements;
+  }
+
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return LongFieldElementVector.create(this, modulus, elements);
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(byte[] bytes) {
+    return LongFieldElementVector.deserialize(this, modulus, bytes);
+  }
+
+  private void write(FieldElement fieldElement, byte[] bytes, int offset) {
+    long value = toLong(fieldElement);
+    for (int i = offset + modulusLength - 1; i >= offset; i--) {
+      bytes[i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private FieldElement read(byte[] bytes, int offset) {
+    long value = 0;
+    for (int i = offset; i < offset + modulusLength; i++) {
+      value = (value << 8) | (bytes[i] & 0xFF);
+    }
+    return LongFieldElement.create(value, modulus);
+  }
+
+  private long toLong(FieldElement fieldElement) {
+    if (fieldElement instanceof LongFieldElement) {
+      return ((LongFieldElement) fieldElement).toLong();
+    }
+    return fieldElement.toBigInteger().mod(getModulus()).longValue();
+  }
+}
@@ -0,0 +1,113 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import dk.alexandra.fresco.framework.util.MathUtils;
+import java.math.BigInteger;
+
+/**
+ * An element in a field defined by a {@link LongModulus}. The value is stored in Montgomery form as
+ * a primitive long.
+ */
+final class LongFieldElement implements FieldElement {
+
+  private static final long serialVersionUID = 3459473846151429468L;
+
+  private final long value;
+  private final LongModulus modulus;
+
+  private LongFieldElement(long value, LongModulus modulus) {
+    this.value = value;
+    this.modulus = modulus;
+  }
+
+  private FieldElement create(long montgomeryValue) {
+    return new LongFieldElement(montgomeryValue, modulus);
+  }
+
+  static FieldElement create(BigInteger value, LongModulus modulus) {
+    return new LongFieldElement(modulus.toMontgomery(value), modulus);
+  }
+
+  static FieldElement create(long value, LongModulus modulus) {
+    return new LongFieldElement(modulus.toMontgomery(value), modulus);
+  }
+
+  static FieldElement create(String string, LongModulus modulus) {
+    return create(new BigInteger(string), modulus);
+  }
+
+  /**
+   * Creates an element from a value in Montgomery form.
+   */
+  static FieldElement fromMontgomery(long montgomeryValue, LongModulus modulus) {
+    return new LongFieldElement(montgomeryValue, modulus);
+  }
+
+  /**
+   * Gets the value of this element in Montgomery form.
+   */
+  long getMontgomeryValue() {
+    return value;
+  }
+
+  /**
+   * Gets the value of this element in the range <i>0, ..., p - 1</i>.
+   */
+  long toLong() {
+    return modulus.fromMontgomery(value);
+  }
+
+  private long montgomeryValue(FieldElement operand) {
+    if (operand instanceof LongFieldElement) {
+      return ((LongFieldElement) operand).value;
+    }
+    return modulus.toMontgomery(operand.toBigInteger());
+  }
+
+  @Override
+  public FieldElement add(FieldElement operand) {
+    return create(modulus.add(value, montgomeryValue(operand)));
+  }
+
+  @Override
+  public FieldElement subtract(FieldElement operand) {
+    return create(modulus.subtract(value, montgomeryValue(operand)));
+  }
+
+  @Override
+  public FieldElement negate() {
+    return create(modulus.negate(value));
+  }
+
+  @Override
+  public FieldElement multiply(FieldElement operand) {
+    return create(modulus.multiply(value, montgomeryValue(operand)));
+  }
+
+  @Override
+  public FieldElement sqrt() {
+    return create(MathUtils.modularSqrt(toBigInteger(), modulus.getBigInteger()), modulus);
+  }
+
+  @Override
+  public FieldElement modInverse() {
+    return create(toBigInteger().modInverse(modulus.getBigInteger()), modulus);
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return BigInteger.valueOf(toLong());
+  }
+
+  @Override
+  public String toString() {
+    return "LongFieldElement{"
+        + "value=" + toLong()
+        + ", modulus=" + modulus
+        + '}';
+  }
+}
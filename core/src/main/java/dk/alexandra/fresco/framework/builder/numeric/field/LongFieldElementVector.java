@@ -0,0 +1,148 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} for fields defined by a {@link LongFieldDefinition}. The elements
+ * are stored in Montgomery form in a single long array.
+ */
+final class LongFieldElementVector implements FieldElementVector {
+
+  private final LongFieldDefinition definition;
+  private final LongModulus modulus;
+  private final int byteLength;
+  private final long[] values;
+
+  private LongFieldElementVector(LongFieldDefinition definition, LongModulus modulus,
+      long[] values) {
+    this.definition = definition;
+    this.modulus = modulus;
+    this.byteLength = 1 + (definition.getBitLength() - 1) / 8;
+    this.values = values;
+  }
+
+  static FieldElementVector create(LongFieldDefinition definition, LongModulus modulus,
+      List<FieldElement> elements) {
+    long[] values = new long[elements.size()];
+    int i = 0;
+    for (FieldElement element : elements) {
+      if (element instanceof LongFieldElement) {
+        values[i++] = ((LongFieldElement) element).getMontgomeryValue();
+      } else {
+        values[i++] = modulus.toMontgomery(element.toBigInteger());
+      }
+    }
+    return new LongFieldElementVector(definition, modulus, values);
+  }
+
+  static FieldElementVector deserialize(LongFieldDefinition definition, LongModulus modulus,
+      byte[] bytes) {
+    int byteLength = 1 + (definition.getBitLength() - 1) / 8;
+    long[] values = new long[bytes.length / byteLength];
+    for (int i = 0; i < values.length; i++) {
+      long value = 0;
+      for (int j = i * byteLength; j < (i + 1) * byteLength; j++) {
+        value = (value << 8) | (bytes[j] & 0xFF);
+      }
+      values[i] = modulus.toMontgomery(value);
+    }
+    return new LongFieldElementVector(definition, modulus, values);
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  @Override
+  public FieldElement get(int index) {
+    return LongFieldElement.fromMontgomery(values[index], modulus);
+  }
+
+  @Override
+  public List<FieldElement> toList() {
+    List<FieldElement> elements = new ArrayList<>(values.length);
+    for (long value : values) {
+      elements.add(LongFieldElement.fromMontgomery(value, modulus));
+    }
+    return elements;
+  }
+
+  @Override
+  public FieldElementVector add(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.add(values[i], otherValues[i]);
+    }
+    return new LongFieldElementVector(definition, modulus, result);
+  }
+
+  @Override
+  public FieldElementVector subtract(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.subtract(values[i], otherValues[i]);
+    }
+    return new LongFieldElementVector(definition, modulus, result);
+  }
+
+  @Override
+  public FieldElementVector multiply(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.multiply(values[i], otherValues[i]);
+    }
+    return new LongFieldElementVector(definition, modulus, result);
+  }
+
+  @Override
+  public FieldElementVector scale(FieldElement scalar) {
+    long factor = scalar instanceof LongFieldElement
+        ? ((LongFieldElement) scalar).getMontgomeryValue()
+        : modulus.toMontgomery(scalar.toBigInteger());
+    long[] result = new long[values.length];
+    for (int i = 0; i < values.length; i++) {
+      result[i] = modulus.multiply(values[i], factor);
+    }
+    return new LongFieldElementVector(definition, modulus, result);
+  }
+
+  @Override
+  public FieldElement innerProduct(FieldElementVector other) {
+    long[] otherValues = valuesOf(other);
+    long result = 0;
+    for (int i = 0; i < values.length; i++) {
+      result = modulus.add(result, modulus.multiply(values[i], otherValues[i]));
+    }
+    return LongFieldElement.fromMontgomery(result, modulus);
+  }
+
+  @Override
+  public byte[] serialize() {
+    byte[] bytes = new byte[values.length * byteLength];
+    for (int i = 0; i < values.length; i++) {
+      long value = modulus.fromMontgomery(values[i]);
+      for (int j = (i + 1) * byteLength - 1; j >= i * byteLength; j--) {
+        bytes[j] = (byte) value;
+        value >>>= 8;
+      }
+    }
+    return bytes;
+  }
+
+  private long[] valuesOf(FieldElementVector other) {
+    if (!(other instanceof LongFieldElementVector)
+        || ((LongFieldElementVector) other).definition != definition) {
+      throw new IllegalArgumentException("Vectors must be created by the same field definition");
+    }
+    if (other.size() != values.length) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + values.length + " and " + other.size());
+    }
+    return ((LongFieldElementVector) other).values;
+  }
+}
@@ -0,0 +1,155 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.io.Serializable;
+import java.math.BigInteger;
+
+/**
+ * An odd modulus smaller than <i>2<sup>63</sup></i> supporting Montgomery arithmetic on primitive
+ * longs.
+ * <p>
+ * Values are kept in Montgomery form, i.e., the value <i>x</i> is represented as <i>xR mod p</i>
+ * for <i>R = 2<sup>64</sup></i>. Addition and subtraction are done directly on the representation,
+ * while a multiplication is a 64 by 64 bit multiplication followed by a single Montgomery
+ * reduction. None of the operations allocate any objects.
+ * </p>
+ */
+final class LongModulus implements Serializable {
+
+  private static final long serialVersionUID = -2883521476624436517L;
+  private static final long LOW_MASK = 0xFFFFFFFFL;
+  private final long prime;
+  private final BigInteger bigPrime;
+  // -p^{-1} mod 2^64
+  private final long negInverse;
+  // R^2 mod p
+  private final long rSquared;
+
+  /**
+   * Creates a new modulus.
+   *
+   * @param prime the modulus, must be odd, larger than one and smaller than 2<sup>63</sup>
+   */
+  LongModulus(BigInteger prime) {
+    if (prime.bitLength() > 63) {
+      throw new IllegalArgumentException("Modulus must be less than 2^63, was " + prime);
+    }
+    if (prime.compareTo(BigInteger.ONE) <= 0 || !prime.testBit(0)) {
+      throw new IllegalArgumentException("Modulus must be odd and larger than one, was " + prime);
+    }
+    this.prime = prime.longValue();
+    this.bigPrime = prime;
+    long inverse = this.prime;
+    // Newton iteration, each step doubles the number of correct low bits (starting from three)
+    for (int i = 0; i < 5; i++) {
+      inverse *= 2 - this.prime * inverse;
+    }
+    this.negInverse = -inverse;
+    this.rSquared = BigInteger.ONE.shiftLeft(128).mod(prime).longValue();
+  }
+
+  /**
+   * Gets the modulus as a long.
+   */
+  long getPrime() {
+    return prime;
+  }
+
+  /**
+   * Gets the modulus as a BigInteger.
+   */
+  BigInteger getBigInteger() {
+    return bigPrime;
+  }
+
+  /**
+   * Converts a value to Montgomery form.
+   *
+   * @param value any value
+   * @return the Montgomery form of <code>value mod p</code>
+   */
+  long toMontgomery(long value) {
+    long reduced = value % prime;
+    if (reduced < 0) {
+      reduced += prime;
+    }
+    return multiply(reduced, rSquared);
+  }
+
+  /**
+   * Converts a value to Montgomery form.
+   *
+   * @param value any value
+   * @return the Montgomery form of <code>value mod p</code>
+   */
+  long toMontgomery(BigInteger value) {
+    return multiply(value.mod(bigPrime).longValue(), rSquared);
+  }
+
+  /**
+   * Converts a value in Montgomery form back to its normal representation.
+   *
+   * @param value a value in Montgomery form
+   * @return the value in the range <i>0, ..., p - 1</i>
+   */
+  long fromMontgomery(long value) {
+    return reduce(0, value);
+  }
+
+  long add(long a, long b) {
+    long sum = a + b;
+    // a + b < 2^64, so the sum is correct when seen as unsigned
+    return Long.compareUnsigned(sum, prime) >= 0 ? sum - prime : sum;
+  }
+
+  long subtract(long a, long b) {
+    long difference = a - b;
+    return difference < 0 ? difference + prime : difference;
+  }
+
+  long negate(long a) {
+    return a == 0 ? 0 : prime - a;
+  }
+
+  /**
+   * Multiplies two values in Montgomery form.
+   *
+   * @return the Montgomery form of the product
+   */
+  long multiply(long a, long b) {
+    return reduce(unsignedMultiplyHigh(a, b), a * b);
+  }
+
+  /**
+   * Montgomery reduction of <i>T = high * 2<sup>64</sup> + low</i> for <i>T &lt; p * R</i>.
+   *
+   * @return <i>T R<sup>-1</sup> mod p</i>
+   */
+  private long reduce(long high, long low) {
+    long m = low * negInverse;
+    // T + m * p is divisible by R, and the low words sum to zero with a carry unless T is zero
+    long result = high + unsignedMultiplyHigh(m, prime) + (low != 0 ? 1 : 0);
+    return Long.compareUnsigned(result, prime) >= 0 ? result - prime : result;
+  }
+
+  /**
+   * Computes the upper 64 bits of the unsigned 128 bit product of two longs.
+   */
+  static long unsignedMultiplyHigh(long a, long b) {
+    long aLow = a & LOW_MASK;
+    long aHigh = a >>> 32;
+    long bLow = b & LOW_MASK;
+    long bHigh = b >>> 32;
+    long lowLow = aLow * bLow;
+    long highLow = aHigh * bLow;
+    long lowHigh = aLow * bHigh;
+    long middle = (lowLow >>> 32) + (highLow & LOW_MASK) + (lowHigh & LOW_MASK);
+    return aHigh * bHigh + (highLow >>> 32) + (lowHigh >>> 32) + (middle >>> 32);
+  }
+
+  @Override
+  public String toString() {
+    return "LongModulus{"
+        + "value=" + prime
+        + '}';
+  }
+}
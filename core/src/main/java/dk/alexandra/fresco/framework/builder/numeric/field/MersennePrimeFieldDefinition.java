@@ -19,6 +19,7 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
   private final MersennePrimeModulus modulus;
   private final BigInteger modulusHalf;
   private final int modulusBitLength;
+  private final int constant;
   private final FieldUtils utils;
 
   /**
@@ -31,6 +32,7 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
     this.modulus = new MersennePrimeModulus(bitLength, constant);
     this.modulusHalf = modulus.getPrime().shiftRight(1);
     this.modulusBitLength = bitLength;
+    this.constant = constant;
     this.utils = new FieldUtils(modulusBitLength, this::createElement);
   }
 
@@ -103,6 +105,16 @@ public final class MersennePrimeFieldDefinition implements FieldDefinition {
     return utils.deserializeList(bytes);
   }
 
+  @Override
+  public FieldElementVector createVector(List<FieldElement> elements) {
+    return MersennePrimeFieldElementVector.create(this, modulusBitLength, constant, elements);
+  }
+
+  @Override
+  public FieldElementVector deserializeVector(byte[] bytes) {
+    return MersennePrimeFieldElementVector.deserialize(this, modulusBitLength, constant, bytes);
+  }
+
   private static Map<Integer, Integer> createPrecomputedModuli() {
     return new HashMap<Integer, Integer>() {{
       put(512, 569);
@@ -0,0 +1,122 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link FieldElementVector} for fields defined by a {@link MersennePrimeFieldDefinition}.
+ * <p>
+ * Reductions modulo <i>p = 2<sup>k</sup> - c</i> are done directly on the limbs by repeatedly
+ * replacing <i>x = h 2<sup>k</sup> + l</i> with <i>l + c h</i>.
+ * </p>
+ */
+final class MersennePrimeFieldElementVector extends LimbFieldElementVector {
+
+  private static final long MASK = 0xFFFFFFFFL;
+  private final int bitLength;
+  private final long constant;
+
+  private MersennePrimeFieldElementVector(FieldDefinition definition, int[] modulus, int bitLength,
+      long constant, int size, int[] values) {
+    super(definition, modulus, size, values);
+    this.bitLength = bitLength;
+    this.constant = constant;
+  }
+
+  private MersennePrimeFieldElementVector(FieldDefinition definition, int bitLength,
+      int constant) {
+    this(definition, modulusLimbs(definition), bitLength, constant, 0, new int[0]);
+  }
+
+  static FieldElementVector create(FieldDefinition definition, int bitLength, int constant,
+      List<FieldElement> elements) {
+    MersennePrimeFieldElementVector empty =
+        new MersennePrimeFieldElementVector(definition, bitLength, constant);
+    return empty.create(elements.size(), empty.toLimbs(elements));
+  }
+
+  static FieldElementVector deserialize(FieldDefinition definition, int bitLength, int constant,
+      byte[] bytes) {
+    MersennePrimeFieldElementVector empty =
+        new MersennePrimeFieldElementVector(definition, bitLength, constant);
+    int[] values = empty.readLimbs(bytes);
+    return empty.create(values.length / empty.limbs, values);
+  }
+
+  private static int[] modulusLimbs(FieldDefinition definition) {
+    int limbs = limbsFor(definition.getBitLength());
+    int[] result = new int[limbs];
+    writeLimbs(definition.getModulus(), result, 0, limbs);
+    return result;
+  }
+
+  @Override
+  LimbFieldElementVector create(int size, int[] values) {
+    return new MersennePrimeFieldElementVector(definition, modulus, bitLength, constant, size,
+        values);
+  }
+
+  @Override
+  void reduce(int[] wide, int wideLimbs, int[] out, int outOffset) {
+    int[] current = wide;
+    int length = wideLimbs;
+    int limbShift = bitLength / 32;
+    int bitShift = bitLength % 32;
+    while (bitLength(current, length) > bitLength) {
+      int highLimbs = length - limbShift;
+      int nextLength = Math.max(limbs, highLimbs + 1) + 1;
+      int[] next = new int[nextLength];
+      long carry = 0;
+      for (int i = 0; i < nextLength; i++) {
+        long low = 0;
+        if (i < limbShift) {
+          low = current[i] & MASK;
+        } else if (i == limbShift && bitShift != 0) {
+          low = current[i] & ((1L << bitShift) - 1);
+        }
+        long high = 0;
+        if (i < highLimbs) {
+          high = (current[i + limbShift] & MASK) >>> bitShift;
+          if (bitShift != 0 && i + limbShift + 1 < length) {
+            high |= ((long) current[i + limbShift + 1] << (32 - bitShift)) & MASK;
+          }
+        }
+        long sum = low + constant * high + carry;
+        next[i] = (int) sum;
+        carry = sum >>> 32;
+      }
+      current = next;
+      length = nextLength;
+    }
+    // The value is now less than 2^k = p + c
+    int[] result = Arrays.copyOf(current, limbs);
+    while (compare(result) >= 0) {
+      long borrow = 0;
+      for (int j = 0; j < limbs; j++) {
+        long difference = (result[j] & MASK) - (modulus[j] & MASK) - borrow;
+        result[j] = (int) difference;
+        borrow = difference >>> 63;
+      }
+    }
+    System.arraycopy(result, 0, out, outOffset, limbs);
+  }
+
+  private int compare(int[] value) {
+    for (int j = limbs - 1; j >= 0; j--) {
+      int comparison = Integer.compareUnsigned(value[j], modulus[j]);
+      if (comparison != 0) {
+        return comparison;
+      }
+    }
+    return 0;
+  }
+
+  private static int bitLength(int[] value, int length) {
+    for (int i = length - 1; i >= 0; i--) {
+      if (value[i] != 0) {
+        return 32 * i + 32 - Integer.numberOfLeadingZeros(value[i]);
+      }
+    }
+    return 0;
+  }
+}
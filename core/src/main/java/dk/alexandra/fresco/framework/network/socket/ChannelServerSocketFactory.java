@@ -0,0 +1,51 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.channels.ServerSocketChannel;
+import javax.net.ServerSocketFactory;
+
+/**
+ * A {@link ServerSocketFactory} creating server sockets backed by a {@link ServerSocketChannel}.
+ *
+ * <p>
+ * Sockets accepted by these server sockets are backed by a channel and can later be used with the
+ * {@link SocketChannelNetwork}.
+ * </p>
+ */
+class ChannelServerSocketFactory extends ServerSocketFactory {
+
+  @Override
+  public ServerSocket createServerSocket() throws IOException {
+    return ServerSocketChannel.open().socket();
+  }
+
+  @Override
+  public ServerSocket createServerSocket(int port) throws IOException {
+    return bind(new InetSocketAddress(port), 0);
+  }
+
+  @Override
+  public ServerSocket createServerSocket(int port, int backlog) throws IOException {
+    return bind(new InetSocketAddress(port), backlog);
+  }
+
+  @Override
+  public ServerSocket createServerSocket(int port, int backlog, InetAddress address)
+      throws IOException {
+    return bind(new InetSocketAddress(address, port), backlog);
+  }
+
+  private ServerSocket bind(InetSocketAddress address, int backlog) throws IOException {
+    ServerSocketChannel channel = ServerSocketChannel.open();
+    try {
+      channel.bind(address, backlog);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel.socket();
+  }
+}
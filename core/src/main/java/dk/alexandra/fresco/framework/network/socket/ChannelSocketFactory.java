@@ -0,0 +1,59 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.channels.SocketChannel;
+import javax.net.SocketFactory;
+
+/**
+ * A {@link SocketFactory} creating sockets backed by a {@link SocketChannel}.
+ *
+ * <p>
+ * This allows the {@link Connector} to connect sockets that can later be used with the {@link
+ * SocketChannelNetwork}.
+ * </p>
+ */
+class ChannelSocketFactory extends SocketFactory {
+
+  @Override
+  public Socket createSocket() throws IOException {
+    return SocketChannel.open().socket();
+  }
+
+  @Override
+  public Socket createSocket(String host, int port) throws IOException {
+    return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+  }
+
+  @Override
+  public Socket createSocket(String host, int port, InetAddress localHost, int localPort)
+      throws IOException {
+    return connect(new InetSocketAddress(host, port), new InetSocketAddress(localHost, localPort));
+  }
+
+  @Override
+  public Socket createSocket(InetAddress host, int port) throws IOException {
+    return SocketChannel.open(new InetSocketAddress(host, port)).socket();
+  }
+
+  @Override
+  public Socket createSocket(InetAddress address, int port, InetAddress localAddress,
+      int localPort) throws IOException {
+    return connect(new InetSocketAddress(address, port),
+        new InetSocketAddress(localAddress, localPort));
+  }
+
+  private Socket connect(InetSocketAddress remote, InetSocketAddress local) throws IOException {
+    SocketChannel channel = SocketChannel.open();
+    try {
+      channel.bind(local);
+      channel.connect(remote);
+    } catch (IOException e) {
+      channel.close();
+      throw e;
+    }
+    return channel.socket();
+  }
+}
@@ -0,0 +1,459 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.ValidationUtils;
+import java.io.IOException;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A {@link CloseableNetwork} implementation based on Java's nio {@link SocketChannel} API.
+ *
+ * <p>
+ * In contrast to the {@link SocketNetwork}, which uses two threads per external party, all
+ * channels are handled by a single selector thread. Messages queued for a party are written with a
+ * single gathering write, i.e., all messages queued since the last write are handed to the
+ * operating system in one system call, and incoming data is read through a direct buffer. Receiving
+ * blocks until a message arrives or the channel fails, without polling.
+ * </p>
+ * <p>
+ * The wire format is the same as for the {@link SocketNetwork}: each message is prefixed by an
+ * integer indicating the byte length of the message, and a negative length signals that the
+ * sending party has closed its network.
+ * </p>
+ * <p>
+ * The sockets must be backed by a {@link SocketChannel}. The constructors taking a {@link
+ * NetworkConfiguration} connect the network using a {@link Connector} that creates such sockets.
+ * </p>
+ */
+public class SocketChannelNetwork implements CloseableNetwork {
+
+  private static final Logger logger = LoggerFactory.getLogger(SocketChannelNetwork.class);
+  private static final int READ_BUFFER_SIZE = 1 << 16;
+  private static final int MAX_GATHERED_MESSAGES = 512;
+  private static final byte[] CLOSED = new byte[0];
+  private final BlockingQueue<byte[]> selfQueue;
+  private final NetworkConfiguration conf;
+  private final Map<Integer, Peer> peers;
+  private final Queue<Peer> pendingWrites;
+  private final Selector selector;
+  private final Thread selectorThread;
+  private volatile boolean alive;
+  private volatile boolean closing;
+
+  /**
+   * Creates a network with the given a configuration and a mapping from party ids to sockets.
+   *
+   * <p>
+   * The mapping of party ids to sockets must be consistent with the network configuration. I.e.,
+   * there should be exactly one mapping for each opposing party (but not for the local party).
+   * Also, the sockets must be connected, open and backed by a {@link SocketChannel}.
+   * </p>
+   *
+   * @param conf the network configuration
+   * @param socketMap a mapping from party ids to the socket to be used for communicating with
+   *     the given party.
+   * @throws IllegalArgumentException if {@code socketMap} and {@code conf} are inconsistent or
+   *     the sockets are not open, connected and backed by a channel.
+   */
+  public SocketChannelNetwork(NetworkConfiguration conf, Map<Integer, Socket> socketMap) {
+    Objects.requireNonNull(conf);
+    Objects.requireNonNull(socketMap);
+    for (int i = 1; i < conf.noOfParties() + 1; i++) {
+      if (i == conf.getMyId()) {
+        continue;
+      }
+      if (!socketMap.containsKey(i)) {
+        throw new IllegalArgumentException("Missing socket for P" + i);
+      }
+      Socket s = socketMap.get(i);
+      if (s.isClosed()) {
+        throw new IllegalArgumentException("Closed socket for P" + i);
+      }
+      if (!s.isConnected()) {
+        throw new IllegalArgumentException("Unconnected socket for P" + i);
+      }
+      if (s.getChannel() == null) {
+        throw new IllegalArgumentException("Socket for P" + i + " is not backed by a channel");
+      }
+      ExceptionConverter.safe(() -> {
+        s.setTcpNoDelay(true);
+        return null;
+      }, "Could not set delayless TCP connection");
+    }
+    this.conf = conf;
+    this.selfQueue = new LinkedBlockingQueue<>();
+    this.peers = new HashMap<>(conf.noOfParties() - 1);
+    this.pendingWrites = new ConcurrentLinkedQueue<>();
+    this.alive = true;
+    if (conf.noOfParties() > 1) {
+      this.selector = ExceptionConverter.safe(Selector::open, "Unable to open selector");
+      startCommunication(socketMap);
+      this.selectorThread = new Thread(this::run);
+      this.selectorThread.setDaemon(true);
+      this.selectorThread.setName("selector-P" + conf.getMyId() + "-" + selectorThread.getId());
+      this.selectorThread.start();
+    } else {
+      this.selector = null;
+      this.selectorThread = null;
+    }
+  }
+
+  /**
+   * Default constructor using one minute timeout.
+   *
+   * @param conf the configuration to load the network from.
+   */
+  public SocketChannelNetwork(NetworkConfiguration conf) {
+    this(conf, Duration.of(1, ChronoUnit.MINUTES));
+  }
+
+  /**
+   * Construct a socket channel network with a specific timeout.
+   *
+   * @param conf the configuration to load the network from.
+   * @param timeout duration to wait until timeout when connecting the network.
+   */
+  public SocketChannelNetwork(NetworkConfiguration conf, Duration timeout) {
+    this(conf, new Connector(conf, timeout, new ChannelSocketFactory(),
+        new ChannelServerSocketFactory()).getSocketMap());
+  }
+
+  /**
+   * Registers the channel of each external party with the selector.
+   *
+   * @param sockets a map from party ids to the associated communication channels
+   */
+  private void startCommunication(Map<Integer, Socket> sockets) {
+    for (Entry<Integer, Socket> entry : sockets.entrySet()) {
+      final int id = entry.getKey();
+      assertPartyIdInRange(id);
+      SocketChannel channel = entry.getValue().getChannel();
+      Peer peer = new Peer(id, channel);
+      ExceptionConverter.safe(() -> {
+        channel.configureBlocking(false);
+        peer.key = channel.register(selector, SelectionKey.OP_READ, peer);
+        return null;
+      }, "Unable to register channel for P" + id);
+      peers.put(id, peer);
+    }
+  }
+
+  @Override
+  public void send(int partyId, byte[] data) {
+    if (partyId == conf.getMyId()) {
+      this.selfQueue.add(data);
+    } else {
+      assertPartyIdInRange(partyId);
+      Peer peer = peers.get(partyId);
+      if (!alive || peer.failed) {
+        throw new RuntimeException(
+            "P" + conf.getMyId() + ": Unable to send to P" + partyId + ". Channel not open");
+      }
+      peer.queueMessage(data);
+    }
+  }
+
+  @Override
+  public byte[] receive(final int partyId) {
+    if (partyId == conf.getMyId()) {
+      return ExceptionConverter.safe(selfQueue::take, "Receiving from self failed");
+    }
+    assertPartyIdInRange(partyId);
+    if (!alive) {
+      throw new RuntimeException(
+          "P" + conf.getMyId() + ": Unable to receive from P" + partyId + ". Network closed");
+    }
+    Peer peer = peers.get(partyId);
+    byte[] data = ExceptionConverter.safe(peer.incoming::take, "Receive interrupted");
+    if (data == CLOSED) {
+      // Leave the marker for any later calls
+      peer.incoming.add(CLOSED);
+      throw new RuntimeException(
+          "P" + conf.getMyId() + ": Unable to receive from P" + partyId + ". Channel closed");
+    }
+    return data;
+  }
+
+  /**
+   * Check if a party ID is in the range of known parties.
+   *
+   * @param partyId an ID for a party
+   */
+  private void assertPartyIdInRange(final int partyId) {
+    ValidationUtils.assertValidId(partyId, getNoOfParties());
+  }
+
+  /**
+   * The loop of the selector thread. Reads all incoming data, writes all queued messages and stops
+   * once the network is closing and all parties have been sent the close signal.
+   */
+  private void run() {
+    try {
+      while (!(closing && allOutputClosed())) {
+        selector.select();
+        for (SelectionKey key : selector.selectedKeys()) {
+          Peer peer = (Peer) key.attachment();
+          if (key.isValid() && key.isReadable()) {
+            peer.read();
+          }
+          if (key.isValid() && key.isWritable()) {
+            peer.write();
+          }
+        }
+        selector.selectedKeys().clear();
+        Peer peer;
+        while ((peer = pendingWrites.poll()) != null) {
+          peer.write();
+        }
+      }
+    } catch (Exception e) {
+      logger.error("P" + conf.getMyId() + ": Selector failed unexpectedly", e);
+      for (Peer peer : peers.values()) {
+        peer.fail(null);
+      }
+    }
+  }
+
+  private boolean allOutputClosed() {
+    for (Peer peer : peers.values()) {
+      if (!peer.outputClosed && !peer.failed) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Closes the network down and releases held resources. Blocks until all queued messages have
+   * been written.
+   */
+  @Override
+  public void close() {
+    if (alive) {
+      alive = false;
+      if (conf.noOfParties() < 2) {
+        logger.info("P{}: Network closed", conf.getMyId());
+        return;
+      }
+      ExceptionConverter.safe(() -> {
+        closing = true;
+        for (Peer peer : peers.values()) {
+          peer.queueMessage(CLOSED);
+        }
+        selector.wakeup();
+        selectorThread.join();
+        for (Peer peer : peers.values()) {
+          peer.channel.close();
+        }
+        selector.close();
+        logger.info("P{}: Network closed", conf.getMyId());
+        return null;
+      }, "Unable to properly close the network.");
+    } else {
+      logger.info("P{}: Network already closed", conf.getMyId());
+    }
+  }
+
+  @Override
+  public int getNoOfParties() {
+    return this.conf.noOfParties();
+  }
+
+  /**
+   * The state of the channel to a single external party. Apart from queueing messages, all
+   * methods are only called from the selector thread.
+   */
+  private class Peer {
+
+    private final int id;
+    private final SocketChannel channel;
+    private final BlockingQueue<byte[]> incoming;
+    private final Queue<byte[]> outgoing;
+    private final AtomicBoolean writeRequested;
+    private final ByteBuffer readBuffer;
+    private final ByteBuffer headerBuffer;
+    private SelectionKey key;
+    private byte[] message;
+    private int messageOffset;
+    private ByteBuffer[] gathered;
+    private int gatheredOffset;
+    private boolean closeGathered;
+    private boolean inputClosed;
+    private volatile boolean outputClosed;
+    private volatile boolean failed;
+
+    private Peer(int id, SocketChannel channel) {
+      this.id = id;
+      this.channel = channel;
+      this.incoming = new LinkedBlockingQueue<>();
+      this.outgoing = new ConcurrentLinkedQueue<>();
+      this.writeRequested = new AtomicBoolean(false);
+      this.readBuffer = ByteBuffer.allocateDirect(READ_BUFFER_SIZE);
+      this.headerBuffer = ByteBuffer.allocateDirect(MAX_GATHERED_MESSAGES * Integer.BYTES);
+    }
+
+    /**
+     * Queues a message and wakes up the selector thread unless a write is already pending.
+     */
+    private void queueMessage(byte[] data) {
+      outgoing.add(data);
+      if (writeRequested.compareAndSet(false, true)) {
+        pendingWrites.add(this);
+        selector.wakeup();
+      }
+    }
+
+    /**
+     * Reads all available data from the channel and queues the complete messages.
+     */
+    private void read() {
+      try {
+        int read = 0;
+        while (!inputClosed && (read = channel.read(readBuffer)) > 0) {
+          readBuffer.flip();
+          parseMessages();
+          readBuffer.compact();
+        }
+        if (read < 0) {
+          closeInput();
+        }
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+
+    private void parseMessages() {
+      while (!inputClosed) {
+        if (message == null) {
+          if (readBuffer.remaining() < Integer.BYTES) {
+            return;
+          }
+          int length = readBuffer.getInt();
+          if (length < 0) {
+            closeInput();
+            return;
+          }
+          message = new byte[length];
+          messageOffset = 0;
+        }
+        int length = Math.min(readBuffer.remaining(), message.length - messageOffset);
+        readBuffer.get(message, messageOffset, length);
+        messageOffset += length;
+        if (messageOffset < message.length) {
+          return;
+        }
+        incoming.add(message);
+        message = null;
+      }
+    }
+
+    /**
+     * Writes queued messages until either the queue is empty or the channel cannot accept more
+     * data, in which case the selector is asked to signal when the channel is writable again.
+     */
+    private void write() {
+      if (failed || outputClosed) {
+        return;
+      }
+      writeRequested.set(false);
+      try {
+        while (true) {
+          if (gathered == null && !gatherMessages()) {
+            key.interestOps(key.interestOps() & ~SelectionKey.OP_WRITE);
+            return;
+          }
+          channel.write(gathered, gatheredOffset, gathered.length - gatheredOffset);
+          while (gatheredOffset < gathered.length && !gathered[gatheredOffset].hasRemaining()) {
+            gatheredOffset++;
+          }
+          if (gatheredOffset < gathered.length) {
+            key.interestOps(key.interestOps() | SelectionKey.OP_WRITE);
+            return;
+          }
+          gathered = null;
+          if (closeGathered) {
+            outputClosed = true;
+            return;
+          }
+        }
+      } catch (IOException e) {
+        fail(e);
+      }
+    }
+
+    /**
+     * Collects the queued messages into an array of buffers for a gathering write. Each message is
+     * preceded by its length, written to a reused direct buffer.
+     *
+     * @return true if any messages were queued
+     */
+    private boolean gatherMessages() {
+      int count = Math.min(outgoing.size(), MAX_GATHERED_MESSAGES);
+      if (count == 0) {
+        return false;
+      }
+      gathered = new ByteBuffer[2 * count];
+      gatheredOffset = 0;
+      headerBuffer.clear();
+      for (int i = 0; i < count; i++) {
+        byte[] data = outgoing.poll();
+        int position = headerBuffer.position();
+        if (data == CLOSED) {
+          headerBuffer.putInt(-1);
+          closeGathered = true;
+        } else {
+          headerBuffer.putInt(data.length);
+        }
+        ByteBuffer header = headerBuffer.duplicate();
+        header.limit(position + Integer.BYTES);
+        header.position(position);
+        gathered[2 * i] = header;
+        gathered[2 * i + 1] = ByteBuffer.wrap(data);
+        if (closeGathered) {
+          gathered = Arrays.copyOf(gathered, 2 * i + 2);
+          break;
+        }
+      }
+      return true;
+    }
+
+    private void closeInput() {
+      inputClosed = true;
+      if (key.isValid()) {
+        key.interestOps(key.interestOps() & ~SelectionKey.OP_READ);
+      }
+      incoming.add(CLOSED);
+    }
+
+    private void fail(IOException e) {
+      if (!failed) {
+        failed = true;
+        if (e != null && !closing) {
+          logger.error("P" + conf.getMyId() + ": Channel to P" + id + " failed unexpectedly", e);
+        }
+        key.cancel();
+        incoming.add(CLOSED);
+      }
+    }
+  }
+}
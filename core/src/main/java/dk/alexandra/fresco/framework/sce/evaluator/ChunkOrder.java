@@ -0,0 +1,38 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import java.util.function.Supplier;
+
+/**
+ * Orders the accesses of concurrently evaluated chunks of a batch to state they share, such as a
+ * supply of preprocessed material.
+ * <p>
+ * The accesses made in a round are ordered first by the number of accesses the chunk has already
+ * made in the round and then by the index of the chunk. This only depends on the protocols in the
+ * chunks, so all parties make the accesses in the same order.
+ * </p>
+ *
+ * @see ChunkedResourcePool
+ */
+public interface ChunkOrder {
+
+  /**
+   * Waits for this chunk's turn and performs an access to shared state.
+   *
+   * @param access the access
+   * @param <T> the type of the result of the access
+   * @return the result of the access
+   */
+  <T> T ordered(Supplier<T> access);
+
+  /**
+   * Waits for this chunk's turn and performs an access to shared state without a result.
+   *
+   * @param access the access
+   */
+  default void ordered(Runnable access) {
+    ordered(() -> {
+      access.run();
+      return null;
+    });
+  }
+}
@@ -0,0 +1,36 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+
+/**
+ * A resource pool which can be split into views for the chunks of a batch evaluated concurrently
+ * by {@link ParallelBatchedStrategy}.
+ * <p>
+ * Resource pools holding state that all parties must use in the same order, e.g., a supply of
+ * preprocessed material or a store of opened values, should implement this. Each chunk is
+ * evaluated against its own view, which may either buffer state to be merged into this resource
+ * pool after the round, or access state shared with the other chunks through its {@link
+ * ChunkOrder}.
+ * </p>
+ *
+ * @param <ResourcePoolT> the type of the views
+ */
+public interface ChunkedResourcePool<ResourcePoolT extends ResourcePool> {
+
+  /**
+   * Creates a view of this resource pool for a single chunk. The view is used for all rounds of the
+   * batch.
+   *
+   * @param order the order of the chunk's accesses to state shared with other chunks
+   * @return the view
+   */
+  ResourcePoolT createView(ChunkOrder order);
+
+  /**
+   * Merges state buffered by a view into this resource pool. This is called after each round for
+   * the views of all chunks in chunk order.
+   *
+   * @param view a view created by {@link #createView(ChunkOrder)}
+   */
+  void merge(ResourcePoolT view);
+}
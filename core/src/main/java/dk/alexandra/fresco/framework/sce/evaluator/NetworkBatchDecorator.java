@@ -1,9 +1,10 @@
 package dk.alexandra.fresco.framework.sce.evaluator;
 
 import dk.alexandra.fresco.framework.network.Network;
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -12,14 +13,19 @@ import java.util.Map;
  * communication on the network batched and hence throttled so evaluators behave nice
  * on the network.
  * <br>
+ * Each message is framed by its length encoded as an unsigned varint, i.e., seven bits per byte
+ * with the high bit set on all but the last byte. Messages shorter than 128 bytes therefore get a
+ * single byte prefix while there is no upper limit on the message size. Messages are kept by
+ * reference until flushed, at which point they are copied once into the outgoing array.
+ * <br>
  * It is important to call flush to empty all buffers after sending and before receiving data
  */
 public class NetworkBatchDecorator implements Network {
 
   private int noOfParties;
   private final Network network;
-  private Map<Integer, ByteArrayOutputStream> output;
-  private Map<Integer, ByteArrayInputStream> input;
+  private Map<Integer, PendingMessages> output;
+  private Map<Integer, ByteBuffer> input;
 
   public NetworkBatchDecorator(int noOfParties, Network network) {
     this.noOfParties = noOfParties;
@@ -30,16 +36,16 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public byte[] receive(int id) {
-    ByteArrayInputStream byteInputStream = input.get(id);
-    if (byteInputStream == null) {
+    ByteBuffer byteInput = input.get(id);
+    if (byteInput == null) {
       byte[] partyData = network.receive(id);
-      byteInputStream = new ByteArrayInputStream(partyData);
-      input.put(id, byteInputStream);
+      byteInput = ByteBuffer.wrap(partyData);
+      input.put(id, byteInput);
     }
 
-    int count = byteInputStream.read();
+    int count = getVarInt(byteInput);
     byte[] bytes = new byte[count];
-    byteInputStream.read(bytes, 0, count);
+    byteInput.get(bytes);
     return bytes;
   }
 
@@ -50,14 +56,7 @@ public class NetworkBatchDecorator implements Network {
 
   @Override
   public void send(int id, byte[] data) {
-    ByteArrayOutputStream buffer = this.output
-        .computeIfAbsent(id, (i) -> new ByteArrayOutputStream());
-    if (data.length > Byte.MAX_VALUE) {
-      throw new IllegalStateException(
-          "Current implementation only supports small packages, data.length=" + data.length);
-    }
-    buffer.write(data.length);
-    buffer.write(data, 0, data.length);
+    output.computeIfAbsent(id, (i) -> new PendingMessages()).add(data);
   }
 
   /**
@@ -65,13 +64,102 @@ public class NetworkBatchDecorator implements Network {
    */
   public void flush() {
     for (int i = 1; i <= noOfParties; i++) {
-      if (output.containsKey(i)) {
-        ByteArrayOutputStream byteArrayOutputStream = output.get(i);
-        byte[] data = byteArrayOutputStream.toByteArray();
-        network.send(i, data);
+      PendingMessages pending = output.remove(i);
+      if (pending != null) {
+        network.send(i, pending.toByteArray());
       }
-      output.remove(i);
     }
     input.clear();
   }
+
+  /**
+   * Gets the network decorated by this batching network.
+   *
+   * @return the underlying network
+   */
+  Network getNetwork() {
+    return network;
+  }
+
+  /**
+   * Computes the number of bytes needed to encode a non-negative integer as a varint.
+   *
+   * @param value the value to encode
+   * @return the size of the encoding in bytes
+   */
+  static int varIntSize(int value) {
+    int size = 1;
+    while ((value & ~0x7F) != 0) {
+      value >>>= 7;
+      size++;
+    }
+    return size;
+  }
+
+  /**
+   * Writes a non-negative integer to a buffer encoded as a varint.
+   *
+   * @param buffer the buffer to write to
+   * @param value the value to encode
+   */
+  static void putVarInt(ByteBuffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  /**
+   * Reads a varint encoded non-negative integer from a buffer.
+   *
+   * @param buffer the buffer to read from
+   * @return the decoded value
+   */
+  static int getVarInt(ByteBuffer buffer) {
+    int value = 0;
+    int shift = 0;
+    byte current;
+    do {
+      if (shift > 28) {
+        throw new IllegalStateException("Malformed message length in batched message");
+      }
+      current = buffer.get();
+      value |= (current & 0x7F) << shift;
+      shift += 7;
+    } while ((current & 0x80) != 0);
+    return value;
+  }
+
+  /**
+   * The messages queued for a single party. The messages are kept by reference, which the network
+   * contract allows, and are only copied once the framed batch is serialized.
+   */
+  static class PendingMessages {
+
+    private final List<byte[]> messages = new ArrayList<>();
+    private int framedSize = 0;
+
+    void add(byte[] data) {
+      messages.add(data);
+      framedSize += varIntSize(data.length) + data.length;
+    }
+
+    int framedSize() {
+      return framedSize;
+    }
+
+    void writeTo(ByteBuffer buffer) {
+      for (byte[] message : messages) {
+        putVarInt(buffer, message.length);
+        buffer.put(message);
+      }
+    }
+
+    byte[] toByteArray() {
+      ByteBuffer buffer = ByteBuffer.allocate(framedSize);
+      writeTo(buffer);
+      return buffer.array();
+    }
+  }
 }
@@ -0,0 +1,360 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator.PendingMessages;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinPool.ManagedBlocker;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Supplier;
+
+/**
+ * A batched evaluation strategy that evaluates each round of a batch in parallel.
+ * <p>
+ * The protocols of a batch are split into chunks of consecutive protocols when the batch starts.
+ * The chunks stay fixed for the lifetime of the batch, so since all parties see the same batch,
+ * chunk <i>i</i> of one party holds the same protocols as chunk <i>i</i> of every other party.
+ * Within a chunk, protocols are evaluated in order exactly as in {@link BatchedStrategy}, while
+ * different chunks are evaluated concurrently on a {@link ForkJoinPool}.
+ * </p>
+ * <p>
+ * After each round the messages of all chunks are merged in chunk order, such that each party
+ * receives a single message per round. The merged message is a sequence of length prefixed
+ * blocks, one per chunk, and each block is a sequence of messages framed as by {@link
+ * NetworkBatchDecorator}. This lets a
+ * chunk find its messages in the next round without knowing how much the other chunks read.
+ * Batches too small to fill more than one chunk are evaluated exactly as by {@link
+ * BatchedStrategy}.
+ * </p>
+ * <p>
+ * Since native protocols are evaluated concurrently, evaluation must not touch shared state in
+ * the resource pool, unless the resource pool is a {@link ChunkedResourcePool}. In that case each
+ * chunk is evaluated against its own view of the resource pool, and the views are merged into the
+ * resource pool in chunk order after each round. Accesses of the views to state shared between
+ * the chunks, such as a supply of preprocessed material, are made in the order given by {@link
+ * ChunkOrder}, which is the same for all parties. All parties must use this strategy with the same
+ * chunk size.
+ * </p>
+ */
+public class ParallelBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  private static final int DEFAULT_CHUNK_SIZE = 256;
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+  private final BatchedStrategy<ResourcePoolT> sequential;
+
+  /**
+   * Creates a new strategy evaluating chunks of {@value DEFAULT_CHUNK_SIZE} protocols on the common
+   * fork-join pool.
+   */
+  public ParallelBatchedStrategy() {
+    this(ForkJoinPool.commonPool(), DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param pool the pool used to evaluate the chunks
+   * @param chunkSize the number of protocols in each chunk, must be the same for all parties
+   */
+  public ParallelBatchedStrategy(ForkJoinPool pool, int chunkSize) {
+    if (chunkSize < 1) {
+      throw new IllegalArgumentException("Chunk size must be positive, was " + chunkSize);
+    }
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+    this.sequential = new BatchedStrategy<>();
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    if (protocols.size() <= chunkSize) {
+      sequential.processBatch(protocols, resourcePool, networkBatchDecorator);
+      return;
+    }
+    List<Chunk> chunks = createChunks(protocols);
+    ChunkedResourcePool<ResourcePoolT> chunked = asChunked(resourcePool);
+    for (Chunk chunk : chunks) {
+      chunk.resourcePool = chunked == null ? resourcePool : chunked.createView(chunk);
+    }
+    Network network = networkBatchDecorator.getNetwork();
+    int noOfParties = networkBatchDecorator.getNoOfParties();
+    int round = 0;
+    List<Chunk> active = chunks;
+    while (!active.isEmpty()) {
+      RoundInput input = new RoundInput(network, chunks.size());
+      AccessOrder order = new AccessOrder(chunks);
+      List<ForkJoinTask<?>> tasks = new ArrayList<>(active.size());
+      for (Chunk chunk : active) {
+        final int currentRound = round;
+        tasks.add(ForkJoinTask.adapt(() -> chunk.evaluate(currentRound, input, order)));
+      }
+      pool.invoke(new RecursiveAction() {
+        @Override
+        protected void compute() {
+          invokeAll(tasks);
+        }
+      });
+      if (chunked != null) {
+        for (Chunk chunk : chunks) {
+          chunked.merge(chunk.resourcePool);
+        }
+      }
+      sendMerged(chunks, network, noOfParties);
+      List<Chunk> stillActive = new ArrayList<>(active.size());
+      for (Chunk chunk : active) {
+        if (!chunk.isDone()) {
+          stillActive.add(chunk);
+        }
+      }
+      active = stillActive;
+      round++;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private ChunkedResourcePool<ResourcePoolT> asChunked(ResourcePoolT resourcePool) {
+    if (resourcePool instanceof ChunkedResourcePool) {
+      return (ChunkedResourcePool<ResourcePoolT>) resourcePool;
+    }
+    return null;
+  }
+
+  private List<Chunk> createChunks(ProtocolCollection<ResourcePoolT> protocols) {
+    List<Chunk> chunks = new ArrayList<>();
+    Chunk current = null;
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+    while (iterator.hasNext()) {
+      if (current == null || current.size() == chunkSize) {
+        current = new Chunk(chunks.size());
+        chunks.add(current);
+      }
+      current.add(iterator.next());
+      iterator.remove();
+    }
+    return chunks;
+  }
+
+  private void sendMerged(List<Chunk> chunks, Network network, int noOfParties) {
+    for (int party = 1; party <= noOfParties; party++) {
+      int totalLength = 0;
+      boolean hasOutput = false;
+      for (Chunk chunk : chunks) {
+        PendingMessages output = chunk.output.get(party);
+        int blockLength = 0;
+        if (output != null) {
+          hasOutput = true;
+          blockLength = output.framedSize();
+        }
+        totalLength += NetworkBatchDecorator.varIntSize(blockLength) + blockLength;
+      }
+      if (hasOutput) {
+        ByteBuffer merged = ByteBuffer.allocate(totalLength);
+        for (Chunk chunk : chunks) {
+          PendingMessages output = chunk.output.get(party);
+          if (output == null) {
+            NetworkBatchDecorator.putVarInt(merged, 0);
+          } else {
+            NetworkBatchDecorator.putVarInt(merged, output.framedSize());
+            output.writeTo(merged);
+          }
+        }
+        network.send(party, merged.array());
+      }
+    }
+    for (Chunk chunk : chunks) {
+      chunk.output.clear();
+    }
+  }
+
+  /**
+   * The messages received by all chunks in a single round. Messages are fetched lazily from the
+   * underlying network the first time a chunk asks for a message from a given party.
+   */
+  private static class RoundInput {
+
+    private final Network network;
+    private final int noOfChunks;
+    private final Map<Integer, ByteBuffer[]> blocks;
+
+    private RoundInput(Network network, int noOfChunks) {
+      this.network = network;
+      this.noOfChunks = noOfChunks;
+      this.blocks = new HashMap<>();
+    }
+
+    private synchronized ByteBuffer getBlock(int partyId, int chunkIndex) {
+      ByteBuffer[] partyBlocks = blocks.get(partyId);
+      if (partyBlocks == null) {
+        ByteBuffer received = ByteBuffer.wrap(network.receive(partyId));
+        partyBlocks = new ByteBuffer[noOfChunks];
+        for (int i = 0; i < noOfChunks; i++) {
+          int length = NetworkBatchDecorator.getVarInt(received);
+          ByteBuffer block = received.slice();
+          block.limit(length);
+          partyBlocks[i] = block;
+          received.position(received.position() + length);
+        }
+        blocks.put(partyId, partyBlocks);
+      }
+      return partyBlocks[chunkIndex];
+    }
+  }
+
+  /**
+   * The order in which the chunks of a single round access shared state, as described by {@link
+   * ChunkOrder}. A chunk which has finished the round no longer holds back the other chunks.
+   */
+  private class AccessOrder {
+
+    private final int[] accesses;
+    private final boolean[] finished;
+
+    private AccessOrder(List<Chunk> chunks) {
+      this.accesses = new int[chunks.size()];
+      this.finished = new boolean[chunks.size()];
+      for (int i = 0; i < finished.length; i++) {
+        finished[i] = chunks.get(i).isDone();
+      }
+    }
+
+    private synchronized boolean isTurn(int chunkIndex) {
+      int count = accesses[chunkIndex];
+      for (int i = 0; i < accesses.length; i++) {
+        if (i != chunkIndex && !finished[i]) {
+          // Earlier chunks must have made one more access than this chunk, later chunks as many
+          if (i < chunkIndex ? accesses[i] <= count : accesses[i] < count) {
+            return false;
+          }
+        }
+      }
+      return true;
+    }
+
+    private void awaitTurn(int chunkIndex) {
+      ExceptionConverter.safe(() -> {
+        ForkJoinPool.managedBlock(new ManagedBlocker() {
+          @Override
+          public boolean block() throws InterruptedException {
+            synchronized (AccessOrder.this) {
+              while (!isTurn(chunkIndex)) {
+                AccessOrder.this.wait();
+              }
+            }
+            return true;
+          }
+
+          @Override
+          public boolean isReleasable() {
+            return isTurn(chunkIndex);
+          }
+        });
+        return null;
+      }, "Interrupted while waiting to access shared state");
+    }
+
+    private synchronized void advance(int chunkIndex) {
+      accesses[chunkIndex]++;
+      notifyAll();
+    }
+
+    private synchronized void finish(int chunkIndex) {
+      finished[chunkIndex] = true;
+      notifyAll();
+    }
+  }
+
+  /**
+   * A fixed set of consecutive protocols of a batch along with the chunk's view of the network and
+   * of the resource pool.
+   */
+  private class Chunk implements Network, ChunkOrder {
+
+    private final int index;
+    private final List<NativeProtocol<?, ResourcePoolT>> protocols;
+    private final Map<Integer, PendingMessages> output;
+    private final Map<Integer, ByteBuffer> input;
+    private ResourcePoolT resourcePool;
+    private RoundInput roundInput;
+    private AccessOrder accessOrder;
+
+    private Chunk(int index) {
+      this.index = index;
+      this.protocols = new ArrayList<>(chunkSize);
+      this.output = new HashMap<>();
+      this.input = new HashMap<>();
+    }
+
+    private void add(NativeProtocol<?, ResourcePoolT> protocol) {
+      protocols.add(protocol);
+    }
+
+    private int size() {
+      return protocols.size();
+    }
+
+    private boolean isDone() {
+      return protocols.isEmpty();
+    }
+
+    private void evaluate(int round, RoundInput roundInput, AccessOrder accessOrder) {
+      this.roundInput = roundInput;
+      this.accessOrder = accessOrder;
+      this.input.clear();
+      try {
+        Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+        while (iterator.hasNext()) {
+          NativeProtocol<?, ResourcePoolT> protocol = iterator.next();
+          EvaluationStatus status = protocol.evaluate(round, resourcePool, this);
+          if (status.equals(EvaluationStatus.IS_DONE)) {
+            iterator.remove();
+          }
+        }
+      } finally {
+        accessOrder.finish(index);
+      }
+    }
+
+    @Override
+    public <T> T ordered(Supplier<T> access) {
+      accessOrder.awaitTurn(index);
+      try {
+        return access.get();
+      } finally {
+        accessOrder.advance(index);
+      }
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      output.computeIfAbsent(partyId, (i) -> new PendingMessages()).add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      ByteBuffer block = input.computeIfAbsent(partyId, (i) -> roundInput.getBlock(i, index));
+      byte[] bytes = new byte[NetworkBatchDecorator.getVarInt(block)];
+      block.get(bytes);
+      return bytes;
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return roundInput.network.getNoOfParties();
+    }
+  }
+}
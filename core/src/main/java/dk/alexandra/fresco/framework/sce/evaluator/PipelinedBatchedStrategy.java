@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.framework.sce.evaluator;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A batched evaluation strategy that overlaps the network latency of one part of a batch with the
+ * local computation of another part.
+ * <p>
+ * The protocols of a batch are split into a number of lanes of consecutive protocols, each with
+ * its own batching network. In each round the lanes are evaluated one after another, and each lane
+ * flushes its messages as soon as it has been evaluated. The messages of the first lane are thus
+ * in flight while the remaining lanes are evaluated, and by the time the first lane needs the
+ * replies of the other parties in the next round, they have had the computation time of the
+ * remaining lanes to arrive. With {@link BatchedStrategy}, in contrast, the whole batch is computed
+ * before anything is sent, and the first receive of the next round waits for a full network
+ * latency.
+ * </p>
+ * <p>
+ * Note that the next batch can not be built while the current batch is evaluated, as the protocol
+ * producer may need the output of the current batch to build the next one. Lanes are fixed when
+ * the batch starts, so all parties agree on which protocols are in which lane, and each lane sends
+ * and receives exactly as a batch of its own would with {@link BatchedStrategy}. Batches too small
+ * to fill more than one lane are evaluated exactly as by {@link BatchedStrategy}. All parties must
+ * use this strategy with the same parameters.
+ * </p>
+ */
+public class PipelinedBatchedStrategy<ResourcePoolT extends ResourcePool>
+    implements BatchEvaluationStrategy<ResourcePoolT> {
+
+  private static final int DEFAULT_LANES = 2;
+  private static final int DEFAULT_MIN_LANE_SIZE = 64;
+  private final int lanes;
+  private final int minLaneSize;
+  private final BatchedStrategy<ResourcePoolT> sequential;
+
+  /**
+   * Creates a new strategy using {@value DEFAULT_LANES} lanes of at least {@value
+   * DEFAULT_MIN_LANE_SIZE} protocols.
+   */
+  public PipelinedBatchedStrategy() {
+    this(DEFAULT_LANES, DEFAULT_MIN_LANE_SIZE);
+  }
+
+  /**
+   * Creates a new strategy.
+   *
+   * @param lanes the maximum number of lanes to split a batch into
+   * @param minLaneSize the minimum number of protocols in a lane
+   */
+  public PipelinedBatchedStrategy(int lanes, int minLaneSize) {
+    if (lanes < 1 || minLaneSize < 1) {
+      throw new IllegalArgumentException(
+          "Lanes and lane size must be positive, was " + lanes + " and " + minLaneSize);
+    }
+    this.lanes = lanes;
+    this.minLaneSize = minLaneSize;
+    this.sequential = new BatchedStrategy<>();
+  }
+
+  @Override
+  public void processBatch(
+      ProtocolCollection<ResourcePoolT> protocols, ResourcePoolT resourcePool,
+      NetworkBatchDecorator networkBatchDecorator) {
+    int noOfLanes = Math.min(lanes, protocols.size() / minLaneSize);
+    if (noOfLanes <= 1) {
+      sequential.processBatch(protocols, resourcePool, networkBatchDecorator);
+      return;
+    }
+    List<List<NativeProtocol<?, ResourcePoolT>>> lanes = createLanes(protocols, noOfLanes);
+    List<NetworkBatchDecorator> networks = new ArrayList<>(noOfLanes);
+    for (int i = 0; i < noOfLanes; i++) {
+      networks.add(new NetworkBatchDecorator(networkBatchDecorator.getNoOfParties(),
+          networkBatchDecorator.getNetwork()));
+    }
+    int round = 0;
+    boolean done;
+    do {
+      done = true;
+      for (int i = 0; i < noOfLanes; i++) {
+        List<NativeProtocol<?, ResourcePoolT>> lane = lanes.get(i);
+        if (!lane.isEmpty()) {
+          NetworkBatchDecorator network = networks.get(i);
+          evaluateRound(lane, resourcePool, network, round);
+          network.flush();
+          done &= lane.isEmpty();
+        }
+      }
+      round++;
+    } while (!done);
+  }
+
+  private List<List<NativeProtocol<?, ResourcePoolT>>> createLanes(
+      ProtocolCollection<ResourcePoolT> protocols, int noOfLanes) {
+    int size = protocols.size();
+    List<List<NativeProtocol<?, ResourcePoolT>>> lanes = new ArrayList<>(noOfLanes);
+    Iterator<NativeProtocol<?, ResourcePoolT>> iterator = protocols.iterator();
+    for (int i = 0; i < noOfLanes; i++) {
+      int laneSize = size / noOfLanes + (i < size % noOfLanes ? 1 : 0);
+      List<NativeProtocol<?, ResourcePoolT>> lane = new ArrayList<>(laneSize);
+      for (int j = 0; j < laneSize; j++) {
+        lane.add(iterator.next());
+        iterator.remove();
+      }
+      lanes.add(lane);
+    }
+    return lanes;
+  }
+
+  private void evaluateRound(List<NativeProtocol<?, ResourcePoolT>> lane,
+      ResourcePoolT resourcePool, NetworkBatchDecorator network, int round) {
+    List<NativeProtocol<?, ResourcePoolT>> remaining = new ArrayList<>(lane.size());
+    for (NativeProtocol<?, ResourcePoolT> protocol : lane) {
+      EvaluationStatus status = protocol.evaluate(round, resourcePool, network);
+      if (status.equals(EvaluationStatus.HAS_MORE_ROUNDS)) {
+        remaining.add(protocol);
+      }
+    }
+    lane.clear();
+    lane.addAll(remaining);
+  }
+}
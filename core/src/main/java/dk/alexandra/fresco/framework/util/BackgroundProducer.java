@@ -0,0 +1,259 @@
+package dk.alexandra.fresco.framework.util;
+
+import java.io.Closeable;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Produces material, such as preprocessed values, on a background thread ahead of consumption.
+ * <p>
+ * Tasks are run one at a time in the order they were submitted, on a single daemon thread which is
+ * started when the first task is submitted. Material of each type is kept in a {@link Buffer},
+ * which requests more elements whenever the number of elements requested but not yet consumed
+ * drops below its low watermark, and hands the elements to the consumer in the order they were
+ * generated through a lock-free queue, so the consumer only blocks if the buffer is empty.
+ * </p>
+ * <p>
+ * Generating material is often interactive, in which case all parties must request the same
+ * material in the same order. This is ensured by basing the decision to request more elements
+ * only on the number of elements requested and consumed, which is the same for all parties as long
+ * as they consume the material in the same order, and never on how far the background thread has
+ * come.
+ * </p>
+ * <p>
+ * If a task fails or the producer is closed, consumers waiting for material fail with an {@link
+ * IllegalStateException}.
+ * </p>
+ */
+public final class BackgroundProducer implements Closeable {
+
+  private static final Logger logger = LoggerFactory.getLogger(BackgroundProducer.class);
+  private static final long POLL_MILLIS = 100;
+  private final Runnable stop = () -> {
+  };
+  private final String name;
+  private final BlockingQueue<Runnable> tasks;
+  private Thread thread;
+  private volatile RuntimeException failure;
+
+  /**
+   * Creates a new producer. The background thread is not started until a task is submitted.
+   *
+   * @param name the name of the background thread
+   */
+  public BackgroundProducer(String name) {
+    this.name = name;
+    this.tasks = new LinkedBlockingQueue<>();
+  }
+
+  /**
+   * Submits a task to be run on the background thread after all tasks submitted before it.
+   *
+   * @param task the task
+   */
+  public synchronized void submit(Runnable task) {
+    tasks.add(task);
+    if (thread == null && failure == null) {
+      thread = new Thread(this::run, name);
+      thread.setDaemon(true);
+      thread.start();
+    }
+  }
+
+  private void run() {
+    try {
+      Runnable task = tasks.take();
+      while (task != stop) {
+        task.run();
+        task = tasks.take();
+      }
+    } catch (InterruptedException e) {
+      logger.debug("Background producer {} interrupted", name);
+    } catch (RuntimeException e) {
+      if (failure == null) {
+        logger.error("Background producer " + name + " failed", e);
+        failure = e;
+      } else {
+        logger.debug("Background producer " + name + " failed after being closed", e);
+      }
+    }
+  }
+
+  /**
+   * Creates a new buffer of elements generated by this producer.
+   *
+   * @param generator generates a given number of elements, called on the background thread
+   * @param lowWatermark the number of elements requested but not consumed below which more
+   *     elements are requested
+   * @param highWatermark the number of elements requested but not consumed that a request fills
+   *     up to
+   * @param batchSize requests are rounded up to a multiple of this
+   * @param <T> the type of the elements
+   * @return the buffer
+   */
+  public <T> Buffer<T> createBuffer(IntFunction<List<T>> generator, int lowWatermark,
+      int highWatermark, int batchSize) {
+    if (lowWatermark < 0 || highWatermark < lowWatermark || batchSize < 1) {
+      throw new IllegalArgumentException("Watermarks must satisfy 0 <= low <= high and batch size"
+          + " must be positive, was " + lowWatermark + ", " + highWatermark + " and " + batchSize);
+    }
+    return new Buffer<>(generator, lowWatermark, highWatermark, batchSize);
+  }
+
+  /**
+   * Lets the background thread finish the submitted tasks and waits for it to stop. The thread is
+   * started again if more tasks are submitted.
+   */
+  public synchronized void finish() {
+    if (thread == null) {
+      return;
+    }
+    tasks.add(stop);
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      thread.interrupt();
+    }
+    thread = null;
+  }
+
+  /**
+   * Stops the background thread without finishing the submitted tasks. Any consumer waiting for
+   * material that has not already been generated will fail.
+   */
+  @Override
+  public synchronized void close() {
+    if (failure == null) {
+      failure = new IllegalStateException("Background producer " + name + " has been closed");
+    }
+    if (thread != null) {
+      thread.interrupt();
+      thread = null;
+    }
+  }
+
+  /**
+   * A buffer of elements of a single type. A buffer must only be used by a single consumer.
+   *
+   * @param <T> the type of the elements
+   */
+  public final class Buffer<T> {
+
+    private final IntFunction<List<T>> generator;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final int batchSize;
+    private final Queue<T> elements;
+    private final Semaphore available;
+    // Only accessed by the consumer
+    private long requested;
+    private long consumed;
+    // Written by the consumer, read by any thread collecting metrics
+    private volatile long stalls;
+    private volatile long stallNanos;
+
+    private Buffer(IntFunction<List<T>> generator, int lowWatermark, int highWatermark,
+        int batchSize) {
+      this.generator = generator;
+      this.lowWatermark = lowWatermark;
+      this.highWatermark = highWatermark;
+      this.batchSize = batchSize;
+      this.elements = new ConcurrentLinkedQueue<>();
+      this.available = new Semaphore(0);
+    }
+
+    /**
+     * Requests that the buffer is filled up to the high watermark.
+     */
+    public void fill() {
+      long outstanding = requested - consumed;
+      if (outstanding < highWatermark) {
+        request(highWatermark - outstanding);
+      }
+    }
+
+    /**
+     * Requests a number of elements, rounded up to a multiple of the batch size, regardless of the
+     * watermarks.
+     *
+     * @param amount the number of elements
+     */
+    public void request(long amount) {
+      int rounded = (int) ((amount + batchSize - 1) / batchSize * batchSize);
+      requested += rounded;
+      submit(() -> {
+        List<T> generated = generator.apply(rounded);
+        elements.addAll(generated);
+        available.release(generated.size());
+      });
+    }
+
+    /**
+     * Takes the next element, blocking until it is available.
+     *
+     * @return the element
+     */
+    public T take() {
+      consumed++;
+      long outstanding = requested - consumed;
+      if (outstanding < lowWatermark) {
+        request(highWatermark - outstanding);
+      }
+      if (!available.tryAcquire()) {
+        long start = System.nanoTime();
+        try {
+          while (!available.tryAcquire(POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (failure != null) {
+              throw new IllegalStateException("Unable to generate material in " + name, failure);
+            }
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for material from " + name,
+              e);
+        }
+        stalls++;
+        stallNanos += System.nanoTime() - start;
+      }
+      return elements.poll();
+    }
+
+    /**
+     * Gets the number of elements requested but not yet consumed.
+     */
+    public long getOutstanding() {
+      return requested - consumed;
+    }
+
+    /**
+     * Gets the number of times the consumer had to wait for an element.
+     */
+    public long getStalls() {
+      return stalls;
+    }
+
+    /**
+     * Gets the total time the consumer has waited for elements in nanoseconds.
+     */
+    public long getStallNanos() {
+      return stallNanos;
+    }
+
+    /**
+     * Resets the stall metrics.
+     */
+    public void resetMetrics() {
+      stalls = 0;
+      stallNanos = 0;
+    }
+  }
+}
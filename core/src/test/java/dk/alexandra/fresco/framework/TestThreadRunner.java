@@ -212,6 +212,22 @@ public class TestThreadRunner {
 
     } finally {
       closeNetworks(confs);
+      closeResourcePools(confs);
+    }
+  }
+
+  private static <ResourcePoolT extends ResourcePool, Builder extends ProtocolBuilder> void closeResourcePools(
+      Map<Integer, TestThreadConfiguration<ResourcePoolT, Builder>> confs) {
+    // Resource pools holding resources, e.g., background threads of a data supplier, are closed
+    // when the test is done.
+    for (TestThreadConfiguration<ResourcePoolT, Builder> conf : confs.values()) {
+      if (conf.resourcePool instanceof Closeable) {
+        try {
+          ((Closeable) conf.resourcePool).close();
+        } catch (IOException e) {
+          // Cannot do anything about this.
+        }
+      }
     }
   }
 
@@ -2,6 +2,10 @@ package dk.alexandra.fresco.framework.builder.numeric;
 
 import static org.junit.Assert.assertEquals;
 
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import java.math.BigInteger;
 import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
@@ -29,6 +33,21 @@ public class TestAddable {
     assertEquals(expected, actual);
   }
 
+  @Test
+  public void testPairWiseSumFieldElements() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(8);
+    List<FieldElement> rowOne = Arrays.asList(definition.createElement(1),
+        definition.createElement(200), definition.createElement(3));
+    List<FieldElement> rowTwo = Arrays.asList(definition.createElement(4),
+        definition.createElement(100), definition.createElement(6));
+    List<FieldElement> actual = Addable.sumRows(Arrays.asList(rowOne, rowTwo), definition);
+    assertEquals(3, actual.size());
+    assertEquals(BigInteger.valueOf(5), actual.get(0).toBigInteger());
+    assertEquals(BigInteger.valueOf(300).mod(definition.getModulus()),
+        actual.get(1).toBigInteger());
+    assertEquals(BigInteger.valueOf(9), actual.get(2).toBigInteger());
+  }
+
   private class MockAddable implements Addable<MockAddable> {
     int value;
 
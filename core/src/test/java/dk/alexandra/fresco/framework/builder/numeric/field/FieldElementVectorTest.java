@@ -0,0 +1,203 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class FieldElementVectorTest {
+
+  private static final int SIZE = 50;
+  private final Random random = new Random(0xC0FFEE);
+
+  private void testDefinitions(Consumer<FieldDefinition> test) {
+    test.accept(new BigIntegerFieldDefinition("340282366920938463463374607431768211297"));
+    test.accept(new BigIntegerFieldDefinition(BigInteger.valueOf(65521)));
+    test.accept(new BigIntegerFieldDefinition(BigInteger.probablePrime(100, random)));
+    test.accept(new BigIntegerFieldDefinition(BigInteger.valueOf(4294967291L)));
+    test.accept(new BigIntegerFieldDefinition(BigInteger.probablePrime(64, random)));
+    test.accept(new BigIntegerFieldDefinition(BigInteger.probablePrime(521, random)));
+    for (int bitLength : Arrays.asList(8, 16, 32, 64, 128, 256, 512)) {
+      test.accept(MersennePrimeFieldDefinition.find(bitLength));
+    }
+    test.accept(new MersennePrimeFieldDefinition(127, 1));
+    test.accept(new LongFieldDefinition(BigInteger.ONE.shiftLeft(63).subtract(
+        BigInteger.valueOf(25))));
+    test.accept(new LongFieldDefinition(113));
+  }
+
+  private List<BigInteger> randomValues(FieldDefinition definition) {
+    BigInteger modulus = definition.getModulus();
+    List<BigInteger> values = new ArrayList<>(SIZE);
+    values.add(BigInteger.ZERO);
+    values.add(modulus.subtract(BigInteger.ONE));
+    while (values.size() < SIZE) {
+      values.add(new BigInteger(modulus.bitLength() + 16, random).mod(modulus));
+    }
+    return values;
+  }
+
+  private FieldElementVector toVector(FieldDefinition definition, List<BigInteger> values) {
+    return definition.createVector(
+        values.stream().map(definition::createElement).collect(Collectors.toList()));
+  }
+
+  private static List<BigInteger> toBigIntegers(FieldElementVector vector) {
+    return vector.toList().stream().map(FieldElement::toBigInteger).collect(Collectors.toList());
+  }
+
+  @Test
+  public void createAndGet() {
+    testDefinitions(definition -> {
+      List<BigInteger> values = randomValues(definition);
+      FieldElementVector vector = toVector(definition, values);
+      assertThat(vector.size(), Is.is(SIZE));
+      assertThat(toBigIntegers(vector), Is.is(values));
+      assertThat(vector.get(3).toBigInteger(), Is.is(values.get(3)));
+    });
+  }
+
+  @Test
+  public void arithmetic() {
+    testDefinitions(definition -> {
+      BigInteger modulus = definition.getModulus();
+      List<BigInteger> left = randomValues(definition);
+      List<BigInteger> right = randomValues(definition);
+      FieldElementVector leftVector = toVector(definition, left);
+      FieldElementVector rightVector = toVector(definition, right);
+      List<BigInteger> sums = toBigIntegers(leftVector.add(rightVector));
+      List<BigInteger> differences = toBigIntegers(leftVector.subtract(rightVector));
+      List<BigInteger> products = toBigIntegers(leftVector.multiply(rightVector));
+      BigInteger innerProduct = BigInteger.ZERO;
+      for (int i = 0; i < SIZE; i++) {
+        BigInteger a = left.get(i);
+        BigInteger b = right.get(i);
+        assertThat(sums.get(i), Is.is(a.add(b).mod(modulus)));
+        assertThat(differences.get(i), Is.is(a.subtract(b).mod(modulus)));
+        assertThat(products.get(i), Is.is(a.multiply(b).mod(modulus)));
+        innerProduct = innerProduct.add(a.multiply(b));
+      }
+      assertThat(leftVector.innerProduct(rightVector).toBigInteger(),
+          Is.is(innerProduct.mod(modulus)));
+    });
+  }
+
+  @Test
+  public void innerProductOfLargest() {
+    testDefinitions(definition -> {
+      BigInteger largest = definition.getModulus().subtract(BigInteger.ONE);
+      FieldElementVector vector = toVector(definition, Collections.nCopies(SIZE, largest));
+      assertThat(vector.innerProduct(vector).toBigInteger(), Is.is(largest.multiply(largest)
+          .multiply(BigInteger.valueOf(SIZE)).mod(definition.getModulus())));
+    });
+  }
+
+  @Test
+  public void randomModuli() {
+    for (int i = 0; i < 200; i++) {
+      BigInteger modulus = new BigInteger(2 + random.nextInt(300), random).setBit(1);
+      FieldDefinition definition = new BigIntegerFieldDefinition(modulus);
+      List<BigInteger> left = randomValues(definition);
+      List<BigInteger> right = randomValues(definition);
+      FieldElementVector leftVector = toVector(definition, left);
+      FieldElementVector rightVector = toVector(definition, right);
+      List<BigInteger> products = toBigIntegers(leftVector.multiply(rightVector));
+      BigInteger innerProduct = BigInteger.ZERO;
+      for (int j = 0; j < SIZE; j++) {
+        BigInteger product = left.get(j).multiply(right.get(j));
+        assertThat(products.get(j), Is.is(product.mod(modulus)));
+        innerProduct = innerProduct.add(product);
+      }
+      assertThat(leftVector.innerProduct(rightVector).toBigInteger(),
+          Is.is(innerProduct.mod(modulus)));
+    }
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void toListIsUnmodifiable() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(BigInteger.valueOf(65521));
+    FieldElementVector vector = toVector(definition, Arrays.asList(BigInteger.ONE));
+    assertThat(vector.toList().get(0).toBigInteger(), Is.is(BigInteger.ONE));
+    vector.toList().set(0, definition.createElement(2));
+  }
+
+  @Test
+  public void scale() {
+    testDefinitions(definition -> {
+      BigInteger modulus = definition.getModulus();
+      List<BigInteger> values = randomValues(definition);
+      BigInteger scalar = modulus.subtract(BigInteger.valueOf(2));
+      List<BigInteger> scaled = toBigIntegers(
+          toVector(definition, values).scale(definition.createElement(scalar)));
+      for (int i = 0; i < SIZE; i++) {
+        assertThat(scaled.get(i), Is.is(values.get(i).multiply(scalar).mod(modulus)));
+      }
+    });
+  }
+
+  @Test
+  public void serialization() {
+    testDefinitions(definition -> {
+      List<BigInteger> values = randomValues(definition);
+      List<FieldElement> elements =
+          values.stream().map(definition::createElement).collect(Collectors.toList());
+      FieldElementVector vector = definition.createVector(elements);
+      byte[] bytes = vector.serialize();
+      assertThat(bytes, Is.is(definition.serialize(elements)));
+      assertThat(toBigIntegers(definition.deserializeVector(bytes)), Is.is(values));
+    });
+  }
+
+  @Test
+  public void deserializeUnreduced() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(8);
+    FieldElementVector vector = definition.deserializeVector(new byte[]{-1, -5, 0, 17});
+    assertThat(toBigIntegers(vector), Is.is(Arrays.asList(BigInteger.valueOf(4),
+        BigInteger.ZERO, BigInteger.ZERO, BigInteger.valueOf(17))));
+  }
+
+  @Test
+  public void deserializeUnreducedBigInteger() {
+    FieldDefinition definition = new BigIntegerFieldDefinition(BigInteger.valueOf(251));
+    FieldElementVector vector = definition.deserializeVector(new byte[]{-1, -5, 0, 17});
+    assertThat(toBigIntegers(vector), Is.is(Arrays.asList(BigInteger.valueOf(4),
+        BigInteger.ZERO, BigInteger.ZERO, BigInteger.valueOf(17))));
+  }
+
+  @Test
+  public void defaultVector() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(16);
+    FieldElementVector vector = new ListFieldElementVector(definition,
+        Arrays.asList(definition.createElement(3), definition.createElement(5)));
+    FieldElementVector squared = vector.multiply(vector);
+    assertThat(toBigIntegers(squared), Is.is(Arrays.asList(BigInteger.valueOf(9),
+        BigInteger.valueOf(25))));
+    assertThat(vector.innerProduct(vector).toBigInteger(), Is.is(BigInteger.valueOf(34)));
+    assertThat(toBigIntegers(vector.add(vector).subtract(vector).scale(
+        definition.createElement(2))), Is.is(Arrays.asList(BigInteger.valueOf(6),
+        BigInteger.valueOf(10))));
+    assertThat(vector.serialize(), Is.is(new byte[]{0, 3, 0, 5}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void differentSizes() {
+    FieldDefinition definition = MersennePrimeFieldDefinition.find(64);
+    toVector(definition, Arrays.asList(BigInteger.ONE, BigInteger.ONE))
+        .add(toVector(definition, Arrays.asList(BigInteger.ONE)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void differentDefinitions() {
+    FieldElementVector vector = toVector(MersennePrimeFieldDefinition.find(64),
+        Arrays.asList(BigInteger.ONE));
+    vector.add(toVector(MersennePrimeFieldDefinition.find(64), Arrays.asList(BigInteger.ONE)));
+  }
+}
@@ -0,0 +1,115 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class LongFieldDefinitionTest {
+
+  private static final BigInteger PRIME = BigInteger.ONE.shiftLeft(63)
+      .subtract(BigInteger.valueOf(25));
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLargeModulus() {
+    new LongFieldDefinition(MersennePrimeFieldDefinition.find(64).getModulus());
+  }
+
+  @Test
+  public void createElement() {
+    LongFieldDefinition definition = new LongFieldDefinition(113);
+    assertThat(definition.createElement(27 - 113).toBigInteger(), Is.is(BigInteger.valueOf(27)));
+    assertThat(definition.createElement("140").toBigInteger(), Is.is(BigInteger.valueOf(27)));
+    assertThat(definition.createElement(BigInteger.valueOf(-1)).toBigInteger(),
+        Is.is(BigInteger.valueOf(112)));
+    assertThat(definition.getModulus(), Is.is(BigInteger.valueOf(113)));
+    assertThat(definition.getBitLength(), Is.is(7));
+  }
+
+  @Test
+  public void arithmetic() {
+    LongFieldDefinition definition = new LongFieldDefinition(PRIME);
+    Random random = new Random(42);
+    for (int i = 0; i < 100; i++) {
+      BigInteger a = new BigInteger(63, random).mod(PRIME);
+      BigInteger b = new BigInteger(63, random).mod(PRIME).add(BigInteger.ONE);
+      FieldElement elementA = definition.createElement(a);
+      FieldElement elementB = definition.createElement(b);
+      assertThat(elementA.add(elementB).toBigInteger(), Is.is(a.add(b).mod(PRIME)));
+      assertThat(elementA.subtract(elementB).toBigInteger(), Is.is(a.subtract(b).mod(PRIME)));
+      assertThat(elementA.multiply(elementB).toBigInteger(), Is.is(a.multiply(b).mod(PRIME)));
+      assertThat(elementA.negate().toBigInteger(), Is.is(a.negate().mod(PRIME)));
+      assertThat(elementB.modInverse().toBigInteger(), Is.is(b.modInverse(PRIME)));
+    }
+  }
+
+  @Test
+  public void sqrt() {
+    LongFieldDefinition definition = new LongFieldDefinition(113);
+    FieldElement element = definition.createElement(9);
+    FieldElement root = element.sqrt();
+    assertThat(root.multiply(root).toBigInteger(), Is.is(BigInteger.valueOf(9)));
+  }
+
+  @Test
+  public void isZero() {
+    LongFieldDefinition definition = new LongFieldDefinition(113);
+    assertThat(definition.createElement(113).isZero(), Is.is(true));
+    assertThat(definition.createElement(1).isZero(), Is.is(false));
+  }
+
+  @Test
+  public void mixedOperands() {
+    LongFieldDefinition definition = new LongFieldDefinition(PRIME);
+    FieldElement element = definition.createElement(5);
+    FieldElement other = new BigIntegerFieldDefinition(PRIME).createElement(7);
+    assertThat(element.multiply(other).toBigInteger(), Is.is(BigInteger.valueOf(35)));
+    assertThat(element.subtract(other).toBigInteger(),
+        Is.is(PRIME.subtract(BigInteger.valueOf(2))));
+  }
+
+  @Test
+  public void serializationCompatible() {
+    LongFieldDefinition definition = new LongFieldDefinition(PRIME);
+    BigIntegerFieldDefinition reference = new BigIntegerFieldDefinition(PRIME);
+    List<BigInteger> values = Arrays.asList(BigInteger.ZERO, BigInteger.ONE,
+        PRIME.shiftRight(1), PRIME.subtract(BigInteger.ONE), BigInteger.valueOf(0x1234567890L));
+    List<FieldElement> elements = values.stream().map(definition::createElement)
+        .collect(Collectors.toList());
+    List<FieldElement> referenceElements = values.stream().map(reference::createElement)
+        .collect(Collectors.toList());
+    byte[] bytes = definition.serialize(elements);
+    assertThat(bytes, Is.is(reference.serialize(referenceElements)));
+    assertThat(bytes.length, Is.is(8 * values.size()));
+    assertThat(definition.deserializeList(bytes).stream().map(FieldElement::toBigInteger)
+        .collect(Collectors.toList()), Is.is(values));
+    for (int i = 0; i < values.size(); i++) {
+      byte[] single = definition.serialize(elements.get(i));
+      assertThat(single, Is.is(reference.serialize(referenceElements.get(i))));
+      assertThat(definition.deserialize(single).toBigInteger(), Is.is(values.get(i)));
+    }
+  }
+
+  @Test
+  public void shortModulusSerialization() {
+    LongFieldDefinition definition = new LongFieldDefinition(113);
+    assertThat(definition.serialize(definition.createElement(112)), Is.is(new byte[]{112}));
+    assertThat(definition.convertToBitVector(definition.createElement(3)),
+        Is.is(new StrictBitVector(new byte[]{3})));
+  }
+
+  @Test
+  public void convertToSigned() {
+    LongFieldDefinition definition = new LongFieldDefinition(113);
+    assertThat(definition.convertToSigned(BigInteger.valueOf(112)), Is.is(BigInteger.valueOf(-1)));
+    assertThat(definition.convertToSigned(BigInteger.valueOf(56)), Is.is(BigInteger.valueOf(56)));
+    assertThat(definition.convertToUnsigned(definition.createElement(-1)),
+        Is.is(BigInteger.valueOf(112)));
+  }
+}
@@ -0,0 +1,97 @@
+package dk.alexandra.fresco.framework.builder.numeric.field;
+
+import static org.junit.Assert.assertThat;
+
+import java.math.BigInteger;
+import java.util.Random;
+import org.hamcrest.CoreMatchers;
+import org.hamcrest.core.Is;
+import org.junit.Test;
+
+public class LongModulusTest {
+
+  private static final BigInteger[] PRIMES = {
+      BigInteger.valueOf(113),
+      BigInteger.valueOf(2147483647L),
+      BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE),
+      BigInteger.ONE.shiftLeft(63).subtract(BigInteger.valueOf(25))
+  };
+
+  @Test(expected = IllegalArgumentException.class)
+  public void tooLarge() {
+    new LongModulus(BigInteger.ONE.shiftLeft(63).add(BigInteger.valueOf(29)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void even() {
+    new LongModulus(BigInteger.valueOf(1024));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void one() {
+    new LongModulus(BigInteger.ONE);
+  }
+
+  @Test
+  public void toStringTest() {
+    LongModulus modulus = new LongModulus(BigInteger.valueOf(2147483647L));
+    assertThat(modulus.toString(), CoreMatchers.containsString("2147483647"));
+  }
+
+  @Test
+  public void unsignedMultiplyHigh() {
+    Random random = new Random(0x42L);
+    for (int i = 0; i < 1000; i++) {
+      long a = random.nextLong();
+      long b = random.nextLong();
+      BigInteger product = unsigned(a).multiply(unsigned(b));
+      assertThat(LongModulus.unsignedMultiplyHigh(a, b), Is.is(product.shiftRight(64).longValue()));
+    }
+  }
+
+  @Test
+  public void arithmetic() {
+    Random random = new Random(0xFFAA115599L);
+    for (BigInteger prime : PRIMES) {
+      LongModulus modulus = new LongModulus(prime);
+      for (int i = 0; i < 200; i++) {
+        BigInteger a = new BigInteger(prime.bitLength() + 8, random).mod(prime);
+        BigInteger b = new BigInteger(prime.bitLength() + 8, random).mod(prime);
+        long montA = modulus.toMontgomery(a);
+        long montB = modulus.toMontgomery(b);
+        assertThat(fromMontgomery(modulus, montA), Is.is(a));
+        assertThat(fromMontgomery(modulus, modulus.add(montA, montB)),
+            Is.is(a.add(b).mod(prime)));
+        assertThat(fromMontgomery(modulus, modulus.subtract(montA, montB)),
+            Is.is(a.subtract(b).mod(prime)));
+        assertThat(fromMontgomery(modulus, modulus.negate(montA)), Is.is(a.negate().mod(prime)));
+        assertThat(fromMontgomery(modulus, modulus.multiply(montA, montB)),
+            Is.is(a.multiply(b).mod(prime)));
+      }
+    }
+  }
+
+  @Test
+  public void extremeValues() {
+    for (BigInteger prime : PRIMES) {
+      LongModulus modulus = new LongModulus(prime);
+      BigInteger max = prime.subtract(BigInteger.ONE);
+      long montMax = modulus.toMontgomery(max);
+      assertThat(fromMontgomery(modulus, modulus.multiply(montMax, montMax)), Is.is(BigInteger.ONE));
+      assertThat(fromMontgomery(modulus, modulus.add(montMax, montMax)),
+          Is.is(max.add(max).mod(prime)));
+      assertThat(modulus.toMontgomery(prime.longValue()), Is.is(0L));
+      assertThat(fromMontgomery(modulus, modulus.toMontgomery(-1L)), Is.is(max));
+      assertThat(fromMontgomery(modulus, modulus.toMontgomery(Long.MIN_VALUE)),
+          Is.is(BigInteger.valueOf(Long.MIN_VALUE).mod(prime)));
+    }
+  }
+
+  private static BigInteger fromMontgomery(LongModulus modulus, long value) {
+    return BigInteger.valueOf(modulus.fromMontgomery(value));
+  }
+
+  private static BigInteger unsigned(long value) {
+    return new BigInteger(Long.toUnsignedString(value));
+  }
+}
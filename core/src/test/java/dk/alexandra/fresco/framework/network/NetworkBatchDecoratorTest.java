@@ -1,6 +1,7 @@
 package dk.alexandra.fresco.framework.network;
 
 import dk.alexandra.fresco.framework.sce.evaluator.NetworkBatchDecorator;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -65,25 +66,29 @@ public class NetworkBatchDecoratorTest {
     Assert.assertArrayEquals(new byte[]{1, 123}, transmissions.get(3));
   }
 
-  @Test(expected = RuntimeException.class)
-  public void errorOnBigPackets() throws Exception {
-    networkBatchDecorator.sendToAll(
-        new byte[]{
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-            123, 123, 123, 123, 123, 123, 123, 123, 123, 123,
-        });
+  @Test
+  public void sendBigPackets() throws Exception {
+    byte[] data = new byte[300];
+    Arrays.fill(data, (byte) 123);
+    networkBatchDecorator.send(1, new byte[]{42});
+    networkBatchDecorator.send(1, data);
+    networkBatchDecorator.flush();
+    byte[] sent = transmissions.get(1);
+    Assert.assertEquals(2 + 2 + 300, sent.length);
+    Assert.assertArrayEquals(new byte[]{1, 42, (byte) 0xAC, 0x02},
+        Arrays.copyOfRange(sent, 0, 4));
+    Assert.assertArrayEquals(data, Arrays.copyOfRange(sent, 4, sent.length));
+  }
 
+  @Test
+  public void receiveBigPackets() throws Exception {
+    byte[] data = new byte[70000];
+    Arrays.fill(data, (byte) 7);
+    networkBatchDecorator.send(2, data);
+    networkBatchDecorator.send(2, new byte[]{5, 6});
+    networkBatchDecorator.flush();
+    Assert.assertArrayEquals(data, networkBatchDecorator.receive(2));
+    Assert.assertArrayEquals(new byte[]{5, 6}, networkBatchDecorator.receive(2));
   }
 
   private class DummyNetwork implements Network {
@@ -0,0 +1,111 @@
+package dk.alexandra.fresco.framework.network.socket;
+
+import static dk.alexandra.fresco.framework.network.socket.Connector.DEFAULT_CONNECTION_TIMEOUT;
+import static org.junit.Assert.assertArrayEquals;
+
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.network.AbstractCloseableNetworkTest;
+import dk.alexandra.fresco.framework.network.CloseableNetwork;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.Socket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.Test;
+
+public class TestSocketChannelNetwork extends AbstractCloseableNetworkTest {
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf) {
+    return newCloseableNetwork(conf, DEFAULT_CONNECTION_TIMEOUT);
+  }
+
+  @Override
+  protected CloseableNetwork newCloseableNetwork(NetworkConfiguration conf, Duration timeout) {
+    return new SocketChannelNetwork(conf, timeout);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  @SuppressWarnings("resource")
+  public void testSocketWithoutChannel()
+      throws InterruptedException, ExecutionException, IOException {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT)));
+      }
+      new SocketChannelNetwork(confs.get(0), fs.get(0).get().getSocketMap());
+    } finally {
+      for (Future<NetworkConnector> futureConn : fs) {
+        for (Socket s : futureConn.get().getSocketMap().values()) {
+          s.close();
+        }
+      }
+      es.shutdownNow();
+    }
+  }
+
+  @Test(expected = RuntimeException.class)
+  public void testClosedByOtherParty()
+      throws InterruptedException, ExecutionException, IOException {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    List<Future<NetworkConnector>> fs = new ArrayList<>(numParties);
+    CloseableNetwork network = null;
+    try {
+      for (int i = 0; i < numParties; i++) {
+        final int id = i;
+        fs.add(es.submit(() -> new Connector(confs.get(id), DEFAULT_CONNECTION_TIMEOUT,
+            new ChannelSocketFactory(), new ChannelServerSocketFactory())));
+      }
+      Map<Integer, Socket> socketMap1 = fs.get(0).get().getSocketMap();
+      Map<Integer, Socket> socketMap2 = fs.get(1).get().getSocketMap();
+      network = new SocketChannelNetwork(confs.get(0), socketMap1);
+      new DataOutputStream(socketMap2.get(1).getOutputStream()).writeInt(-1);
+      network.receive(2);
+    } finally {
+      for (Future<NetworkConnector> futureConn : fs) {
+        for (Socket s : futureConn.get().getSocketMap().values()) {
+          s.close();
+        }
+      }
+      if (network != null) {
+        network.close();
+      }
+      es.shutdownNow();
+    }
+  }
+
+  @Test(timeout = TWO_MINUTE_TIMEOUT_MILLIS)
+  public void testCompatibleWithSocketNetwork()
+      throws InterruptedException, ExecutionException, IOException {
+    final int numParties = 2;
+    List<NetworkConfiguration> confs = getNetConfs(numParties);
+    ExecutorService es = Executors.newFixedThreadPool(numParties);
+    Future<CloseableNetwork> channelNetwork =
+        es.submit(() -> new SocketChannelNetwork(confs.get(0)));
+    Future<CloseableNetwork> socketNetwork = es.submit(() -> new SocketNetwork(confs.get(1)));
+    networks.put(1, channelNetwork.get());
+    networks.put(2, socketNetwork.get());
+    es.shutdownNow();
+    for (int i = 0; i < 100; i++) {
+      byte[] data = new byte[i * 100 + 1];
+      data[i % data.length] = (byte) i;
+      networks.get(1).send(2, data.clone());
+      networks.get(2).send(1, data.clone());
+      assertArrayEquals(data, networks.get(1).receive(2));
+      assertArrayEquals(data, networks.get(2).receive(1));
+    }
+  }
+}
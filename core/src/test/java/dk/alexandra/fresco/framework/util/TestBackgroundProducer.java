@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.framework.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.util.BackgroundProducer.Buffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.Test;
+
+public class TestBackgroundProducer {
+
+  @Test
+  public void testElementsInOrder() {
+    AtomicInteger next = new AtomicInteger();
+    try (BackgroundProducer producer = new BackgroundProducer("test")) {
+      Buffer<Integer> buffer = producer.createBuffer(amount -> IntStream.range(0, amount)
+          .mapToObj(i -> next.getAndIncrement()).collect(Collectors.toList()), 3, 10, 4);
+      buffer.fill();
+      for (int i = 0; i < 100; i++) {
+        assertEquals(i, buffer.take().intValue());
+      }
+    }
+  }
+
+  @Test
+  public void testRequestsOnlyDependOnConsumption() {
+    List<Integer> requests = new ArrayList<>();
+    try (BackgroundProducer producer = new BackgroundProducer("test")) {
+      Buffer<Integer> buffer = producer.createBuffer(amount -> {
+        requests.add(amount);
+        return new ArrayList<>(Collections.nCopies(amount, 0));
+      }, 3, 10, 4);
+      buffer.fill();
+      assertEquals(12, buffer.getOutstanding());
+      for (int i = 0; i < 9; i++) {
+        buffer.take();
+      }
+      assertEquals(3, buffer.getOutstanding());
+      // Dropping below the low watermark requests up to the high watermark in whole batches
+      buffer.take();
+      assertEquals(10, buffer.getOutstanding());
+      producer.finish();
+      assertEquals(Arrays.asList(12, 8), requests);
+    }
+  }
+
+  @Test
+  public void testStalls() {
+    CountDownLatch release = new CountDownLatch(1);
+    try (BackgroundProducer producer = new BackgroundProducer("test")) {
+      Buffer<Integer> buffer = producer.createBuffer(amount -> {
+        try {
+          release.await();
+        } catch (InterruptedException e) {
+          throw new IllegalStateException(e);
+        }
+        return IntStream.range(0, amount).boxed().collect(Collectors.toList());
+      }, 0, 1, 1);
+      buffer.fill();
+      new Thread(() -> {
+        try {
+          Thread.sleep(200);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+        release.countDown();
+      }).start();
+      buffer.take();
+      assertEquals(1, buffer.getStalls());
+      assertTrue(buffer.getStallNanos() > 0);
+      buffer.resetMetrics();
+      assertEquals(0, buffer.getStalls());
+      assertEquals(0, buffer.getStallNanos());
+    }
+  }
+
+  @Test
+  public void testRestartAfterFinish() {
+    try (BackgroundProducer producer = new BackgroundProducer("test")) {
+      Buffer<Integer> buffer = producer.createBuffer(amount -> IntStream.range(0, amount).boxed()
+          .collect(Collectors.toList()), 0, 0, 2);
+      buffer.request(1);
+      producer.finish();
+      assertEquals(0, buffer.take().intValue());
+      assertEquals(1, buffer.take().intValue());
+      buffer.request(1);
+      assertEquals(0, buffer.take().intValue());
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFailure() {
+    try (BackgroundProducer producer = new BackgroundProducer("test")) {
+      Buffer<Integer> buffer = producer.createBuffer(amount -> {
+        throw new RuntimeException("Failed");
+      }, 0, 1, 1);
+      buffer.fill();
+      buffer.take();
+    }
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testClose() {
+    BackgroundProducer producer = new BackgroundProducer("test");
+    Buffer<Integer> buffer = producer.createBuffer(amount -> new ArrayList<>(), 0, 0, 1);
+    producer.close();
+    buffer.request(1);
+    buffer.take();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermarks() {
+    new BackgroundProducer("test").createBuffer(amount -> new ArrayList<>(), 2, 1, 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBatchSize() {
+    new BackgroundProducer("test").createBuffer(amount -> new ArrayList<>(), 0, 1, 0);
+  }
+}
@@ -83,6 +83,46 @@ public class BasicBooleanTests {
   }
 
 
+  public static class TestOpenToParty<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
+
+    private boolean doAsserts;
+
+    public TestOpenToParty(boolean doAsserts) {
+      this.doAsserts = doAsserts;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderBinary> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderBinary>() {
+        @Override
+        public void test() throws Exception {
+          Application<List<Boolean>, ProtocolBuilderBinary> app = producer -> producer.seq(seq -> {
+            Binary builder = seq.binary();
+            DRes<SBool> trueBool = builder.input(true, 1);
+            DRes<SBool> falseBool = builder.known(false);
+            List<DRes<Boolean>> opened = new ArrayList<>();
+            opened.add(builder.open(builder.xor(trueBool, falseBool), 1));
+            opened.add(builder.open(builder.xor(trueBool, falseBool), 2));
+            opened.add(builder.open(builder.and(trueBool, trueBool), 2));
+            opened.add(builder.open(falseBool, 2));
+            return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+          });
+
+          List<Boolean> output = runApplication(app);
+
+          if (doAsserts) {
+            int myId = conf.getMyId();
+            Assert.assertEquals(myId == 1 ? true : null, output.get(0));
+            Assert.assertEquals(myId == 2 ? true : null, output.get(1));
+            Assert.assertEquals(myId == 2 ? true : null, output.get(2));
+            Assert.assertEquals(myId == 2 ? false : null, output.get(3));
+          }
+        }
+      };
+    }
+  }
+
   public static class TestXOR<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderBinary> {
 
@@ -576,6 +576,97 @@ public class BasicArithmeticTests {
     }
   }
 
+  /**
+   * Test a large amount of inputs from all parties in a single batch. Each input is multiplied by
+   * the next and opened, such that the batches contain many protocols that use the network.
+   */
+  public static class TestLotsInputs<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int repetitions = 2000;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                int noOfParties = par.getBasicNumericContext().getNoOfParties();
+                List<DRes<SInt>> inputs = new ArrayList<>(repetitions);
+                for (int i = 0; i < repetitions; i++) {
+                  inputs.add(numeric.input(BigInteger.valueOf(i), i % noOfParties + 1));
+                }
+                return () -> inputs;
+              }).par((par, inputs) -> {
+                List<DRes<BigInteger>> opened = new ArrayList<>(repetitions);
+                for (int i = 0; i < repetitions; i++) {
+                  DRes<SInt> left = inputs.get(i);
+                  DRes<SInt> right = inputs.get((i + 1) % repetitions);
+                  opened.add(par.seq(seq -> {
+                    Numeric numeric = seq.numeric();
+                    return numeric.open(numeric.mult(left, right));
+                  }));
+                }
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(repetitions));
+          for (int i = 0; i < repetitions; i++) {
+            BigInteger expected = BigInteger.valueOf(i)
+                .multiply(BigInteger.valueOf((i + 1) % repetitions));
+            Assert.assertEquals(expected, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
+  /**
+   * Test multiplying two lists of secret values entry-wise in one call.
+   */
+  public static class TestMultiplyLists<ResourcePoolT extends NumericResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      final int size = 100;
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app =
+              producer -> producer.par(par -> {
+                Numeric numeric = par.numeric();
+                List<DRes<SInt>> left = new ArrayList<>(size);
+                List<DRes<SInt>> right = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                  left.add(numeric.input(BigInteger.valueOf(i), 1));
+                  right.add(numeric.input(BigInteger.valueOf(size - 2 * i), 2));
+                }
+                return () -> new Pair<>(left, right);
+              }).par((par, factors) -> par.numeric().mult(factors.getFirst(), factors.getSecond())
+              ).par((par, products) -> {
+                Numeric numeric = par.numeric();
+                List<DRes<BigInteger>> opened = products.stream().map(numeric::open)
+                    .collect(Collectors.toList());
+                return () -> opened.stream().map(DRes::out).collect(Collectors.toList());
+              });
+          List<BigInteger> output = runApplication(app);
+
+          Assert.assertThat(output.size(), Is.is(size));
+          for (int i = 0; i < size; i++) {
+            BigInteger expected = BigInteger.valueOf(i).multiply(BigInteger.valueOf(size - 2 * i))
+                .mod(conf.getResourcePool().getModulus());
+            Assert.assertEquals(expected, output.get(i));
+          }
+        }
+      };
+    }
+  }
+
   /**
    * Test a computation of doing a many multiplications and additions alternating between the two.
    * This should ensure batches with both types of protocols.
@@ -5,7 +5,10 @@ import static org.junit.Assert.assertThat;
 
 import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests.TestInputFromDifferentParties;
 import dk.alexandra.fresco.suite.dummy.arithmetic.ParallelAndSequenceTests.TestSumAndProduct;
+import dk.alexandra.fresco.framework.builder.numeric.field.LongFieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.logging.NetworkLoggingDecorator;
+import java.math.BigInteger;
 import org.junit.Test;
 
 public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
@@ -109,6 +112,44 @@ public class TestBasicArithmetic extends AbstractDummyArithmeticTest {
     runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters());
   }
 
+  @Test
+  public void test_MultiplyLists() {
+    runTest(new BasicArithmeticTests.TestMultiplyLists<>(), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_MultiplyLists_LongField() {
+    runTest(new BasicArithmeticTests.TestMultiplyLists<>(), new TestParameters()
+        .numParties(2)
+        .field(new LongFieldDefinition(BigInteger.ONE.shiftLeft(61).subtract(BigInteger.ONE))));
+  }
+
+  @Test
+  public void test_TestLotsInputs() {
+    runTest(new BasicArithmeticTests.TestLotsInputs<>(), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_TestLotsInputs_Parallel() {
+    runTest(new BasicArithmeticTests.TestLotsInputs<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
+  @Test
+  public void test_TestLotsInputs_Pipelined() {
+    runTest(new BasicArithmeticTests.TestLotsInputs<>(), new TestParameters()
+        .numParties(3)
+        .evaluationStrategy(EvaluationStrategy.PIPELINED_BATCHED));
+  }
+
+  @Test
+  public void test_TestLotsMult_Parallel() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), new TestParameters()
+        .numParties(2)
+        .evaluationStrategy(EvaluationStrategy.PARALLEL_BATCHED));
+  }
+
   @Test
   public void test_TestAlternatingMultAdd() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(), new TestParameters());
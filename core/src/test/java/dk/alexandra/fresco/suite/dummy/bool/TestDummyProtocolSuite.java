@@ -54,4 +54,10 @@ public class TestDummyProtocolSuite extends AbstractDummyBooleanTest {
     runTest(new TestInputDifferentSender<>(true), EvaluationStrategy.SEQUENTIAL, false, 2);
   }
 
+  @Test
+  public void test_open_to_party() {
+    runTest(new BasicBooleanTests.TestOpenToParty<>(true), EvaluationStrategy.SEQUENTIAL, false,
+        3);
+  }
+
 }
@@ -24,6 +24,23 @@ public interface Collections extends ComputationDirectory {
     return new DefaultCollections(builder);
   }
 
+  /**
+   * The sorting algorithms supported by {@link #sort(List, SortingAlgorithm)}.
+   */
+  enum SortingAlgorithm {
+    /**
+     * Batcher's odd-even merge sort, using O(n log<sup>2</sup> n) secure comparisons and
+     * conditional swaps of the payloads.
+     */
+    ODD_EVEN_MERGE,
+    /**
+     * Shuffles the list obliviously and sorts it using opened comparisons, using O(n log n)
+     * secure comparisons and no conditional swaps. The keys must leave room for log n extra bits
+     * within the max bit length.
+     */
+    SHUFFLE_THEN_SORT
+  }
+
   // I/O
 
   /**
@@ -171,4 +188,30 @@ public interface Collections extends ComputationDirectory {
    */
   DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> sort(List<Pair<DRes<SInt>, List<DRes<SInt>>>> input);
 
+  /**
+   * Sorts a list of key-value pairs in descending order using the given algorithm. NOTE: For
+   * secrecy reasons, the values associated to the keys must all be lists of equal length.
+   *
+   * @param input A Key-value pair where the key is being sorted on and the value is a list of other
+   *              elements being associated to the key.
+   * @param algorithm The sorting algorithm to use
+   * @return Returns the sorted list in descending order.
+   */
+  DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> sort(
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> input, SortingAlgorithm algorithm);
+
+  /**
+   * Radix sort on the bits of the keys. Returning the largest element first. Each bit of the keys
+   * takes an oblivious shuffle of the list, i.e. O(n log n) work and O(p log n) rounds for n
+   * elements and p parties, and the sort is stable. NOTE: For secrecy reasons, the values
+   * associated to the keys must all be lists of equal length.
+   *
+   * @param input A Key-value pair where the key is being sorted on and the value is a list of other
+   *              elements being associated to the key.
+   * @param keyBitLength The bit length of the keys, which must be positive
+   * @return Returns the sorted list in descending order.
+   */
+  DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> radixSort(
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> input, int keyBitLength);
+
 }
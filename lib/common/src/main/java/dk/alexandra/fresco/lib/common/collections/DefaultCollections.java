@@ -13,6 +13,8 @@ import dk.alexandra.fresco.lib.common.collections.io.OpenRowPair;
 import dk.alexandra.fresco.lib.common.collections.permute.PermuteRows;
 import dk.alexandra.fresco.lib.common.collections.shuffle.ShuffleRows;
 import dk.alexandra.fresco.lib.common.collections.sort.OddEvenMerge;
+import dk.alexandra.fresco.lib.common.collections.sort.RadixSort;
+import dk.alexandra.fresco.lib.common.collections.sort.ShuffleThenSort;
 import dk.alexandra.fresco.lib.common.math.integer.conditional.ConditionalSelectRow;
 import dk.alexandra.fresco.lib.common.math.integer.conditional.SwapNeighborsIf;
 import dk.alexandra.fresco.lib.common.math.integer.conditional.SwapRowsIf;
@@ -107,6 +109,22 @@ public class DefaultCollections implements Collections {
   @Override
   public DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> sort(
       List<Pair<DRes<SInt>, List<DRes<SInt>>>> input) {
-    return builder.seq(OddEvenMerge.numeric(input));
+    return sort(input, SortingAlgorithm.ODD_EVEN_MERGE);
+  }
+
+  @Override
+  public DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> sort(
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> input, SortingAlgorithm algorithm) {
+    if (algorithm == SortingAlgorithm.SHUFFLE_THEN_SORT) {
+      return builder.seq(new ShuffleThenSort(input));
+    } else {
+      return builder.seq(OddEvenMerge.numeric(input));
+    }
+  }
+
+  @Override
+  public DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> radixSort(
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> input, int keyBitLength) {
+    return builder.seq(new RadixSort(input, keyBitLength));
   }
 }
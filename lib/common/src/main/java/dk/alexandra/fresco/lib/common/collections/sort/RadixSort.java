@@ -0,0 +1,181 @@
+package dk.alexandra.fresco.lib.common.collections.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Sorts a list of key/value pairs in descending order using a least significant bit first radix
+ * sort on the bits of the keys.
+ *
+ * <p>The keys are decomposed into bits once. For each bit, the position of each pair after a
+ * stable partition on that bit is computed from prefix sums of the bits, which only takes local
+ * additions and a single multiplication per pair. The pairs are then shuffled together with their
+ * new positions, the positions are opened and the pairs are moved to them locally. Since the
+ * positions are only opened after the shuffle, they reveal nothing but a random permutation.</p>
+ *
+ * <p>The cost of each bit is dominated by the shuffle, where each party in turn permutes the list
+ * with a Waksman network. For a list of length <i>n</i> and <i>p</i> parties a pass is thus O(n
+ * log n) work and O(p log n) rounds, so the total cost grows with the key bit length times that of
+ * a shuffle, but no comparisons are needed, compared to the O(n log<sup>2</sup> n) comparisons
+ * and conditional swaps of {@link OddEvenMerge}. The keys must be non-negative and less than
+ * <i>2<sup>keyBitLength</sup></i>. Unlike {@link OddEvenMerge} the sort is stable.</p>
+ */
+public class RadixSort implements
+    Computation<List<Pair<DRes<SInt>, List<DRes<SInt>>>>, ProtocolBuilderNumeric> {
+
+  private final List<Pair<DRes<SInt>, List<DRes<SInt>>>> unsorted;
+  private final int keyBitLength;
+  private final int payloadSize;
+
+  public RadixSort(List<Pair<DRes<SInt>, List<DRes<SInt>>>> unsorted, int keyBitLength) {
+    // Verify that the payloads all have the same size, to avoid leaking info based on this
+    unsorted.forEach(current -> {
+      if (current.getSecond().size() != unsorted.get(0).getSecond().size()) {
+        throw new UnsupportedOperationException(
+            "All payload lists must have equal length to avoid leaking info");
+      }
+    });
+    if (keyBitLength < 1) {
+      throw new IllegalArgumentException("Key bit length must be positive, was " + keyBitLength);
+    }
+    this.unsorted = unsorted;
+    this.keyBitLength = keyBitLength;
+    this.payloadSize = unsorted.isEmpty() ? 0 : unsorted.get(0).getSecond().size();
+  }
+
+  @Override
+  public DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+    if (unsorted.size() < 2) {
+      return () -> unsorted;
+    }
+    return builder.par(par -> {
+      List<DRes<List<DRes<SInt>>>> bits = new ArrayList<>(unsorted.size());
+      for (Pair<DRes<SInt>, List<DRes<SInt>>> pair : unsorted) {
+        bits.add(AdvancedNumeric.using(par).toBits(pair.getFirst(), keyBitLength));
+      }
+      return () -> bits;
+    }).seq((seq, bits) -> {
+      // Rows are the key, the payload and the bits of the key
+      List<ArrayList<DRes<SInt>>> rows = new ArrayList<>(unsorted.size());
+      for (int i = 0; i < unsorted.size(); i++) {
+        ArrayList<DRes<SInt>> row = new ArrayList<>(1 + payloadSize + keyBitLength);
+        row.add(unsorted.get(i).getFirst());
+        row.addAll(unsorted.get(i).getSecond());
+        row.addAll(bits.get(i).out());
+        rows.add(row);
+      }
+      return new PassState(0, rows);
+    }).whileLoop(state -> state.bit < keyBitLength,
+        (seq, state) -> seq.seq(pass(state.rows, 1 + payloadSize + state.bit))
+            .seq((ignored, rows) -> new PassState(state.bit + 1, rows))
+    ).seq((seq, state) -> {
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> sorted = new ArrayList<>(unsorted.size());
+      for (ArrayList<DRes<SInt>> row : state.rows) {
+        sorted.add(new Pair<>(row.get(0), new ArrayList<>(row.subList(1, payloadSize + 1))));
+      }
+      return () -> sorted;
+    });
+  }
+
+  /**
+   * Stably partitions the rows on the bit in the given column, such that the rows where the bit is
+   * set come first.
+   */
+  private Computation<List<ArrayList<DRes<SInt>>>, ProtocolBuilderNumeric> pass(
+      List<ArrayList<DRes<SInt>>> rows, int column) {
+    int n = rows.size();
+    int width = rows.get(0).size();
+    return builder -> builder.seq(seq -> {
+      List<DRes<SInt>> bits = new ArrayList<>(n);
+      for (ArrayList<DRes<SInt>> row : rows) {
+        bits.add(row.get(column));
+      }
+      return new ScanState(1, bits);
+    }).whileLoop(state -> state.offset < n, (seq, state) -> seq.par(par -> {
+      // One step of an inclusive prefix sum, adding the value offset positions to the left
+      Numeric numeric = par.numeric();
+      List<DRes<SInt>> sums = new ArrayList<>(state.sums.subList(0, state.offset));
+      for (int i = state.offset; i < n; i++) {
+        sums.add(numeric.add(state.sums.get(i), state.sums.get(i - state.offset)));
+      }
+      return new ScanState(state.offset << 1, sums);
+    })).par((par, state) -> {
+      // A row with its bit set goes to the number of set bits before it, and a row with its bit
+      // not set goes after all rows with the bit set, i.e., to ones + zeros before it
+      DRes<SInt> ones = state.sums.get(n - 1);
+      List<DRes<SInt>> positions = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        DRes<SInt> bit = rows.get(i).get(column);
+        DRes<SInt> inclusiveOnes = state.sums.get(i);
+        BigInteger index = BigInteger.valueOf(i);
+        positions.add(par.seq(seq -> {
+          Numeric numeric = seq.numeric();
+          DRes<SInt> onesBefore = numeric.sub(inclusiveOnes, bit);
+          DRes<SInt> zerosBefore = numeric.sub(index, onesBefore);
+          DRes<SInt> notSet = numeric.add(ones, zerosBefore);
+          return numeric.add(notSet, numeric.mult(bit, numeric.sub(onesBefore, notSet)));
+        }));
+      }
+      return () -> positions;
+    }).seq((seq, positions) -> {
+      List<ArrayList<DRes<SInt>>> withPositions = new ArrayList<>(n);
+      for (int i = 0; i < n; i++) {
+        ArrayList<DRes<SInt>> row = new ArrayList<>(rows.get(i));
+        row.add(positions.get(i));
+        withPositions.add(row);
+      }
+      return seq.seq(
+          new ShuffleAndOpenColumn(withPositions, width + 1, width, BigInteger.valueOf(n)));
+    }).seq((seq, shuffled) -> {
+      List<ArrayList<DRes<SInt>>> result = new ArrayList<>(Collections.nCopies(n, null));
+      for (int i = 0; i < n; i++) {
+        ArrayList<DRes<SInt>> row = shuffled.getFirst().get(i);
+        result.set(shuffled.getSecond().get(i).intValueExact(),
+            new ArrayList<>(row.subList(0, width)));
+      }
+      return () -> result;
+    });
+  }
+
+  private static final class PassState implements DRes<PassState> {
+
+    private final int bit;
+    private final List<ArrayList<DRes<SInt>>> rows;
+
+    private PassState(int bit, List<ArrayList<DRes<SInt>>> rows) {
+      this.bit = bit;
+      this.rows = rows;
+    }
+
+    @Override
+    public PassState out() {
+      return this;
+    }
+  }
+
+  private static final class ScanState implements DRes<ScanState> {
+
+    private final int offset;
+    private final List<DRes<SInt>> sums;
+
+    private ScanState(int offset, List<DRes<SInt>> sums) {
+      this.offset = offset;
+      this.sums = sums;
+    }
+
+    @Override
+    public ScanState out() {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package dk.alexandra.fresco.lib.common.collections.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Collections;
+import dk.alexandra.fresco.lib.common.collections.Matrix;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Shuffles the rows of a matrix and opens a single column of the shuffled rows. Since the rows are
+ * at uniformly random positions after the shuffle, the opened column reveals nothing about the
+ * original order of the rows.
+ *
+ * <p>The shuffle only supports a power of two number of rows, so the matrix is padded with rows
+ * which are zero except in the opened column, where they hold a public padding value. The padding
+ * rows are removed after the column is opened, so the padding value must differ from the opened
+ * values of all real rows.</p>
+ */
+class ShuffleAndOpenColumn implements
+    Computation<Pair<List<ArrayList<DRes<SInt>>>, List<BigInteger>>, ProtocolBuilderNumeric> {
+
+  private final List<ArrayList<DRes<SInt>>> rows;
+  private final int width;
+  private final int column;
+  private final BigInteger padding;
+
+  /**
+   * Constructs a new computation.
+   *
+   * @param rows the rows to shuffle, all of the given width
+   * @param width the width of the rows
+   * @param column the index of the column to open
+   * @param padding the value of the opened column in the padding rows
+   */
+  ShuffleAndOpenColumn(List<ArrayList<DRes<SInt>>> rows, int width, int column,
+      BigInteger padding) {
+    this.rows = rows;
+    this.width = width;
+    this.column = column;
+    this.padding = padding;
+  }
+
+  @Override
+  public DRes<Pair<List<ArrayList<DRes<SInt>>>, List<BigInteger>>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+    int height = rows.size() < 2 ? rows.size() : Integer.highestOneBit(rows.size() - 1) << 1;
+    return builder.seq(seq -> {
+      Numeric numeric = seq.numeric();
+      ArrayList<ArrayList<DRes<SInt>>> padded = new ArrayList<>(rows);
+      while (padded.size() < height) {
+        ArrayList<DRes<SInt>> row = new ArrayList<>(width);
+        for (int j = 0; j < width; j++) {
+          row.add(numeric.known(j == column ? padding : BigInteger.ZERO));
+        }
+        padded.add(row);
+      }
+      Matrix<DRes<SInt>> matrix = new Matrix<>(height, width, padded);
+      return Collections.using(seq).shuffle(() -> matrix);
+    }).par((par, shuffled) -> {
+      List<DRes<BigInteger>> opened = new ArrayList<>(height);
+      for (ArrayList<DRes<SInt>> row : shuffled.getRows()) {
+        opened.add(par.numeric().open(row.get(column)));
+      }
+      return () -> new Pair<>(shuffled, opened);
+    }).seq((seq, shuffledAndOpened) -> {
+      List<ArrayList<DRes<SInt>>> realRows = new ArrayList<>(rows.size());
+      List<BigInteger> values = new ArrayList<>(rows.size());
+      for (int i = 0; i < height; i++) {
+        BigInteger value = shuffledAndOpened.getSecond().get(i).out();
+        if (!value.equals(padding)) {
+          realRows.add(shuffledAndOpened.getFirst().getRow(i));
+          values.add(value);
+        }
+      }
+      return () -> new Pair<>(realRows, values);
+    });
+  }
+}
@@ -0,0 +1,159 @@
+package dk.alexandra.fresco.lib.common.collections.sort;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.compare.Comparison;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sorts a list of key/value pairs in descending order by first shuffling the list obliviously and
+ * then sorting it with a quicksort where the results of the comparisons are opened.
+ *
+ * <p>Since the list is shuffled before sorting, and the keys are made distinct by appending the
+ * position of each pair in the shuffled list as the least significant bits of the key, the opened
+ * comparisons reveal nothing about the input beyond its length. The quicksort uses the first pair
+ * of each partition as pivot, which is a uniformly random choice after the shuffle. All
+ * comparisons of a level are done in parallel, so the expected number of comparisons is O(n log
+ * n) and the expected number of rounds O(log n), compared to the O(n log<sup>2</sup> n)
+ * comparisons and conditional swaps of the payloads used by {@link OddEvenMerge}. The payloads are
+ * only moved by the shuffle.</p>
+ *
+ * <p>The keys must be at most <i>m - log n</i> bits, where <i>m</i> is the max bit length of the
+ * context and <i>n</i> the length of the list. As for {@link OddEvenMerge} the sort is not
+ * stable.</p>
+ */
+public class ShuffleThenSort implements
+    Computation<List<Pair<DRes<SInt>, List<DRes<SInt>>>>, ProtocolBuilderNumeric> {
+
+  private final List<Pair<DRes<SInt>, List<DRes<SInt>>>> unsorted;
+  private final int payloadSize;
+
+  public ShuffleThenSort(List<Pair<DRes<SInt>, List<DRes<SInt>>>> unsorted) {
+    // Verify that the payloads all have the same size, to avoid leaking info based on this
+    unsorted.forEach(current -> {
+      if (current.getSecond().size() != unsorted.get(0).getSecond().size()) {
+        throw new UnsupportedOperationException(
+            "All payload lists must have equal length to avoid leaking info");
+      }
+    });
+    this.unsorted = unsorted;
+    this.payloadSize = unsorted.isEmpty() ? 0 : unsorted.get(0).getSecond().size();
+  }
+
+  @Override
+  public DRes<List<Pair<DRes<SInt>, List<DRes<SInt>>>>> buildComputation(
+      ProtocolBuilderNumeric builder) {
+    if (unsorted.size() < 2) {
+      return () -> unsorted;
+    }
+    return builder.seq(seq -> {
+      // Rows are the key, the payload and a flag which is one for the real rows
+      Numeric numeric = seq.numeric();
+      List<ArrayList<DRes<SInt>>> rows = new ArrayList<>(unsorted.size());
+      for (Pair<DRes<SInt>, List<DRes<SInt>>> pair : unsorted) {
+        ArrayList<DRes<SInt>> row = new ArrayList<>(payloadSize + 2);
+        row.add(pair.getFirst());
+        row.addAll(pair.getSecond());
+        row.add(numeric.known(1));
+        rows.add(row);
+      }
+      return seq.seq(
+          new ShuffleAndOpenColumn(rows, payloadSize + 2, payloadSize + 1, BigInteger.ZERO));
+    }).seq((seq, shuffled) -> {
+      Numeric numeric = seq.numeric();
+      BigInteger shift = BigInteger.ONE.shiftLeft(bitLength(unsorted.size()));
+      List<DRes<SInt>> distinctKeys = new ArrayList<>(unsorted.size());
+      List<Pair<DRes<SInt>, List<DRes<SInt>>>> pairs = new ArrayList<>(unsorted.size());
+      for (ArrayList<DRes<SInt>> row : shuffled.getFirst()) {
+        DRes<SInt> key = row.get(0);
+        distinctKeys.add(
+            numeric.add(BigInteger.valueOf(pairs.size()), numeric.mult(shift, key)));
+        pairs.add(new Pair<>(key, new ArrayList<>(row.subList(1, payloadSize + 1))));
+      }
+      List<List<Integer>> partitions = new ArrayList<>();
+      List<Integer> all = new ArrayList<>(pairs.size());
+      for (int i = 0; i < pairs.size(); i++) {
+        all.add(i);
+      }
+      partitions.add(all);
+      return new SortState(pairs, distinctKeys, partitions);
+    }).whileLoop(state -> state.partitions.stream().anyMatch(p -> p.size() > 1),
+        (seq, state) -> seq.par(par -> {
+          List<List<DRes<BigInteger>>> comparisons = new ArrayList<>(state.partitions.size());
+          for (List<Integer> partition : state.partitions) {
+            List<DRes<BigInteger>> greater = new ArrayList<>(partition.size());
+            DRes<SInt> pivot = state.distinctKeys.get(partition.get(0));
+            for (int i = 1; i < partition.size(); i++) {
+              DRes<SInt> key = state.distinctKeys.get(partition.get(i));
+              greater.add(par.seq(inner -> inner.numeric()
+                  .open(Comparison.using(inner).compareLT(pivot, key))));
+            }
+            comparisons.add(greater);
+          }
+          return () -> comparisons;
+        }).seq((inner, comparisons) -> {
+          List<List<Integer>> partitions = new ArrayList<>();
+          for (int p = 0; p < state.partitions.size(); p++) {
+            List<Integer> partition = state.partitions.get(p);
+            if (partition.size() == 1) {
+              partitions.add(partition);
+              continue;
+            }
+            List<Integer> greater = new ArrayList<>();
+            List<Integer> smaller = new ArrayList<>();
+            for (int i = 1; i < partition.size(); i++) {
+              if (comparisons.get(p).get(i - 1).out().signum() != 0) {
+                greater.add(partition.get(i));
+              } else {
+                smaller.add(partition.get(i));
+              }
+            }
+            addIfNotEmpty(partitions, greater);
+            partitions.add(partition.subList(0, 1));
+            addIfNotEmpty(partitions, smaller);
+          }
+          return new SortState(state.pairs, state.distinctKeys, partitions);
+        })).seq((seq, state) -> {
+          List<Pair<DRes<SInt>, List<DRes<SInt>>>> sorted = new ArrayList<>(state.pairs.size());
+          for (List<Integer> partition : state.partitions) {
+            sorted.add(state.pairs.get(partition.get(0)));
+          }
+          return () -> sorted;
+        });
+  }
+
+  private static void addIfNotEmpty(List<List<Integer>> partitions, List<Integer> partition) {
+    if (!partition.isEmpty()) {
+      partitions.add(partition);
+    }
+  }
+
+  private static int bitLength(int n) {
+    return 32 - Integer.numberOfLeadingZeros(n);
+  }
+
+  private static final class SortState implements DRes<SortState> {
+
+    private final List<Pair<DRes<SInt>, List<DRes<SInt>>>> pairs;
+    private final List<DRes<SInt>> distinctKeys;
+    private final List<List<Integer>> partitions;
+
+    private SortState(List<Pair<DRes<SInt>, List<DRes<SInt>>>> pairs,
+        List<DRes<SInt>> distinctKeys, List<List<Integer>> partitions) {
+      this.pairs = pairs;
+      this.distinctKeys = distinctKeys;
+      this.partitions = partitions;
+    }
+
+    @Override
+    public SortState out() {
+      return this;
+    }
+  }
+}
@@ -2,22 +2,21 @@ package dk.alexandra.fresco.lib.common.compare;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
-import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.value.SInt;
-import java.math.BigInteger;
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Creates a random mask along with its bits using {@link PreprocessedValues#getRandomBitMask(int)},
+ * so protocol suites supplying preprocessed masks are used when available.
+ */
 public class RandomAdditiveMask implements
     Computation<AdvancedNumeric.RandomAdditiveMask, ProtocolBuilderNumeric> {
 
   private final int noOfBits;
 
-  private List<DRes<SInt>> bits;
-  private DRes<SInt> value;
-
   public RandomAdditiveMask(int noOfBits) {
     this.noOfBits = noOfBits;
   }
@@ -25,19 +24,12 @@ public class RandomAdditiveMask implements
   @Override
   public DRes<AdvancedNumeric.RandomAdditiveMask> buildComputation(
       ProtocolBuilderNumeric builder) {
-    Numeric numericBuilder = builder.numeric();
-    bits = new ArrayList<>();
-    for (int i = 0; i < noOfBits; i++) {
-      DRes<SInt> randomBit = numericBuilder.randomBit();
-      bits.add(randomBit);
-    }
-
-    MiscBigIntegerGenerators oIntGenerators = new MiscBigIntegerGenerators(builder.getBasicNumericContext().getModulus());
-    AdvancedNumeric advancedNumeric = AdvancedNumeric.using(builder);
-    List<BigInteger> twoPows = oIntGenerators.getTwoPowersList(noOfBits);
-    value = advancedNumeric.innerProductWithPublicPart(twoPows, bits);
-    return () -> new AdvancedNumeric.RandomAdditiveMask(
-        bits,
-        value.out());
+    DRes<List<DRes<SInt>>> mask = builder.preprocessedValues().getRandomBitMask(noOfBits);
+    return () -> {
+      List<DRes<SInt>> values = mask.out();
+      return new AdvancedNumeric.RandomAdditiveMask(
+          values.subList(1, values.size()),
+          values.get(0).out());
+    };
   }
 }
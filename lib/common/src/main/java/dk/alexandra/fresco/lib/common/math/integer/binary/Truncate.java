@@ -2,11 +2,10 @@ package dk.alexandra.fresco.lib.common.math.integer.binary;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
-import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
-import dk.alexandra.fresco.lib.common.math.AdvancedNumeric.RandomAdditiveMask;
 import java.math.BigInteger;
 
 /**
@@ -17,7 +16,9 @@ import java.math.BigInteger;
  * <p>
  * The protocol is similar to protocol 3.1 in Catrina O., Saxena A. (2010) Secure Computation with
  * Fixed-Point Numbers. In: Sion R. (eds) Financial Cryptography and Data Security. FC 2010. Lecture
- * Notes in Computer Science, vol 6052. Springer, Berlin, Heidelberg.
+ * Notes in Computer Science, vol 6052. Springer, Berlin, Heidelberg. The mask and its shifted
+ * value are taken as a truncation pair from {@link PreprocessedValues#getTruncationPair(int, int)},
+ * so suites supplying random bit masks natively do not recompose any bits online.
  */
 public class Truncate implements Computation<SInt, ProtocolBuilderNumeric> {
 
@@ -38,43 +39,29 @@ public class Truncate implements Computation<SInt, ProtocolBuilderNumeric> {
       return builder.numeric().known(0);
     }
 
+    int maskBitLength =
+        maxBitLength + builder.getBasicNumericContext().getStatisticalSecurityParam();
     return builder.seq(seq -> {
 
       /*
-       * Generate random additive mask of the same length as the input + some extra to avoid
-       * leakage.
+       * Get a random mask r of the same length as the input + some extra to avoid leakage,
+       * together with r >> shifts.
        */
-      return AdvancedNumeric.using(seq)
-          .additiveMask(maxBitLength + builder.getBasicNumericContext().getStatisticalSecurityParam());
+      return seq.preprocessedValues().getTruncationPair(maskBitLength, shifts);
 
-    }).seq((seq, randomAdditiveMask) -> {
+    }).seq((seq, pair) -> {
 
-      DRes<SInt> result = seq.numeric().add(input, randomAdditiveMask.value);
-      DRes<BigInteger> open = seq.numeric().open(result);
-      return Pair.lazy(open, randomAdditiveMask);
+      DRes<BigInteger> open = seq.numeric().open(seq.numeric().add(input, pair.getFirst()));
+      return Pair.lazy(open, pair.getSecond());
 
     }).seq((seq, maskedInput) -> {
 
-      BigInteger masked = maskedInput.getFirst().out();
-      RandomAdditiveMask mask = maskedInput.getSecond();
-
-      /*
-       * rBottom = r (mod 2^shifts).
-       */
-      final DRes<SInt> rBottom = AdvancedNumeric.using(seq)
-          .bitsToInteger(mask.bits.subList(0, shifts));
-
-      BigInteger inverse =
-          BigInteger.ONE.shiftLeft(shifts).modInverse(seq.getBasicNumericContext().getModulus());
-      DRes<SInt> rTop = seq.numeric().sub(mask.value, rBottom);
-
       /*
-       * rTop is r with the last shifts bits set to zero, and it is hence divisible by 2^shifts, so
-       * multiplying with the inverse in the field corresponds to shifting.
+       * (m >> shifts) - (r >> shifts) is either the exact result or one larger, depending on
+       * whether there is a carry from the lower bits when adding r to the input.
        */
-      DRes<SInt> rShifted = seq.numeric().mult(inverse, rTop);
-      BigInteger mShifted = masked.shiftRight(shifts);
-      return seq.numeric().sub(mShifted, rShifted);
+      BigInteger mShifted = maskedInput.getFirst().out().shiftRight(shifts);
+      return seq.numeric().sub(mShifted, maskedInput.getSecond());
     });
   }
 }
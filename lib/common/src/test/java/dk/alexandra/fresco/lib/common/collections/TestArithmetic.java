@@ -2,6 +2,7 @@ package dk.alexandra.fresco.lib.common.collections;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.collections.Collections.SortingAlgorithm;
 import dk.alexandra.fresco.lib.common.collections.SearchingTests.TestLinearLookUp;
 import dk.alexandra.fresco.lib.common.collections.io.CloseListTests;
 import dk.alexandra.fresco.lib.common.collections.io.CloseMatrixTests;
@@ -12,6 +13,7 @@ import dk.alexandra.fresco.lib.common.collections.sort.NumericSortingTests;
 import dk.alexandra.fresco.lib.common.collections.sort.NumericSortingTests.TestKeyedCompareAndSwap;
 import dk.alexandra.fresco.lib.common.collections.sort.NumericSortingTests.TestOddEvenMergeSort;
 import dk.alexandra.fresco.lib.common.collections.sort.NumericSortingTests.TestOddEvenMergeSortDifferentValueLength;
+import dk.alexandra.fresco.lib.common.collections.sort.NumericSortingTests.TestRadixSort;
 import dk.alexandra.fresco.suite.dummy.arithmetic.AbstractDummyArithmeticTest;
 import java.util.ArrayList;
 import org.junit.Test;
@@ -87,6 +89,28 @@ public class TestArithmetic extends AbstractDummyArithmeticTest {
     runTest(new TestOddEvenMergeSort<>(), new TestParameters().numParties(2));
   }
 
+  @Test
+  public void test_shuffle_then_sort_2_parties() {
+    runTest(new TestOddEvenMergeSort<>(83, 4, 8, SortingAlgorithm.SHUFFLE_THEN_SORT),
+        new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_shuffle_then_sort_3_parties() {
+    runTest(new TestOddEvenMergeSort<>(7, 1, 5, SortingAlgorithm.SHUFFLE_THEN_SORT),
+        new TestParameters().numParties(3));
+  }
+
+  @Test
+  public void test_radix_sort_2_parties() {
+    runTest(new TestRadixSort<>(83, 8), new TestParameters().numParties(2));
+  }
+
+  @Test
+  public void test_radix_sort_3_parties() {
+    runTest(new TestRadixSort<>(7, 3), new TestParameters().numParties(3));
+  }
+
   @Test(expected = RuntimeException.class)
   public void test_Uneven_Odd_Even_Merge_sort_leak_list_length() {
     runTest(new TestOddEvenMergeSortDifferentValueLength<>(), new TestParameters().numParties(2));
@@ -10,6 +10,7 @@ import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
 import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.collections.Collections;
+import dk.alexandra.fresco.lib.common.collections.Collections.SortingAlgorithm;
 import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import java.math.BigInteger;
 import java.util.ArrayList;
@@ -28,15 +29,22 @@ public class NumericSortingTests {
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
     private final int size, payloadSize, bitlength;
+    private final SortingAlgorithm algorithm;
 
     public TestOddEvenMergeSort() {
       this(7, 0, 5);
     }
 
     public TestOddEvenMergeSort(int size, int payloadSize, int bitlength) {
+      this(size, payloadSize, bitlength, SortingAlgorithm.ODD_EVEN_MERGE);
+    }
+
+    public TestOddEvenMergeSort(int size, int payloadSize, int bitlength,
+        SortingAlgorithm algorithm) {
       this.size = size;
       this.payloadSize = payloadSize;
       this.bitlength = bitlength;
+      this.algorithm = algorithm;
     }
 
     @Override
@@ -58,7 +66,7 @@ public class NumericSortingTests {
                   new Pair<>(builder.known(pair.getFirst()), pair.getSecond().stream().map(builder::known).collect(Collectors.toList()))).collect(
                     Collectors.toList());
 
-                return Collections.using(seq).sort(unsortedShared);
+                return Collections.using(seq).sort(unsortedShared, algorithm);
               }).seq((seq, sorted) -> {
                 Numeric builder = seq.numeric();
                 List<Pair<DRes<BigInteger>, List<DRes<BigInteger>>>> opened = new ArrayList<>();
@@ -100,6 +108,61 @@ public class NumericSortingTests {
     }
   }
 
+  public static class TestRadixSort<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private final int size, bitlength;
+
+    public TestRadixSort(int size, int bitlength) {
+      this.size = size;
+      this.bitlength = bitlength;
+    }
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() throws Exception {
+
+          Random random = new Random(1234);
+
+          // The payload is the original index, so the stability of the sort can be checked
+          List<Pair<BigInteger, List<BigInteger>>> unsorted = IntStream.range(0, size)
+              .mapToObj(i -> new Pair<>(new BigInteger(bitlength, random),
+                  Arrays.asList(BigInteger.valueOf(i)))).collect(Collectors.toList());
+
+          Application<List<Pair<BigInteger, List<BigInteger>>>, ProtocolBuilderNumeric> app =
+              producer -> producer.seq(seq -> {
+                Numeric builder = seq.numeric();
+                List<Pair<DRes<SInt>, List<DRes<SInt>>>> unsortedShared = unsorted.stream()
+                    .map(pair -> new Pair<>(builder.known(pair.getFirst()),
+                        pair.getSecond().stream().map(builder::known)
+                            .collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+                return Collections.using(seq).radixSort(unsortedShared, bitlength);
+              }).seq((seq, sorted) -> {
+                Numeric builder = seq.numeric();
+                List<Pair<DRes<BigInteger>, List<DRes<BigInteger>>>> opened = new ArrayList<>();
+                for (Pair<DRes<SInt>, List<DRes<SInt>>> p : sorted) {
+                  opened.add(new Pair<>(builder.open(p.getFirst()), p.getSecond().stream()
+                      .map(builder::open).collect(Collectors.toList())));
+                }
+                return () -> opened.stream().map(p -> new Pair<>(p.getFirst().out(),
+                    p.getSecond().stream().map(DRes::out).collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+              });
+
+          List<Pair<BigInteger, List<BigInteger>>> results = runApplication(app);
+
+          // A stable sort in descending order
+          List<Pair<BigInteger, List<BigInteger>>> expected = new ArrayList<>(unsorted);
+          expected.sort((a, b) -> b.getFirst().compareTo(a.getFirst()));
+          Assert.assertEquals(expected, results);
+        }
+      };
+    }
+  }
+
   public static class TestOddEvenMergeSortDifferentValueLength<ResourcePoolT extends ResourcePool>
       extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
 
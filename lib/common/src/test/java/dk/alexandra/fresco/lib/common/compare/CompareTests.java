@@ -15,6 +15,7 @@ import dk.alexandra.fresco.framework.value.SBool;
 import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.common.compare.Comparison.Algorithm;
 import dk.alexandra.fresco.lib.common.compare.eq.FracEq;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
 import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -535,4 +536,56 @@ public class CompareTests {
     }
   }
 
+  /**
+   * Creates random additive masks and checks that the mask is the weighted sum of its bits.
+   */
+  public static class TestRandomAdditiveMask<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private static final int[] BIT_LENGTHS = {0, 1, 8, 32};
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+
+        @Override
+        public void test() throws Exception {
+          Application<List<List<BigInteger>>, ProtocolBuilderNumeric> app =
+              builder -> builder.par(par -> {
+                List<DRes<AdvancedNumeric.RandomAdditiveMask>> masks = new ArrayList<>();
+                for (int bitLength : BIT_LENGTHS) {
+                  masks.add(AdvancedNumeric.using(par).additiveMask(bitLength));
+                }
+                return () -> masks;
+              }).par((par, masks) -> {
+                List<List<DRes<BigInteger>>> opened = new ArrayList<>();
+                for (DRes<AdvancedNumeric.RandomAdditiveMask> mask : masks) {
+                  List<DRes<BigInteger>> values = new ArrayList<>();
+                  values.add(par.numeric().open(mask.out().value));
+                  for (DRes<SInt> bit : mask.out().bits) {
+                    values.add(par.numeric().open(bit));
+                  }
+                  opened.add(values);
+                }
+                return () -> opened.stream()
+                    .map(values -> values.stream().map(DRes::out).collect(Collectors.toList()))
+                    .collect(Collectors.toList());
+              });
+          List<List<BigInteger>> output = runApplication(app);
+          for (int i = 0; i < BIT_LENGTHS.length; i++) {
+            List<BigInteger> values = output.get(i);
+            Assert.assertEquals(BIT_LENGTHS[i] + 1, values.size());
+            BigInteger expected = BigInteger.ZERO;
+            for (int j = 0; j < BIT_LENGTHS[i]; j++) {
+              BigInteger bit = values.get(j + 1);
+              Assert.assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+              expected = expected.add(bit.shiftLeft(j));
+            }
+            Assert.assertEquals(expected, values.get(0));
+          }
+        }
+      };
+    }
+  }
+
 }
\ No newline at end of file
@@ -31,6 +31,11 @@ public class TestArithmetic extends AbstractDummyArithmeticTest {
     runTest(new CompareTests.TestCompareEQEdgeCases<>(), new TestParameters());
   }
 
+  @Test
+  public void testRandomAdditiveMask() {
+    runTest(new CompareTests.TestRandomAdditiveMask<>(), new TestParameters());
+  }
+
   @Test
   public void testHammingDistance() {
     runTest(new TestHammingDistance<>(), new TestParameters());
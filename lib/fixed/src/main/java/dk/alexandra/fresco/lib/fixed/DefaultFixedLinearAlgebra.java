@@ -6,6 +6,7 @@ import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.lib.common.collections.Matrix;
 import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.function.BiFunction;
 import java.util.stream.Collectors;
@@ -140,54 +141,93 @@ public class DefaultFixedLinearAlgebra implements FixedLinearAlgebra {
   @Override
   public DRes<Matrix<DRes<SFixed>>> mult(DRes<Matrix<DRes<SFixed>>> a, Matrix<BigDecimal> b) {
     return builder.seq(seq -> {
-      return mult(seq, a.out(), b, (scope, x) -> AdvancedFixedNumeric.using(scope)
-          .innerProductWithPublicPart(x.getSecond(), x.getFirst()));
+      return mult(seq, a.out(), b, (lefts, rights) -> FixedInnerProducts
+          .withPublicPart(rights, lefts));
     });
   }
 
   @Override
   public DRes<Matrix<DRes<SFixed>>> mult(Matrix<BigDecimal> a, DRes<Matrix<DRes<SFixed>>> b) {
     return builder.seq(seq -> {
-      return mult(seq, a, b.out(), (builder, x) -> AdvancedFixedNumeric.using(builder)
-          .innerProductWithPublicPart(x.getFirst(), x.getSecond()));
+      return mult(seq, a, b.out(), (lefts, rights) -> FixedInnerProducts
+          .withPublicPart(lefts, rights));
     });
   }
 
   @Override
   public DRes<Matrix<DRes<SFixed>>> mult(DRes<Matrix<DRes<SFixed>>> a, DRes<Matrix<DRes<SFixed>>> b) {
     return builder.seq(seq -> {
-      return mult(seq, a.out(), b.out(),
-          (builder, x) -> AdvancedFixedNumeric.using(builder).innerProduct(x.getFirst(), x.getSecond()));
+      return mult(seq, a.out(), b.out(), (lefts, rights) -> FixedInnerProducts
+          .secret(lefts, rights));
     });
   }
 
   /**
-   * Calculate the product of two matrices using the given builder and arithmetic operations.
+   * Calculate the product of two matrices using the given builder and a computation of a list of
+   * inner products.
+   *
+   * <p>All entries of the product are computed by a single computation, so the rounds used are
+   * those of a single inner product.</p>
    *
    * @param builder The builder to be used for this computation
    * @param a Matrix of type <code>A</code>
    * @param b Matrix of type <code>B</code>
-   * @param innerProductOperator An inner product operator which takes the inner product of a vector
-   *        of type <code>A</code> and type <code>B</code> to produce a value of type <code>C</code>
+   * @param innerProducts A function giving a computation of the inner products of a list of
+   *        vectors of type <code>A</code> and a list of vectors of type <code>B</code>
    * @return the product of the two matrices
    */
-  private <A, B, C> DRes<Matrix<C>> mult(ProtocolBuilderNumeric builder, Matrix<A> a, Matrix<B> b,
-      BiFunction<ProtocolBuilderNumeric, Pair<List<A>, List<B>>, C> innerProductOperator) {
-    return builder.par(par -> {
+  private <A, B> DRes<Matrix<DRes<SFixed>>> mult(ProtocolBuilderNumeric builder, Matrix<A> a,
+      Matrix<B> b, BiFunction<List<List<A>>, List<List<B>>, FixedInnerProducts> innerProducts) {
+    return builder.seq(seq -> {
 
       if (a.getWidth() != b.getHeight()) {
         throw new IllegalArgumentException(
             "Matrice sizes does not match - " + a.getWidth() + " != " + b.getHeight());
       }
 
-      Matrix<C> result = new Matrix<>(a.getHeight(), b.getWidth(), i -> {
-        ArrayList<C> row = new ArrayList<>(b.getWidth());
-        List<A> rowA = a.getRow(i);
+      List<List<A>> lefts = new ArrayList<>(a.getHeight() * b.getWidth());
+      List<List<B>> rights = new ArrayList<>(a.getHeight() * b.getWidth());
+      List<ArrayList<B>> columns = new ArrayList<>(b.getWidth());
+      for (int j = 0; j < b.getWidth(); j++) {
+        columns.add(b.getColumn(j));
+      }
+      for (int i = 0; i < a.getHeight(); i++) {
         for (int j = 0; j < b.getWidth(); j++) {
-          row.add(innerProductOperator.apply(par, new Pair<>(rowA, b.getColumn(j))));
+          lefts.add(a.getRow(i));
+          rights.add(columns.get(j));
         }
-        return row;
-      });
+      }
+      return seq.seq(innerProducts.apply(lefts, rights));
+    }).seq((seq, entries) -> {
+      Matrix<DRes<SFixed>> result = new Matrix<>(a.getHeight(), b.getWidth(),
+          (i, j) -> entries.get(i * b.getWidth() + j));
+      return () -> result;
+    });
+  }
+
+  @Override
+  public DRes<Matrix<DRes<SFixed>>> gramMatrix(DRes<Matrix<DRes<SFixed>>> a) {
+    return builder.seq(seq -> {
+      Matrix<DRes<SFixed>> matrix = a.out();
+      int width = matrix.getWidth();
+      List<ArrayList<DRes<SFixed>>> columns = new ArrayList<>(width);
+      for (int j = 0; j < width; j++) {
+        columns.add(matrix.getColumn(j));
+      }
+      // Only the lower triangle is computed, the upper triangle is a copy of it
+      List<List<DRes<SFixed>>> lefts = new ArrayList<>(width * (width + 1) / 2);
+      List<List<DRes<SFixed>>> rights = new ArrayList<>(width * (width + 1) / 2);
+      for (int i = 0; i < width; i++) {
+        for (int j = 0; j <= i; j++) {
+          lefts.add(columns.get(i));
+          rights.add(columns.get(j));
+        }
+      }
+      return seq.seq(FixedInnerProducts.secret(lefts, rights));
+    }).seq((seq, entries) -> {
+      int width = a.out().getWidth();
+      Matrix<DRes<SFixed>> result = new Matrix<>(width, width,
+          (i, j) -> i >= j ? entries.get(i * (i + 1) / 2 + j) : entries.get(j * (j + 1) / 2 + i));
       return () -> result;
     });
   }
@@ -239,51 +279,53 @@ public class DefaultFixedLinearAlgebra implements FixedLinearAlgebra {
   @Override
   public DRes<ArrayList<DRes<SFixed>>> vectorMult(DRes<Matrix<DRes<SFixed>>> a,
       DRes<ArrayList<DRes<SFixed>>> v) {
-    return builder.par(par -> {
-      return vectorMult(par, a.out(), v.out(),
-          (builder, x) -> AdvancedFixedNumeric.using(builder).innerProduct(x.getFirst(), x.getSecond()));
+    return builder.seq(seq -> {
+      return vectorMult(seq, a.out(), v.out(), (rows, vectors) -> FixedInnerProducts
+          .secret(rows, vectors));
     });
   }
 
   @Override
   public DRes<ArrayList<DRes<SFixed>>> vectorMult(DRes<Matrix<DRes<SFixed>>> a, ArrayList<BigDecimal> v) {
-    return builder.par(par -> {
-      return vectorMult(par, a.out(), v, (builder, x) -> AdvancedFixedNumeric.using(builder)
-          .innerProductWithPublicPart(x.getSecond(), x.getFirst()));
+    return builder.seq(seq -> {
+      return vectorMult(seq, a.out(), v, (rows, vectors) -> FixedInnerProducts
+          .withPublicPart(vectors, rows));
     });
   }
 
   @Override
   public DRes<ArrayList<DRes<SFixed>>> vectorMult(Matrix<BigDecimal> a, DRes<ArrayList<DRes<SFixed>>> v) {
-    return builder.par(par -> {
-      return vectorMult(par, a, v.out(), (builder, x) -> AdvancedFixedNumeric.using(builder)
-          .innerProductWithPublicPart(x.getFirst(), x.getSecond()));
+    return builder.seq(seq -> {
+      return vectorMult(seq, a, v.out(), (rows, vectors) -> FixedInnerProducts
+          .withPublicPart(rows, vectors));
     });
   }
 
   /**
-   * Multiply a matrix to a vector using the given inner product operator.
+   * Multiply a matrix to a vector using the given computation of a list of inner products.
    *
    * @param builder The builder to be used for this computation
    * @param a Matrix of type <code>A</code>
    * @param v ArrayList of type <code>B</code>
-   * @param innerProductOperator An inner product operator which takes the inner product of a vector
-   *        of type <code>A</code> and type <code>B</code> to produce a value of type <code>C</code>
-   * @return A vector of type <code>C</code> which is the product of the matrix and the vector
+   * @param innerProducts A function giving a computation of the inner products of a list of
+   *        vectors of type <code>A</code> and a list of vectors of type <code>B</code>
+   * @return A vector which is the product of the matrix and the vector
    */
-  private <A, B, C> DRes<ArrayList<C>> vectorMult(ProtocolBuilderNumeric builder, Matrix<A> a,
-      ArrayList<B> v,
-      BiFunction<ProtocolBuilderNumeric, Pair<List<A>, List<B>>, C> innerProductOperator) {
-    return builder.par(par -> {
+  private <A, B> DRes<ArrayList<DRes<SFixed>>> vectorMult(ProtocolBuilderNumeric builder,
+      Matrix<A> a, ArrayList<B> v,
+      BiFunction<List<List<A>>, List<List<B>>, FixedInnerProducts> innerProducts) {
+    return builder.seq(seq -> {
 
       if (a.getWidth() != v.size()) {
         throw new IllegalArgumentException(
             "Matrix and vector sizes does not match - " + a.getWidth() + " != " + v.size());
       }
 
-      ArrayList<C> result =
-          a.getRows().stream().map(r -> innerProductOperator.apply(par, new Pair<>(r, v)))
-              .collect(Collectors.toCollection(ArrayList::new));
+      List<List<A>> rows = new ArrayList<>(a.getRows());
+      List<List<B>> vectors = Collections.nCopies(a.getHeight(), v);
+      return seq.seq(innerProducts.apply(rows, vectors));
+    }).seq((seq, entries) -> {
+      ArrayList<DRes<SFixed>> result = new ArrayList<>(entries);
       return () -> result;
     });
   }
@@ -0,0 +1,143 @@
+package dk.alexandra.fresco.lib.fixed;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.Computation;
+import dk.alexandra.fresco.framework.builder.numeric.Numeric;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Computes a list of inner products of fixed point vectors at once, e.g. all entries of a matrix
+ * product.
+ *
+ * <p>The products of each inner product are computed with a single list multiplication, and all
+ * of these are appended in the same parallel scope. The products are summed locally at double
+ * precision in a single parallel scope, and all sums are finally truncated in a single parallel
+ * scope. A list of inner products thus costs the rounds of one multiplication and one truncation,
+ * independently of how many inner products there are.</p>
+ *
+ * <p>Note that, as for {@link AdvancedFixedNumeric#innerProduct(List, List)}, an un-truncated sum
+ * may overflow if it exceeds the max bit length.</p>
+ */
+class FixedInnerProducts implements Computation<List<DRes<SFixed>>, ProtocolBuilderNumeric> {
+
+  private final List<List<DRes<SFixed>>> secretLefts;
+  private final List<List<BigDecimal>> publicLefts;
+  private final List<List<DRes<SFixed>>> rights;
+
+  private FixedInnerProducts(List<List<DRes<SFixed>>> secretLefts,
+      List<List<BigDecimal>> publicLefts, List<List<DRes<SFixed>>> rights) {
+    this.secretLefts = secretLefts;
+    this.publicLefts = publicLefts;
+    this.rights = rights;
+  }
+
+  /**
+   * Computes the inner products of secret vectors, such that the <i>i</i>'th output is the inner
+   * product of <code>lefts.get(i)</code> and <code>rights.get(i)</code>.
+   *
+   * @param lefts the left vectors
+   * @param rights the right vectors
+   * @return a computation computing the inner products
+   */
+  static FixedInnerProducts secret(List<List<DRes<SFixed>>> lefts,
+      List<List<DRes<SFixed>>> rights) {
+    if (lefts.size() != rights.size()) {
+      throw new IllegalArgumentException("Must have the same number of left and right vectors");
+    }
+    return new FixedInnerProducts(lefts, null, rights);
+  }
+
+  /**
+   * Computes the inner products of public and secret vectors, such that the <i>i</i>'th output is
+   * the inner product of <code>lefts.get(i)</code> and <code>rights.get(i)</code>.
+   *
+   * @param lefts the public left vectors
+   * @param rights the secret right vectors
+   * @return a computation computing the inner products
+   */
+  static FixedInnerProducts withPublicPart(List<List<BigDecimal>> lefts,
+      List<List<DRes<SFixed>>> rights) {
+    if (lefts.size() != rights.size()) {
+      throw new IllegalArgumentException("Must have the same number of left and right vectors");
+    }
+    return new FixedInnerProducts(null, lefts, rights);
+  }
+
+  @Override
+  public DRes<List<DRes<SFixed>>> buildComputation(ProtocolBuilderNumeric builder) {
+    return builder.par(par -> {
+      List<DRes<List<DRes<SInt>>>> products = new ArrayList<>(rights.size());
+      for (int i = 0; i < rights.size(); i++) {
+        List<DRes<SInt>> right = unwrap(rights.get(i));
+        if (secretLefts != null) {
+          List<DRes<SInt>> left = unwrap(secretLefts.get(i));
+          checkSizes(left.size(), right.size());
+          products.add(par.numeric().mult(left, right));
+        } else {
+          products.add(multByPublic(par, publicLefts.get(i), right));
+        }
+      }
+      return () -> products.stream().map(DRes::out).collect(Collectors.toList());
+    }).par((par, terms) -> {
+      // The additions are local, so each sum is a simple loop and all sums are done in parallel.
+      // Empty sums are left as null.
+      List<DRes<SInt>> sums = new ArrayList<>(terms.size());
+      for (List<DRes<SInt>> current : terms) {
+        sums.add(current.isEmpty() ? null : par.seq(seq -> {
+          Numeric numeric = seq.numeric();
+          DRes<SInt> sum = current.get(0);
+          for (DRes<SInt> term : current.subList(1, current.size())) {
+            sum = numeric.add(sum, term);
+          }
+          return sum;
+        }));
+      }
+      return () -> sums;
+    }).par((par, sums) -> {
+      int precision = par.getBasicNumericContext().getDefaultFixedPointPrecision();
+      List<DRes<SFixed>> result = new ArrayList<>(sums.size());
+      for (DRes<SInt> sum : sums) {
+        if (sum == null) {
+          result.add(new SFixed(par.numeric().known(0)));
+        } else {
+          result.add(new SFixed(AdvancedNumeric.using(par).truncate(sum, precision)));
+        }
+      }
+      return () -> result;
+    });
+  }
+
+  private static DRes<List<DRes<SInt>>> multByPublic(ProtocolBuilderNumeric builder,
+      List<BigDecimal> left, List<DRes<SInt>> right) {
+    checkSizes(left.size(), right.size());
+    BigDecimal scale = new BigDecimal(
+        BigInteger.ONE.shiftLeft(builder.getBasicNumericContext().getDefaultFixedPointPrecision()));
+    List<DRes<SInt>> products = new ArrayList<>(right.size());
+    Iterator<DRes<SInt>> rightIterator = right.iterator();
+    for (BigDecimal value : left) {
+      BigInteger scaled =
+          value.multiply(scale).setScale(0, RoundingMode.HALF_UP).toBigIntegerExact();
+      products.add(builder.numeric().mult(scaled, rightIterator.next()));
+    }
+    return () -> products;
+  }
+
+  private static List<DRes<SInt>> unwrap(List<DRes<SFixed>> vector) {
+    return vector.stream().map(x -> x.out().getSInt()).collect(Collectors.toList());
+  }
+
+  private static void checkSizes(int left, int right) {
+    if (left != right) {
+      throw new IllegalArgumentException("Vectors must have same size");
+    }
+  }
+}
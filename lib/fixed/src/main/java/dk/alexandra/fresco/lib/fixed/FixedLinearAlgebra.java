@@ -119,6 +119,16 @@ public interface FixedLinearAlgebra extends ComputationDirectory {
    */
   DRes<Matrix<DRes<SFixed>>> mult(Matrix<BigDecimal> a, DRes<Matrix<DRes<SFixed>>> b);
 
+  /**
+   * Compute the Gram matrix of the columns of a secret matrix, i.e. the product of the transpose
+   * of the matrix with the matrix itself. Only the lower triangle is computed and the upper
+   * triangle is a copy of it.
+   *
+   * @param a Secret value
+   * @return A deferred result computing a<sup>t</sup>a
+   */
+  DRes<Matrix<DRes<SFixed>>> gramMatrix(DRes<Matrix<DRes<SFixed>>> a);
+
   /**
    * Multiply a secret matrix by a public constant.
    *
@@ -500,6 +500,42 @@ public class LinearAlgebraTests {
     }
   }
 
+  public static class TestGramMatrix<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        final int height = 4;
+        final int width = 3;
+
+        @Override
+        public void test() throws Exception {
+          Matrix<BigDecimal> input = new Matrix<>(height, width,
+              (i, j) -> BigDecimal.valueOf(i - j * 1.5));
+          Matrix<BigDecimal> expected = new Matrix<>(width, width, (i, j) -> {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int k = 0; k < height; k++) {
+              sum = sum.add(input.getRow(k).get(i).multiply(input.getRow(k).get(j)));
+            }
+            return sum;
+          });
+          Application<Matrix<BigDecimal>, ProtocolBuilderNumeric> testApplication = root -> {
+            FixedLinearAlgebra fixedLinearAlgebra = FixedLinearAlgebra.using(root);
+            DRes<Matrix<DRes<SFixed>>> closed = fixedLinearAlgebra.input(input, 1);
+            DRes<Matrix<DRes<SFixed>>> gram = fixedLinearAlgebra.gramMatrix(closed);
+            DRes<Matrix<DRes<BigDecimal>>> opened = fixedLinearAlgebra.openMatrix(gram);
+            return () -> new MatrixUtils().unwrapMatrix(opened);
+          };
+          Matrix<BigDecimal> output = runApplication(testApplication);
+          for (int i = 0; i < width; i++) {
+            FixedTestUtils.assertEqual(expected.getRow(i), output.getRow(i), 10);
+          }
+        }
+      };
+    }
+  }
+
   private static ArrayList<BigDecimal> allOneArrayList(int dimension, int precision) {
     ArrayList<BigDecimal> vector = new ArrayList<>(dimension);
     for (int i = 0; i < dimension; i++) {
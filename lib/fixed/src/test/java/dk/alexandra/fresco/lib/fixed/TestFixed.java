@@ -137,6 +137,11 @@ public class TestFixed extends AbstractDummyArithmeticTest {
     runTest(new LinearAlgebraTests.TestTransposeMatrix<>(), new TestParameters());
   }
 
+  @Test
+  public void test_Fixed_Gram_Matrix() {
+    runTest(new LinearAlgebraTests.TestGramMatrix<>(), new TestParameters().numParties(2));
+  }
+
   @Test
   public void test_Fixed_Exp() {
     runTest(new MathTests.TestExp<>(), new TestParameters().numParties(2));
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.DRes;
 import dk.alexandra.fresco.framework.builder.numeric.BuilderFactoryNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.DefaultPreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.Numeric;
 import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
 import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
@@ -9,6 +10,7 @@ import dk.alexandra.fresco.framework.value.SInt;
 import dk.alexandra.fresco.lib.field.integer.BasicNumericContext;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzAddProtocolKnownLeft;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzBatchedMultProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzInputProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzKnownSIntProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzMultProtocol;
@@ -20,6 +22,7 @@ import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocol;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownLeft;
 import dk.alexandra.fresco.suite.spdz.gates.SpdzSubtractProtocolKnownRight;
 import java.math.BigInteger;
+import java.util.List;
 
 /**
  * Basic native builder for the SPDZ protocol suite.
@@ -39,10 +42,19 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
 
   @Override
   public PreprocessedValues createPreprocessedValues(ProtocolBuilderNumeric protocolBuilder) {
-    return pipeLength -> {
-      SpdzExponentiationPipeProtocol spdzExpPipeProtocol =
-          new SpdzExponentiationPipeProtocol(pipeLength);
-      return protocolBuilder.append(spdzExpPipeProtocol);
+    // Truncation pairs are derived from the random bit masks by the default implementation
+    return new DefaultPreprocessedValues(protocolBuilder) {
+      @Override
+      public DRes<List<DRes<SInt>>> getExponentiationPipe(int pipeLength) {
+        SpdzExponentiationPipeProtocol spdzExpPipeProtocol =
+            new SpdzExponentiationPipeProtocol(pipeLength);
+        return protocolBuilder.append(spdzExpPipeProtocol);
+      }
+
+      @Override
+      public DRes<List<DRes<SInt>>> getRandomBitMask(int noOfBits) {
+        return protocolBuilder.append(new SpdzRandomBitMaskProtocol(noOfBits));
+      }
     };
   }
 
@@ -93,6 +105,11 @@ public class SpdzBuilder implements BuilderFactoryNumeric {
         return protocolBuilder.append(spdzMultProtocol4);
       }
 
+      @Override
+      public DRes<List<DRes<SInt>>> mult(List<DRes<SInt>> a, List<DRes<SInt>> b) {
+        return protocolBuilder.append(new SpdzBatchedMultProtocol(a, b));
+      }
+
       @Override
       public DRes<SInt> randomBit() {
         return protocolBuilder.append(new SpdzRandomBitProtocol());
@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.evaluator.ChunkOrder;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.List;
+
+/**
+ * A chunk's view of a data supplier shared with other chunks of a batch. All preprocessed material
+ * is taken from the shared supplier in the order given by the chunk order, such that all parties
+ * use the same material for the same protocol.
+ */
+class SpdzChunkDataSupplier implements SpdzDataSupplier {
+
+  private final SpdzDataSupplier supplier;
+  private final ChunkOrder order;
+
+  SpdzChunkDataSupplier(SpdzDataSupplier supplier, ChunkOrder order) {
+    this.supplier = supplier;
+    this.order = order;
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return order.ordered(supplier::getNextTriple);
+  }
+
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    return order.ordered(() -> supplier.getNextTriples(amount));
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    return order.ordered(supplier::getNextExpPipe);
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    return order.ordered(() -> supplier.getNextInputMask(towardPlayerId));
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return order.ordered(supplier::getNextBit);
+  }
+
+  @Override
+  public List<SpdzSInt> getNextBits(int amount) {
+    return order.ordered(() -> supplier.getNextBits(amount));
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return supplier.getFieldDefinition();
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return supplier.getSecretSharedKey();
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return order.ordered(supplier::getNextRandomFieldElement);
+  }
+}
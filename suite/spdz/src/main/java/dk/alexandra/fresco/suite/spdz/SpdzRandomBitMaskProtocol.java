@@ -0,0 +1,53 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.PreprocessedValues;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.gates.SpdzNativeProtocol;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Creates a random mask along with its bit decomposition from preprocessed random bits, as
+ * described in {@link PreprocessedValues#getRandomBitMask(int)}.
+ *
+ * <p>All bits are taken from the data supplier at once, and the mask is computed locally as the
+ * weighted sum of the bits, so the protocol needs no communication.</p>
+ */
+public class SpdzRandomBitMaskProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final int noOfBits;
+  private List<DRes<SInt>> result;
+
+  public SpdzRandomBitMaskProtocol(int noOfBits) {
+    if (noOfBits < 0) {
+      throw new IllegalArgumentException("Can not create a mask of less than 0 bits");
+    }
+    this.noOfBits = noOfBits;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool resourcePool, Network network) {
+    FieldDefinition definition = resourcePool.getFieldDefinition();
+    List<SpdzSInt> bits = resourcePool.getDataSupplier().getNextBits(noOfBits);
+    SpdzSInt value = new SpdzSInt(definition.createElement(0), definition.createElement(0));
+    for (int i = 0; i < noOfBits; i++) {
+      FieldElement twoPower = definition.createElement(BigInteger.ONE.shiftLeft(i));
+      value = value.add(bits.get(i).multiply(twoPower));
+    }
+    this.result = new ArrayList<>(noOfBits + 1);
+    this.result.add(value);
+    this.result.addAll(bits);
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return result;
+  }
+}
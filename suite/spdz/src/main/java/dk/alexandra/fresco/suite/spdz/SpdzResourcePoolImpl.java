@@ -2,18 +2,25 @@ package dk.alexandra.fresco.suite.spdz;
 
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.sce.evaluator.ChunkOrder;
+import dk.alexandra.fresco.framework.sce.evaluator.ChunkedResourcePool;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
 import dk.alexandra.fresco.framework.util.ValidationUtils;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzOpenedValueStoreImpl;
+import java.io.Closeable;
 import java.security.MessageDigest;
+import java.util.List;
 import java.util.Objects;
 import java.util.function.Function;
 
-public final class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResourcePool {
+public final class SpdzResourcePoolImpl extends ResourcePoolImpl implements SpdzResourcePool,
+    ChunkedResourcePool<SpdzResourcePool>, Closeable {
 
   private static final int DRBG_SEED_LENGTH = 256;
 
@@ -87,4 +94,41 @@ public final class SpdzResourcePoolImpl extends ResourcePoolImpl implements Spdz
     return drbgSupplier.apply(seed);
   }
 
+  /**
+   * Creates a view for a chunk evaluated by {@link
+   * dk.alexandra.fresco.framework.sce.evaluator.ParallelBatchedStrategy}. The view has its own
+   * store of opened values and message digest, and takes preprocessed material from the data
+   * supplier of this resource pool in the given order.
+   */
+  @Override
+  public SpdzResourcePool createView(ChunkOrder order) {
+    return new SpdzResourcePoolImpl(getMyId(), getNoOfParties(), new SpdzOpenedValueStoreImpl(),
+        new SpdzChunkDataSupplier(dataSupplier, order), drbgSupplier, drbgSeedBitLength);
+  }
+
+  /**
+   * Moves the values opened by the protocols of a chunk to the store of this resource pool.
+   */
+  @Override
+  public void merge(SpdzResourcePool view) {
+    OpenedValueStore<SpdzSInt, FieldElement> store = view.getOpenedValueStore();
+    if (store.hasPendingValues()) {
+      Pair<List<SpdzSInt>, List<FieldElement>> values = store.popValues();
+      openedValueStore.pushOpenedValues(values.getFirst(), values.getSecond());
+    }
+  }
+
+  /**
+   * Closes the data supplier if it holds resources, e.g., the background thread of a prefetching
+   * {@link dk.alexandra.fresco.suite.spdz.storage.SpdzMascotDataSupplier}.
+   */
+  @Override
+  public void close() {
+    if (dataSupplier instanceof Closeable) {
+      ExceptionConverter.safe(() -> {
+        ((Closeable) dataSupplier).close();
+        return null;
+      }, "Unable to close data supplier");
+    }
+  }
 }
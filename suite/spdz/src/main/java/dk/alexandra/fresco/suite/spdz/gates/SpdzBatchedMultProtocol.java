@@ -0,0 +1,102 @@
+package dk.alexandra.fresco.suite.spdz.gates;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElementVector;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePool;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.suite.spdz.storage.SpdzDataSupplier;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Multiplies two lists of secret values entry-wise.
+ * <p>
+ * This does the same as a {@link SpdzMultProtocol} for each pair, but fetches all triples at once
+ * and sends the shares of all epsilons and deltas to each party as a single serialized list.
+ * </p>
+ */
+public class SpdzBatchedMultProtocol extends SpdzNativeProtocol<List<DRes<SInt>>> {
+
+  private final List<DRes<SInt>> left;
+  private final List<DRes<SInt>> right;
+  private List<DRes<SInt>> out;
+  private List<SpdzTriple> triples;
+  private List<SpdzSInt> epsilonsAndDeltas;  // my shares of [x]-[a] followed by [y]-[b]
+
+  /**
+   * Creates a new protocol multiplying the given lists entry-wise.
+   *
+   * @param left the left factors
+   * @param right the right factors, must have the same size as <code>left</code>
+   */
+  public SpdzBatchedMultProtocol(List<DRes<SInt>> left, List<DRes<SInt>> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + left.size() + " and " + right.size());
+    }
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, SpdzResourcePool spdzResourcePool,
+      Network network) {
+    SpdzDataSupplier dataSupplier = spdzResourcePool.getDataSupplier();
+    FieldDefinition definition = spdzResourcePool.getFieldDefinition();
+    int size = left.size();
+    if (round == 0) {
+      triples = dataSupplier.getNextTriples(size);
+      epsilonsAndDeltas = new ArrayList<>(2 * size);
+      Iterator<DRes<SInt>> leftIterator = left.iterator();
+      for (SpdzTriple triple : triples) {
+        epsilonsAndDeltas.add(((SpdzSInt) leftIterator.next().out()).subtract(triple.getA()));
+      }
+      Iterator<DRes<SInt>> rightIterator = right.iterator();
+      for (SpdzTriple triple : triples) {
+        epsilonsAndDeltas.add(((SpdzSInt) rightIterator.next().out()).subtract(triple.getB()));
+      }
+      List<FieldElement> shares = new ArrayList<>(2 * size);
+      for (SpdzSInt value : epsilonsAndDeltas) {
+        shares.add(value.getShare());
+      }
+      network.sendToAll(definition.serialize(shares));
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<byte[]> received = network.receiveFromAll();
+      FieldElementVector sum = definition.deserializeVector(received.get(0));
+      for (int j = 1; j < received.size(); j++) {
+        sum = sum.add(definition.deserializeVector(received.get(j)));
+      }
+      List<FieldElement> opened = new ArrayList<>(sum.toList());
+      FieldElement macKeyShare = dataSupplier.getSecretSharedKey();
+      int myId = spdzResourcePool.getMyId();
+      out = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
+        SpdzTriple triple = triples.get(i);
+        FieldElement e = opened.get(i);
+        FieldElement d = opened.get(size + i);
+        FieldElement product = e.multiply(d);
+        SpdzSInt ed = new SpdzSInt(product, macKeyShare.multiply(product));
+        out.add(triple.getC()
+            .add(triple.getB().multiply(e))
+            .add(triple.getA().multiply(d))
+            .add(ed, myId));
+      }
+      spdzResourcePool.getOpenedValueStore().pushOpenedValues(epsilonsAndDeltas, opened);
+      triples = null;
+      epsilonsAndDeltas = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public List<DRes<SInt>> out() {
+    return out;
+  }
+}
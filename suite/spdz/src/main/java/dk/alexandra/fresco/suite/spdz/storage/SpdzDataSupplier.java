@@ -6,6 +6,8 @@ import dk.alexandra.fresco.lib.common.compare.zerotest.ZeroTestBruteforce;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.util.ArrayList;
+import java.util.List;
 
 public interface SpdzDataSupplier {
 
@@ -16,6 +18,21 @@ public interface SpdzDataSupplier {
    */
   SpdzTriple getNextTriple();
 
+  /**
+   * Supplies the next triples. The triples are supplied in the same order as by repeated calls to
+   * {@link #getNextTriple()}.
+   *
+   * @param amount the number of triples
+   * @return the next new triples
+   */
+  default List<SpdzTriple> getNextTriples(int amount) {
+    List<SpdzTriple> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      triples.add(getNextTriple());
+    }
+    return triples;
+  }
+
   /**
    * Supplies the next exponentiation pipe. <p>An exponentiation pipe is a list of numbers in the
    * following format: r^{-1}, r, r^{2}, r^{3}, ..., r^{l}, where r is a random element, l is the
@@ -41,6 +58,21 @@ public interface SpdzDataSupplier {
    */
   SpdzSInt getNextBit();
 
+  /**
+   * Supplies the next bits. The bits are supplied in the same order as by repeated calls to {@link
+   * #getNextBit()}.
+   *
+   * @param amount the number of bits
+   * @return the next new bits
+   */
+  default List<SpdzSInt> getNextBits(int amount) {
+    List<SpdzSInt> bits = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      bits.add(getNextBit());
+    }
+    return bits;
+  }
+
   /**
    * The field definition used for this instance of SPDZ.
    *
@@ -0,0 +1,322 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static dk.alexandra.fresco.suite.spdz.storage.SpdzMappedStorageFormat.CONSUMED_OFFSET;
+import static dk.alexandra.fresco.suite.spdz.storage.SpdzMappedStorageFormat.HEADER_LENGTH;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Data supplier reading preprocessed material written by a {@link SpdzMappedStorageWriter}.
+ * <p>
+ * The files are memory mapped and records are decoded directly from the mapped buffers, so no
+ * Java serialization is involved and material is read at the speed of the disk. Exponentiation
+ * pipes can only be supplied if some were written.
+ * </p>
+ * <p>
+ * The number of records consumed is stored in the header of each file, so a party that is
+ * restarted never reuses material. To avoid writing to disk for every record, records are reserved
+ * in chunks: the end of the reserved chunk is written and forced to disk before the first record of
+ * the chunk is used. The header is always written as a whole in a single write. If the party is
+ * restarted, the unused part of the last chunk is skipped. The parties may have reserved different
+ * amounts of material before they were stopped, so when a supplier is created the parties exchange
+ * their offsets and all continue from the largest offset of any party. Material appended to the
+ * files by a writer while the supplier is in use is picked up once the supplier reaches the end of
+ * the material it has seen.
+ * </p>
+ */
+public class SpdzMappedDataSupplier implements SpdzDataSupplier, Closeable {
+
+  private static final int DEFAULT_RESERVATION_SIZE = 1024;
+  private static final int WINDOW_SIZE = 1 << 24;
+  private final Path directory;
+  private final FieldDefinition definition;
+  private final int elementLength;
+  private final int reservationSize;
+  private final FieldElement ssk;
+  private final RecordReader triples;
+  private final List<RecordReader> inputMasks;
+  private final RecordReader randomElements;
+  private final RecordReader bits;
+  private final RecordReader expPipes;
+  private final int expPipeLength;
+
+  /**
+   * Creates a new supplier reserving {@value DEFAULT_RESERVATION_SIZE} records at a time.
+   *
+   * @param directory the directory the material was written to
+   * @param definition the field definition of the material
+   * @param network network used to agree with the other parties on where to continue
+   */
+  public SpdzMappedDataSupplier(Path directory, FieldDefinition definition, Network network) {
+    this(directory, definition, network, DEFAULT_RESERVATION_SIZE);
+  }
+
+  /**
+   * Creates a new supplier. All parties must create their suppliers at the same time, since they
+   * exchange the offsets they continue from.
+   *
+   * @param directory the directory the material was written to
+   * @param definition the field definition of the material
+   * @param network network used to agree with the other parties on where to continue
+   * @param reservationSize the number of records of a type reserved at a time
+   */
+  public SpdzMappedDataSupplier(Path directory, FieldDefinition definition, Network network,
+      int reservationSize) {
+    if (reservationSize < 1) {
+      throw new IllegalArgumentException(
+          "Reservation size must be positive, was " + reservationSize);
+    }
+    int noOfParties = network.getNoOfParties();
+    this.directory = directory;
+    this.definition = Objects.requireNonNull(definition);
+    this.elementLength = SpdzMappedStorageFormat.elementLength(definition);
+    this.reservationSize = reservationSize;
+    this.ssk = readKey(SpdzMappedStorageFormat.keyFile(directory));
+    this.triples = new RecordReader(SpdzMappedStorageFormat.tripleFile(directory),
+        SpdzMappedStorageFormat.TYPE_TRIPLE);
+    this.inputMasks = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      inputMasks.add(new RecordReader(SpdzMappedStorageFormat.inputMaskFile(directory, partyId),
+          SpdzMappedStorageFormat.TYPE_INPUT_MASK));
+    }
+    this.randomElements = new RecordReader(SpdzMappedStorageFormat.randomElementFile(directory),
+        SpdzMappedStorageFormat.TYPE_RANDOM_ELEMENT);
+    this.bits = new RecordReader(SpdzMappedStorageFormat.bitFile(directory),
+        SpdzMappedStorageFormat.TYPE_BIT);
+    Path expPipeFile = SpdzMappedStorageFormat.expPipeFile(directory);
+    if (Files.exists(expPipeFile)) {
+      this.expPipes = new RecordReader(expPipeFile, SpdzMappedStorageFormat.TYPE_EXP_PIPE);
+      this.expPipeLength = expPipes.recordLength
+          / SpdzMappedStorageFormat.expPipeRecordLength(1, elementLength);
+    } else {
+      this.expPipes = null;
+      this.expPipeLength = 0;
+    }
+    resume(network);
+  }
+
+  @Override
+  public SpdzTriple getNextTriple() {
+    return SpdzMappedStorageFormat.getTriple(triples.next(), definition, elementLength);
+  }
+
+  @Override
+  public SpdzSInt[] getNextExpPipe() {
+    if (expPipes == null) {
+      throw new IllegalArgumentException("No exponentiation pipes in " + directory);
+    }
+    return SpdzMappedStorageFormat.getExpPipe(expPipes.next(), definition, elementLength,
+        expPipeLength);
+  }
+
+  @Override
+  public SpdzInputMask getNextInputMask(int towardPlayerId) {
+    return SpdzMappedStorageFormat.getInputMask(inputMasks.get(towardPlayerId - 1).next(),
+        definition, elementLength);
+  }
+
+  @Override
+  public SpdzSInt getNextBit() {
+    return SpdzMappedStorageFormat.getSInt(bits.next(), definition, elementLength);
+  }
+
+  @Override
+  public FieldDefinition getFieldDefinition() {
+    return definition;
+  }
+
+  @Override
+  public FieldElement getSecretSharedKey() {
+    return ssk;
+  }
+
+  @Override
+  public SpdzSInt getNextRandomFieldElement() {
+    return SpdzMappedStorageFormat.getSInt(randomElements.next(), definition, elementLength);
+  }
+
+  @Override
+  public void close() {
+    readers().forEach(RecordReader::close);
+    if (expPipes != null) {
+      expPipes.close();
+    }
+  }
+
+  /**
+   * Makes all parties continue from the same record of each file. Each party sends the offsets it
+   * would continue from, and all parties skip to the largest offset any party sent. Since all
+   * parties use material in the same order, no party has used any material beyond that.
+   */
+  private void resume(Network network) {
+    List<RecordReader> readers = readers();
+    ByteBuffer offsets = ByteBuffer.allocate((readers.size() + 1) * Long.BYTES);
+    for (RecordReader reader : readers) {
+      offsets.putLong(reader.next);
+    }
+    // Exponentiation pipes may be missing, which is only detected when one is used
+    offsets.putLong(expPipes == null ? 0 : expPipes.next);
+    network.sendToAll(offsets.array());
+    for (byte[] received : network.receiveFromAll()) {
+      if (received.length != offsets.capacity()) {
+        throw new IllegalStateException("The parties use different numbers of preprocessing files");
+      }
+      ByteBuffer buffer = ByteBuffer.wrap(received);
+      for (RecordReader reader : readers) {
+        reader.skipTo(buffer.getLong());
+      }
+      long expPipeOffset = buffer.getLong();
+      if (expPipes != null) {
+        expPipes.skipTo(expPipeOffset);
+      }
+    }
+  }
+
+  private List<RecordReader> readers() {
+    List<RecordReader> readers = new ArrayList<>(inputMasks.size() + 3);
+    readers.add(triples);
+    readers.addAll(inputMasks);
+    readers.add(randomElements);
+    readers.add(bits);
+    return readers;
+  }
+
+  private FieldElement readKey(Path file) {
+    if (!Files.exists(file)) {
+      throw new IllegalArgumentException("No preprocessed material in " + file.getParent());
+    }
+    ByteBuffer buffer = ByteBuffer.wrap(
+        ExceptionConverter.safe(() -> Files.readAllBytes(file), "Unable to read " + file));
+    SpdzMappedStorageFormat.validateHeader(buffer, file, SpdzMappedStorageFormat.TYPE_KEY,
+        elementLength);
+    BigInteger modulus = SpdzMappedStorageFormat.getModulus(buffer, elementLength);
+    if (!modulus.equals(definition.getModulus())) {
+      throw new IllegalArgumentException("Material in " + file.getParent() + " uses modulus "
+          + modulus + ", expected " + definition.getModulus());
+    }
+    return SpdzMappedStorageFormat.getElement(buffer, definition, elementLength);
+  }
+
+  /**
+   * Reads fixed-width records of a single type from a file through a sliding memory mapped
+   * window, and keeps track of the records consumed in the header of the file.
+   */
+  private class RecordReader {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer header;
+    private final int recordLength;
+    private final long windowRecords;
+    private long count;
+    private long next;
+    private long reserved;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long windowEnd;
+
+    private RecordReader(Path file, int type) {
+      this.file = file;
+      if (!Files.exists(file)) {
+        throw new IllegalArgumentException("No preprocessed material in " + file);
+      }
+      this.channel = ExceptionConverter.safe(
+          () -> FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE),
+          "Unable to open " + file);
+      this.header = ByteBuffer.allocate(HEADER_LENGTH);
+      ExceptionConverter.safe(() -> channel.read(header, 0), "Unable to read " + file);
+      header.flip();
+      this.recordLength = SpdzMappedStorageFormat.validateHeader(header.duplicate(), file, type,
+          elementLength);
+      this.windowRecords = Math.max(1, WINDOW_SIZE / recordLength);
+      this.count = countRecords();
+      this.next = header.getLong(CONSUMED_OFFSET);
+      this.reserved = next;
+    }
+
+    /**
+     * Gets the next record.
+     *
+     * @return a buffer positioned at the start of the record
+     */
+    private ByteBuffer next() {
+      if (next == reserved) {
+        reserve();
+      }
+      if (window == null || next >= windowEnd) {
+        long records = Math.min(windowRecords, count - next);
+        long offset = HEADER_LENGTH + next * recordLength;
+        window = ExceptionConverter.safe(
+            () -> channel.map(MapMode.READ_ONLY, offset, records * recordLength),
+            "Unable to map " + file);
+        windowStart = next;
+        windowEnd = next + records;
+      }
+      window.position((int) ((next - windowStart) * recordLength));
+      next++;
+      return window;
+    }
+
+    private void reserve() {
+      if (next >= count) {
+        count = countRecords();
+        if (next >= count) {
+          throw new IllegalArgumentException(
+              "Record no. " + next + " was not present in the storage " + file);
+        }
+      }
+      reserved = Math.min(count, next + reservationSize);
+      header.putLong(CONSUMED_OFFSET, reserved);
+      ByteBuffer toWrite = header.duplicate();
+      toWrite.rewind();
+      ExceptionConverter.safe(() -> {
+        // The header is smaller than a disk sector, so a single write replaces it atomically
+        while (toWrite.hasRemaining()) {
+          channel.write(toWrite, toWrite.position());
+        }
+        channel.force(false);
+        return null;
+      }, "Unable to write to " + file);
+    }
+
+    /**
+     * Skips to the given record if it is after the next record to be read.
+     */
+    private void skipTo(long offset) {
+      if (offset > next) {
+        next = offset;
+        reserved = offset;
+      }
+    }
+
+    private long countRecords() {
+      long size = ExceptionConverter.safe(channel::size, "Unable to read " + file);
+      return (size - HEADER_LENGTH) / recordLength;
+    }
+
+    private void close() {
+      ExceptionConverter.safe(() -> {
+        channel.close();
+        return null;
+      }, "Unable to close " + file);
+    }
+  }
+}
@@ -0,0 +1,259 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * The binary format used by {@link SpdzMappedStorageWriter} and {@link SpdzMappedDataSupplier}.
+ * <p>
+ * Each type of material is stored in its own file, input masks in one file per input party. A file
+ * starts with a header of {@value HEADER_LENGTH} bytes followed by fixed-width records. All field
+ * elements are serialized by the field definition to the same number of bytes, so the position of
+ * any record can be computed directly from its index. The header is laid out as follows (all
+ * values big-endian):
+ * </p>
+ * <ul>
+ * <li>magic number, 4 bytes</li>
+ * <li>format version, 4 bytes</li>
+ * <li>the type of material, 4 bytes</li>
+ * <li>the length of a serialized field element, 4 bytes</li>
+ * <li>the length of a record, 4 bytes</li>
+ * <li>unused, 4 bytes</li>
+ * <li>the number of records consumed or reserved by a reader, 8 bytes</li>
+ * </ul>
+ * <p>
+ * A share is stored as the share followed by its mac. A triple is stored as the shares of
+ * <i>a</i>, <i>b</i> and <i>c</i>. An input mask is stored as a flag byte telling if the real
+ * value is known, followed by the share and the real value, which is all zeros when unknown. An
+ * exponentiation pipe is stored as the shares of its values in order, and all pipes in a file have
+ * the length given by the record length. The key file holds a single record with the modulus
+ * followed by the share of the mac key.
+ * </p>
+ */
+final class SpdzMappedStorageFormat {
+
+  static final int MAGIC = 0x46535044;
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 32;
+  static final int CONSUMED_OFFSET = 24;
+
+  static final int TYPE_KEY = 0;
+  static final int TYPE_TRIPLE = 1;
+  static final int TYPE_INPUT_MASK = 2;
+  static final int TYPE_RANDOM_ELEMENT = 3;
+  static final int TYPE_BIT = 4;
+  static final int TYPE_EXP_PIPE = 5;
+
+  private static final String KEY_FILE = "key.bin";
+  private static final String TRIPLE_FILE = "triples.bin";
+  private static final String INPUT_MASK_FILE_PREFIX = "input_masks_";
+  private static final String RANDOM_ELEMENT_FILE = "random_elements.bin";
+  private static final String BIT_FILE = "bits.bin";
+  private static final String EXP_PIPE_FILE = "exp_pipes.bin";
+
+  private SpdzMappedStorageFormat() {
+  }
+
+  static Path keyFile(Path directory) {
+    return directory.resolve(KEY_FILE);
+  }
+
+  static Path tripleFile(Path directory) {
+    return directory.resolve(TRIPLE_FILE);
+  }
+
+  static Path inputMaskFile(Path directory, int towardsPlayerId) {
+    return directory.resolve(INPUT_MASK_FILE_PREFIX + towardsPlayerId + ".bin");
+  }
+
+  static Path randomElementFile(Path directory) {
+    return directory.resolve(RANDOM_ELEMENT_FILE);
+  }
+
+  static Path bitFile(Path directory) {
+    return directory.resolve(BIT_FILE);
+  }
+
+  static Path expPipeFile(Path directory) {
+    return directory.resolve(EXP_PIPE_FILE);
+  }
+
+  /**
+   * Gets the length in bytes of a serialized element of the given field.
+   */
+  static int elementLength(FieldDefinition definition) {
+    return definition.serialize(definition.createElement(0)).length;
+  }
+
+  /**
+   * Gets the length in bytes of a record of the given type. Not defined for exponentiation pipes,
+   * see {@link #expPipeRecordLength(int, int)}.
+   */
+  static int recordLength(int type, int elementLength) {
+    switch (type) {
+      case TYPE_KEY:
+        return 2 * elementLength;
+      case TYPE_TRIPLE:
+        return 6 * elementLength;
+      case TYPE_INPUT_MASK:
+        return 1 + 3 * elementLength;
+      case TYPE_RANDOM_ELEMENT:
+      case TYPE_BIT:
+        return 2 * elementLength;
+      default:
+        throw new IllegalArgumentException("Unknown type " + type);
+    }
+  }
+
+  /**
+   * Gets the length in bytes of a record holding an exponentiation pipe of the given length.
+   */
+  static int expPipeRecordLength(int pipeLength, int elementLength) {
+    return 2 * elementLength * pipeLength;
+  }
+
+  static void writeHeader(ByteBuffer buffer, int type, int elementLength) {
+    writeHeader(buffer, type, elementLength, recordLength(type, elementLength));
+  }
+
+  static void writeHeader(ByteBuffer buffer, int type, int elementLength, int recordLength) {
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putInt(type);
+    buffer.putInt(elementLength);
+    buffer.putInt(recordLength);
+    buffer.putInt(0);
+    buffer.putLong(0);
+  }
+
+  /**
+   * Checks that a header matches the expected type and element length.
+   *
+   * @param buffer the header, read from the current position up to the end of the header
+   * @param file the file read, used for error messages
+   * @return the length of a record in the file
+   */
+  static int validateHeader(ByteBuffer buffer, Path file, int type, int elementLength) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException(file + " is not a SPDZ preprocessing file");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException(
+          "Unsupported version " + version + " of " + file + ", expected " + VERSION);
+    }
+    int actualType = buffer.getInt();
+    if (actualType != type) {
+      throw new IllegalArgumentException(
+          file + " holds material of type " + actualType + ", expected " + type);
+    }
+    int actualElementLength = buffer.getInt();
+    if (actualElementLength != elementLength) {
+      throw new IllegalArgumentException("Elements of " + file + " are " + actualElementLength
+          + " bytes, expected " + elementLength);
+    }
+    int recordLength = buffer.getInt();
+    boolean validLength = type == TYPE_EXP_PIPE
+        ? recordLength > 0 && recordLength % expPipeRecordLength(1, elementLength) == 0
+        : recordLength == recordLength(type, elementLength);
+    if (!validLength) {
+      throw new IllegalArgumentException("Unexpected record length in " + file);
+    }
+    buffer.getInt();
+    buffer.getLong();
+    return recordLength;
+  }
+
+  /**
+   * Writes the modulus as an unsigned big-endian number of <code>elementLength</code> bytes.
+   */
+  static void putModulus(ByteBuffer buffer, BigInteger modulus, int elementLength) {
+    byte[] bytes = modulus.toByteArray();
+    byte[] padded = new byte[elementLength];
+    int length = Math.min(bytes.length, elementLength);
+    System.arraycopy(bytes, bytes.length - length, padded, elementLength - length, length);
+    buffer.put(padded);
+  }
+
+  static BigInteger getModulus(ByteBuffer buffer, int elementLength) {
+    byte[] bytes = new byte[elementLength];
+    buffer.get(bytes);
+    return new BigInteger(1, bytes);
+  }
+
+  static void putElement(ByteBuffer buffer, FieldDefinition definition, FieldElement element) {
+    buffer.put(definition.serialize(element));
+  }
+
+  static FieldElement getElement(ByteBuffer buffer, FieldDefinition definition,
+      int elementLength) {
+    byte[] bytes = new byte[elementLength];
+    buffer.get(bytes);
+    return definition.deserialize(bytes);
+  }
+
+  static void putSInt(ByteBuffer buffer, FieldDefinition definition, SpdzSInt value) {
+    putElement(buffer, definition, value.getShare());
+    putElement(buffer, definition, value.getMac());
+  }
+
+  static SpdzSInt getSInt(ByteBuffer buffer, FieldDefinition definition, int elementLength) {
+    FieldElement share = getElement(buffer, definition, elementLength);
+    FieldElement mac = getElement(buffer, definition, elementLength);
+    return new SpdzSInt(share, mac);
+  }
+
+  static void putTriple(ByteBuffer buffer, FieldDefinition definition, SpdzTriple triple) {
+    putSInt(buffer, definition, triple.getA());
+    putSInt(buffer, definition, triple.getB());
+    putSInt(buffer, definition, triple.getC());
+  }
+
+  static SpdzTriple getTriple(ByteBuffer buffer, FieldDefinition definition, int elementLength) {
+    SpdzSInt a = getSInt(buffer, definition, elementLength);
+    SpdzSInt b = getSInt(buffer, definition, elementLength);
+    SpdzSInt c = getSInt(buffer, definition, elementLength);
+    return new SpdzTriple(a, b, c);
+  }
+
+  static void putExpPipe(ByteBuffer buffer, FieldDefinition definition, SpdzSInt[] pipe) {
+    for (SpdzSInt value : pipe) {
+      putSInt(buffer, definition, value);
+    }
+  }
+
+  static SpdzSInt[] getExpPipe(ByteBuffer buffer, FieldDefinition definition, int elementLength,
+      int pipeLength) {
+    SpdzSInt[] pipe = new SpdzSInt[pipeLength];
+    for (int i = 0; i < pipeLength; i++) {
+      pipe[i] = getSInt(buffer, definition, elementLength);
+    }
+    return pipe;
+  }
+
+  static void putInputMask(ByteBuffer buffer, FieldDefinition definition, SpdzInputMask mask,
+      int elementLength) {
+    FieldElement realValue = mask.getRealValue();
+    buffer.put((byte) (realValue == null ? 0 : 1));
+    putSInt(buffer, definition, mask.getMask());
+    if (realValue == null) {
+      buffer.put(new byte[elementLength]);
+    } else {
+      putElement(buffer, definition, realValue);
+    }
+  }
+
+  static SpdzInputMask getInputMask(ByteBuffer buffer, FieldDefinition definition,
+      int elementLength) {
+    boolean hasRealValue = buffer.get() != 0;
+    SpdzSInt mask = getSInt(buffer, definition, elementLength);
+    FieldElement realValue = getElement(buffer, definition, elementLength);
+    return hasRealValue ? new SpdzInputMask(mask, realValue) : new SpdzInputMask(mask);
+  }
+}
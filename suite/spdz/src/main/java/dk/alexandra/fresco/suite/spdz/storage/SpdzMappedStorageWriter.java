@@ -0,0 +1,292 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static dk.alexandra.fresco.suite.spdz.storage.SpdzMappedStorageFormat.HEADER_LENGTH;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.io.Closeable;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes preprocessed SPDZ material to a directory in the binary format read by {@link
+ * SpdzMappedDataSupplier}.
+ * <p>
+ * Material is appended to any material already in the directory, so preprocessing can be done in
+ * several sessions, e.g., by repeatedly streaming the output of a {@link SpdzMascotDataSupplier}
+ * into the writer using {@link #writeFrom(SpdzDataSupplier, int, int, int, int)}. A record that
+ * was only partially written when a previous writer crashed is discarded. Material is buffered in
+ * memory and only guaranteed to be on disk after {@link #flush()} or {@link #close()}.
+ * </p>
+ */
+public class SpdzMappedStorageWriter implements Closeable {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+  private final Path directory;
+  private final FieldDefinition definition;
+  private final int elementLength;
+  private final RecordWriter triples;
+  private final List<RecordWriter> inputMasks;
+  private final RecordWriter randomElements;
+  private final RecordWriter bits;
+  private RecordWriter expPipes;
+  private int expPipeLength;
+
+  /**
+   * Creates a new writer, creating the directory and the files if they do not exist.
+   *
+   * @param directory the directory to store the material in
+   * @param definition the field definition of the material
+   * @param ssk the share of the mac key the material is authenticated under
+   * @param noOfParties the number of parties
+   */
+  public SpdzMappedStorageWriter(Path directory, FieldDefinition definition, FieldElement ssk,
+      int noOfParties) {
+    this.directory = directory;
+    this.definition = Objects.requireNonNull(definition);
+    this.elementLength = SpdzMappedStorageFormat.elementLength(definition);
+    ExceptionConverter.safe(() -> Files.createDirectories(directory),
+        "Unable to create directory " + directory);
+    writeKey(SpdzMappedStorageFormat.keyFile(directory), Objects.requireNonNull(ssk));
+    this.triples = new RecordWriter(SpdzMappedStorageFormat.tripleFile(directory),
+        SpdzMappedStorageFormat.TYPE_TRIPLE);
+    this.inputMasks = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      inputMasks.add(new RecordWriter(SpdzMappedStorageFormat.inputMaskFile(directory, partyId),
+          SpdzMappedStorageFormat.TYPE_INPUT_MASK));
+    }
+    this.randomElements = new RecordWriter(SpdzMappedStorageFormat.randomElementFile(directory),
+        SpdzMappedStorageFormat.TYPE_RANDOM_ELEMENT);
+    this.bits = new RecordWriter(SpdzMappedStorageFormat.bitFile(directory),
+        SpdzMappedStorageFormat.TYPE_BIT);
+  }
+
+  public void writeTriple(SpdzTriple triple) {
+    triples.write(triple, (buffer, t) -> SpdzMappedStorageFormat.putTriple(buffer, definition, t));
+  }
+
+  public void writeTriples(List<SpdzTriple> triples) {
+    triples.forEach(this::writeTriple);
+  }
+
+  public void writeInputMask(int towardsPlayerId, SpdzInputMask mask) {
+    inputMasks.get(towardsPlayerId - 1).write(mask,
+        (buffer, m) -> SpdzMappedStorageFormat.putInputMask(buffer, definition, m, elementLength));
+  }
+
+  public void writeRandomElement(SpdzSInt element) {
+    randomElements.write(element,
+        (buffer, e) -> SpdzMappedStorageFormat.putSInt(buffer, definition, e));
+  }
+
+  public void writeBit(SpdzSInt bit) {
+    bits.write(bit, (buffer, b) -> SpdzMappedStorageFormat.putSInt(buffer, definition, b));
+  }
+
+  /**
+   * Writes an exponentiation pipe. All pipes in a directory must have the same length, which is
+   * fixed by the first pipe written.
+   *
+   * @param pipe the pipe
+   */
+  public void writeExpPipe(SpdzSInt[] pipe) {
+    if (expPipes == null) {
+      expPipes = new RecordWriter(SpdzMappedStorageFormat.expPipeFile(directory),
+          SpdzMappedStorageFormat.TYPE_EXP_PIPE,
+          SpdzMappedStorageFormat.expPipeRecordLength(pipe.length, elementLength));
+      expPipeLength = pipe.length;
+    } else if (pipe.length != expPipeLength) {
+      throw new IllegalArgumentException("Exponentiation pipes in " + directory + " have length "
+          + expPipeLength + ", was " + pipe.length);
+    }
+    expPipes.write(pipe, (buffer, p) -> SpdzMappedStorageFormat.putExpPipe(buffer, definition, p));
+  }
+
+  /**
+   * Takes material from another supplier, e.g., a {@link SpdzMascotDataSupplier}, and writes it.
+   *
+   * @param supplier the supplier generating the material
+   * @param noOfTriples the number of triples to write
+   * @param noOfInputMasks the number of input masks to write towards each party
+   * @param noOfRandomElements the number of random elements to write
+   * @param noOfBits the number of bits to write
+   */
+  public void writeFrom(SpdzDataSupplier supplier, int noOfTriples, int noOfInputMasks,
+      int noOfRandomElements, int noOfBits) {
+    writeFrom(supplier, noOfTriples, noOfInputMasks, noOfRandomElements, noOfBits, 0);
+  }
+
+  /**
+   * Takes material, including exponentiation pipes, from another supplier and writes it.
+   *
+   * @param supplier the supplier generating the material
+   * @param noOfTriples the number of triples to write
+   * @param noOfInputMasks the number of input masks to write towards each party
+   * @param noOfRandomElements the number of random elements to write
+   * @param noOfBits the number of bits to write
+   * @param noOfExpPipes the number of exponentiation pipes to write
+   */
+  public void writeFrom(SpdzDataSupplier supplier, int noOfTriples, int noOfInputMasks,
+      int noOfRandomElements, int noOfBits, int noOfExpPipes) {
+    writeTriples(supplier.getNextTriples(noOfTriples));
+    for (int partyId = 1; partyId <= inputMasks.size(); partyId++) {
+      for (int i = 0; i < noOfInputMasks; i++) {
+        writeInputMask(partyId, supplier.getNextInputMask(partyId));
+      }
+    }
+    for (int i = 0; i < noOfRandomElements; i++) {
+      writeRandomElement(supplier.getNextRandomFieldElement());
+    }
+    for (int i = 0; i < noOfBits; i++) {
+      writeBit(supplier.getNextBit());
+    }
+    for (int i = 0; i < noOfExpPipes; i++) {
+      writeExpPipe(supplier.getNextExpPipe());
+    }
+  }
+
+  /**
+   * Writes all buffered material to disk.
+   */
+  public void flush() {
+    triples.flush();
+    inputMasks.forEach(RecordWriter::flush);
+    randomElements.flush();
+    bits.flush();
+    if (expPipes != null) {
+      expPipes.flush();
+    }
+  }
+
+  @Override
+  public void close() {
+    flush();
+    triples.close();
+    inputMasks.forEach(RecordWriter::close);
+    randomElements.close();
+    bits.close();
+    if (expPipes != null) {
+      expPipes.close();
+    }
+  }
+
+  private void writeKey(Path file, FieldElement ssk) {
+    BigInteger modulus = definition.getModulus();
+    if (Files.exists(file)) {
+      ByteBuffer buffer = ByteBuffer.wrap(
+          ExceptionConverter.safe(() -> Files.readAllBytes(file), "Unable to read " + file));
+      SpdzMappedStorageFormat.validateHeader(buffer, file, SpdzMappedStorageFormat.TYPE_KEY,
+          elementLength);
+      BigInteger storedModulus = SpdzMappedStorageFormat.getModulus(buffer, elementLength);
+      FieldElement storedSsk =
+          SpdzMappedStorageFormat.getElement(buffer, definition, elementLength);
+      if (!storedModulus.equals(modulus)
+          || !storedSsk.toBigInteger().equals(ssk.toBigInteger())) {
+        throw new IllegalArgumentException(
+            "Material in " + file.getParent() + " uses a different modulus or mac key");
+      }
+    } else {
+      ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + SpdzMappedStorageFormat
+          .recordLength(SpdzMappedStorageFormat.TYPE_KEY, elementLength));
+      SpdzMappedStorageFormat.writeHeader(buffer, SpdzMappedStorageFormat.TYPE_KEY,
+          elementLength);
+      SpdzMappedStorageFormat.putModulus(buffer, modulus, elementLength);
+      SpdzMappedStorageFormat.putElement(buffer, definition, ssk);
+      ExceptionConverter.safe(() -> Files.write(file, buffer.array()),
+          "Unable to write key to " + file);
+    }
+  }
+
+  /**
+   * Appends fixed-width records of a single type to a file.
+   */
+  private class RecordWriter {
+
+    private final Path file;
+    private final FileChannel channel;
+    private final ByteBuffer buffer;
+
+    private RecordWriter(Path file, int type) {
+      this(file, type, SpdzMappedStorageFormat.recordLength(type, elementLength));
+    }
+
+    private RecordWriter(Path file, int type, int recordLength) {
+      this.file = file;
+      this.buffer =
+          ByteBuffer.allocate(Math.max(1, BUFFER_SIZE / recordLength) * recordLength);
+      this.channel = ExceptionConverter.safe(() -> FileChannel.open(file,
+          StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE),
+          "Unable to open " + file);
+      ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+      long size = ExceptionConverter.safe(channel::size, "Unable to read " + file);
+      if (size == 0) {
+        SpdzMappedStorageFormat.writeHeader(header, type, elementLength, recordLength);
+        header.flip();
+        ExceptionConverter.safe(() -> {
+          writeFully(channel, header);
+          return null;
+        }, "Unable to write to " + file);
+        size = HEADER_LENGTH;
+      } else {
+        ExceptionConverter.safe(() -> channel.read(header, 0), "Unable to read " + file);
+        header.flip();
+        int storedLength =
+            SpdzMappedStorageFormat.validateHeader(header, file, type, elementLength);
+        if (storedLength != recordLength) {
+          throw new IllegalArgumentException("Records of " + file + " are " + storedLength
+              + " bytes, expected " + recordLength);
+        }
+        long complete = HEADER_LENGTH + (size - HEADER_LENGTH) / recordLength * recordLength;
+        if (complete != size) {
+          ExceptionConverter.safe(() -> channel.truncate(complete), "Unable to truncate " + file);
+          size = complete;
+        }
+      }
+      long end = size;
+      ExceptionConverter.safe(() -> channel.position(end), "Unable to open " + file);
+    }
+
+    private <T> void write(T record, BiConsumer<ByteBuffer, T> encoder) {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      encoder.accept(buffer, record);
+    }
+
+    private void flush() {
+      buffer.flip();
+      ExceptionConverter.safe(() -> {
+        writeFully(channel, buffer);
+        channel.force(false);
+        return null;
+      }, "Unable to write to " + file);
+      buffer.clear();
+    }
+
+    private void close() {
+      ExceptionConverter.safe(() -> {
+        channel.close();
+        return null;
+      }, "Unable to close " + file);
+    }
+  }
+
+  private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+    while (buffer.hasRemaining()) {
+      channel.write(buffer);
+    }
+  }
+}
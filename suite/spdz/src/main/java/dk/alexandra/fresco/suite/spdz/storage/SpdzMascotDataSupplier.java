@@ -3,9 +3,12 @@ package dk.alexandra.fresco.suite.spdz.storage;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
 import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.BackgroundProducer;
+import dk.alexandra.fresco.framework.util.BackgroundProducer.Buffer;
 import dk.alexandra.fresco.framework.util.Drbg;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.framework.util.ValidationUtils;
+import dk.alexandra.fresco.logging.PerformanceLogger;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
 import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
@@ -19,20 +22,50 @@ import dk.alexandra.fresco.tools.mascot.field.MultiplicationTriple;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrg;
 import dk.alexandra.fresco.tools.mascot.prg.FieldElementPrgImpl;
 import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.io.Closeable;
 import java.security.SecureRandom;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 /**
  * A data supplier based on the Mascot protocol. Uses concrete implementation {@link Mascot}.
+ *
+ * <p>
+ * By default material is generated synchronously in batches whenever the supplier runs out, which
+ * stalls the online phase for the duration of a batch. Alternatively the supplier can be created
+ * with watermarks, in which case MASCOT runs on a background thread with its own network and keeps
+ * a buffer for each type of material filled ahead of consumption. Whenever the number of buffered
+ * or requested elements of a type drops below the low watermark, a refill up to the high watermark
+ * is requested, and the online phase only blocks if a buffer is empty. When prefetching, all
+ * parties must consume the material in the same order, which is already required by SPDZ, and use
+ * the same watermarks and batch size.
+ * </p>
+ *
+ * <p>
+ * The number of times and the total time the online phase had to wait for material is available
+ * through {@link #getLoggedValues()}. When generating synchronously, each batch counts as a stall.
+ * </p>
  */
-public class SpdzMascotDataSupplier implements SpdzDataSupplier {
+public class SpdzMascotDataSupplier implements SpdzDataSupplier, PerformanceLogger, Closeable {
+
+  public static final String TRIPLE_STALLS = "MASCOT_TRIPLE_STALLS";
+  public static final String TRIPLE_STALL_NANOS = "MASCOT_TRIPLE_STALL_NANOS";
+  public static final String INPUT_MASK_STALLS = "MASCOT_INPUT_MASK_STALLS";
+  public static final String INPUT_MASK_STALL_NANOS = "MASCOT_INPUT_MASK_STALL_NANOS";
+  public static final String RANDOM_ELEMENT_STALLS = "MASCOT_RANDOM_ELEMENT_STALLS";
+  public static final String RANDOM_ELEMENT_STALL_NANOS = "MASCOT_RANDOM_ELEMENT_STALL_NANOS";
+  public static final String BIT_STALLS = "MASCOT_BIT_STALLS";
+  public static final String BIT_STALL_NANOS = "MASCOT_BIT_STALL_NANOS";
 
   private static final Logger logger = LoggerFactory.getLogger(SpdzMascotDataSupplier.class);
   private final int myId;
@@ -53,9 +86,20 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
   private final Drbg drbg;
   private final Map<Integer, RotList> seedOts;
   private Mascot mascot;
+  // Stalls and total stall time in nanos when generating synchronously
+  private final long[] tripleStalls = new long[2];
+  private final long[] maskStalls = new long[2];
+  private final long[] randomElementStalls = new long[2];
+  private final long[] bitStalls = new long[2];
+  // Only used when prefetching
+  private final BackgroundProducer prefetcher;
+  private final Buffer<SpdzTriple> tripleBuffer;
+  private final Map<Integer, Buffer<SpdzInputMask>> maskBuffers;
+  private final Buffer<SpdzSInt> randomElementBuffer;
+  private final Buffer<SpdzSInt> bitBuffer;
 
   /**
-   * Creates {@link SpdzMascotDataSupplier}.
+   * Creates {@link SpdzMascotDataSupplier} generating material synchronously.
    *
    * @param myId this party's id
    * @param numberOfPlayers number of players
@@ -74,6 +118,44 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
       Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
       Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
       FieldElement ssk, Map<Integer, RotList> seedOts, Drbg drbg) {
+    this(myId, numberOfPlayers, instanceId, tripleNetwork, fieldDefinition, modBitLength,
+        preprocessedValues, prgSeedLength, batchSize, ssk, seedOts, drbg, false, 0, 0);
+  }
+
+  /**
+   * Creates {@link SpdzMascotDataSupplier} generating material on a background thread. The
+   * background thread is started immediately and starts by filling up the buffer of triples.
+   *
+   * @param myId this party's id
+   * @param numberOfPlayers number of players
+   * @param instanceId identifier used to distinguish parallel instances of Mascot
+   * @param tripleNetwork network supplier for network to be used by Mascot instance
+   * @param fieldDefinition field definition
+   * @param modBitLength bit length of modulus
+   * @param preprocessedValues callback to generate exponentiation pipes. Nullable.
+   * @param prgSeedLength bit length of prg
+   * @param batchSize batch size in which Mascot will generate pre-processed material
+   * @param ssk mac key share
+   * @param seedOts pre-computed base OTs
+   * @param drbg source of randomness
+   * @param lowWatermark the number of buffered elements of a type below which a refill is requested
+   * @param highWatermark the number of elements of a type a refill fills up to
+   */
+  public SpdzMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      FieldElement ssk, Map<Integer, RotList> seedOts, Drbg drbg, int lowWatermark,
+      int highWatermark) {
+    this(myId, numberOfPlayers, instanceId, tripleNetwork, fieldDefinition, modBitLength,
+        preprocessedValues, prgSeedLength, batchSize, ssk, seedOts, drbg, true, lowWatermark,
+        highWatermark);
+  }
+
+  private SpdzMascotDataSupplier(int myId, int numberOfPlayers, int instanceId,
+      Supplier<Network> tripleNetwork, FieldDefinition fieldDefinition, int modBitLength,
+      Function<Integer, SpdzSInt[]> preprocessedValues, int prgSeedLength, int batchSize,
+      FieldElement ssk, Map<Integer, RotList> seedOts, Drbg drbg, boolean prefetch,
+      int lowWatermark, int highWatermark) {
     ValidationUtils.assertValidId(myId, numberOfPlayers);
     this.myId = myId;
     this.numberOfPlayers = numberOfPlayers;
@@ -94,6 +176,39 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     this.ssk = Objects.requireNonNull(ssk);
     this.seedOts = Objects.requireNonNull(seedOts);
     this.drbg = Objects.requireNonNull(drbg);
+    if (prefetch) {
+      if (lowWatermark < 0 || highWatermark <= lowWatermark) {
+        throw new IllegalArgumentException("Watermarks must satisfy 0 <= low < high, was "
+            + lowWatermark + " and " + highWatermark);
+      }
+      this.prefetcher = new BackgroundProducer("mascot-prefetcher-" + myId + "-" + instanceId);
+      prefetcher.submit(this::ensureInitialized);
+      this.tripleBuffer = prefetcher.createBuffer(amount -> mascot.getTriples(amount).stream()
+              .map(MascotFormatConverter::toSpdzTriple).collect(Collectors.toList()),
+          lowWatermark, highWatermark, batchSize);
+      this.maskBuffers = new HashMap<>();
+      for (int partyId = 1; partyId <= numberOfPlayers; partyId++) {
+        int towardsPlayerId = partyId;
+        maskBuffers.put(partyId, prefetcher.createBuffer(
+            amount -> mascot.getInputMasks(towardsPlayerId, amount).stream()
+                .map(MascotFormatConverter::toSpdzInputMask).collect(Collectors.toList()),
+            lowWatermark, highWatermark, batchSize));
+      }
+      this.randomElementBuffer = prefetcher.createBuffer(
+          amount -> mascot.getRandomElements(amount).stream()
+              .map(MascotFormatConverter::toSpdzSInt).collect(Collectors.toList()),
+          lowWatermark, highWatermark, batchSize);
+      this.bitBuffer = prefetcher.createBuffer(amount -> mascot.getRandomBits(amount).stream()
+              .map(MascotFormatConverter::toSpdzSInt).collect(Collectors.toList()),
+          lowWatermark, highWatermark, batchSize);
+      tripleBuffer.fill();
+    } else {
+      this.prefetcher = null;
+      this.tripleBuffer = null;
+      this.maskBuffers = null;
+      this.randomElementBuffer = null;
+      this.bitBuffer = null;
+    }
   }
 
   /**
@@ -119,24 +234,77 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
     return localSampler.getNext();
   }
 
+  /**
+   * Creates instance of {@link SpdzMascotDataSupplier} generating material on a background thread.
+   *
+   * <p>
+   * The <code>tripleNetwork</code> supplier is called on the background thread and must return a
+   * network that is not used by anything else.
+   * </p>
+   */
+  public static SpdzMascotDataSupplier createPrefetchingSupplier(int myId, int numberOfPlayers,
+      Supplier<Network> tripleNetwork, int modBitLength, FieldDefinition fieldDefinition,
+      Function<Integer, SpdzSInt[]> preprocessedValues,
+      Map<Integer, RotList> seedOts, Drbg drbg, FieldElement ssk, int lowWatermark,
+      int highWatermark) {
+    int prgSeedLength = 256;
+    return new SpdzMascotDataSupplier(myId, numberOfPlayers, 1, tripleNetwork, fieldDefinition,
+        modBitLength, preprocessedValues, prgSeedLength, 16, ssk, seedOts, drbg, lowWatermark,
+        highWatermark);
+  }
+
   @Override
   public SpdzTriple getNextTriple() {
+    if (prefetcher != null) {
+      return tripleBuffer.take();
+    }
     ensureInitialized();
     if (triples.isEmpty()) {
       logger.trace("Getting another triple batch");
+      long start = System.nanoTime();
       triples.addAll(mascot.getTriples(batchSize));
+      recordStall(tripleStalls, start);
       logger.trace("Got another triple batch");
     }
     MultiplicationTriple triple = triples.pop();
     return MascotFormatConverter.toSpdzTriple(triple);
   }
 
+  @Override
+  public List<SpdzTriple> getNextTriples(int amount) {
+    List<SpdzTriple> result = new ArrayList<>(amount);
+    if (prefetcher != null) {
+      for (int i = 0; i < amount; i++) {
+        result.add(tripleBuffer.take());
+      }
+      return result;
+    }
+    ensureInitialized();
+    if (triples.size() < amount) {
+      int batches = (amount - triples.size() + batchSize - 1) / batchSize;
+      logger.trace("Getting {} more triple batches", batches);
+      long start = System.nanoTime();
+      triples.addAll(mascot.getTriples(batches * batchSize));
+      recordStall(tripleStalls, start);
+      logger.trace("Got {} more triple batches", batches);
+    }
+    for (int i = 0; i < amount; i++) {
+      result.add(MascotFormatConverter.toSpdzTriple(triples.pop()));
+    }
+    return result;
+  }
+
   @Override
   public SpdzSInt getNextRandomFieldElement() {
+    if (prefetcher != null) {
+      return randomElementBuffer.take();
+    }
     ensureInitialized();
     if (randomElements.isEmpty()) {
       logger.trace("Getting another random element batch");
+      long start = System.nanoTime();
       randomElements.addAll(mascot.getRandomElements(batchSize));
+      recordStall(randomElementStalls, start);
       logger.trace("Got another random element batch");
     }
     return MascotFormatConverter.toSpdzSInt(randomElements.pop());
@@ -152,11 +320,16 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
 
   @Override
   public SpdzInputMask getNextInputMask(int towardsPlayerId) {
+    if (prefetcher != null) {
+      return maskBuffers.get(towardsPlayerId).take();
+    }
     ensureInitialized();
     ArrayDeque<InputMask> inputMasks = masks.get(towardsPlayerId);
     if (inputMasks.isEmpty()) {
       logger.trace("Getting another mask batch");
+      long start = System.nanoTime();
       inputMasks.addAll(mascot.getInputMasks(towardsPlayerId, batchSize));
+      recordStall(maskStalls, start);
       logger.trace("Got another mask batch");
     }
     return MascotFormatConverter.toSpdzInputMask(inputMasks.pop());
@@ -164,15 +337,112 @@ public class SpdzMascotDataSupplier implements SpdzDataSupplier {
 
   @Override
   public SpdzSInt getNextBit() {
+    if (prefetcher != null) {
+      return bitBuffer.take();
+    }
     ensureInitialized();
     if (randomBits.isEmpty()) {
       logger.trace("Getting another bit batch");
+      long start = System.nanoTime();
       randomBits.addAll(mascot.getRandomBits(batchSize));
+      recordStall(bitStalls, start);
       logger.trace("Got another bit batch");
     }
     return MascotFormatConverter.toSpdzSInt(randomBits.pop());
   }
 
+  @Override
+  public List<SpdzSInt> getNextBits(int amount) {
+    List<SpdzSInt> result = new ArrayList<>(amount);
+    if (prefetcher != null) {
+      for (int i = 0; i < amount; i++) {
+        result.add(bitBuffer.take());
+      }
+      return result;
+    }
+    ensureInitialized();
+    if (randomBits.size() < amount) {
+      int batches = (amount - randomBits.size() + batchSize - 1) / batchSize;
+      logger.trace("Getting {} more bit batches", batches);
+      long start = System.nanoTime();
+      randomBits.addAll(mascot.getRandomBits(batches * batchSize));
+      recordStall(bitStalls, start);
+      logger.trace("Got {} more bit batches", batches);
+    }
+    for (int i = 0; i < amount; i++) {
+      result.add(MascotFormatConverter.toSpdzSInt(randomBits.pop()));
+    }
+    return result;
+  }
+
+  /**
+   * Gets the number of triples requested from the background thread but not yet consumed, i.e.
+   * buffered or still being generated. Only used for testing.
+   */
+  long getOutstandingTriples() {
+    return tripleBuffer.getOutstanding();
+  }
+
+  /**
+   * Stops the background thread generating material, if any. Any subsequent request for material
+   * that is not already buffered will fail. Called by {@link
+   * dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl#close()} when the resource pool using this
+   * supplier is closed.
+   */
+  @Override
+  public void close() {
+    if (prefetcher != null) {
+      prefetcher.close();
+    }
+  }
+
+  @Override
+  public void reset() {
+    if (prefetcher != null) {
+      tripleBuffer.resetMetrics();
+      maskBuffers.values().forEach(Buffer::resetMetrics);
+      randomElementBuffer.resetMetrics();
+      bitBuffer.resetMetrics();
+    } else {
+      Arrays.fill(tripleStalls, 0);
+      Arrays.fill(maskStalls, 0);
+      Arrays.fill(randomElementStalls, 0);
+      Arrays.fill(bitStalls, 0);
+    }
+  }
+
+  @Override
+  public Map<String, Long> getLoggedValues() {
+    Map<String, Long> values = new HashMap<>();
+    if (prefetcher != null) {
+      values.put(TRIPLE_STALLS, tripleBuffer.getStalls());
+      values.put(TRIPLE_STALL_NANOS, tripleBuffer.getStallNanos());
+      values.put(INPUT_MASK_STALLS,
+          maskBuffers.values().stream().mapToLong(Buffer::getStalls).sum());
+      values.put(INPUT_MASK_STALL_NANOS,
+          maskBuffers.values().stream().mapToLong(Buffer::getStallNanos).sum());
+      values.put(RANDOM_ELEMENT_STALLS, randomElementBuffer.getStalls());
+      values.put(RANDOM_ELEMENT_STALL_NANOS, randomElementBuffer.getStallNanos());
+      values.put(BIT_STALLS, bitBuffer.getStalls());
+      values.put(BIT_STALL_NANOS, bitBuffer.getStallNanos());
+    } else {
+      values.put(TRIPLE_STALLS, tripleStalls[0]);
+      values.put(TRIPLE_STALL_NANOS, tripleStalls[1]);
+      values.put(INPUT_MASK_STALLS, maskStalls[0]);
+      values.put(INPUT_MASK_STALL_NANOS, maskStalls[1]);
+      values.put(RANDOM_ELEMENT_STALLS, randomElementStalls[0]);
+      values.put(RANDOM_ELEMENT_STALL_NANOS, randomElementStalls[1]);
+      values.put(BIT_STALLS, bitStalls[0]);
+      values.put(BIT_STALL_NANOS, bitStalls[1]);
+    }
+    return values;
+  }
+
+  private void recordStall(long[] stalls, long start) {
+    stalls[0]++;
+    stalls[1] += System.nanoTime() - start;
+  }
+
   @Override
   public FieldDefinition getFieldDefinition() {
     return fieldDefinition;
@@ -118,6 +118,30 @@ public class TestSpdzBasicArithmetic2Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 2, 256, 128, 16);
   }
 
+  @Test
+  public void test_Lots_Of_Mults_Parallel_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Test
+  public void test_Lots_Of_Mults_Pipelined_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsMult<>(), EvaluationStrategy.PIPELINED_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Test
+  public void test_Multiply_Lists() {
+    runTest(new BasicArithmeticTests.TestMultiplyLists<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.DUMMY, 2, 512, 150, 16);
+  }
+
+  @Test
+  public void test_Multiply_Lists_Mascot() {
+    runTest(new BasicArithmeticTests.TestMultiplyLists<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 16, 16, 16);
+  }
+
   @Test
   public void testOpenNoConversionByDefaultMascot() {
     runTest(new TestOpenNoConversionByDefault<>(),
@@ -41,6 +41,12 @@ public class TestSpdzBasicArithmetic3Parties extends AbstractSpdzTest {
         PreprocessingStrategy.DUMMY, 3);
   }
 
+  @Test
+  public void test_Lots_Of_Inputs_Parallel_Batched() {
+    runTest(new BasicArithmeticTests.TestLotsInputs<>(), EvaluationStrategy.PARALLEL_BATCHED,
+        PreprocessingStrategy.DUMMY, 3, 128, 64, 16);
+  }
+
   @Test
   public void test_Alternating() {
     runTest(new BasicArithmeticTests.TestAlternatingMultAdd<>(),
@@ -1,5 +1,6 @@
 package dk.alexandra.fresco.suite.spdz;
 
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
 import dk.alexandra.fresco.lib.common.math.integer.binary.BinaryOperationsTests.TestRightShift;
 import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
 import org.junit.Test;
@@ -11,4 +12,10 @@ public class TestSpdzRightShift extends AbstractSpdzTest {
     runTest(new TestRightShift<>(),
         PreprocessingStrategy.DUMMY, 2);
   }
+
+  @Test
+  public void testRightShiftTwoPartiesMascot() throws Exception {
+    runTest(new TestRightShift<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 64, 8, 1);
+  }
 }
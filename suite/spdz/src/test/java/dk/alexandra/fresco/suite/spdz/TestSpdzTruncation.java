@@ -0,0 +1,69 @@
+package dk.alexandra.fresco.suite.spdz;
+
+import dk.alexandra.fresco.framework.Application;
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThread;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePool;
+import dk.alexandra.fresco.framework.value.SInt;
+import dk.alexandra.fresco.lib.common.math.AdvancedNumeric;
+import dk.alexandra.fresco.suite.spdz.configuration.PreprocessingStrategy;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TestSpdzTruncation extends AbstractSpdzTest {
+
+  @Test
+  public void testTruncation() {
+    runTest(new TestTruncation<>(),
+        PreprocessingStrategy.DUMMY, 2);
+  }
+
+  @Test
+  public void testTruncationMascot() {
+    runTest(new TestTruncation<>(), EvaluationStrategy.SEQUENTIAL_BATCHED,
+        PreprocessingStrategy.MASCOT, 2, 128, 64, 16);
+  }
+
+  private static class TestTruncation<ResourcePoolT extends ResourcePool>
+      extends TestThreadFactory<ResourcePoolT, ProtocolBuilderNumeric> {
+
+    private static final int SHIFTS = 8;
+
+    @Override
+    public TestThread<ResourcePoolT, ProtocolBuilderNumeric> next() {
+      List<BigInteger> inputs = Stream.of(0, 255, 256, 1234567, -1, -256, -1234567)
+          .map(BigInteger::valueOf).collect(Collectors.toList());
+      return new TestThread<ResourcePoolT, ProtocolBuilderNumeric>() {
+        @Override
+        public void test() {
+          Application<List<BigInteger>, ProtocolBuilderNumeric> app = root -> {
+            FieldDefinition definition = root.getBasicNumericContext().getFieldDefinition();
+            List<DRes<BigInteger>> opened = new ArrayList<>();
+            for (BigInteger input : inputs) {
+              DRes<SInt> truncated = AdvancedNumeric.using(root)
+                  .truncate(root.numeric().known(input), SHIFTS);
+              opened.add(root.numeric().open(truncated));
+            }
+            return () -> opened.stream().map(DRes::out).map(definition::convertToSigned)
+                .collect(Collectors.toList());
+          };
+          List<BigInteger> output = runApplication(app);
+          for (int i = 0; i < inputs.size(); i++) {
+            BigInteger difference = output.get(i).subtract(inputs.get(i).shiftRight(SHIFTS));
+            Assert.assertTrue(difference.equals(BigInteger.ZERO)
+                || difference.equals(BigInteger.ONE));
+          }
+        }
+      };
+    }
+  }
+}
@@ -0,0 +1,233 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.spdz.NetManager;
+import dk.alexandra.fresco.suite.spdz.SpdzResourcePoolImpl;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import dk.alexandra.fresco.tools.ot.base.DummyOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestMascotPrefetching {
+
+  private static final int PRG_SEED_LENGTH = 256;
+  private static final int MOD_BIT_LENGTH = 16;
+  private static final int AMOUNT = 40;
+  private static final int LOW_WATERMARK = 16;
+  private static final int HIGH_WATERMARK = 48;
+  private final int noOfParties = 2;
+  private final List<Integer> ports = NetworkUtil.getFreePorts(noOfParties);
+  private final MersennePrimeFieldDefinition definition =
+      MersennePrimeFieldDefinition.find(MOD_BIT_LENGTH);
+  private ExecutorService executorService;
+
+  @Before
+  public void setUp() {
+    executorService = Executors.newCachedThreadPool();
+  }
+
+  @After
+  public void tearDown() {
+    executorService.shutdownNow();
+  }
+
+  @Test
+  public void testPrefetchedMaterial() {
+    List<PartyOutput> outputs = runParties(
+        (myId, supplier) -> {
+          PartyOutput output = new PartyOutput();
+          output.triples = supplier.getNextTriples(AMOUNT);
+          for (int i = 0; i < AMOUNT; i++) {
+            output.masks.add(supplier.getNextInputMask(1));
+            output.bits.add(supplier.getNextBit());
+            output.elements.add(supplier.getNextRandomFieldElement());
+          }
+          output.bits.addAll(supplier.getNextBits(AMOUNT));
+          output.loggedValues = supplier.getLoggedValues();
+          return output;
+        });
+    BigInteger modulus = definition.getModulus();
+    for (int i = 0; i < AMOUNT; i++) {
+      int index = i;
+      BigInteger a = open(outputs, output -> output.triples.get(index).getA());
+      BigInteger b = open(outputs, output -> output.triples.get(index).getB());
+      BigInteger c = open(outputs, output -> output.triples.get(index).getC());
+      assertEquals(a.multiply(b).mod(modulus), c);
+      BigInteger mask = open(outputs, output -> output.masks.get(index).getMask());
+      assertEquals(outputs.get(0).masks.get(i).getRealValue().toBigInteger(), mask);
+    }
+    for (int i = 0; i < 2 * AMOUNT; i++) {
+      int index = i;
+      BigInteger bit = open(outputs, output -> output.bits.get(index));
+      assertTrue(bit.equals(BigInteger.ZERO) || bit.equals(BigInteger.ONE));
+    }
+    for (PartyOutput output : outputs) {
+      assertTrue(output.loggedValues.containsKey(SpdzMascotDataSupplier.TRIPLE_STALLS));
+      assertTrue(output.loggedValues.containsKey(SpdzMascotDataSupplier.BIT_STALL_NANOS));
+    }
+  }
+
+  @Test
+  public void testRefillBelowLowWatermark() {
+    List<PartyOutput> outputs = runParties(
+        (myId, supplier) -> {
+          PartyOutput output = new PartyOutput();
+          output.outstanding.add(supplier.getOutstandingTriples());
+          output.triples = supplier.getNextTriples(HIGH_WATERMARK - LOW_WATERMARK);
+          output.outstanding.add(supplier.getOutstandingTriples());
+          output.triples.add(supplier.getNextTriple());
+          output.outstanding.add(supplier.getOutstandingTriples());
+          output.triples.addAll(supplier.getNextTriples(HIGH_WATERMARK));
+          return output;
+        });
+    for (PartyOutput output : outputs) {
+      // Filled up to the high watermark on creation, not refilled at the low watermark, and
+      // refilled up to the high watermark, rounded up to whole batches, just below it
+      assertEquals(Arrays.asList(48L, 16L, 63L), output.outstanding);
+    }
+    BigInteger modulus = definition.getModulus();
+    for (int i = 0; i < outputs.get(0).triples.size(); i++) {
+      int index = i;
+      BigInteger a = open(outputs, output -> output.triples.get(index).getA());
+      BigInteger b = open(outputs, output -> output.triples.get(index).getB());
+      BigInteger c = open(outputs, output -> output.triples.get(index).getC());
+      assertEquals(a.multiply(b).mod(modulus), c);
+    }
+  }
+
+  @Test
+  public void testStallsWhenOutrunningProducer() {
+    List<PartyOutput> outputs = runParties(
+        (myId, supplier) -> {
+          PartyOutput output = new PartyOutput();
+          // Bits are not generated before the first one is requested, so this has to wait
+          output.bits.add(supplier.getNextBit());
+          output.loggedValues = supplier.getLoggedValues();
+          supplier.reset();
+          output.resetValues = supplier.getLoggedValues();
+          return output;
+        });
+    for (PartyOutput output : outputs) {
+      assertTrue(output.loggedValues.get(SpdzMascotDataSupplier.BIT_STALLS) >= 1);
+      assertTrue(output.loggedValues.get(SpdzMascotDataSupplier.BIT_STALL_NANOS) > 0);
+      assertEquals(0L, output.resetValues.get(SpdzMascotDataSupplier.BIT_STALLS).longValue());
+      assertEquals(0L, output.resetValues.get(SpdzMascotDataSupplier.BIT_STALL_NANOS).longValue());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidWatermarks() {
+    SpdzMascotDataSupplier.createPrefetchingSupplier(1, noOfParties, () -> null, MOD_BIT_LENGTH,
+        definition, null, new HashMap<>(), getDrbg(1),
+        definition.createElement(1), 32, 32);
+  }
+
+  private BigInteger open(List<PartyOutput> outputs,
+      Function<PartyOutput, SpdzSInt> selector) {
+    FieldElement sum = outputs.stream().map(selector).map(SpdzSInt::getShare)
+        .reduce(FieldElement::add).get();
+    return sum.toBigInteger();
+  }
+
+  private List<PartyOutput> runParties(
+      BiFunction<Integer, SpdzMascotDataSupplier, PartyOutput> consumer) {
+    NetManager otManager = new NetManager(ports);
+    NetManager tripleManager = new NetManager(ports);
+    List<Callable<PartyOutput>> tasks = new ArrayList<>();
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      int finalMyId = myId;
+      tasks.add(() -> {
+        Drbg drbg = getDrbg(finalMyId);
+        Map<Integer, RotList> seedOts =
+            getSeedOts(finalMyId, drbg, otManager.createExtraNetwork(finalMyId));
+        FieldElement ssk = SpdzMascotDataSupplier.createRandomSsk(definition, PRG_SEED_LENGTH);
+        SpdzMascotDataSupplier supplier = SpdzMascotDataSupplier.createPrefetchingSupplier(
+            finalMyId, noOfParties, () -> tripleManager.createExtraNetwork(finalMyId),
+            MOD_BIT_LENGTH, definition, null, seedOts, drbg, ssk, LOW_WATERMARK, HIGH_WATERMARK);
+        // Closing the resource pool stops the background thread of the supplier
+        SpdzResourcePoolImpl resourcePool = new SpdzResourcePoolImpl(finalMyId, noOfParties,
+            new OpenedValueStoreImpl<>(), supplier, AesCtrDrbg::new);
+        try {
+          return consumer.apply(finalMyId, supplier);
+        } finally {
+          resourcePool.close();
+        }
+      });
+    }
+    try {
+      List<Future<PartyOutput>> futures = ExceptionConverter
+          .safe(() -> executorService.invokeAll(tasks), "Error invoking tasks");
+      return futures.stream()
+          .map(future -> ExceptionConverter.safe(future::get, "Error getting future result"))
+          .collect(Collectors.toList());
+    } finally {
+      otManager.close();
+      tripleManager.close();
+    }
+  }
+
+  private Map<Integer, RotList> getSeedOts(int myId, Drbg drbg, Network network) {
+    Map<Integer, RotList> seedOts = new HashMap<>();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (myId != otherId) {
+        Ot ot = new DummyOt(otherId, network);
+        RotList currentSeedOts = new RotList(drbg, PRG_SEED_LENGTH);
+        if (myId < otherId) {
+          currentSeedOts.send(ot);
+          currentSeedOts.receive(ot);
+        } else {
+          currentSeedOts.receive(ot);
+          currentSeedOts.send(ot);
+        }
+        seedOts.put(otherId, currentSeedOts);
+      }
+    }
+    return seedOts;
+  }
+
+  private Drbg getDrbg(int myId) {
+    byte[] seed = new byte[PRG_SEED_LENGTH / 8];
+    seed[0] = (byte) myId;
+    return AesCtrDrbgFactory.fromDerivedSeed(seed);
+  }
+
+  private static class PartyOutput {
+
+    private List<SpdzTriple> triples;
+    private final List<SpdzInputMask> masks = new ArrayList<>();
+    private final List<SpdzSInt> bits = new ArrayList<>();
+    private final List<SpdzSInt> elements = new ArrayList<>();
+    private final List<Long> outstanding = new ArrayList<>();
+    private Map<String, Long> loggedValues;
+    private Map<String, Long> resetValues;
+  }
+}
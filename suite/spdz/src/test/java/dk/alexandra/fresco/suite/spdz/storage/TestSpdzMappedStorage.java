@@ -0,0 +1,326 @@
+package dk.alexandra.fresco.suite.spdz.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.BigIntegerFieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldDefinition;
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.builder.numeric.field.MersennePrimeFieldDefinition;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzInputMask;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzSInt;
+import dk.alexandra.fresco.suite.spdz.datatypes.SpdzTriple;
+import java.math.BigInteger;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestSpdzMappedStorage {
+
+  private static final int NO_OF_PARTIES = 2;
+  private static final int AMOUNT = 100;
+  private static final int EXP_PIPE_LENGTH = 5;
+  private final FieldDefinition definition = MersennePrimeFieldDefinition.find(128);
+  private final BigInteger key = BigInteger.valueOf(1234567);
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private List<Path> directories;
+  private List<SpdzTriple> triples;
+  private List<SpdzInputMask> masks;
+  private List<SpdzSInt> randomElements;
+  private List<SpdzSInt> bits;
+
+  @Before
+  public void setUp() throws Exception {
+    directories = new ArrayList<>(NO_OF_PARTIES);
+    for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+      directories.add(folder.newFolder("spdz" + partyId).toPath());
+    }
+    SpdzDummyDataSupplier dummy =
+        new SpdzDummyDataSupplier(1, NO_OF_PARTIES, definition, key);
+    triples = new ArrayList<>();
+    masks = new ArrayList<>();
+    randomElements = new ArrayList<>();
+    bits = new ArrayList<>();
+    for (int i = 0; i < AMOUNT; i++) {
+      triples.add(dummy.getNextTriple());
+      masks.add(dummy.getNextInputMask(1 + i % NO_OF_PARTIES));
+      randomElements.add(dummy.getNextRandomFieldElement());
+      bits.add(dummy.getNextBit());
+    }
+    // Only the material of party 1 is read, the other parties just need material to open
+    for (Path directory : directories) {
+      try (SpdzMappedStorageWriter writer = new SpdzMappedStorageWriter(directory, definition,
+          dummy.getSecretSharedKey(), NO_OF_PARTIES)) {
+        for (int i = 0; i < AMOUNT; i++) {
+          writer.writeTriple(triples.get(i));
+          writer.writeInputMask(1 + i % NO_OF_PARTIES, masks.get(i));
+          writer.writeRandomElement(randomElements.get(i));
+          writer.writeBit(bits.get(i));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testReadWritten() throws Exception {
+    List<SpdzMappedDataSupplier> suppliers = open(1024, 1024);
+    try {
+      SpdzMappedDataSupplier supplier = suppliers.get(0);
+      assertEquals(key, supplier.getSecretSharedKey().toBigInteger());
+      for (int i = 0; i < AMOUNT; i++) {
+        assertTripleEquals(triples.get(i), supplier.getNextTriple());
+        SpdzInputMask mask = supplier.getNextInputMask(1 + i % NO_OF_PARTIES);
+        assertSIntEquals(masks.get(i).getMask(), mask.getMask());
+        if (masks.get(i).getRealValue() == null) {
+          assertNull(mask.getRealValue());
+        } else {
+          assertEquals(masks.get(i).getRealValue().toBigInteger(),
+              mask.getRealValue().toBigInteger());
+        }
+        assertSIntEquals(randomElements.get(i), supplier.getNextRandomFieldElement());
+        assertSIntEquals(bits.get(i), supplier.getNextBit());
+      }
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test
+  public void testRestartNeverReuses() throws Exception {
+    int reservationSize = 8;
+    List<SpdzMappedDataSupplier> suppliers = open(reservationSize, reservationSize);
+    try {
+      for (SpdzMappedDataSupplier supplier : suppliers) {
+        for (int i = 0; i < 3; i++) {
+          assertTripleEquals(triples.get(i), supplier.getNextTriple());
+        }
+      }
+    } finally {
+      close(suppliers);
+    }
+    suppliers = open(reservationSize, reservationSize);
+    try {
+      for (SpdzMappedDataSupplier supplier : suppliers) {
+        // The rest of the first reservation is skipped
+        assertTripleEquals(triples.get(reservationSize), supplier.getNextTriple());
+        assertSIntEquals(bits.get(0), supplier.getNextBit());
+      }
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test
+  public void testRestartAgreesOnOffset() throws Exception {
+    // The parties reserve different amounts, so they would continue from different records
+    List<SpdzMappedDataSupplier> suppliers = open(8, 4);
+    try {
+      for (SpdzMappedDataSupplier supplier : suppliers) {
+        for (int i = 0; i < 3; i++) {
+          supplier.getNextTriple();
+        }
+      }
+    } finally {
+      close(suppliers);
+    }
+    suppliers = open(4, 4);
+    try {
+      for (SpdzMappedDataSupplier supplier : suppliers) {
+        assertTripleEquals(triples.get(8), supplier.getNextTriple());
+      }
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test
+  public void testAppend() throws Exception {
+    List<SpdzMappedDataSupplier> suppliers = open(1024, 1024);
+    try {
+      SpdzMappedDataSupplier supplier = suppliers.get(0);
+      for (int i = 0; i < AMOUNT; i++) {
+        supplier.getNextBit();
+      }
+      SpdzDummyDataSupplier dummy = new SpdzDummyDataSupplier(1, NO_OF_PARTIES, definition, key);
+      SpdzSInt bit = dummy.getNextBit();
+      try (SpdzMappedStorageWriter writer = new SpdzMappedStorageWriter(directories.get(0),
+          definition, dummy.getSecretSharedKey(), NO_OF_PARTIES)) {
+        writer.writeBit(bit);
+      }
+      assertSIntEquals(bit, supplier.getNextBit());
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test
+  public void testExpPipes() throws Exception {
+    SpdzDummyDataSupplier dummy =
+        new SpdzDummyDataSupplier(1, NO_OF_PARTIES, definition, key, EXP_PIPE_LENGTH);
+    List<SpdzSInt[]> pipes = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      pipes.add(dummy.getNextExpPipe());
+    }
+    for (Path directory : directories) {
+      try (SpdzMappedStorageWriter writer = new SpdzMappedStorageWriter(directory, definition,
+          dummy.getSecretSharedKey(), NO_OF_PARTIES)) {
+        pipes.forEach(writer::writeExpPipe);
+      }
+    }
+    List<SpdzMappedDataSupplier> suppliers = open(2, 2);
+    try {
+      for (SpdzSInt[] expected : pipes) {
+        SpdzSInt[] actual = suppliers.get(0).getNextExpPipe();
+        assertEquals(expected.length, actual.length);
+        for (int i = 0; i < expected.length; i++) {
+          assertSIntEquals(expected[i], actual[i]);
+        }
+      }
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWriterWrongExpPipeLength() {
+    SpdzDummyDataSupplier dummy =
+        new SpdzDummyDataSupplier(1, NO_OF_PARTIES, definition, key, EXP_PIPE_LENGTH);
+    try (SpdzMappedStorageWriter writer = new SpdzMappedStorageWriter(directories.get(0),
+        definition, dummy.getSecretSharedKey(), NO_OF_PARTIES)) {
+      writer.writeExpPipe(dummy.getNextExpPipe());
+    }
+    SpdzSInt[] pipe = new SpdzDummyDataSupplier(1, NO_OF_PARTIES, definition, key,
+        EXP_PIPE_LENGTH + 1).getNextExpPipe();
+    new SpdzMappedStorageWriter(directories.get(0), definition, dummy.getSecretSharedKey(),
+        NO_OF_PARTIES).writeExpPipe(pipe);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoExpPipes() throws Exception {
+    List<SpdzMappedDataSupplier> suppliers = open(1024, 1024);
+    try {
+      suppliers.get(0).getNextExpPipe();
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoMoreMaterial() throws Exception {
+    List<SpdzMappedDataSupplier> suppliers = open(1024, 1024);
+    try {
+      for (int i = 0; i <= AMOUNT; i++) {
+        suppliers.get(0).getNextTriple();
+      }
+    } finally {
+      close(suppliers);
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongModulus() {
+    FieldDefinition other = new BigIntegerFieldDefinition(
+        definition.getModulus().subtract(BigInteger.valueOf(2)));
+    // Fails when reading the key, before any communication
+    new SpdzMappedDataSupplier(directories.get(0), other, new QueueNetwork(1, createQueues()));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWriterWrongKey() {
+    FieldElement otherKey = definition.createElement(key.add(BigInteger.ONE));
+    new SpdzMappedStorageWriter(directories.get(0), definition, otherKey, NO_OF_PARTIES);
+  }
+
+  /**
+   * Opens the material of all parties concurrently, since the parties exchange offsets.
+   */
+  private List<SpdzMappedDataSupplier> open(int... reservationSizes) throws Exception {
+    List<List<BlockingQueue<byte[]>>> queues = createQueues();
+    ExecutorService executor = Executors.newFixedThreadPool(NO_OF_PARTIES);
+    try {
+      List<Future<SpdzMappedDataSupplier>> futures = new ArrayList<>(NO_OF_PARTIES);
+      for (int partyId = 1; partyId <= NO_OF_PARTIES; partyId++) {
+        int myId = partyId;
+        futures.add(executor.submit(() -> new SpdzMappedDataSupplier(directories.get(myId - 1),
+            definition, new QueueNetwork(myId, queues), reservationSizes[myId - 1])));
+      }
+      List<SpdzMappedDataSupplier> suppliers = new ArrayList<>(NO_OF_PARTIES);
+      for (Future<SpdzMappedDataSupplier> future : futures) {
+        suppliers.add(future.get());
+      }
+      return suppliers;
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private void close(List<SpdzMappedDataSupplier> suppliers) {
+    suppliers.forEach(SpdzMappedDataSupplier::close);
+  }
+
+  private List<List<BlockingQueue<byte[]>>> createQueues() {
+    List<List<BlockingQueue<byte[]>>> queues = new ArrayList<>(NO_OF_PARTIES);
+    for (int from = 0; from < NO_OF_PARTIES; from++) {
+      List<BlockingQueue<byte[]>> fromQueues = new ArrayList<>(NO_OF_PARTIES);
+      for (int to = 0; to < NO_OF_PARTIES; to++) {
+        fromQueues.add(new LinkedBlockingQueue<>());
+      }
+      queues.add(fromQueues);
+    }
+    return queues;
+  }
+
+  private void assertTripleEquals(SpdzTriple expected, SpdzTriple actual) {
+    assertSIntEquals(expected.getA(), actual.getA());
+    assertSIntEquals(expected.getB(), actual.getB());
+    assertSIntEquals(expected.getC(), actual.getC());
+  }
+
+  private void assertSIntEquals(SpdzSInt expected, SpdzSInt actual) {
+    assertEquals(expected.getShare().toBigInteger(), actual.getShare().toBigInteger());
+    assertEquals(expected.getMac().toBigInteger(), actual.getMac().toBigInteger());
+  }
+
+  /**
+   * Network between parties in the same process, sending messages through queues.
+   */
+  private static class QueueNetwork implements Network {
+
+    private final int myId;
+    private final List<List<BlockingQueue<byte[]>>> queues;
+
+    private QueueNetwork(int myId, List<List<BlockingQueue<byte[]>>> queues) {
+      this.myId = myId;
+      this.queues = queues;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      queues.get(myId - 1).get(partyId - 1).add(data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      return ExceptionConverter.safe(() -> queues.get(partyId - 1).get(myId - 1).take(),
+          "Interrupted while receiving");
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return queues.size();
+    }
+  }
+}
@@ -0,0 +1,19 @@
+package dk.alexandra.fresco.suite.spdz2k;
+
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntConverter192;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt64;
+
+/**
+ * Protocol suite using {@link CompUInt192} as the underlying plain-value type, i.e., computing on
+ * 64-bit values with 128 bits of statistical security.
+ */
+public class Spdz2kProtocolSuiteK64S128 extends
+    Spdz2kProtocolSuite<CompUInt128, UInt64, CompUInt192> {
+
+  public Spdz2kProtocolSuiteK64S128() {
+    super(new CompUIntConverter192());
+  }
+
+}
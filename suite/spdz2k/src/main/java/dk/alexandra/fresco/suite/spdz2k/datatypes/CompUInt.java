@@ -28,7 +28,9 @@ public interface CompUInt<
   HighT getLeastSignificantAsHigh();
 
   /**
-   * Left-shift the k least significant bits by k.
+   * Left-shift by k, i.e., multiply by <i>2<sup>k</sup></i> modulo <i>2<sup>k + s</sup></i>. When
+   * k = s this is the same as shifting the k least significant bits into the most significant bit
+   * portion.
    */
   CompT shiftLowIntoHigh();
 
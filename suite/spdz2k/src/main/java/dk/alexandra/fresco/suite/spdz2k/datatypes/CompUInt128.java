@@ -158,6 +158,13 @@ public class CompUInt128 implements CompUInt<UInt64, UInt64, CompUInt128> {
     return getLeastSignificant();
   }
 
+  /**
+   * Returns the 64 most significant bits as a long, without wrapping them in a {@link UInt64}.
+   */
+  long getHighAsLong() {
+    return high;
+  }
+
   @Override
   public long toLong() {
     return (UInt.toUnLong(this.mid) << 32) + UInt.toUnLong(this.low);
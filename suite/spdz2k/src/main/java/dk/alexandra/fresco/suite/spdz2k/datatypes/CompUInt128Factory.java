@@ -89,6 +89,16 @@ public class CompUInt128Factory implements CompUIntFactory<CompUInt128> {
     }
   }
 
+  @Override
+  public CompUIntVector<CompUInt128> createVector(int size) {
+    return new CompUInt128Vector(size);
+  }
+
+  @Override
+  public CompUIntVector<CompUInt128> createVector(byte[] bytes) {
+    return new CompUInt128Vector(bytes);
+  }
+
   @Override
   public CompUInt128 zero() {
     return ZERO;
@@ -0,0 +1,140 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * {@link CompUIntVector} of {@link CompUInt128} values backed by a single long array. <p>Each
+ * element is stored as a pair of longs, the 64 most significant bits followed by the 64 least
+ * significant bits, and all arithmetic is done on these directly, so no objects are allocated by
+ * the in-place operations. Only {@link #get(int)} creates a new {@link CompUInt128}.</p>
+ */
+public final class CompUInt128Vector implements CompUIntVector<CompUInt128> {
+
+  private static final int BYTE_LENGTH = 16;
+  private final long[] values;
+
+  /**
+   * Creates new {@link CompUInt128Vector} with all elements zero.
+   *
+   * @param size the number of elements
+   */
+  public CompUInt128Vector(int size) {
+    if (size < 0) {
+      throw new IllegalArgumentException("Size must be non-negative, was " + size);
+    }
+    this.values = new long[2 * size];
+  }
+
+  /**
+   * Creates new {@link CompUInt128Vector} from serialized elements.
+   *
+   * @param bytes the elements, serialized as by {@link #toByteArray()}
+   */
+  public CompUInt128Vector(byte[] bytes) {
+    this(numElements(bytes));
+    for (int i = 0; i < size(); i++) {
+      values[2 * i] = readLong(bytes, i * BYTE_LENGTH);
+      values[2 * i + 1] = readLong(bytes, i * BYTE_LENGTH + 8);
+    }
+  }
+
+  @Override
+  public int size() {
+    return values.length / 2;
+  }
+
+  @Override
+  public CompUInt128 get(int index) {
+    long low = values[2 * index + 1];
+    return new CompUInt128(values[2 * index], (int) (low >>> 32), (int) low);
+  }
+
+  @Override
+  public void set(int index, CompUInt128 value) {
+    values[2 * index] = value.getHighAsLong();
+    values[2 * index + 1] = value.toLong();
+  }
+
+  @Override
+  public void add(int index, CompUInt128 value) {
+    add(index, value.getHighAsLong(), value.toLong());
+  }
+
+  @Override
+  public void multiplyAndAdd(int index, CompUInt128 left, CompUInt128 right) {
+    long leftLow = left.toLong();
+    long rightLow = right.toLong();
+    long high = UInt.multiplyHighUnsigned(leftLow, rightLow)
+        + leftLow * right.getHighAsLong()
+        + left.getHighAsLong() * rightLow;
+    add(index, high, leftLow * rightLow);
+  }
+
+  @Override
+  public void add(CompUIntVector<CompUInt128> other) {
+    if (other.size() != size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + size() + " and " + other.size());
+    }
+    if (other instanceof CompUInt128Vector) {
+      long[] otherValues = ((CompUInt128Vector) other).values;
+      for (int i = 0; i < size(); i++) {
+        add(i, otherValues[2 * i], otherValues[2 * i + 1]);
+      }
+    } else {
+      for (int i = 0; i < size(); i++) {
+        add(i, other.get(i));
+      }
+    }
+  }
+
+  @Override
+  public void addSerialized(byte[] bytes) {
+    if (bytes.length != size() * BYTE_LENGTH) {
+      throw new IllegalArgumentException("Expected " + size() * BYTE_LENGTH
+          + " bytes, was " + bytes.length);
+    }
+    for (int i = 0; i < size(); i++) {
+      add(i, readLong(bytes, i * BYTE_LENGTH), readLong(bytes, i * BYTE_LENGTH + 8));
+    }
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[size() * BYTE_LENGTH];
+    for (int i = 0; i < size(); i++) {
+      writeLong(bytes, i * BYTE_LENGTH, values[2 * i]);
+      writeLong(bytes, i * BYTE_LENGTH + 8, values[2 * i + 1]);
+    }
+    return bytes;
+  }
+
+  private void add(int index, long high, long low) {
+    long sum = values[2 * index + 1] + low;
+    long carry = Long.compareUnsigned(sum, low) < 0 ? 1 : 0;
+    values[2 * index + 1] = sum;
+    values[2 * index] += high + carry;
+  }
+
+  private static int numElements(byte[] bytes) {
+    if (bytes.length % BYTE_LENGTH != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    return bytes.length / BYTE_LENGTH;
+  }
+
+  private static long readLong(byte[] bytes, int start) {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (bytes[start + i] & 0xFFL);
+    }
+    return value;
+  }
+
+  private static void writeLong(byte[] bytes, int start, long value) {
+    for (int i = 7; i >= 0; i--) {
+      bytes[start + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+}
@@ -0,0 +1,181 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.math.BigInteger;
+
+/**
+ * Unsigned 192-bit integer composed of a 64-bit value portion (k = 64) and a 128-bit security
+ * portion (s = 128). <p>The value is stored as three longs, and the most significant bit portion is
+ * represented by a {@link CompUInt128}. Note that this class is NOT SAFE to instantiate with
+ * negative values.</p>
+ */
+public class CompUInt192 implements CompUInt<CompUInt128, UInt64, CompUInt192> {
+
+  private static final CompUInt192 ONE = new CompUInt192(0, 0, 1);
+  private final long high;
+  private final long mid;
+  private final long low;
+
+  /**
+   * Creates new {@link CompUInt192}.
+   *
+   * @param bytes at most 24 bytes interpreted in big-endian order. Fewer bytes are interpreted as
+   *     the least significant bytes.
+   */
+  public CompUInt192(byte[] bytes) {
+    if (bytes.length > 24) {
+      throw new IllegalArgumentException("Exceeds capacity");
+    }
+    byte[] padded = new byte[24];
+    System.arraycopy(bytes, 0, padded, padded.length - bytes.length, bytes.length);
+    this.high = toLong(padded, 0);
+    this.mid = toLong(padded, 8);
+    this.low = toLong(padded, 16);
+  }
+
+  /**
+   * Creates new {@link CompUInt192} from {@link BigInteger}.
+   */
+  public CompUInt192(BigInteger value) {
+    this(CompUInt.pad(value.toByteArray(), 192));
+  }
+
+  CompUInt192(long high, long mid, long low) {
+    this.high = high;
+    this.mid = mid;
+    this.low = low;
+  }
+
+  CompUInt192(UInt64 value) {
+    this(0, 0, value.toLong());
+  }
+
+  CompUInt192(CompUInt128 value) {
+    this(0, value.getHighAsLong(), value.toLong());
+  }
+
+  @Override
+  public CompUInt192 add(CompUInt192 other) {
+    long newLow = low + other.low;
+    long lowCarry = carry(newLow, low);
+    long midSum = mid + other.mid;
+    long newMid = midSum + lowCarry;
+    long newHigh = high + other.high + carry(midSum, mid) + carry(newMid, midSum);
+    return new CompUInt192(newHigh, newMid, newLow);
+  }
+
+  @Override
+  public CompUInt192 multiply(CompUInt192 other) {
+    long lowLowHigh = UInt.multiplyHighUnsigned(low, other.low);
+    long lowMid = low * other.mid;
+    long midLow = mid * other.low;
+    long midSum = lowLowHigh + lowMid;
+    long newMid = midSum + midLow;
+    // products contributing to bits above 192 are dropped
+    long newHigh = UInt.multiplyHighUnsigned(low, other.mid)
+        + UInt.multiplyHighUnsigned(mid, other.low)
+        + low * other.high
+        + mid * other.mid
+        + high * other.low
+        + carry(midSum, lowLowHigh)
+        + carry(newMid, midSum);
+    return new CompUInt192(newHigh, newMid, low * other.low);
+  }
+
+  @Override
+  public CompUInt192 subtract(CompUInt192 other) {
+    return this.add(other.negateUInt());
+  }
+
+  @Override
+  public CompUInt192 negateUInt() {
+    return new CompUInt192(~high, ~mid, ~low).add(ONE);
+  }
+
+  @Override
+  public boolean isZero() {
+    return low == 0 && mid == 0 && high == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt64 getLeastSignificant() {
+    return new UInt64(low);
+  }
+
+  @Override
+  public CompUInt128 getMostSignificant() {
+    return new CompUInt128(high, (int) (mid >>> 32), (int) mid);
+  }
+
+  @Override
+  public CompUInt128 getLeastSignificantAsHigh() {
+    return new CompUInt128(mid, (int) (low >>> 32), (int) low);
+  }
+
+  @Override
+  public CompUInt192 shiftLowIntoHigh() {
+    return new CompUInt192(mid, low, 0);
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 64;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 128;
+  }
+
+  @Override
+  public long toLong() {
+    return low;
+  }
+
+  @Override
+  public int toInt() {
+    return (int) low;
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[24];
+    toByteArray(bytes, 0, high);
+    toByteArray(bytes, 8, mid);
+    toByteArray(bytes, 16, low);
+    return bytes;
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+  /**
+   * Returns 1 if computing the sum resulting in <i>sum</i> with <i>summand</i> as one of the
+   * summands overflowed, and 0 otherwise.
+   */
+  private static long carry(long sum, long summand) {
+    return Long.compareUnsigned(sum, summand) < 0 ? 1 : 0;
+  }
+
+  private static void toByteArray(byte[] bytes, int start, long value) {
+    for (int i = 7; i >= 0; i--) {
+      bytes[start + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+  private static long toLong(byte[] bytes, int start) {
+    long value = 0;
+    for (int i = 0; i < 8; i++) {
+      value = (value << 8) | (bytes[start + i] & 0xFFL);
+    }
+    return value;
+  }
+
+}
@@ -0,0 +1,101 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.util.UIntSerializer;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+
+/**
+ * Factory for {@link CompUInt192} elements with k = 64 and s = 128.
+ */
+public class CompUInt192Factory implements CompUIntFactory<CompUInt192> {
+
+  private static final CompUInt192 ZERO = new CompUInt192(new byte[24]);
+  private static final BigInteger valueModulus = BigInteger.ONE.shiftLeft(64);
+  private static final BigInteger valueHalfModulus = BigInteger.ONE.shiftLeft(63);
+  private static final BigInteger compositeModulus = BigInteger.ONE.shiftLeft(192);
+
+  private final SecureRandom random;
+  private final ByteSerializer<CompUInt192> serializer;
+
+  public CompUInt192Factory() {
+    random = new SecureRandom();
+    serializer = new UIntSerializer<>(this);
+  }
+
+  @Override
+  public CompUInt192 deserialize(byte[] bytes) {
+    return new CompUInt192(bytes);
+  }
+
+  @Override
+  public CompUInt192 createRandom() {
+    byte[] bytes = new byte[24];
+    this.random.nextBytes(bytes);
+    return this.deserialize(bytes);
+  }
+
+  @Override
+  public ByteSerializer<CompUInt192> getSerializer() {
+    // TODO hack for now until we figure out a clean way to do serialization using the factory only
+    // while keeping things compliant with FieldDefinition interface
+    return serializer;
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 64;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 128;
+  }
+
+  @Override
+  public CompUInt192 createElement(BigInteger value) {
+    return value == null ? null : new CompUInt192(value.mod(compositeModulus));
+  }
+
+  @Override
+  public CompUInt192 createElement(long value) {
+    return new CompUInt192(0, 0, value);
+  }
+
+  @Override
+  public BigInteger getModulus() {
+    return valueModulus;
+  }
+
+  @Override
+  public StrictBitVector convertToBitVector(FieldElement fieldElement) {
+    byte[] bytes = ((CompUInt192) fieldElement)
+        .getLeastSignificant()
+        .toByteArray();
+    return new StrictBitVector(bytes);
+  }
+
+  @Override
+  public BigInteger convertToUnsigned(FieldElement value) {
+    return ((CompUInt192) value)
+        .getLeastSignificant()
+        .toBigInteger();
+  }
+
+  @Override
+  public BigInteger convertToSigned(BigInteger asUnsigned) {
+    if (asUnsigned.compareTo(valueHalfModulus) > 0) {
+      return asUnsigned.subtract(valueModulus);
+    } else {
+      return asUnsigned;
+    }
+  }
+
+  @Override
+  public CompUInt192 zero() {
+    return ZERO;
+  }
+
+}
@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import dk.alexandra.fresco.framework.util.ByteAndBitConverter;
+import java.math.BigInteger;
+
+/**
+ * Unsigned 64-bit integer composed of a 32-bit value portion (k = 32) and a 32-bit security
+ * portion (s = 32). <p>The entire value fits in a single long, so all arithmetic is plain long
+ * arithmetic. Note that this class is NOT SAFE to instantiate with negative values.</p>
+ */
+public class CompUInt64 implements CompUInt<UInt32, UInt32, CompUInt64> {
+
+  private final long value;
+
+  /**
+   * Creates new {@link CompUInt64}.
+   *
+   * @param bytes at most 8 bytes interpreted in big-endian order. Fewer bytes are interpreted as
+   *     the least significant bytes.
+   */
+  public CompUInt64(byte[] bytes) {
+    if (bytes.length > 8) {
+      throw new IllegalArgumentException("Exceeds capacity");
+    }
+    long fromBytes = 0;
+    for (byte b : bytes) {
+      fromBytes = (fromBytes << 8) | (b & 0xFFL);
+    }
+    this.value = fromBytes;
+  }
+
+  /**
+   * Creates new {@link CompUInt64} from {@link BigInteger}.
+   */
+  public CompUInt64(BigInteger value) {
+    this(CompUInt.pad(value.toByteArray(), 64));
+  }
+
+  CompUInt64(long value) {
+    this.value = value;
+  }
+
+  CompUInt64(UInt32 value) {
+    this(value.toLong());
+  }
+
+  @Override
+  public CompUInt64 add(CompUInt64 other) {
+    return new CompUInt64(value + other.value);
+  }
+
+  @Override
+  public CompUInt64 multiply(CompUInt64 other) {
+    return new CompUInt64(value * other.value);
+  }
+
+  @Override
+  public CompUInt64 subtract(CompUInt64 other) {
+    return new CompUInt64(value - other.value);
+  }
+
+  @Override
+  public CompUInt64 negateUInt() {
+    return new CompUInt64(-value);
+  }
+
+  @Override
+  public boolean isZero() {
+    return value == 0;
+  }
+
+  @Override
+  public BigInteger toBigInteger() {
+    return new BigInteger(1, toByteArray());
+  }
+
+  @Override
+  public UInt32 getLeastSignificant() {
+    return new UInt32((int) value);
+  }
+
+  @Override
+  public UInt32 getMostSignificant() {
+    return new UInt32((int) (value >>> 32));
+  }
+
+  @Override
+  public UInt32 getLeastSignificantAsHigh() {
+    return getLeastSignificant();
+  }
+
+  @Override
+  public CompUInt64 shiftLowIntoHigh() {
+    return new CompUInt64(value << 32);
+  }
+
+  @Override
+  public int getLowBitLength() {
+    return 32;
+  }
+
+  @Override
+  public int getHighBitLength() {
+    return 32;
+  }
+
+  @Override
+  public long toLong() {
+    return value;
+  }
+
+  @Override
+  public int toInt() {
+    return (int) value;
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    return ByteAndBitConverter.toByteArray(value);
+  }
+
+  @Override
+  public String toString() {
+    return toBigInteger().toString();
+  }
+
+}
@@ -0,0 +1,15 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+public class CompUIntConverter192 implements CompUIntConverter<CompUInt128, UInt64, CompUInt192> {
+
+  @Override
+  public CompUInt192 createFromHigh(CompUInt128 value) {
+    return new CompUInt192(value);
+  }
+
+  @Override
+  public CompUInt192 createFromLow(UInt64 value) {
+    return new CompUInt192(value);
+  }
+
+}
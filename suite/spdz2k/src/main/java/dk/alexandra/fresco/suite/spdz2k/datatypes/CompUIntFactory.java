@@ -45,6 +45,45 @@ public interface CompUIntFactory<CompT extends CompUInt<?, ?, CompT>> extends Fi
    */
   CompT zero();
 
+  /**
+   * Creates a mutable vector of the given size with all elements zero. <p>The default
+   * implementation wraps immutable elements; factories for types with a primitive representation
+   * should override this to avoid allocating an object per operation.</p>
+   */
+  default CompUIntVector<CompT> createVector(int size) {
+    return new GenericCompUIntVector<>(this, size);
+  }
+
+  /**
+   * Creates a mutable vector from elements serialized as by {@link CompUIntVector#toByteArray()}.
+   */
+  default CompUIntVector<CompT> createVector(byte[] bytes) {
+    int byteLength = getCompositeBitLength() / Byte.SIZE;
+    if (bytes.length % byteLength != 0) {
+      throw new IllegalArgumentException(
+          "Total number of bytes must be a multiple of length of single element");
+    }
+    CompUIntVector<CompT> vector = createVector(bytes.length / byteLength);
+    vector.addSerialized(bytes);
+    return vector;
+  }
+
+  /**
+   * Computes the inner product of two lists of the same size, accumulating in a {@link
+   * CompUIntVector} so no intermediate products or sums are allocated.
+   */
+  default CompT innerProduct(List<CompT> left, List<CompT> right) {
+    if (left.size() != right.size()) {
+      throw new IllegalArgumentException(
+          "Lists must have same size, was " + left.size() + " and " + right.size());
+    }
+    CompUIntVector<CompT> accumulator = createVector(1);
+    for (int i = 0; i < left.size(); i++) {
+      accumulator.multiplyAndAdd(0, left.get(i), right.get(i));
+    }
+    return accumulator.get(0);
+  }
+
   /**
    * Creates new {@link CompT} from a {@link BigInteger}.
    */
@@ -0,0 +1,57 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+/**
+ * A mutable, fixed-size vector of {@link CompUInt} values supporting in-place arithmetic. <p>The
+ * elements of a {@link CompT} are immutable, so every arithmetic operation on them allocates a new
+ * instance. Implementations of this interface may instead store the values in primitive arrays, so
+ * that accumulating sums and products over many elements, e.g., in the mac check, does not
+ * allocate an object per element. Vectors are created using {@link
+ * CompUIntFactory#createVector(int)}.</p>
+ */
+public interface CompUIntVector<CompT extends CompUInt<?, ?, CompT>> {
+
+  /**
+   * Returns the number of elements in this vector.
+   */
+  int size();
+
+  /**
+   * Returns the element at the given index.
+   */
+  CompT get(int index);
+
+  /**
+   * Sets the element at the given index.
+   */
+  void set(int index, CompT value);
+
+  /**
+   * Adds a value to the element at the given index, in place.
+   */
+  void add(int index, CompT value);
+
+  /**
+   * Adds the product of two values to the element at the given index, in place.
+   */
+  void multiplyAndAdd(int index, CompT left, CompT right);
+
+  /**
+   * Adds another vector of the same size to this vector, element-wise and in place.
+   */
+  void add(CompUIntVector<CompT> other);
+
+  /**
+   * Adds a serialized vector of the same size to this vector, element-wise and in place, without
+   * deserializing it into separate elements.
+   *
+   * @param bytes the elements of the other vector, serialized as by {@link #toByteArray()}
+   */
+  void addSerialized(byte[] bytes);
+
+  /**
+   * Serializes all elements to a single array, in the same big-endian format as {@link
+   * CompUInt#toByteArray()}.
+   */
+  byte[] toByteArray();
+
+}
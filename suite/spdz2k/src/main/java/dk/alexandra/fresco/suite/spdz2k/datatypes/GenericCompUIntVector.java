@@ -0,0 +1,86 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * {@link CompUIntVector} backed by a list of immutable elements. <p>Used for {@link CompUInt}
+ * types that do not provide a primitive-backed vector. This does not avoid allocation, but lets
+ * code be written against {@link CompUIntVector} regardless of the type.</p>
+ */
+class GenericCompUIntVector<CompT extends CompUInt<?, ?, CompT>> implements
+    CompUIntVector<CompT> {
+
+  private final CompUIntFactory<CompT> factory;
+  private final int byteLength;
+  private final List<CompT> elements;
+
+  GenericCompUIntVector(CompUIntFactory<CompT> factory, int size) {
+    this.factory = factory;
+    this.byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    this.elements = new ArrayList<>(Collections.nCopies(size, factory.zero()));
+  }
+
+  @Override
+  public int size() {
+    return elements.size();
+  }
+
+  @Override
+  public CompT get(int index) {
+    return elements.get(index);
+  }
+
+  @Override
+  public void set(int index, CompT value) {
+    elements.set(index, value);
+  }
+
+  @Override
+  public void add(int index, CompT value) {
+    elements.set(index, elements.get(index).add(value));
+  }
+
+  @Override
+  public void multiplyAndAdd(int index, CompT left, CompT right) {
+    elements.set(index, elements.get(index).add(left.multiply(right)));
+  }
+
+  @Override
+  public void add(CompUIntVector<CompT> other) {
+    checkSize(other.size());
+    for (int i = 0; i < elements.size(); i++) {
+      add(i, other.get(i));
+    }
+  }
+
+  @Override
+  public void addSerialized(byte[] bytes) {
+    if (bytes.length != elements.size() * byteLength) {
+      throw new IllegalArgumentException("Expected " + elements.size() * byteLength
+          + " bytes, was " + bytes.length);
+    }
+    for (int i = 0; i < elements.size(); i++) {
+      add(i, factory.deserialize(Arrays.copyOfRange(bytes, i * byteLength, (i + 1) * byteLength)));
+    }
+  }
+
+  @Override
+  public byte[] toByteArray() {
+    byte[] bytes = new byte[elements.size() * byteLength];
+    for (int i = 0; i < elements.size(); i++) {
+      System.arraycopy(elements.get(i).toByteArray(), 0, bytes, i * byteLength, byteLength);
+    }
+    return bytes;
+  }
+
+  private void checkSize(int otherSize) {
+    if (otherSize != elements.size()) {
+      throw new IllegalArgumentException(
+          "Vectors must have same size, was " + elements.size() + " and " + otherSize);
+    }
+  }
+
+}
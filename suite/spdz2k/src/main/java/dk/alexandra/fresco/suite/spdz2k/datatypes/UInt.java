@@ -85,6 +85,21 @@ public interface UInt<T extends UInt> {
     return accumulator;
   }
 
+  /**
+   * Computes the 64 most significant bits of the 128-bit product of two unsigned longs.
+   */
+  static long multiplyHighUnsigned(long left, long right) {
+    long leftLow = left & 0xffffffffL;
+    long leftHigh = left >>> 32;
+    long rightLow = right & 0xffffffffL;
+    long rightHigh = right >>> 32;
+    long lowLow = leftLow * rightLow;
+    long lowHigh = leftLow * rightHigh;
+    long highLow = leftHigh * rightLow;
+    long mid = (lowLow >>> 32) + (lowHigh & 0xffffffffL) + (highLow & 0xffffffffL);
+    return leftHigh * rightHigh + (lowHigh >>> 32) + (highLow >>> 32) + (mid >>> 32);
+  }
+
   /**
    * Short-hand for Integer.toUnsignedLong().
    */
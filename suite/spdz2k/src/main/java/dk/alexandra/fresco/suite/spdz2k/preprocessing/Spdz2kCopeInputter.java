@@ -0,0 +1,85 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The inputter party's side of the Correlated Oblivious Product Evaluation (COPE) protocol over
+ * the ring <i>Z<sub>2<sup>k + s</sup></sub></i>.
+ *
+ * <p>COPE allows the inputter, holding elements <i>x<sub>1</sub>, ..., x<sub>n</sub></i>, and the
+ * signer, holding a fixed <i>s</i>-bit mac key share <i>&alpha;</i>, to obtain additive shares of
+ * <i>&alpha; x<sub>1</sub>, ..., &alpha; x<sub>n</sub></i>. During initialization the signer
+ * learns one seed of each of <i>s</i> seed pairs held by the inputter, using the bits of
+ * <i>&alpha;</i> as choice bits. For the other side of the protocol, see {@link
+ * Spdz2kCopeSigner}.</p>
+ */
+class Spdz2kCopeInputter<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final Network network;
+  private final int otherId;
+  private final List<Drbg> zeroPrgs;
+  private final List<Drbg> onePrgs;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates a new inputter and runs the initialization of COPE with the other party.
+   *
+   * @param factory factory for ring elements
+   * @param rot random OT with the other party
+   * @param network the network to use for communication
+   * @param otherId the id of the signer
+   * @param prgSeedLength the bit length of the PRG seeds
+   */
+  Spdz2kCopeInputter(CompUIntFactory<PlainT> factory, RotBatch rot, Network network, int otherId,
+      int prgSeedLength) {
+    this.factory = factory;
+    this.network = network;
+    this.otherId = otherId;
+    this.powersOfTwo = Spdz2kPreprocessingUtils.powersOfTwo(factory);
+    int keyLength = factory.getHighBitLength();
+    List<Pair<StrictBitVector, StrictBitVector>> seeds = rot.send(keyLength, prgSeedLength);
+    this.zeroPrgs = new ArrayList<>(keyLength);
+    this.onePrgs = new ArrayList<>(keyLength);
+    for (Pair<StrictBitVector, StrictBitVector> seed : seeds) {
+      zeroPrgs.add(AesCtrDrbgFactory.fromDerivedSeed(seed.getFirst().toByteArray()));
+      onePrgs.add(AesCtrDrbgFactory.fromDerivedSeed(seed.getSecond().toByteArray()));
+    }
+  }
+
+  /**
+   * Computes this party's shares of the products of the inputs and the signer's mac key share.
+   *
+   * @param inputs the inputs to authenticate
+   * @return this party's shares of the products
+   */
+  List<PlainT> extend(List<PlainT> inputs) {
+    int numInputs = inputs.size();
+    CompUIntVector<PlainT> shares = factory.createVector(numInputs);
+    List<PlainT> diffs = new ArrayList<>(numInputs * zeroPrgs.size());
+    for (int l = 0; l < zeroPrgs.size(); l++) {
+      List<PlainT> zeroMasks =
+          Spdz2kPreprocessingUtils.nextElements(zeroPrgs.get(l), factory, numInputs);
+      List<PlainT> oneMasks =
+          Spdz2kPreprocessingUtils.nextElements(onePrgs.get(l), factory, numInputs);
+      PlainT negatedPower = powersOfTwo.get(l).negateUInt();
+      for (int e = 0; e < numInputs; e++) {
+        PlainT zeroMask = zeroMasks.get(e);
+        diffs.add(zeroMask.subtract(oneMasks.get(e)).add(inputs.get(e)));
+        shares.multiplyAndAdd(e, zeroMask, negatedPower);
+      }
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    return Spdz2kPreprocessingUtils.toList(shares);
+  }
+}
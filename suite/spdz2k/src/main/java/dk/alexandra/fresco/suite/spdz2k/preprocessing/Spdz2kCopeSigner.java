@@ -0,0 +1,81 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.AesCtrDrbgFactory;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The signer party's side of the Correlated Oblivious Product Evaluation (COPE) protocol over the
+ * ring <i>Z<sub>2<sup>k + s</sup></sub></i>. For a description of the protocol, see {@link
+ * Spdz2kCopeInputter}.
+ */
+class Spdz2kCopeSigner<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final Network network;
+  private final int otherId;
+  private final StrictBitVector keyBits;
+  private final List<Drbg> prgs;
+  private final List<PlainT> powersOfTwo;
+
+  /**
+   * Creates a new signer and runs the initialization of COPE with the other party.
+   *
+   * @param factory factory for ring elements
+   * @param rot random OT with the other party
+   * @param network the network to use for communication
+   * @param otherId the id of the inputter
+   * @param macKeyShare this party's share of the mac key, which must be less than
+   *     <i>2<sup>s</sup></i>
+   * @param prgSeedLength the bit length of the PRG seeds
+   */
+  Spdz2kCopeSigner(CompUIntFactory<PlainT> factory, RotBatch rot, Network network, int otherId,
+      PlainT macKeyShare, int prgSeedLength) {
+    this.factory = factory;
+    this.network = network;
+    this.otherId = otherId;
+    this.powersOfTwo = Spdz2kPreprocessingUtils.powersOfTwo(factory);
+    this.keyBits = Spdz2kPreprocessingUtils.toBits(Collections.singletonList(macKeyShare),
+        factory.getHighBitLength());
+    List<StrictBitVector> seeds = rot.receive(keyBits, prgSeedLength);
+    this.prgs = new ArrayList<>(seeds.size());
+    for (StrictBitVector seed : seeds) {
+      prgs.add(AesCtrDrbgFactory.fromDerivedSeed(seed.toByteArray()));
+    }
+  }
+
+  /**
+   * Computes this party's shares of the products of the other party's inputs and this party's mac
+   * key share.
+   *
+   * @param numInputs the number of inputs of the other party
+   * @return this party's shares of the products
+   */
+  List<PlainT> extend(int numInputs) {
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    if (diffs.size() != numInputs * prgs.size()) {
+      throw new MaliciousException("Received " + diffs.size() + " diffs, expected "
+          + numInputs * prgs.size());
+    }
+    CompUIntVector<PlainT> shares = factory.createVector(numInputs);
+    for (int l = 0; l < prgs.size(); l++) {
+      List<PlainT> masks = Spdz2kPreprocessingUtils.nextElements(prgs.get(l), factory, numInputs);
+      boolean bit = keyBits.getBit(l, false);
+      PlainT power = powersOfTwo.get(l);
+      for (int e = 0; e < numInputs; e++) {
+        PlainT product = bit ? masks.get(e).add(diffs.get(l * numInputs + e)) : masks.get(e);
+        shares.multiplyAndAdd(e, product, power);
+      }
+    }
+    return Spdz2kPreprocessingUtils.toList(shares);
+  }
+}
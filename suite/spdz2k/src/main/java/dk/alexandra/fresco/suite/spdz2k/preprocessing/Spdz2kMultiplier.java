@@ -0,0 +1,101 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Two-party multiplication of elements of <i>Z<sub>2<sup>k + s</sup></sub></i> using random OT.
+ *
+ * <p>To multiply a left factor <i>a</i> held by one party with a right factor <i>b</i> held by the
+ * other, the parties run one OT for each bit <i>a<sub>l</sub></i> of <i>a</i>, with
+ * <i>a<sub>l</sub></i> as choice bit. The party holding <i>b</i> turns its random messages
+ * <i>(m<sub>0</sub>, m<sub>1</sub>)</i> into a correlated OT by sending <i>m<sub>0</sub> -
+ * m<sub>1</sub> + 2<sup>l</sup> b</i>, after which the parties hold additive shares of
+ * <i>a<sub>l</sub> 2<sup>l</sup> b</i>. Summing over all bits gives additive shares of <i>ab</i>.
+ * The party holding the left factors calls {@link #multiplyLeft(List)} while the other party calls
+ * {@link #multiplyRight(List)}.</p>
+ */
+class Spdz2kMultiplier<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final CompUIntFactory<PlainT> factory;
+  private final RotBatch rot;
+  private final Network network;
+  private final int otherId;
+  private final int bitLength;
+  private final List<PlainT> powersOfTwo;
+
+  Spdz2kMultiplier(CompUIntFactory<PlainT> factory, RotBatch rot, Network network, int otherId) {
+    this.factory = factory;
+    this.rot = rot;
+    this.network = network;
+    this.otherId = otherId;
+    this.bitLength = factory.getCompositeBitLength();
+    this.powersOfTwo = Spdz2kPreprocessingUtils.powersOfTwo(factory);
+  }
+
+  /**
+   * Computes this party's shares of the products of its left factors and the other party's right
+   * factors.
+   *
+   * @param leftFactors this party's factors
+   * @return this party's shares of the products
+   */
+  List<PlainT> multiplyLeft(List<PlainT> leftFactors) {
+    StrictBitVector choices = Spdz2kPreprocessingUtils.toBits(leftFactors, bitLength);
+    List<StrictBitVector> messages = rot.receive(choices, bitLength);
+    List<PlainT> diffs = factory.getSerializer().deserializeList(network.receive(otherId));
+    if (diffs.size() != messages.size()) {
+      throw new MaliciousException("Received " + diffs.size() + " diffs, expected "
+          + messages.size());
+    }
+    CompUIntVector<PlainT> shares = factory.createVector(leftFactors.size());
+    for (int e = 0; e < leftFactors.size(); e++) {
+      for (int l = 0; l < bitLength; l++) {
+        int index = e * bitLength + l;
+        shares.add(e, factory.deserialize(messages.get(index).toByteArray()));
+        if (choices.getBit(index, false)) {
+          shares.add(e, diffs.get(index));
+        }
+      }
+    }
+    return Spdz2kPreprocessingUtils.toList(shares);
+  }
+
+  /**
+   * Computes this party's shares of the products of the other party's left factors and its right
+   * factors.
+   *
+   * @param rightFactors this party's factors, one for each left factor of the other party
+   * @return this party's shares of the products
+   */
+  List<PlainT> multiplyRight(List<PlainT> rightFactors) {
+    List<Pair<StrictBitVector, StrictBitVector>> messages =
+        rot.send(rightFactors.size() * bitLength, bitLength);
+    List<PlainT> diffs = new ArrayList<>(messages.size());
+    CompUIntVector<PlainT> shares = factory.createVector(rightFactors.size());
+    for (int e = 0; e < rightFactors.size(); e++) {
+      PlainT rightFactor = rightFactors.get(e);
+      for (int l = 0; l < bitLength; l++) {
+        Pair<StrictBitVector, StrictBitVector> pair = messages.get(e * bitLength + l);
+        PlainT zeroMessage = factory.deserialize(pair.getFirst().toByteArray());
+        PlainT oneMessage = factory.deserialize(pair.getSecond().toByteArray());
+        diffs.add(zeroMessage.subtract(oneMessage).add(rightFactor.multiply(powersOfTwo.get(l))));
+        shares.add(e, zeroMessage);
+      }
+    }
+    network.send(otherId, factory.getSerializer().serialize(diffs));
+    List<PlainT> negated = new ArrayList<>(shares.size());
+    for (int e = 0; e < shares.size(); e++) {
+      negated.add(shares.get(e).negateUInt());
+    }
+    return negated;
+  }
+}
@@ -0,0 +1,179 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ByteArrayHelper;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.UInt;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitment;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitmentSerializer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Opens authenticated values, tosses coins and checks macs during the OT-based preprocessing.
+ *
+ * <p>All values opened by {@link #open(List)} are stored until the next call to {@link
+ * #checkMacs()}, which checks a random linear combination of them, as in the online phase. Values
+ * are opened in their entirety, i.e., including the top <i>s</i> bits, so they must be masked by
+ * uniformly random elements of the ring. When there are more than two parties, all broadcasts are
+ * validated by comparing digests of the received messages.</p>
+ */
+class Spdz2kOfflineOpener<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private final int myId;
+  private final int noOfParties;
+  private final CompUIntFactory<PlainT> factory;
+  private final ByteSerializer<PlainT> serializer;
+  private final ByteSerializer<HashBasedCommitment> commitmentSerializer;
+  private final PlainT macKeyShare;
+  private final Network network;
+  private final Drbg localDrbg;
+  private final MessageDigest digest;
+  private final List<Spdz2kSInt<PlainT>> authenticatedElements;
+  private final List<PlainT> openValues;
+
+  Spdz2kOfflineOpener(int myId, int noOfParties, CompUIntFactory<PlainT> factory,
+      PlainT macKeyShare, Network network, Drbg localDrbg) {
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.factory = factory;
+    this.serializer = factory.getSerializer();
+    this.commitmentSerializer = new HashBasedCommitmentSerializer();
+    this.macKeyShare = macKeyShare;
+    this.network = network;
+    this.localDrbg = localDrbg;
+    this.digest = ExceptionConverter.safe(() -> MessageDigest.getInstance("SHA-256"),
+        "Configuration error, SHA-256 is needed for broadcast validation");
+    this.authenticatedElements = new ArrayList<>();
+    this.openValues = new ArrayList<>();
+  }
+
+  /**
+   * Opens authenticated values towards all parties. The macs of the values are checked in the
+   * next call to {@link #checkMacs()}.
+   *
+   * @param values this party's shares of the values
+   * @return the opened values
+   */
+  List<PlainT> open(List<Spdz2kSInt<PlainT>> values) {
+    List<PlainT> shares = values.stream()
+        .map(Spdz2kSInt::getShare)
+        .collect(Collectors.toList());
+    List<byte[]> received = broadcast(serializer.serialize(shares));
+    int expectedLength = values.size() * factory.getCompositeBitLength() / Byte.SIZE;
+    CompUIntVector<PlainT> sums = factory.createVector(values.size());
+    for (byte[] partyShares : received) {
+      if (partyShares.length != expectedLength) {
+        throw new MaliciousException("Received " + partyShares.length + " bytes of shares, expected "
+            + expectedLength);
+      }
+      sums.addSerialized(partyShares);
+    }
+    List<PlainT> opened = new ArrayList<>(values.size());
+    for (int i = 0; i < values.size(); i++) {
+      opened.add(sums.get(i));
+    }
+    authenticatedElements.addAll(values);
+    openValues.addAll(opened);
+    return opened;
+  }
+
+  /**
+   * Checks the macs of all values opened since the last check.
+   *
+   * @throws MaliciousException if the check fails
+   */
+  void checkMacs() {
+    if (openValues.isEmpty()) {
+      return;
+    }
+    List<PlainT> coefficients = Spdz2kPreprocessingUtils.nextShortElements(tossCoins(), factory,
+        openValues.size());
+    PlainT y = factory.innerProduct(openValues, coefficients);
+    List<PlainT> macShares = authenticatedElements.stream()
+        .map(Spdz2kSInt::getMacShare)
+        .collect(Collectors.toList());
+    PlainT z = macKeyShare.multiply(y).subtract(factory.innerProduct(macShares, coefficients));
+    List<PlainT> zs = commitAndOpen(serializer.serialize(z)).stream()
+        .map(serializer::deserialize)
+        .collect(Collectors.toList());
+    authenticatedElements.clear();
+    openValues.clear();
+    if (!UInt.sum(zs).isZero()) {
+      throw new MaliciousException("Mac check failed");
+    }
+  }
+
+  /**
+   * Lets all parties agree on a random seed by committing to and opening a seed each.
+   *
+   * @return a source of randomness shared by all parties
+   */
+  Drbg tossCoins() {
+    byte[] seed = new byte[AesCtrDrbg.SEED_LENGTH];
+    localDrbg.nextBytes(seed);
+    byte[] jointSeed = new byte[AesCtrDrbg.SEED_LENGTH];
+    for (byte[] partySeed : commitAndOpen(seed)) {
+      if (partySeed.length != jointSeed.length) {
+        throw new MaliciousException("Seed has wrong length");
+      }
+      ByteArrayHelper.xor(jointSeed, partySeed);
+    }
+    return new AesCtrDrbg(jointSeed);
+  }
+
+  /**
+   * Commits to a value, broadcasts the commitment, and opens it once all parties have committed.
+   *
+   * @param value the value to commit to
+   * @return the values of all parties, ordered by party id
+   */
+  private List<byte[]> commitAndOpen(byte[] value) {
+    HashBasedCommitment ownCommitment = new HashBasedCommitment();
+    byte[] opening = ownCommitment.commit(myId, localDrbg, value);
+    List<HashBasedCommitment> commitments =
+        broadcast(commitmentSerializer.serialize(ownCommitment)).stream()
+            .map(commitmentSerializer::deserialize)
+            .collect(Collectors.toList());
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    List<byte[]> values = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      values.add(commitments.get(partyId - 1).open(partyId, openings.get(partyId - 1)));
+    }
+    return values;
+  }
+
+  /**
+   * Sends a message to all parties and receives theirs, validating that all parties received the
+   * same messages.
+   */
+  private List<byte[]> broadcast(byte[] message) {
+    network.sendToAll(message);
+    List<byte[]> received = network.receiveFromAll();
+    if (noOfParties > 2) {
+      for (byte[] partyMessage : received) {
+        digest.update(partyMessage);
+      }
+      byte[] ownDigest = digest.digest();
+      network.sendToAll(ownDigest);
+      for (byte[] otherDigest : network.receiveFromAll()) {
+        if (!Arrays.equals(ownDigest, otherDigest)) {
+          throw new MaliciousException("Broadcast validation failed");
+        }
+      }
+    }
+    return received;
+  }
+}
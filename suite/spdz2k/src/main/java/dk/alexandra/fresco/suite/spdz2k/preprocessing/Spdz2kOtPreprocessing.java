@@ -0,0 +1,438 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ValidationUtils;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.tools.cointossing.CoinTossing;
+import dk.alexandra.fresco.tools.ot.base.ECNaorPinkasOt;
+import dk.alexandra.fresco.tools.ot.base.Ot;
+import dk.alexandra.fresco.tools.ot.base.RotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.AesCorrelationRobustHash;
+import dk.alexandra.fresco.tools.ot.otextension.BristolOtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.BristolRotBatch;
+import dk.alexandra.fresco.tools.ot.otextension.OtExtensionResourcePool;
+import dk.alexandra.fresco.tools.ot.otextension.RotFactory;
+import dk.alexandra.fresco.tools.ot.otextension.RotList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Actively secure OT-based generation of SPDZ2k preprocessing material over the ring
+ * <i>Z<sub>2<sup>k + s</sup></sub></i>, following the offline phase of the SPDZ2k paper
+ * (<a href="https://eprint.iacr.org/2018/482.pdf">https://eprint.iacr.org/2018/482.pdf</a>),
+ * which in turn adapts MASCOT to rings.
+ *
+ * <p>Each pair of parties sets up Bristol random OT extension using Naor-Pinkas base OTs. This is
+ * used both for seeding COPE, with which every party authenticates its shares under the mac key
+ * shares of the other parties, and for the bitwise multiplication of shares held by different
+ * parties. Triples are generated from several candidates which are combined with random
+ * coefficients, authenticated, and checked by sacrificing a second triple. Input masks and random
+ * elements are authenticated random shares, and random bits are computed as the XOR of a bit
+ * from each party, using triples. Every call ends with a batched mac check of all values opened
+ * by the call.</p>
+ *
+ * <p>All pairwise interaction happens in order of the other party's id, which corresponds to a
+ * global order of all pairs, so the protocol cannot deadlock. All parties must make the same
+ * calls in the same order with the same arguments.</p>
+ */
+public class Spdz2kOtPreprocessing<PlainT extends CompUInt<?, ?, PlainT>> {
+
+  private static final int INSTANCE_ID = 1;
+  private final int myId;
+  private final int noOfParties;
+  private final CompUIntFactory<PlainT> factory;
+  private final PlainT macKeyShare;
+  private final Drbg drbg;
+  private final Spdz2kOtSecurityParameters securityParameters;
+  private final Spdz2kOfflineOpener<PlainT> opener;
+  private final Map<Integer, Spdz2kMultiplier<PlainT>> multipliers;
+  private final Map<Integer, Spdz2kCopeSigner<PlainT>> signers;
+  private final Map<Integer, Spdz2kCopeInputter<PlainT>> inputters;
+  private final PlainT one;
+
+  /**
+   * Creates new {@link Spdz2kOtPreprocessing} and runs the pairwise setup with all other parties.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param factory factory for ring elements
+   * @param macKeyShare this party's share of the mac key, which must be less than
+   *     <i>2<sup>s</sup></i>, see {@link #createMacKeyShare(CompUIntFactory, Drbg)}
+   * @param network the network used by the preprocessing
+   * @param drbg this party's local source of randomness
+   * @param securityParameters the security parameters
+   */
+  public Spdz2kOtPreprocessing(int myId, int noOfParties, CompUIntFactory<PlainT> factory,
+      PlainT macKeyShare, Network network, Drbg drbg,
+      Spdz2kOtSecurityParameters securityParameters) {
+    ValidationUtils.assertValidId(myId, noOfParties);
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.factory = Objects.requireNonNull(factory);
+    this.macKeyShare = Objects.requireNonNull(macKeyShare);
+    this.drbg = Objects.requireNonNull(drbg);
+    this.securityParameters = Objects.requireNonNull(securityParameters);
+    this.opener = new Spdz2kOfflineOpener<>(myId, noOfParties, factory, macKeyShare, network,
+        drbg);
+    this.one = factory.createElement(1);
+    this.multipliers = new HashMap<>();
+    this.signers = new HashMap<>();
+    this.inputters = new HashMap<>();
+    int prgSeedLength = securityParameters.getPrgSeedLength();
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId == myId) {
+        continue;
+      }
+      RotBatch rot = createRot(otherId, network);
+      multipliers.put(otherId, new Spdz2kMultiplier<>(factory, rot, network, otherId));
+      if (myId < otherId) {
+        signers.put(otherId,
+            new Spdz2kCopeSigner<>(factory, rot, network, otherId, macKeyShare, prgSeedLength));
+        inputters.put(otherId,
+            new Spdz2kCopeInputter<>(factory, rot, network, otherId, prgSeedLength));
+      } else {
+        inputters.put(otherId,
+            new Spdz2kCopeInputter<>(factory, rot, network, otherId, prgSeedLength));
+        signers.put(otherId,
+            new Spdz2kCopeSigner<>(factory, rot, network, otherId, macKeyShare, prgSeedLength));
+      }
+    }
+  }
+
+  /**
+   * Samples a random mac key share of <i>s</i> bits.
+   *
+   * @param factory factory for ring elements
+   * @param drbg source of randomness
+   * @return the mac key share
+   */
+  public static <PlainT extends CompUInt<?, ?, PlainT>> PlainT createMacKeyShare(
+      CompUIntFactory<PlainT> factory, Drbg drbg) {
+    return Spdz2kPreprocessingUtils.nextShortElements(drbg, factory, 1).get(0);
+  }
+
+  /**
+   * Gets this party's share of the mac key.
+   */
+  public PlainT getMacKeyShare() {
+    return macKeyShare;
+  }
+
+  /**
+   * Generates authenticated multiplication triples.
+   *
+   * @param amount the number of triples
+   * @return this party's shares of the triples
+   */
+  public List<Spdz2kTriple<PlainT>> getTriples(int amount) {
+    List<Spdz2kTriple<PlainT>> triples = generateTriples(amount);
+    opener.checkMacs();
+    return triples;
+  }
+
+  /**
+   * Generates authenticated input masks, whose value is known to the input party.
+   *
+   * @param towardPlayerId the id of the input party
+   * @param amount the number of masks
+   * @return this party's shares of the masks, along with the values if this is the input party
+   */
+  public List<Spdz2kInputMask<PlainT>> getInputMasks(int towardPlayerId, int amount) {
+    List<PlainT> values = towardPlayerId == myId
+        ? Spdz2kPreprocessingUtils.nextElements(drbg, factory, amount)
+        : null;
+    List<Spdz2kSInt<PlainT>> masks = authenticateInput(towardPlayerId, values, amount);
+    opener.checkMacs();
+    List<Spdz2kInputMask<PlainT>> inputMasks = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      inputMasks.add(towardPlayerId == myId
+          ? new Spdz2kInputMask<>(masks.get(i), values.get(i))
+          : new Spdz2kInputMask<>(masks.get(i)));
+    }
+    return inputMasks;
+  }
+
+  /**
+   * Generates authenticated random elements.
+   *
+   * @param amount the number of elements
+   * @return this party's shares of the elements
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomElements(int amount) {
+    List<Spdz2kSInt<PlainT>> elements =
+        authenticateShares(Spdz2kPreprocessingUtils.nextElements(drbg, factory, amount));
+    opener.checkMacs();
+    return elements;
+  }
+
+  /**
+   * Generates authenticated random bits.
+   *
+   * <p>Each party inputs a random bit, and the bits are combined using <i>x &oplus; y = x + y -
+   * 2xy</i>. Finally, the result <i>b</i> is checked to be a bit by opening <i>b(1 - b)</i>, which
+   * is zero in <i>Z<sub>2<sup>k + s</sup></sub></i> only if <i>b</i> is a bit. This uses one
+   * triple per party for each bit.</p>
+   *
+   * @param amount the number of bits
+   * @return this party's shares of the bits
+   */
+  public List<Spdz2kSInt<PlainT>> getRandomBits(int amount) {
+    List<List<Spdz2kSInt<PlainT>>> partyBits = new ArrayList<>(noOfParties);
+    for (int inputterId = 1; inputterId <= noOfParties; inputterId++) {
+      List<PlainT> bits = null;
+      if (inputterId == myId) {
+        byte[] randomBytes = new byte[amount];
+        drbg.nextBytes(randomBytes);
+        bits = new ArrayList<>(amount);
+        for (byte randomByte : randomBytes) {
+          bits.add((randomByte & 1) == 1 ? one : factory.zero());
+        }
+      }
+      partyBits.add(authenticateInput(inputterId, bits, amount));
+    }
+    List<Spdz2kTriple<PlainT>> triples = generateTriples(amount * noOfParties);
+    List<Spdz2kSInt<PlainT>> result = partyBits.get(0);
+    for (int i = 1; i < noOfParties; i++) {
+      List<Spdz2kSInt<PlainT>> bits = partyBits.get(i);
+      List<Spdz2kSInt<PlainT>> products =
+          multiply(result, bits, triples.subList((i - 1) * amount, i * amount));
+      List<Spdz2kSInt<PlainT>> xors = new ArrayList<>(amount);
+      for (int j = 0; j < amount; j++) {
+        Spdz2kSInt<PlainT> doubleProduct = products.get(j).add(products.get(j));
+        xors.add(result.get(j).add(bits.get(j)).subtract(doubleProduct));
+      }
+      result = xors;
+    }
+    List<Spdz2kSInt<PlainT>> negated = new ArrayList<>(amount);
+    for (Spdz2kSInt<PlainT> bit : result) {
+      negated.add(new Spdz2kSInt<>(one, macKeyShare, factory.zero(), myId == 1).subtract(bit));
+    }
+    List<Spdz2kSInt<PlainT>> checks = multiply(result, negated,
+        triples.subList((noOfParties - 1) * amount, noOfParties * amount));
+    for (PlainT check : opener.open(checks)) {
+      if (!check.isZero()) {
+        throw new MaliciousException("Random bit check failed");
+      }
+    }
+    opener.checkMacs();
+    return result;
+  }
+
+  private List<Spdz2kTriple<PlainT>> generateTriples(int amount) {
+    int numCandidates = securityParameters.getNumCandidatesPerTriple();
+    // The first half of the candidates of each triple are combined into the triple and the second
+    // half into the triple that is sacrificed to check it
+    List<PlainT> leftFactors =
+        Spdz2kPreprocessingUtils.nextElements(drbg, factory, 2 * numCandidates * amount);
+    List<PlainT> rightFactors = Spdz2kPreprocessingUtils.nextElements(drbg, factory, amount);
+    List<PlainT> products = multiply(leftFactors, rightFactors, 2 * numCandidates);
+    List<PlainT> coefficients = Spdz2kPreprocessingUtils.nextElements(opener.tossCoins(), factory,
+        2 * numCandidates * amount);
+    List<PlainT> shares = new ArrayList<>(5 * amount);
+    for (int i = 0; i < amount; i++) {
+      shares.add(rightFactors.get(i));
+      for (int half = 0; half < 2; half++) {
+        int from = (2 * i + half) * numCandidates;
+        List<PlainT> halfCoefficients = coefficients.subList(from, from + numCandidates);
+        shares.add(factory.innerProduct(leftFactors.subList(from, from + numCandidates),
+            halfCoefficients));
+        shares.add(factory.innerProduct(products.subList(from, from + numCandidates),
+            halfCoefficients));
+      }
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = authenticateShares(shares);
+    List<PlainT> sacrificeCoefficients =
+        Spdz2kPreprocessingUtils.nextElements(opener.tossCoins(), factory, amount);
+    List<Spdz2kSInt<PlainT>> rhos = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      Spdz2kSInt<PlainT> left = authenticated.get(5 * i + 1);
+      Spdz2kSInt<PlainT> sacrificedLeft = authenticated.get(5 * i + 3);
+      rhos.add(left.multiply(sacrificeCoefficients.get(i)).subtract(sacrificedLeft));
+    }
+    List<PlainT> openRhos = opener.open(rhos);
+    List<Spdz2kSInt<PlainT>> sigmas = new ArrayList<>(amount);
+    List<Spdz2kTriple<PlainT>> triples = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      Spdz2kSInt<PlainT> right = authenticated.get(5 * i);
+      Spdz2kSInt<PlainT> left = authenticated.get(5 * i + 1);
+      Spdz2kSInt<PlainT> product = authenticated.get(5 * i + 2);
+      Spdz2kSInt<PlainT> sacrificedProduct = authenticated.get(5 * i + 4);
+      sigmas.add(product.multiply(sacrificeCoefficients.get(i))
+          .subtract(sacrificedProduct)
+          .subtract(right.multiply(openRhos.get(i))));
+      triples.add(new Spdz2kTriple<>(left, right, product));
+    }
+    for (PlainT sigma : opener.open(sigmas)) {
+      if (!sigma.isZero()) {
+        throw new MaliciousException("Sacrifice check failed");
+      }
+    }
+    return triples;
+  }
+
+  /**
+   * Computes this party's shares of <i>a<sub>i</sub> b<sub>i / r</sub></i>, where <i>a</i> and
+   * <i>b</i> are additively shared and <i>r</i> is the number of left factors per right factor.
+   */
+  private List<PlainT> multiply(List<PlainT> leftFactors, List<PlainT> rightFactors,
+      int leftPerRight) {
+    List<PlainT> expandedRight = new ArrayList<>(leftFactors.size());
+    List<PlainT> products = new ArrayList<>(leftFactors.size());
+    for (int i = 0; i < leftFactors.size(); i++) {
+      PlainT rightFactor = rightFactors.get(i / leftPerRight);
+      expandedRight.add(rightFactor);
+      products.add(leftFactors.get(i).multiply(rightFactor));
+    }
+    for (int otherId = 1; otherId <= noOfParties; otherId++) {
+      if (otherId == myId) {
+        continue;
+      }
+      Spdz2kMultiplier<PlainT> multiplier = multipliers.get(otherId);
+      List<PlainT> first;
+      List<PlainT> second;
+      if (myId < otherId) {
+        first = multiplier.multiplyLeft(leftFactors);
+        second = multiplier.multiplyRight(expandedRight);
+      } else {
+        first = multiplier.multiplyRight(expandedRight);
+        second = multiplier.multiplyLeft(leftFactors);
+      }
+      for (int i = 0; i < products.size(); i++) {
+        products.set(i, products.get(i).add(first.get(i)).add(second.get(i)));
+      }
+    }
+    return products;
+  }
+
+  /**
+   * Multiplies authenticated values using triples, opening the masked factors.
+   */
+  private List<Spdz2kSInt<PlainT>> multiply(List<Spdz2kSInt<PlainT>> left,
+      List<Spdz2kSInt<PlainT>> right, List<Spdz2kTriple<PlainT>> triples) {
+    List<Spdz2kSInt<PlainT>> masked = new ArrayList<>(2 * left.size());
+    for (int i = 0; i < left.size(); i++) {
+      masked.add(left.get(i).subtract(triples.get(i).getLeft()));
+      masked.add(right.get(i).subtract(triples.get(i).getRight()));
+    }
+    List<PlainT> opened = opener.open(masked);
+    List<Spdz2kSInt<PlainT>> products = new ArrayList<>(left.size());
+    for (int i = 0; i < left.size(); i++) {
+      Spdz2kTriple<PlainT> triple = triples.get(i);
+      PlainT epsilon = opened.get(2 * i);
+      PlainT delta = opened.get(2 * i + 1);
+      products.add(triple.getProduct()
+          .add(triple.getRight().multiply(epsilon))
+          .add(triple.getLeft().multiply(delta))
+          .addConstant(epsilon.multiply(delta), macKeyShare, factory.zero(), myId == 1));
+    }
+    return products;
+  }
+
+  /**
+   * Authenticates values additively shared among all parties.
+   */
+  private List<Spdz2kSInt<PlainT>> authenticateShares(List<PlainT> shares) {
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(shares.size());
+    for (int i = 0; i < shares.size(); i++) {
+      authenticated.add(new Spdz2kSInt<>(factory.zero(), factory.zero()));
+    }
+    // Every party authenticates its shares, which are then added up
+    for (int inputterId = 1; inputterId <= noOfParties; inputterId++) {
+      List<Spdz2kSInt<PlainT>> inputs = authenticateInput(inputterId,
+          inputterId == myId ? shares : null, shares.size());
+      for (int i = 0; i < shares.size(); i++) {
+        authenticated.set(i, authenticated.get(i).add(inputs.get(i)));
+      }
+    }
+    return authenticated;
+  }
+
+  /**
+   * Authenticates values known to a single party.
+   *
+   * <p>The input party authenticates its values along with a random mask using COPE with each
+   * other party. To check that it used the same values with all parties, a random linear
+   * combination of the values, masked by the random mask, is opened and its mac is checked in the
+   * next mac check.</p>
+   *
+   * @param inputterId the id of the party knowing the values
+   * @param values the values if this is the input party, otherwise ignored
+   * @param amount the number of values
+   * @return this party's shares of the values
+   */
+  private List<Spdz2kSInt<PlainT>> authenticateInput(int inputterId, List<PlainT> values,
+      int amount) {
+    List<PlainT> shares;
+    List<PlainT> macShares;
+    if (inputterId == myId) {
+      shares = new ArrayList<>(values);
+      shares.add(Spdz2kPreprocessingUtils.nextElements(drbg, factory, 1).get(0));
+      macShares = new ArrayList<>(amount + 1);
+      for (PlainT share : shares) {
+        macShares.add(share.multiply(macKeyShare));
+      }
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (otherId != myId) {
+          addTo(macShares, inputters.get(otherId).extend(shares));
+        }
+      }
+    } else {
+      shares = new ArrayList<>(amount + 1);
+      for (int i = 0; i <= amount; i++) {
+        shares.add(factory.zero());
+      }
+      macShares = signers.get(inputterId).extend(amount + 1);
+    }
+    List<Spdz2kSInt<PlainT>> authenticated = new ArrayList<>(amount + 1);
+    for (int i = 0; i <= amount; i++) {
+      authenticated.add(new Spdz2kSInt<>(shares.get(i), macShares.get(i)));
+    }
+    List<PlainT> coefficients = Spdz2kPreprocessingUtils.nextShortElements(opener.tossCoins(),
+        factory, amount);
+    Spdz2kSInt<PlainT> combination = authenticated.get(amount);
+    for (int i = 0; i < amount; i++) {
+      combination = combination.add(authenticated.get(i).multiply(coefficients.get(i)));
+    }
+    List<Spdz2kSInt<PlainT>> combinations = new ArrayList<>(1);
+    combinations.add(combination);
+    opener.open(combinations);
+    return authenticated.subList(0, amount);
+  }
+
+  private void addTo(List<PlainT> accumulator, List<PlainT> summands) {
+    for (int i = 0; i < accumulator.size(); i++) {
+      accumulator.set(i, accumulator.get(i).add(summands.get(i)));
+    }
+  }
+
+  /**
+   * Sets up random OT extension with another party, using Naor-Pinkas OT for the seed OTs.
+   */
+  private RotBatch createRot(int otherId, Network network) {
+    CoinTossing coinTossing = new CoinTossing(myId, otherId, drbg);
+    coinTossing.initialize(network);
+    Ot ot = new ECNaorPinkasOt(otherId, drbg, network);
+    RotList seedOts = new RotList(drbg, securityParameters.getComputationalSecurityParam());
+    if (myId < otherId) {
+      seedOts.send(ot);
+      seedOts.receive(ot);
+    } else {
+      seedOts.receive(ot);
+      seedOts.send(ot);
+    }
+    OtExtensionResourcePool resources = new BristolOtExtensionResourcePool(myId, otherId,
+        securityParameters.getComputationalSecurityParam(),
+        securityParameters.getLambdaSecurityParam(), INSTANCE_ID, drbg, coinTossing, seedOts,
+        new AesCorrelationRobustHash());
+    return new BristolRotBatch(new RotFactory(resources, network));
+  }
+}
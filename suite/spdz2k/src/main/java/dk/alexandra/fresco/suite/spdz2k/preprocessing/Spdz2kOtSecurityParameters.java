@@ -0,0 +1,70 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+/**
+ * The security parameters used by the OT-based SPDZ2k preprocessing, see {@link
+ * Spdz2kOtPreprocessing}.
+ */
+public class Spdz2kOtSecurityParameters {
+
+  private final int computationalSecurityParam;
+  private final int lambdaSecurityParam;
+  private final int prgSeedLength;
+  private final int numCandidatesPerTriple;
+
+  /**
+   * Creates new {@link Spdz2kOtSecurityParameters}.
+   *
+   * @param computationalSecurityParam the computational security parameter of the OT extension.
+   *     Must be 128 since the OT extension uses a fixed-key AES hash.
+   * @param lambdaSecurityParam the statistical security parameter of the OT extension
+   * @param prgSeedLength bit length of the seeds of the PRGs used for authentication
+   * @param numCandidatesPerTriple number of left factors combined into each triple to hide
+   *     selective failures in the multiplication (tau in the MASCOT paper)
+   */
+  public Spdz2kOtSecurityParameters(int computationalSecurityParam, int lambdaSecurityParam,
+      int prgSeedLength, int numCandidatesPerTriple) {
+    if (numCandidatesPerTriple < 1) {
+      throw new IllegalArgumentException(
+          "Number of candidates per triple must be positive, was " + numCandidatesPerTriple);
+    }
+    this.computationalSecurityParam = computationalSecurityParam;
+    this.lambdaSecurityParam = lambdaSecurityParam;
+    this.prgSeedLength = prgSeedLength;
+    this.numCandidatesPerTriple = numCandidatesPerTriple;
+  }
+
+  /**
+   * Creates new {@link Spdz2kOtSecurityParameters} with realistic parameters.
+   */
+  public Spdz2kOtSecurityParameters() {
+    this(128, 40, 256, 3);
+  }
+
+  /**
+   * Gets the computational security parameter of the OT extension.
+   */
+  public int getComputationalSecurityParam() {
+    return computationalSecurityParam;
+  }
+
+  /**
+   * Gets the statistical security parameter of the OT extension.
+   */
+  public int getLambdaSecurityParam() {
+    return lambdaSecurityParam;
+  }
+
+  /**
+   * Gets the bit length of the seeds of the PRGs used for authentication.
+   */
+  public int getPrgSeedLength() {
+    return prgSeedLength;
+  }
+
+  /**
+   * Gets the number of left factors combined into each triple.
+   */
+  public int getNumCandidatesPerTriple() {
+    return numCandidatesPerTriple;
+  }
+}
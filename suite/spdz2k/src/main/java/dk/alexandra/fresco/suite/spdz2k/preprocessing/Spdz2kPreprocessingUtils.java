@@ -0,0 +1,97 @@
+package dk.alexandra.fresco.suite.spdz2k.preprocessing;
+
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Helpers for working with the bits of {@link CompUInt} elements in the OT-based preprocessing.
+ */
+final class Spdz2kPreprocessingUtils {
+
+  private Spdz2kPreprocessingUtils() {
+  }
+
+  /**
+   * Computes <i>2<sup>0</sup>, ..., 2<sup>t - 1</sup></i> where <i>t</i> is the composite bit
+   * length of the factory.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> powersOfTwo(
+      CompUIntFactory<PlainT> factory) {
+    int bitLength = factory.getCompositeBitLength();
+    List<PlainT> powers = new ArrayList<>(bitLength);
+    for (int i = 0; i < bitLength; i++) {
+      powers.add(factory.createElement(BigInteger.ONE.shiftLeft(i)));
+    }
+    return powers;
+  }
+
+  /**
+   * Samples elements uniformly at random from the entire ring.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> nextElements(Drbg drbg,
+      CompUIntFactory<PlainT> factory, int numElements) {
+    byte[] bytes = new byte[numElements * factory.getCompositeBitLength() / Byte.SIZE];
+    drbg.nextBytes(bytes);
+    return factory.getSerializer().deserializeList(bytes);
+  }
+
+  /**
+   * Samples elements uniformly at random from <i>{0, ..., 2<sup>s</sup> - 1}</i>, where <i>s</i>
+   * is the high bit length of the factory.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> nextShortElements(Drbg drbg,
+      CompUIntFactory<PlainT> factory, int numElements) {
+    int byteLength = factory.getCompositeBitLength() / Byte.SIZE;
+    int randomLength = factory.getHighBitLength() / Byte.SIZE;
+    byte[] random = new byte[numElements * randomLength];
+    drbg.nextBytes(random);
+    byte[] bytes = new byte[numElements * byteLength];
+    for (int i = 0; i < numElements; i++) {
+      System.arraycopy(random, i * randomLength, bytes, (i + 1) * byteLength - randomLength,
+          randomLength);
+    }
+    return factory.getSerializer().deserializeList(bytes);
+  }
+
+  /**
+   * Copies the elements of a vector to a list.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> List<PlainT> toList(
+      CompUIntVector<PlainT> vector) {
+    List<PlainT> elements = new ArrayList<>(vector.size());
+    for (int i = 0; i < vector.size(); i++) {
+      elements.add(vector.get(i));
+    }
+    return elements;
+  }
+
+  /**
+   * Packs the lowest <i>bitLength</i> bits of each element into a single bit vector, least
+   * significant bit first, such that bit <i>l</i> of element <i>e</i> is at index <i>e *
+   * bitLength + l</i> when read with {@link StrictBitVector#getBit(int, boolean)} from the left.
+   */
+  static <PlainT extends CompUInt<?, ?, PlainT>> StrictBitVector toBits(List<PlainT> elements,
+      int bitLength) {
+    StrictBitVector bits = new StrictBitVector(elements.size() * bitLength);
+    for (int e = 0; e < elements.size(); e++) {
+      byte[] bytes = elements.get(e).toByteArray();
+      for (int l = 0; l < bitLength; l++) {
+        bits.setBit(e * bitLength + l, getBit(bytes, l), false);
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Gets bit <i>l</i>, counting from the least significant bit, of a big-endian byte array.
+   */
+  static boolean getBit(byte[] bytes, int l) {
+    return ((bytes[bytes.length - 1 - l / Byte.SIZE] >>> (l % Byte.SIZE)) & 1) == 1;
+  }
+}
@@ -31,6 +31,7 @@ public class Spdz2kMacCheckComputation<
     implements Computation<Void, ProtocolBuilderNumeric> {
 
   private final CompUIntConverter<HighT, LowT, PlainT> converter;
+  private final CompUIntFactory<PlainT> factory;
   private final ByteSerializer<PlainT> serializer;
   private final Spdz2kDataSupplier<PlainT> supplier;
   private final List<Spdz2kSInt<PlainT>> authenticatedElements;
@@ -54,7 +55,8 @@ public class Spdz2kMacCheckComputation<
     this.authenticatedElements = toCheck.getFirst();
     this.openValues = toCheck.getSecond();
     this.converter = converter;
-    this.serializer = resourcePool.getFactory().getSerializer();
+    this.factory = resourcePool.getFactory();
+    this.serializer = factory.getSerializer();
     this.supplier = resourcePool.getDataSupplier();
     this.randomCoefficients = sampleCoefficients(
         resourcePool.getRandomGenerator(),
@@ -68,7 +70,7 @@ public class Spdz2kMacCheckComputation<
   @Override
   public DRes<Void> buildComputation(ProtocolBuilderNumeric builder) {
     PlainT macKeyShare = supplier.getSecretSharedKey();
-    PlainT y = UInt.innerProduct(openValues, randomCoefficients);
+    PlainT y = factory.innerProduct(openValues, randomCoefficients);
     Spdz2kSInt<PlainT> r = supplier.getNextRandomElementShare();
     return builder
         .seq(seq -> {
@@ -125,7 +127,7 @@ public class Spdz2kMacCheckComputation<
     List<PlainT> macShares = authenticatedElements.stream()
         .map(Spdz2kSInt::getMacShare)
         .collect(Collectors.toList());
-    PlainT mj = UInt.innerProduct(macShares, randomCoefficients);
+    PlainT mj = factory.innerProduct(macShares, randomCoefficients);
     PlainT zj = macKeyShare.multiply(y)
         .subtract(mj)
         .subtract(p.multiply(macKeyShare).shiftLowIntoHigh())
@@ -38,7 +38,7 @@ import java.util.function.Supplier;
  */
 public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
     extends ResourcePoolImpl
-    implements Spdz2kResourcePool<PlainT> {
+    implements Spdz2kResourcePool<PlainT>, Closeable {
 
   private final int effectiveBitLength;
   private final OpenedValueStore<Spdz2kSInt<PlainT>, PlainT> storage;
@@ -151,4 +151,18 @@ public class Spdz2kResourcePoolImpl<PlainT extends CompUInt<?, ?, PlainT>>
     } while (coinTossingProducer.hasNextProtocols());
     return jointSeed.out();
   }
+
+  /**
+   * Closes the data supplier if it holds resources, e.g., the background thread and network of a
+   * {@link dk.alexandra.fresco.suite.spdz2k.resource.storage.Spdz2kOtDataSupplier}.
+   */
+  @Override
+  public void close() {
+    if (supplier instanceof Closeable) {
+      ExceptionConverter.safe(() -> {
+        ((Closeable) supplier).close();
+        return null;
+      }, "Unable to close data supplier");
+    }
+  }
 }
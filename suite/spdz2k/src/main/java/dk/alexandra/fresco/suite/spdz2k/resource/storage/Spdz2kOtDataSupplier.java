@@ -0,0 +1,132 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.BackgroundProducer;
+import dk.alexandra.fresco.framework.util.BackgroundProducer.Buffer;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ValidationUtils;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtPreprocessing;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtSecurityParameters;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+/**
+ * Supplies preprocessing material generated by {@link Spdz2kOtPreprocessing} on a background
+ * thread with its own network.
+ *
+ * <p>For each kind of material, the supplier uses a {@link BackgroundProducer} to keep one batch
+ * ahead of consumption: whenever fewer than a batch of the requested elements are left unconsumed,
+ * the next batch is requested. The first batch of triples is requested up front, while the other
+ * kinds of material are requested on first use. Since the preprocessing is interactive, all
+ * parties must use the same batch size and consume material in the same order.</p>
+ */
+public class Spdz2kOtDataSupplier<PlainT extends CompUInt<?, ?, PlainT>> implements
+    Spdz2kDataSupplier<PlainT>, Closeable {
+
+  private final PlainT macKeyShare;
+  private final BackgroundProducer producer;
+  private final Buffer<Spdz2kTriple<PlainT>> triples;
+  private final List<Buffer<Spdz2kInputMask<PlainT>>> inputMasks;
+  private final Buffer<Spdz2kSInt<PlainT>> bits;
+  private final Buffer<Spdz2kSInt<PlainT>> randomElements;
+  // Only accessed by the background thread
+  private Spdz2kOtPreprocessing<PlainT> preprocessing;
+  // Written by the background thread, read when closing
+  private volatile Network network;
+
+  /**
+   * Creates a new supplier and starts generating the first batch of triples in the background.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param factory factory for ring elements
+   * @param preprocessingNetwork supplier of the network used for preprocessing. This must not be
+   *     the network used by the online phase.
+   * @param drbg source of randomness, only used by the preprocessing
+   * @param securityParameters the security parameters of the preprocessing
+   * @param batchSize the number of elements of each kind generated in each batch
+   */
+  public Spdz2kOtDataSupplier(int myId, int noOfParties, CompUIntFactory<PlainT> factory,
+      Supplier<Network> preprocessingNetwork, Drbg drbg,
+      Spdz2kOtSecurityParameters securityParameters, int batchSize) {
+    ValidationUtils.assertValidId(myId, noOfParties);
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    Objects.requireNonNull(factory);
+    Objects.requireNonNull(preprocessingNetwork);
+    Objects.requireNonNull(drbg);
+    Objects.requireNonNull(securityParameters);
+    this.macKeyShare = Spdz2kOtPreprocessing.createMacKeyShare(factory, drbg);
+    this.producer = new BackgroundProducer("Spdz2k-Preprocessing-" + myId);
+    producer.submit(() -> {
+      this.network = preprocessingNetwork.get();
+      this.preprocessing = new Spdz2kOtPreprocessing<>(myId, noOfParties, factory, macKeyShare,
+          network, drbg, securityParameters);
+    });
+    this.triples = producer.createBuffer(amount -> preprocessing.getTriples(amount), batchSize,
+        batchSize, batchSize);
+    this.inputMasks = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      final int towardPlayerId = partyId;
+      inputMasks.add(producer.createBuffer(
+          amount -> preprocessing.getInputMasks(towardPlayerId, amount), batchSize, batchSize,
+          batchSize));
+    }
+    this.bits = producer.createBuffer(amount -> preprocessing.getRandomBits(amount), batchSize,
+        batchSize, batchSize);
+    this.randomElements = producer.createBuffer(amount -> preprocessing.getRandomElements(amount),
+        batchSize, batchSize, batchSize);
+    triples.fill();
+  }
+
+  @Override
+  public Spdz2kTriple<PlainT> getNextTripleShares() {
+    return triples.take();
+  }
+
+  @Override
+  public Spdz2kInputMask<PlainT> getNextInputMask(int towardPlayerId) {
+    ValidationUtils.assertValidId(towardPlayerId, inputMasks.size());
+    return inputMasks.get(towardPlayerId - 1).take();
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextBitShare() {
+    return bits.take();
+  }
+
+  @Override
+  public PlainT getSecretSharedKey() {
+    return macKeyShare;
+  }
+
+  @Override
+  public Spdz2kSInt<PlainT> getNextRandomElementShare() {
+    return randomElements.take();
+  }
+
+  /**
+   * Stops the background thread and closes the network used for preprocessing. Any consumer
+   * waiting for preprocessing material will fail. Called by {@link
+   * dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl#close()} when the resource
+   * pool using this supplier is closed.
+   */
+  @Override
+  public void close() throws IOException {
+    producer.close();
+    Network network = this.network;
+    if (network instanceof Closeable) {
+      ((Closeable) network).close();
+    }
+  }
+}
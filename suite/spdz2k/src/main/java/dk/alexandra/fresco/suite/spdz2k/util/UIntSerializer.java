@@ -3,6 +3,7 @@ package dk.alexandra.fresco.suite.spdz2k.util;
 import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt;
 import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntFactory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUIntVector;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -60,4 +61,20 @@ public class UIntSerializer<PlainT extends CompUInt<?, ?, PlainT>> implements
     return elements;
   }
 
+  /**
+   * Serializes all elements of a vector into a single array, without creating an intermediate array
+   * per element when the vector is primitive-backed.
+   */
+  public byte[] serialize(CompUIntVector<PlainT> vector) {
+    return vector.toByteArray();
+  }
+
+  /**
+   * Deserializes elements serialized by {@link #serialize(CompUIntVector)} or {@link
+   * #serialize(List)} into a mutable vector.
+   */
+  public CompUIntVector<PlainT> deserializeVector(byte[] bytes) {
+    return factory.createVector(bytes);
+  }
+
 }
@@ -0,0 +1,108 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt192 {
+
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final BigInteger twoTo192 = BigInteger.ONE.shiftLeft(192);
+  private final Random random = new Random(42);
+
+  @Test
+  public void testConstruct() {
+    assertEquals(BigInteger.ZERO, new CompUInt192(BigInteger.ZERO).toBigInteger());
+    assertEquals(BigInteger.ONE, new CompUInt192(BigInteger.ONE).toBigInteger());
+    assertEquals(twoTo64, new CompUInt192(twoTo64).toBigInteger());
+    assertEquals(twoTo128, new CompUInt192(twoTo128).toBigInteger());
+    assertEquals(twoTo192.subtract(BigInteger.ONE),
+        new CompUInt192(twoTo192.subtract(BigInteger.ONE)).toBigInteger());
+    assertEquals(BigInteger.valueOf(0x0102),
+        new CompUInt192(new byte[]{0x01, 0x02}).toBigInteger());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructTooLarge() {
+    new CompUInt192(new byte[25]);
+  }
+
+  @Test
+  public void testArithmetic() {
+    BigInteger[] edgeCases = {BigInteger.ZERO, BigInteger.ONE, twoTo64.subtract(BigInteger.ONE),
+        twoTo128.subtract(BigInteger.ONE), twoTo192.subtract(BigInteger.ONE)};
+    for (BigInteger left : edgeCases) {
+      for (BigInteger right : edgeCases) {
+        assertArithmetic(left, right);
+      }
+    }
+    for (int i = 0; i < 1000; i++) {
+      assertArithmetic(new BigInteger(192, random), new BigInteger(192, random));
+    }
+  }
+
+  private void assertArithmetic(BigInteger left, BigInteger right) {
+    CompUInt192 leftUInt = new CompUInt192(left);
+    CompUInt192 rightUInt = new CompUInt192(right);
+    assertEquals(left.add(right).mod(twoTo192), leftUInt.add(rightUInt).toBigInteger());
+    assertEquals(left.subtract(right).mod(twoTo192), leftUInt.subtract(rightUInt).toBigInteger());
+    assertEquals(left.multiply(right).mod(twoTo192), leftUInt.multiply(rightUInt).toBigInteger());
+    assertEquals(left.negate().mod(twoTo192), leftUInt.negateUInt().toBigInteger());
+  }
+
+  @Test
+  public void testPortions() {
+    BigInteger value = new BigInteger(192, random);
+    CompUInt192 element = new CompUInt192(value);
+    assertEquals(value.mod(twoTo64), element.getLeastSignificant().toBigInteger());
+    assertEquals(value.shiftRight(64), element.getMostSignificant().toBigInteger());
+    assertEquals(value.mod(twoTo128), element.getLeastSignificantAsHigh().toBigInteger());
+    assertEquals(value.shiftLeft(64).mod(twoTo192), element.shiftLowIntoHigh().toBigInteger());
+    assertEquals(64, element.getLowBitLength());
+    assertEquals(128, element.getHighBitLength());
+    assertEquals(192, element.getCompositeBitLength());
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[24];
+    random.nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt192(bytes).toByteArray());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt192(BigInteger.ZERO).isZero());
+    assertFalse(new CompUInt192(twoTo128).isZero());
+  }
+
+  @Test
+  public void testConverter() {
+    CompUIntConverter192 converter = new CompUIntConverter192();
+    BigInteger value = new BigInteger(128, random);
+    assertEquals(value, converter.createFromHigh(new CompUInt128(value)).toBigInteger());
+    assertEquals(BigInteger.valueOf(42), converter.createFromLow(new UInt64(42)).toBigInteger());
+  }
+
+  @Test
+  public void testFactory() {
+    CompUInt192Factory factory = new CompUInt192Factory();
+    assertEquals(twoTo64, factory.getModulus());
+    assertEquals(twoTo192.subtract(BigInteger.ONE),
+        factory.createElement(BigInteger.ONE.negate()).toBigInteger());
+    assertEquals(BigInteger.valueOf(-1),
+        factory.convertToSigned(factory.convertToUnsigned(factory.createElement(-1))));
+    CompUInt192 random = factory.createRandom();
+    assertEquals(random.toBigInteger(), factory.getSerializer()
+        .deserializeList(factory.getSerializer().serialize(Collections.singletonList(random)))
+        .get(0).toBigInteger());
+  }
+
+}
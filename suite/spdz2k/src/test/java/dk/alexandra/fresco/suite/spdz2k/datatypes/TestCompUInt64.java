@@ -0,0 +1,93 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUInt64 {
+
+  private final BigInteger twoTo32 = BigInteger.ONE.shiftLeft(32);
+  private final BigInteger twoTo64 = BigInteger.ONE.shiftLeft(64);
+  private final Random random = new Random(42);
+
+  @Test
+  public void testConstruct() {
+    assertEquals(BigInteger.ZERO, new CompUInt64(BigInteger.ZERO).toBigInteger());
+    assertEquals(BigInteger.ONE, new CompUInt64(BigInteger.ONE).toBigInteger());
+    assertEquals(twoTo32, new CompUInt64(twoTo32).toBigInteger());
+    assertEquals(twoTo64.subtract(BigInteger.ONE),
+        new CompUInt64(twoTo64.subtract(BigInteger.ONE)).toBigInteger());
+    assertEquals(BigInteger.valueOf(0x0102),
+        new CompUInt64(new byte[]{0x01, 0x02}).toBigInteger());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testConstructTooLarge() {
+    new CompUInt64(new byte[9]);
+  }
+
+  @Test
+  public void testArithmetic() {
+    for (int i = 0; i < 100; i++) {
+      BigInteger left = new BigInteger(64, random);
+      BigInteger right = new BigInteger(64, random);
+      CompUInt64 leftUInt = new CompUInt64(left);
+      CompUInt64 rightUInt = new CompUInt64(right);
+      assertEquals(left.add(right).mod(twoTo64), leftUInt.add(rightUInt).toBigInteger());
+      assertEquals(left.subtract(right).mod(twoTo64),
+          leftUInt.subtract(rightUInt).toBigInteger());
+      assertEquals(left.multiply(right).mod(twoTo64),
+          leftUInt.multiply(rightUInt).toBigInteger());
+      assertEquals(left.negate().mod(twoTo64), leftUInt.negateUInt().toBigInteger());
+    }
+  }
+
+  @Test
+  public void testPortions() {
+    BigInteger value = new BigInteger("0123456789abcdef", 16);
+    CompUInt64 element = new CompUInt64(value);
+    assertEquals(new BigInteger("89abcdef", 16), element.getLeastSignificant().toBigInteger());
+    assertEquals(new BigInteger("01234567", 16), element.getMostSignificant().toBigInteger());
+    assertEquals(new BigInteger("89abcdef", 16),
+        element.getLeastSignificantAsHigh().toBigInteger());
+    assertEquals(new BigInteger("89abcdef00000000", 16),
+        element.shiftLowIntoHigh().toBigInteger());
+    assertEquals(32, element.getLowBitLength());
+    assertEquals(32, element.getHighBitLength());
+    assertEquals(64, element.getCompositeBitLength());
+  }
+
+  @Test
+  public void testToByteArray() {
+    byte[] bytes = new byte[8];
+    random.nextBytes(bytes);
+    assertArrayEquals(bytes, new CompUInt64(bytes).toByteArray());
+  }
+
+  @Test
+  public void testIsZero() {
+    assertTrue(new CompUInt64(0L).isZero());
+    assertFalse(new CompUInt64(twoTo32).isZero());
+  }
+
+  @Test
+  public void testFactory() {
+    CompUInt64Factory factory = new CompUInt64Factory();
+    assertEquals(twoTo32, factory.getModulus());
+    assertEquals(twoTo64.subtract(BigInteger.ONE),
+        factory.createElement(BigInteger.ONE.negate()).toBigInteger());
+    assertEquals(BigInteger.valueOf(-1),
+        factory.convertToSigned(factory.convertToUnsigned(factory.createElement(-1))));
+    CompUInt64 random = factory.createRandom();
+    assertEquals(random.toBigInteger(),
+        factory.getSerializer().deserializeList(factory.getSerializer()
+            .serialize(Collections.singletonList(random))).get(0).toBigInteger());
+  }
+
+}
@@ -0,0 +1,140 @@
+package dk.alexandra.fresco.suite.spdz2k.datatypes;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.suite.spdz2k.util.UIntSerializer;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCompUIntVector {
+
+  private final CompUInt128Factory factory = new CompUInt128Factory();
+  private final BigInteger twoTo128 = BigInteger.ONE.shiftLeft(128);
+  private final Random random = new Random(42);
+
+  private List<CompUInt128> randomElements(int size) {
+    List<CompUInt128> elements = new ArrayList<>(size);
+    // include values around the carry boundaries
+    elements.add(new CompUInt128(BigInteger.ONE.shiftLeft(64).subtract(BigInteger.ONE)));
+    elements.add(new CompUInt128(twoTo128.subtract(BigInteger.ONE)));
+    while (elements.size() < size) {
+      elements.add(new CompUInt128(new BigInteger(128, random)));
+    }
+    return elements;
+  }
+
+  private void testArithmetic(CompUIntVector<CompUInt128> vector) {
+    int size = vector.size();
+    List<CompUInt128> initial = randomElements(size);
+    List<CompUInt128> left = randomElements(size);
+    List<CompUInt128> right = randomElements(size);
+    List<CompUInt128> summands = randomElements(size);
+    for (int i = 0; i < size; i++) {
+      vector.set(i, initial.get(i));
+      vector.multiplyAndAdd(i, left.get(i), right.get(i));
+      vector.add(i, summands.get(i));
+    }
+    for (int i = 0; i < size; i++) {
+      BigInteger expected = initial.get(i).toBigInteger()
+          .add(left.get(i).toBigInteger().multiply(right.get(i).toBigInteger()))
+          .add(summands.get(i).toBigInteger())
+          .mod(twoTo128);
+      assertEquals(expected, vector.get(i).toBigInteger());
+    }
+  }
+
+  private void testSerialization(CompUIntVector<CompUInt128> vector) {
+    List<CompUInt128> elements = randomElements(vector.size());
+    byte[] expected = new byte[16 * elements.size()];
+    for (int i = 0; i < elements.size(); i++) {
+      vector.set(i, elements.get(i));
+      System.arraycopy(elements.get(i).toByteArray(), 0, expected, 16 * i, 16);
+    }
+    assertArrayEquals(expected, vector.toByteArray());
+    assertArrayEquals(expected, factory.createVector(expected).toByteArray());
+    assertArrayEquals(expected, factory.getSerializer().serialize(elements));
+  }
+
+  private void testAddVectors(CompUIntVector<CompUInt128> vector) {
+    List<CompUInt128> first = randomElements(vector.size());
+    List<CompUInt128> second = randomElements(vector.size());
+    List<CompUInt128> third = randomElements(vector.size());
+    CompUIntVector<CompUInt128> other = factory.createVector(vector.size());
+    for (int i = 0; i < vector.size(); i++) {
+      vector.set(i, first.get(i));
+      other.set(i, second.get(i));
+    }
+    vector.add(other);
+    vector.addSerialized(factory.getSerializer().serialize(third));
+    for (int i = 0; i < vector.size(); i++) {
+      assertEquals(first.get(i).add(second.get(i)).add(third.get(i)).toBigInteger(),
+          vector.get(i).toBigInteger());
+    }
+  }
+
+  @Test
+  public void testArithmetic() {
+    testArithmetic(new CompUInt128Vector(100));
+    testArithmetic(new GenericCompUIntVector<>(factory, 100));
+  }
+
+  @Test
+  public void testSerialization() {
+    testSerialization(new CompUInt128Vector(10));
+    testSerialization(new GenericCompUIntVector<>(factory, 10));
+  }
+
+  @Test
+  public void testAddVectors() {
+    testAddVectors(new CompUInt128Vector(10));
+    testAddVectors(new GenericCompUIntVector<>(factory, 10));
+  }
+
+  @Test
+  public void testInnerProduct() {
+    List<CompUInt128> left = randomElements(1000);
+    List<CompUInt128> right = randomElements(1000);
+    assertEquals(UInt.innerProduct(left, right).toBigInteger(),
+        factory.innerProduct(left, right).toBigInteger());
+  }
+
+  @Test
+  public void testNewVectorIsZero() {
+    CompUIntVector<CompUInt128> vector = factory.createVector(5);
+    assertEquals(5, vector.size());
+    for (int i = 0; i < vector.size(); i++) {
+      assertTrue(vector.get(i).isZero());
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddSerializedWrongLength() {
+    factory.createVector(2).addSerialized(new byte[16]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAddVectorWrongSize() {
+    factory.createVector(2).add(factory.createVector(3));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCreateFromWrongLength() {
+    factory.createVector(new byte[17]);
+  }
+
+  @Test
+  public void testSerializerVectorPath() {
+    UIntSerializer<CompUInt128> serializer = new UIntSerializer<>(factory);
+    List<CompUInt128> elements = randomElements(4);
+    byte[] bytes = serializer.serialize(elements);
+    CompUIntVector<CompUInt128> vector = serializer.deserializeVector(bytes);
+    assertEquals(elements.get(3).toBigInteger(), vector.get(3).toBigInteger());
+    assertArrayEquals(bytes, serializer.serialize(vector));
+  }
+
+}
@@ -0,0 +1,247 @@
+package dk.alexandra.fresco.suite.spdz2k.resource.storage;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.numeric.ProtocolBuilderNumeric;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.dummy.arithmetic.BasicArithmeticTests;
+import dk.alexandra.fresco.suite.spdz2k.Spdz2kProtocolSuiteK64;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.CompUInt128Factory;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kInputMask;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kSInt;
+import dk.alexandra.fresco.suite.spdz2k.datatypes.Spdz2kTriple;
+import dk.alexandra.fresco.suite.spdz2k.preprocessing.Spdz2kOtSecurityParameters;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePool;
+import dk.alexandra.fresco.suite.spdz2k.resource.Spdz2kResourcePoolImpl;
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TestSpdz2kOtDataSupplier {
+
+  private static final int BATCH_SIZE = 16;
+  private static final CompUInt128Factory factory = new CompUInt128Factory();
+
+  private List<Spdz2kOtDataSupplier<CompUInt128>> setupSuppliers(int noOfParties) {
+    Map<Integer, NetworkConfiguration> netConf =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noOfParties));
+    List<Spdz2kOtDataSupplier<CompUInt128>> suppliers = new ArrayList<>(noOfParties);
+    for (int myId = 1; myId <= noOfParties; myId++) {
+      NetworkConfiguration partyNetConf = netConf.get(myId);
+      suppliers.add(new Spdz2kOtDataSupplier<>(myId, noOfParties, factory,
+          () -> new SocketNetwork(partyNetConf), new AesCtrDrbg(seed(myId)),
+          new Spdz2kOtSecurityParameters(), BATCH_SIZE));
+    }
+    return suppliers;
+  }
+
+  /**
+   * Gets a seed for the preprocessing of a party. Each party needs its own randomness, otherwise
+   * the MAC key shares are equal.
+   */
+  private byte[] seed(int myId) {
+    byte[] seed = new byte[32];
+    seed[0] = (byte) myId;
+    return seed;
+  }
+
+  private void close(Closeable closeable) {
+    ExceptionConverter.safe(() -> {
+      closeable.close();
+      return null;
+    }, "Unable to close supplier");
+  }
+
+  /**
+   * Lets each party consume material on its own thread and returns the results ordered by party.
+   */
+  private <T> List<T> consume(List<Spdz2kOtDataSupplier<CompUInt128>> suppliers,
+      Function<Spdz2kOtDataSupplier<CompUInt128>, T> consumer) throws Exception {
+    ExecutorService executor = Executors.newFixedThreadPool(suppliers.size());
+    try {
+      List<Future<T>> futures = suppliers.stream()
+          .map(supplier -> executor.submit(() -> consumer.apply(supplier)))
+          .collect(Collectors.toList());
+      List<T> results = new ArrayList<>(suppliers.size());
+      for (Future<T> future : futures) {
+        results.add(future.get());
+      }
+      return results;
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void testSupplier(int noOfParties) throws Exception {
+    List<Spdz2kOtDataSupplier<CompUInt128>> suppliers = setupSuppliers(noOfParties);
+    try {
+      CompUInt128 macKey = suppliers.stream()
+          .map(Spdz2kDataSupplier::getSecretSharedKey)
+          .reduce(CompUInt128::add).get();
+      int amount = BATCH_SIZE + 1;
+      List<List<Spdz2kTriple<CompUInt128>>> triples =
+          consume(suppliers, supplier -> next(amount, supplier::getNextTripleShares));
+      for (int i = 0; i < amount; i++) {
+        final int index = i;
+        assertTripleValid(recombineTriples(triples.stream()
+            .map(partyTriples -> partyTriples.get(index))
+            .collect(Collectors.toList())), macKey);
+      }
+      for (int towardPlayerId = 1; towardPlayerId <= noOfParties; towardPlayerId++) {
+        final int inputter = towardPlayerId;
+        List<Spdz2kInputMask<CompUInt128>> masks =
+            consume(suppliers, supplier -> supplier.getNextInputMask(inputter));
+        Spdz2kSInt<CompUInt128> recombined = recombine(masks.stream()
+            .map(Spdz2kInputMask::getMaskShare)
+            .collect(Collectors.toList()));
+        assertMacCorrect(recombined, macKey);
+        for (int partyId = 1; partyId <= noOfParties; partyId++) {
+          if (partyId == inputter) {
+            assertEquals(masks.get(partyId - 1).getOpenValue().toBigInteger(),
+                recombined.getShare().toBigInteger());
+          } else {
+            assertNull(masks.get(partyId - 1).getOpenValue());
+          }
+        }
+      }
+      List<List<Spdz2kSInt<CompUInt128>>> bits =
+          consume(suppliers, supplier -> next(amount, supplier::getNextBitShare));
+      int ones = 0;
+      for (int i = 0; i < amount; i++) {
+        final int index = i;
+        Spdz2kSInt<CompUInt128> bit = recombine(bits.stream()
+            .map(partyBits -> partyBits.get(index))
+            .collect(Collectors.toList()));
+        BigInteger value = bit.getShare().toBigInteger();
+        assertTrue("Not a bit " + value,
+            value.equals(BigInteger.ZERO) || value.equals(BigInteger.ONE));
+        assertMacCorrect(bit, macKey);
+        ones += value.intValue();
+      }
+      assertTrue(ones > 0 && ones < amount);
+      List<Spdz2kSInt<CompUInt128>> elements =
+          consume(suppliers, Spdz2kDataSupplier::getNextRandomElementShare);
+      assertMacCorrect(recombine(elements), macKey);
+    } finally {
+      suppliers.forEach(this::close);
+    }
+  }
+
+  private <T> List<T> next(int amount, Supplier<T> supplier) {
+    List<T> elements = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      elements.add(supplier.get());
+    }
+    return elements;
+  }
+
+  @Test
+  public void testSupplierTwoParties() throws Exception {
+    testSupplier(2);
+  }
+
+  @Test
+  public void testSupplierThreeParties() throws Exception {
+    testSupplier(3);
+  }
+
+  private void runTest(
+      TestThreadFactory<Spdz2kResourcePool<CompUInt128>, ProtocolBuilderNumeric> f,
+      int noOfParties) {
+    List<Integer> ports = NetworkUtil.getFreePorts(3 * noOfParties);
+    Map<Integer, NetworkConfiguration> netConf =
+        NetworkUtil.getNetworkConfigurations(ports.subList(0, noOfParties));
+    Map<Integer, NetworkConfiguration> coinTossingNetConf =
+        NetworkUtil.getNetworkConfigurations(ports.subList(noOfParties, 2 * noOfParties));
+    Map<Integer, NetworkConfiguration> preprocessingNetConf =
+        NetworkUtil.getNetworkConfigurations(ports.subList(2 * noOfParties, ports.size()));
+    Map<Integer, TestThreadConfiguration<Spdz2kResourcePool<CompUInt128>,
+        ProtocolBuilderNumeric>> conf = new HashMap<>();
+    for (int playerId : netConf.keySet()) {
+      Spdz2kProtocolSuiteK64 suite = new Spdz2kProtocolSuiteK64();
+      BatchedProtocolEvaluator<Spdz2kResourcePool<CompUInt128>> evaluator =
+          new BatchedProtocolEvaluator<>(EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(),
+              suite);
+      conf.put(playerId, new TestThreadConfiguration<>(
+          new SecureComputationEngineImpl<>(suite, evaluator),
+          () -> {
+            Spdz2kOtDataSupplier<CompUInt128> supplier = new Spdz2kOtDataSupplier<>(playerId,
+                noOfParties, factory,
+                () -> new SocketNetwork(preprocessingNetConf.get(playerId)),
+                new AesCtrDrbg(seed(playerId)), new Spdz2kOtSecurityParameters(), BATCH_SIZE);
+            Spdz2kResourcePool<CompUInt128> resourcePool = new Spdz2kResourcePoolImpl<>(
+                playerId, noOfParties, null, new Spdz2kOpenedValueStoreImpl<>(), supplier,
+                factory);
+            resourcePool.initializeJointRandomness(
+                () -> new SocketNetwork(coinTossingNetConf.get(playerId)), AesCtrDrbg::new, 32);
+            return resourcePool;
+          },
+          () -> new SocketNetwork(netConf.get(playerId))));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  @Test
+  public void testSimpleMultAndAdd() {
+    runTest(new BasicArithmeticTests.TestSimpleMultAndAdd<>(), 2);
+  }
+
+  @Test
+  public void testSumAndMultThreeParties() {
+    runTest(new BasicArithmeticTests.TestSumAndMult<>(), 3);
+  }
+
+  private Spdz2kSInt<CompUInt128> recombine(List<Spdz2kSInt<CompUInt128>> shares) {
+    return shares.stream().reduce(Spdz2kSInt::add).get();
+  }
+
+  private Spdz2kTriple<CompUInt128> recombineTriples(List<Spdz2kTriple<CompUInt128>> triples) {
+    List<Spdz2kSInt<CompUInt128>> left = new ArrayList<>(triples.size());
+    List<Spdz2kSInt<CompUInt128>> right = new ArrayList<>(triples.size());
+    List<Spdz2kSInt<CompUInt128>> product = new ArrayList<>(triples.size());
+    for (Spdz2kTriple<CompUInt128> triple : triples) {
+      left.add(triple.getLeft());
+      right.add(triple.getRight());
+      product.add(triple.getProduct());
+    }
+    return new Spdz2kTriple<>(recombine(left), recombine(right), recombine(product));
+  }
+
+  private void assertMacCorrect(Spdz2kSInt<CompUInt128> recombined, CompUInt128 macKey) {
+    assertArrayEquals(
+        macKey.multiply(recombined.getShare()).toByteArray(),
+        recombined.getMacShare().toByteArray());
+  }
+
+  private void assertTripleValid(Spdz2kTriple<CompUInt128> recombined, CompUInt128 macKey) {
+    assertMacCorrect(recombined.getLeft(), macKey);
+    assertMacCorrect(recombined.getRight(), macKey);
+    assertMacCorrect(recombined.getProduct(), macKey);
+    assertEquals(recombined.getProduct().getShare().toBigInteger(),
+        recombined.getLeft().getShare().multiply(recombined.getRight().getShare()).toBigInteger());
+  }
+}
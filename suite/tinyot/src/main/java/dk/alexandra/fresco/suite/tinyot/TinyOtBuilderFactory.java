@@ -0,0 +1,89 @@
+package dk.alexandra.fresco.suite.tinyot;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.builder.binary.Binary;
+import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtAndProtocol;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtInputProtocol;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtNotProtocol;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtOpenToAllProtocol;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtOpenToPartyProtocol;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtRandomBitProtocol;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtXorProtocol;
+
+/**
+ * Basic binary operations for the TinyOT protocol suite.
+ */
+public class TinyOtBuilderFactory implements BuilderFactoryBinary {
+
+  private final TinyOtResourcePool resourcePool;
+
+  public TinyOtBuilderFactory(TinyOtResourcePool resourcePool) {
+    this.resourcePool = resourcePool;
+  }
+
+  @Override
+  public Binary createBinary(ProtocolBuilderBinary builder) {
+    return new Binary() {
+
+      @Override
+      public DRes<SBool> known(boolean known) {
+        TinyOtSBool value = TinyOtSBool
+            .known(known, resourcePool.getMacKeyShare(), resourcePool.getMyId() == 1);
+        return () -> value;
+      }
+
+      @Override
+      public DRes<SBool> input(boolean in, int inputter) {
+        TinyOtInputProtocol p = new TinyOtInputProtocol(in, inputter);
+        builder.append(p);
+        return p;
+      }
+
+      @Override
+      public DRes<SBool> randomBit() {
+        TinyOtRandomBitProtocol p = new TinyOtRandomBitProtocol();
+        builder.append(p);
+        return p;
+      }
+
+      @Override
+      public DRes<Boolean> open(DRes<SBool> toOpen) {
+        TinyOtOpenToAllProtocol p = new TinyOtOpenToAllProtocol(toOpen);
+        builder.append(p);
+        return p;
+      }
+
+      @Override
+      public DRes<Boolean> open(DRes<SBool> toOpen, int towardsPartyId) {
+        TinyOtOpenToPartyProtocol p = new TinyOtOpenToPartyProtocol(toOpen, towardsPartyId);
+        builder.append(p);
+        return p;
+      }
+
+      @Override
+      public DRes<SBool> and(DRes<SBool> left, DRes<SBool> right) {
+        TinyOtAndProtocol p = new TinyOtAndProtocol(left, right);
+        builder.append(p);
+        return p;
+      }
+
+      @Override
+      public DRes<SBool> xor(DRes<SBool> left, DRes<SBool> right) {
+        TinyOtXorProtocol p = new TinyOtXorProtocol(left, right);
+        builder.append(p);
+        return p;
+      }
+
+      @Override
+      public DRes<SBool> not(DRes<SBool> in) {
+        TinyOtNotProtocol p = new TinyOtNotProtocol(in);
+        builder.append(p);
+        return p;
+      }
+    };
+  }
+}
@@ -0,0 +1,33 @@
+package dk.alexandra.fresco.suite.tinyot;
+
+import dk.alexandra.fresco.framework.builder.binary.BuilderFactoryBinary;
+import dk.alexandra.fresco.suite.ProtocolSuiteBinary;
+
+/**
+ * Actively secure protocol suite for Boolean circuits with any number of parties, in the style of
+ * TinyOT, based on authenticated bit triples from the bitTriples tool (see <a
+ * href="https://eprint.iacr.org/2015/901">https://eprint.iacr.org/2015/901</a>).
+ *
+ * <p>
+ * Each secret bit is XOR shared among the parties along with a share of a MAC under a global MAC
+ * key, which is itself XOR shared among the parties. XOR and NOT are local operations, while AND
+ * consumes a bit triple and opens two bits. The opened values are stored and checked in batches by
+ * {@link TinyOtRoundSynchronization}, which always checks all values before the result of an
+ * output protocol is used. The triples are supplied by a {@link
+ * dk.alexandra.fresco.suite.tinyot.storage.TinyOtTripleSupplier}, e.g. {@link
+ * dk.alexandra.fresco.suite.tinyot.storage.TinyOtBitTripleSupplier} which generates triples in the
+ * background while the online phase runs.
+ * </p>
+ */
+public class TinyOtProtocolSuite implements ProtocolSuiteBinary<TinyOtResourcePool> {
+
+  @Override
+  public BuilderFactoryBinary init(TinyOtResourcePool resourcePool) {
+    return new TinyOtBuilderFactory(resourcePool);
+  }
+
+  @Override
+  public RoundSynchronization<TinyOtResourcePool> createRoundSynchronization() {
+    return new TinyOtRoundSynchronization();
+  }
+}
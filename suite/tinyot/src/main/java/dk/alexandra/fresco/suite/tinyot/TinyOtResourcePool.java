@@ -0,0 +1,36 @@
+package dk.alexandra.fresco.suite.tinyot;
+
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinyot.storage.TinyOtTripleSupplier;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePool;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+
+/**
+ * Resource pool for the TinyOT protocol suite.
+ */
+public interface TinyOtResourcePool extends BitTripleResourcePool {
+
+  /**
+   * Gets the supplier of preprocessed bit triples.
+   *
+   * @return the triple supplier
+   */
+  TinyOtTripleSupplier getTripleSupplier();
+
+  /**
+   * Gets the store of opened values which have not yet been MAC checked.
+   *
+   * @return the opened value store
+   */
+  OpenedValueStore<AuthenticatedElement, Boolean> getOpenedValueStore();
+
+  /**
+   * Gets this party's share of the global MAC key.
+   *
+   * @return the MAC key share
+   */
+  default StrictBitVector getMacKeyShare() {
+    return getTripleSupplier().getMacKeyShare();
+  }
+}
@@ -0,0 +1,79 @@
+package dk.alexandra.fresco.suite.tinyot;
+
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.OpenedValueStoreImpl;
+import dk.alexandra.fresco.suite.tinyot.storage.TinyOtTripleSupplier;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePoolImpl;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleSecurityParameters;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import java.io.Closeable;
+import java.util.Objects;
+
+/**
+ * Default implementation of {@link TinyOtResourcePool}.
+ */
+public class TinyOtResourcePoolImpl extends BitTripleResourcePoolImpl
+    implements TinyOtResourcePool, Closeable {
+
+  private final TinyOtTripleSupplier tripleSupplier;
+  private final OpenedValueStore<AuthenticatedElement, Boolean> openedValueStore;
+
+  /**
+   * Creates a new resource pool using the default security parameters.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param tripleSupplier the supplier of bit triples
+   * @param drbg source of randomness used for the MAC checks
+   */
+  public TinyOtResourcePoolImpl(int myId, int noOfParties, TinyOtTripleSupplier tripleSupplier,
+      Drbg drbg) {
+    this(myId, noOfParties, new OpenedValueStoreImpl<>(), tripleSupplier, drbg,
+        new BitTripleSecurityParameters());
+  }
+
+  /**
+   * Creates a new resource pool.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param openedValueStore the store of opened values awaiting a MAC check
+   * @param tripleSupplier the supplier of bit triples
+   * @param drbg source of randomness used for the MAC checks
+   * @param securityParameters the security parameters used for the MAC checks
+   */
+  public TinyOtResourcePoolImpl(int myId, int noOfParties,
+      OpenedValueStore<AuthenticatedElement, Boolean> openedValueStore,
+      TinyOtTripleSupplier tripleSupplier, Drbg drbg,
+      BitTripleSecurityParameters securityParameters) {
+    super(myId, noOfParties, 0, drbg, securityParameters);
+    this.openedValueStore = Objects.requireNonNull(openedValueStore);
+    this.tripleSupplier = Objects.requireNonNull(tripleSupplier);
+  }
+
+  @Override
+  public TinyOtTripleSupplier getTripleSupplier() {
+    return tripleSupplier;
+  }
+
+  @Override
+  public OpenedValueStore<AuthenticatedElement, Boolean> getOpenedValueStore() {
+    return openedValueStore;
+  }
+
+  /**
+   * Closes the triple supplier if it holds resources, e.g., the background thread and network of a
+   * {@link dk.alexandra.fresco.suite.tinyot.storage.TinyOtBitTripleSupplier}.
+   */
+  @Override
+  public void close() {
+    if (tripleSupplier instanceof Closeable) {
+      ExceptionConverter.safe(() -> {
+        ((Closeable) tripleSupplier).close();
+        return null;
+      }, "Unable to close triple supplier");
+    }
+  }
+}
@@ -0,0 +1,180 @@
+package dk.alexandra.fresco.suite.tinyot;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.ByteSerializer;
+import dk.alexandra.fresco.framework.util.ByteArrayHelper;
+import dk.alexandra.fresco.framework.util.OpenedValueStore;
+import dk.alexandra.fresco.framework.util.Pair;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import dk.alexandra.fresco.suite.tinyot.protocols.TinyOtOutputProtocol;
+import dk.alexandra.fresco.tools.bitTriples.cointossing.CoinTossingMpc;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import dk.alexandra.fresco.tools.bitTriples.prg.BytePrg;
+import dk.alexandra.fresco.tools.bitTriples.prg.BytePrgImpl;
+import dk.alexandra.fresco.tools.bitTriples.utils.VectorOperations;
+import dk.alexandra.fresco.tools.commitment.HashBasedCommitment;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Round synchronization for the TinyOT protocol suite, running a batched MAC check on the values
+ * opened so far.
+ *
+ * <p>
+ * The check is run before a batch containing output protocols, after such a batch, at the end of
+ * the evaluation, and whenever the number of unchecked values exceeds a threshold. As in the MAC
+ * check of the bitTriples tool, the parties verify random linear combinations of all unchecked
+ * values and open the corresponding combinations of their MAC shares. The combinations are sampled
+ * from a fresh joint seed obtained by coin tossing after the values have been opened, and one
+ * combination is checked per bit of statistical security. All combinations are opened together, so
+ * the cost of a check is a constant number of rounds independent of the number of values checked.
+ * The parties commit to their combinations before opening them, so a corrupt party cannot choose
+ * its combinations after seeing those of the honest parties.
+ * </p>
+ */
+public class TinyOtRoundSynchronization implements RoundSynchronization<TinyOtResourcePool> {
+
+  private static final int DEFAULT_VALUE_THRESHOLD = 1000000;
+  private final int openValueThreshold;
+  private boolean isCheckRequired = false;
+
+  /**
+   * Creates a new round synchronization.
+   *
+   * @param openValueThreshold the number of unchecked values after which a MAC check is forced
+   */
+  public TinyOtRoundSynchronization(int openValueThreshold) {
+    this.openValueThreshold = openValueThreshold;
+  }
+
+  public TinyOtRoundSynchronization() {
+    this(DEFAULT_VALUE_THRESHOLD);
+  }
+
+  protected void doMacCheck(TinyOtResourcePool resourcePool, Network network) {
+    Pair<List<AuthenticatedElement>, List<Boolean>> values =
+        resourcePool.getOpenedValueStore().popValues();
+    List<AuthenticatedElement> shares = values.getFirst();
+    List<Boolean> opened = values.getSecond();
+    // The random vectors are sampled as a whole number of bytes
+    int size = (opened.size() + Byte.SIZE - 1) / Byte.SIZE * Byte.SIZE;
+    int macLength = resourcePool.getMacKeyShare().getSize();
+    BytePrg jointSampler = new BytePrgImpl(new CoinTossingMpc(resourcePool, network)
+        .generateJointSeed(resourcePool.getPrgSeedBitLength()));
+    // Each random linear combination catches an error with probability one half, so we check one
+    // combination per bit of statistical security
+    int repetitions = resourcePool.getStatisticalSecurityByteParameter();
+    int macBytes = macLength / Byte.SIZE;
+    byte[] sigmas = new byte[repetitions * macBytes];
+    for (int k = 0; k < repetitions; k++) {
+      StrictBitVector randomElement = jointSampler.getNext(size);
+      StrictBitVector sigma = new StrictBitVector(macLength);
+      boolean b = false;
+      for (int i = 0; i < opened.size(); i++) {
+        if (randomElement.getBit(i, false)) {
+          sigma.xor(shares.get(i).getMac());
+          b ^= opened.get(i);
+        }
+      }
+      if (b) {
+        sigma.xor(resourcePool.getMacKeyShare());
+      }
+      System.arraycopy(sigma.toByteArray(), 0, sigmas, k * macBytes, macBytes);
+    }
+    byte[] sum = new byte[sigmas.length];
+    for (byte[] partySigmas : commitAndOpen(sigmas, resourcePool, network)) {
+      if (partySigmas.length != sum.length) {
+        throw new MaliciousException("Mac check values have wrong length");
+      }
+      ByteArrayHelper.xor(sum, partySigmas);
+    }
+    if (!VectorOperations.isZero(new StrictBitVector(sum))) {
+      throw new MaliciousException("Mac check failed");
+    }
+  }
+
+  /**
+   * Commits to a value, broadcasts the commitment, and opens it once all parties have committed.
+   * This ensures that no party can choose its value after seeing the values of the others.
+   *
+   * @param value the value to commit to
+   * @return the values of all parties, ordered by party id
+   */
+  private List<byte[]> commitAndOpen(byte[] value, TinyOtResourcePool resourcePool,
+      Network network) {
+    ByteSerializer<HashBasedCommitment> serializer = resourcePool.getCommitmentSerializer();
+    HashBasedCommitment ownCommitment = new HashBasedCommitment();
+    byte[] opening =
+        ownCommitment.commit(resourcePool.getMyId(), resourcePool.getRandomGenerator(), value);
+    List<HashBasedCommitment> commitments =
+        broadcast(serializer.serialize(ownCommitment), resourcePool, network).stream()
+            .map(serializer::deserialize)
+            .collect(Collectors.toList());
+    network.sendToAll(opening);
+    List<byte[]> openings = network.receiveFromAll();
+    List<byte[]> values = new ArrayList<>(resourcePool.getNoOfParties());
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      values.add(commitments.get(partyId - 1).open(partyId, openings.get(partyId - 1)));
+    }
+    return values;
+  }
+
+  /**
+   * Sends a message to all parties and receives theirs, validating that all parties received the
+   * same messages.
+   */
+  private List<byte[]> broadcast(byte[] message, TinyOtResourcePool resourcePool,
+      Network network) {
+    network.sendToAll(message);
+    List<byte[]> received = network.receiveFromAll();
+    if (resourcePool.getNoOfParties() > 2) {
+      MessageDigest digest = resourcePool.getMessageDigest();
+      for (byte[] partyMessage : received) {
+        digest.update(partyMessage);
+      }
+      byte[] ownDigest = digest.digest();
+      network.sendToAll(ownDigest);
+      for (byte[] otherDigest : network.receiveFromAll()) {
+        if (!Arrays.equals(ownDigest, otherDigest)) {
+          throw new MaliciousException("Broadcast validation failed");
+        }
+      }
+    }
+    return received;
+  }
+
+  @Override
+  public void finishedBatch(int gatesEvaluated, TinyOtResourcePool resourcePool,
+      Network network) {
+    OpenedValueStore<AuthenticatedElement, Boolean> store = resourcePool.getOpenedValueStore();
+    if (isCheckRequired || store.exceedsThreshold(openValueThreshold)) {
+      doMacCheck(resourcePool, network);
+      isCheckRequired = false;
+    }
+  }
+
+  @Override
+  public void finishedEval(TinyOtResourcePool resourcePool, Network network) {
+    if (resourcePool.getOpenedValueStore().hasPendingValues()) {
+      doMacCheck(resourcePool, network);
+    }
+  }
+
+  @Override
+  public void beforeBatch(ProtocolCollection<TinyOtResourcePool> protocols,
+      TinyOtResourcePool resourcePool, Network network) {
+    isCheckRequired = StreamSupport.stream(protocols.spliterator(), false)
+        .anyMatch(p -> p instanceof TinyOtOutputProtocol);
+    OpenedValueStore<AuthenticatedElement, Boolean> store = resourcePool.getOpenedValueStore();
+    if (store.hasPendingValues() && isCheckRequired) {
+      doMacCheck(resourcePool, network);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+package dk.alexandra.fresco.suite.tinyot.datatypes;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * A random authenticated bit used to mask an input, together with the material needed to open it
+ * towards a single party in an authenticated way.
+ *
+ * <p>
+ * Besides the share of the mask under the global MAC key, each party holds a MAC of its share
+ * under the MAC key share of every other party, and a key for the share of every other party under
+ * its own MAC key share. That is, for parties <i>i</i> and <i>j</i>, party <i>j</i> holds its share
+ * <i>r<sub>j</sub></i> and a MAC <i>K<sub>i</sub>[r<sub>j</sub>] + r<sub>j</sub>&Delta;<sub>i</sub>
+ * </i>, and party <i>i</i> holds the key <i>K<sub>i</sub>[r<sub>j</sub>]</i>. This lets party
+ * <i>i</i> check the shares sent to it using only its own key. Since the pairwise MACs are created
+ * independently of the global sharing, the mask also comes with a sharing of zero under the global
+ * key, which is only correct if the pairwise MACs are for the same shares as the global sharing.
+ * This sharing must be MAC checked like an opened value.
+ * </p>
+ */
+public class TinyOtInputMask {
+
+  private final AuthenticatedElement mask;
+  private final AuthenticatedElement zero;
+  private final Map<Integer, StrictBitVector> macs;
+  private final Map<Integer, StrictBitVector> keys;
+
+  /**
+   * Creates a new input mask.
+   *
+   * @param mask this party's share of the mask under the global MAC key
+   * @param zero this party's share of the zero sharing relating the pairwise MACs to the mask
+   * @param macs the MACs of this party's share under the key of each other party, by party id
+   * @param keys this party's keys for the shares of each other party, by party id
+   */
+  public TinyOtInputMask(AuthenticatedElement mask, AuthenticatedElement zero,
+      Map<Integer, StrictBitVector> macs, Map<Integer, StrictBitVector> keys) {
+    this.mask = Objects.requireNonNull(mask);
+    this.zero = Objects.requireNonNull(zero);
+    this.macs = Objects.requireNonNull(macs);
+    this.keys = Objects.requireNonNull(keys);
+  }
+
+  /**
+   * Gets this party's share of the mask under the global MAC key.
+   *
+   * @return the share of the mask
+   */
+  public AuthenticatedElement getMask() {
+    return mask;
+  }
+
+  /**
+   * Gets this party's share of the zero sharing which must be MAC checked to ensure that the
+   * pairwise MACs are for the shares of the mask.
+   *
+   * @return the share of zero
+   */
+  public AuthenticatedElement getZero() {
+    return zero;
+  }
+
+  /**
+   * Gets the MAC of this party's share of the mask under the MAC key share of another party.
+   *
+   * @param partyId the id of the party holding the key
+   * @return the MAC
+   */
+  public StrictBitVector getMac(int partyId) {
+    return macs.get(partyId);
+  }
+
+  /**
+   * Gets this party's key for the share of the mask held by another party.
+   *
+   * @param partyId the id of the party holding the share
+   * @return the key
+   */
+  public StrictBitVector getKey(int partyId) {
+    return keys.get(partyId);
+  }
+
+  @Override
+  public String toString() {
+    return "TinyOtInputMask [mask=" + mask + "]";
+  }
+}
@@ -0,0 +1,109 @@
+package dk.alexandra.fresco.suite.tinyot.datatypes;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import java.util.Objects;
+
+/**
+ * A secret shared and authenticated bit in the TinyOT protocol suite.
+ *
+ * <p>
+ * Each party holds an additive (XOR) share of the bit <i>x</i> along with a share of its MAC, such
+ * that the sum of all MAC shares is <i>x&Delta;</i>, where <i>&Delta;</i> is the sum of the MAC key
+ * shares of the parties.
+ * </p>
+ */
+public class TinyOtSBool implements SBool {
+
+  private final AuthenticatedElement value;
+
+  /**
+   * Creates a new bit from an authenticated share.
+   *
+   * @param value this party's share of the bit and its MAC
+   */
+  public TinyOtSBool(AuthenticatedElement value) {
+    this.value = Objects.requireNonNull(value);
+  }
+
+  /**
+   * Creates a sharing of a publicly known bit. Party one holds the bit as its share, and all parties
+   * hold the bit times their MAC key share as their MAC share.
+   *
+   * @param bit the known bit
+   * @param macKeyShare this party's share of the MAC key
+   * @param isPartyOne whether this is party one
+   * @return the sharing of the known bit
+   */
+  public static TinyOtSBool known(boolean bit, StrictBitVector macKeyShare, boolean isPartyOne) {
+    StrictBitVector mac = new StrictBitVector(macKeyShare.getSize());
+    if (bit) {
+      mac.xor(macKeyShare);
+    }
+    return new TinyOtSBool(new AuthenticatedElement(bit && isPartyOne, mac));
+  }
+
+  /**
+   * Computes the XOR of this and another shared bit. This is a local operation.
+   *
+   * @param other the other bit
+   * @return the XOR of the bits
+   */
+  public TinyOtSBool xor(TinyOtSBool other) {
+    return new TinyOtSBool(value.xor(other.value));
+  }
+
+  /**
+   * Computes the XOR of this and a publicly known bit. This is a local operation.
+   *
+   * @param bit the known bit
+   * @param macKeyShare this party's share of the MAC key
+   * @param isPartyOne whether this is party one
+   * @return the XOR of this and the known bit
+   */
+  public TinyOtSBool xorKnown(boolean bit, StrictBitVector macKeyShare, boolean isPartyOne) {
+    if (!bit) {
+      return this;
+    }
+    return xor(known(true, macKeyShare, isPartyOne));
+  }
+
+  /**
+   * Computes the AND of this and a publicly known bit. This is a local operation.
+   *
+   * @param bit the known bit
+   * @return the AND of this and the known bit
+   */
+  public TinyOtSBool and(boolean bit) {
+    return new TinyOtSBool(value.and(bit));
+  }
+
+  /**
+   * Gets this party's share of the bit and its MAC.
+   *
+   * @return the authenticated share
+   */
+  public AuthenticatedElement getValue() {
+    return value;
+  }
+
+  /**
+   * Gets this party's share of the bit.
+   *
+   * @return the share
+   */
+  public boolean getShare() {
+    return value.getBit();
+  }
+
+  @Override
+  public SBool out() {
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return "TinyOtSBool [value=" + value + "]";
+  }
+}
@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+import dk.alexandra.fresco.tools.bitTriples.elements.MultiplicationTriple;
+import java.util.List;
+
+/**
+ * AND of two secret shared bits <i>x</i> and <i>y</i> using an authenticated bit triple <i>(a, b,
+ * c)</i> with <i>c = ab</i>.
+ *
+ * <p>
+ * The parties open <i>d = x + a</i> and <i>e = y + b</i>, both packed into a single byte, and
+ * compute their share of the output as <i>c + db + ea + de</i>. The opened values are stored for a
+ * later batched MAC check, see {@link dk.alexandra.fresco.suite.tinyot.TinyOtRoundSynchronization}.
+ * </p>
+ */
+public class TinyOtAndProtocol extends TinyOtNativeProtocol<SBool> {
+
+  private final DRes<SBool> left;
+  private final DRes<SBool> right;
+  private TinyOtSBool epsilon;
+  private TinyOtSBool delta;
+  private MultiplicationTriple triple;
+  private TinyOtSBool out;
+
+  public TinyOtAndProtocol(DRes<SBool> left, DRes<SBool> right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    if (round == 0) {
+      triple = resourcePool.getTripleSupplier().getNextTriple();
+      epsilon = ((TinyOtSBool) left.out()).xor(new TinyOtSBool(triple.getLeft()));
+      delta = ((TinyOtSBool) right.out()).xor(new TinyOtSBool(triple.getRight()));
+      network.sendToAll(new byte[]{toByte(epsilon.getShare(), delta.getShare())});
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<byte[]> shares = network.receiveFromAll();
+      byte opened = 0;
+      for (byte[] share : shares) {
+        opened ^= share[0];
+      }
+      boolean openedEpsilon = (opened & 1) != 0;
+      boolean openedDelta = (opened & 2) != 0;
+      resourcePool.getOpenedValueStore().pushOpenedValue(epsilon.getValue(), openedEpsilon);
+      resourcePool.getOpenedValueStore().pushOpenedValue(delta.getValue(), openedDelta);
+      StrictBitVector macKeyShare = resourcePool.getMacKeyShare();
+      out = new TinyOtSBool(triple.getProduct())
+          .xor(new TinyOtSBool(triple.getRight()).and(openedEpsilon))
+          .xor(new TinyOtSBool(triple.getLeft()).and(openedDelta))
+          .xorKnown(openedEpsilon && openedDelta, macKeyShare, resourcePool.getMyId() == 1);
+      triple = null;
+      epsilon = null;
+      delta = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  private static byte toByte(boolean epsilon, boolean delta) {
+    return (byte) ((epsilon ? 1 : 0) | (delta ? 2 : 0));
+  }
+
+  @Override
+  public SBool out() {
+    return out;
+  }
+}
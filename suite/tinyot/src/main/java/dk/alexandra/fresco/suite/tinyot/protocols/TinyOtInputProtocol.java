@@ -0,0 +1,77 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+
+/**
+ * Secret shares a bit known by one party.
+ *
+ * <p>
+ * The parties take a random input mask <i>r</i> and open it towards the inputting party, who
+ * broadcasts the masked input <i>e = x + r</i>. The broadcast is validated by comparing digests,
+ * and the parties compute their shares of the input as <i>r + e</i>.
+ * </p>
+ *
+ * <p>
+ * The other parties send their shares of <i>r</i> to the inputting party along with the MACs of
+ * the shares under the MAC key share of the inputting party, who checks them using its own keys.
+ * The zero sharing of the input mask is stored for the next batched MAC check, which ensures that
+ * the MACs are for the shares of <i>r</i>.
+ * </p>
+ */
+public class TinyOtInputProtocol extends TinyOtNativeProtocol<SBool> {
+
+  private final boolean input;
+  private final int inputter;
+  private TinyOtInputMask mask;
+  private boolean masked;
+  private byte[] digest;
+  private TinyOtSBool out;
+
+  public TinyOtInputProtocol(boolean input, int inputter) {
+    this.input = input;
+    this.inputter = inputter;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    int myId = resourcePool.getMyId();
+    if (round == 0) {
+      mask = resourcePool.getTripleSupplier().getNextInputMask();
+      if (myId != inputter) {
+        sendMask(mask, inputter, network);
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 1) {
+      if (myId == inputter) {
+        boolean maskValue = receiveMask(mask, resourcePool, network);
+        network.sendToAll(new byte[]{BooleanSerializer.toBytes(input ^ maskValue)});
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else if (round == 2) {
+      byte[] received = network.receive(inputter);
+      masked = BooleanSerializer.fromBytes(received[0]);
+      digest = sendBroadcastValidation(resourcePool.getMessageDigest(), network, received);
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      if (!receiveBroadcastValidation(network, digest)) {
+        throw new MaliciousException("Broadcast digests did not match");
+      }
+      resourcePool.getOpenedValueStore().pushOpenedValue(mask.getZero(), false);
+      out = new TinyOtSBool(mask.getMask())
+          .xorKnown(masked, resourcePool.getMacKeyShare(), myId == 1);
+      mask = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public SBool out() {
+    return out;
+  }
+}
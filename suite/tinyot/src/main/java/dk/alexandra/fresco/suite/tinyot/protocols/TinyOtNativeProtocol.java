@@ -0,0 +1,82 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Base class of the native protocols of the TinyOT protocol suite.
+ *
+ * @param <OutputT> the output type of the protocol
+ */
+public abstract class TinyOtNativeProtocol<OutputT>
+    implements NativeProtocol<OutputT, TinyOtResourcePool> {
+
+  /**
+   * Sends the digest of a received broadcast to all parties.
+   */
+  byte[] sendBroadcastValidation(MessageDigest dig, Network network, byte[] b) {
+    dig.update(b);
+    byte[] digest = dig.digest();
+    dig.reset();
+    network.sendToAll(digest);
+    return digest;
+  }
+
+  /**
+   * Receives the digests sent by {@link #sendBroadcastValidation(MessageDigest, Network, byte[])}
+   * and compares them to our own.
+   */
+  boolean receiveBroadcastValidation(Network network, byte[] digest) {
+    boolean validated = true;
+    List<byte[]> digests = network.receiveFromAll();
+    for (byte[] d : digests) {
+      validated = validated && Arrays.equals(d, digest);
+    }
+    return validated;
+  }
+
+  /**
+   * Sends our share of an input mask to a single party, along with the MAC of the share under the
+   * MAC key share of that party.
+   */
+  void sendMask(TinyOtInputMask mask, int receiverId, Network network) {
+    byte[] mac = mask.getMac(receiverId).toByteArray();
+    byte[] bytes = new byte[1 + mac.length];
+    bytes[0] = BooleanSerializer.toBytes(mask.getMask().getBit());
+    System.arraycopy(mac, 0, bytes, 1, mac.length);
+    network.send(receiverId, bytes);
+  }
+
+  /**
+   * Receives the shares sent by {@link #sendMask(TinyOtInputMask, int, Network)}, checks their
+   * MACs using our keys and returns the value of the mask.
+   */
+  boolean receiveMask(TinyOtInputMask mask, TinyOtResourcePool resourcePool, Network network) {
+    StrictBitVector macKeyShare = resourcePool.getMacKeyShare();
+    boolean value = mask.getMask().getBit();
+    for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
+      if (partyId != resourcePool.getMyId()) {
+        byte[] received = network.receive(partyId);
+        boolean share = BooleanSerializer.fromBytes(received[0]);
+        StrictBitVector expected = new StrictBitVector(mask.getKey(partyId).toByteArray().clone());
+        if (share) {
+          expected.xor(macKeyShare);
+        }
+        if (!Arrays.equals(expected.toByteArray(),
+            Arrays.copyOfRange(received, 1, received.length))) {
+          throw new MaliciousException("Input mask MAC check failed");
+        }
+        value ^= share;
+      }
+    }
+    return value;
+  }
+}
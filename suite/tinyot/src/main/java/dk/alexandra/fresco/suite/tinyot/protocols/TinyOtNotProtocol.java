@@ -0,0 +1,32 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+
+/**
+ * Negation of a secret shared bit, computed locally as the XOR with the known bit one.
+ */
+public class TinyOtNotProtocol extends TinyOtNativeProtocol<SBool> {
+
+  private final DRes<SBool> in;
+  private TinyOtSBool out;
+
+  public TinyOtNotProtocol(DRes<SBool> in) {
+    this.in = in;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    out = ((TinyOtSBool) in.out())
+        .xorKnown(true, resourcePool.getMacKeyShare(), resourcePool.getMyId() == 1);
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public SBool out() {
+    return out;
+  }
+}
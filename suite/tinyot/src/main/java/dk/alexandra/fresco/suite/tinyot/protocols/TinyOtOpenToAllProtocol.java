@@ -0,0 +1,47 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+import java.util.List;
+
+/**
+ * Opens a secret shared bit to all parties. The opened value is MAC checked before the evaluation
+ * continues.
+ */
+public class TinyOtOpenToAllProtocol extends TinyOtNativeProtocol<Boolean>
+    implements TinyOtOutputProtocol {
+
+  private final DRes<SBool> toOpen;
+  private Boolean opened;
+
+  public TinyOtOpenToAllProtocol(DRes<SBool> toOpen) {
+    this.toOpen = toOpen;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    TinyOtSBool share = (TinyOtSBool) toOpen.out();
+    if (round == 0) {
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(share.getShare())});
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<byte[]> shares = network.receiveFromAll();
+      boolean value = false;
+      for (byte[] bytes : shares) {
+        value ^= BooleanSerializer.fromBytes(bytes[0]);
+      }
+      resourcePool.getOpenedValueStore().pushOpenedValue(share.getValue(), value);
+      opened = value;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public Boolean out() {
+    return opened;
+  }
+}
@@ -0,0 +1,70 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+import java.util.List;
+
+/**
+ * Opens a secret shared bit <i>x</i> towards a single party.
+ *
+ * <p>
+ * The shares of <i>x</i> are only authenticated under the global MAC key, which the receiving
+ * party cannot check on its own. The parties therefore take a random input mask <i>r</i> and open
+ * <i>x + r</i> to all parties, storing it for the batched MAC check. The other parties send their
+ * shares of <i>r</i> only to the receiving party, along with the MACs of the shares under its MAC
+ * key share, and the receiving party checks the MACs using its own keys and computes <i>x</i>. The
+ * other parties learn nothing about <i>x</i>, and their output is <code>null</code>.
+ * </p>
+ */
+public class TinyOtOpenToPartyProtocol extends TinyOtNativeProtocol<Boolean>
+    implements TinyOtOutputProtocol {
+
+  private final DRes<SBool> toOpen;
+  private final int receiver;
+  private TinyOtInputMask mask;
+  private TinyOtSBool masked;
+  private Boolean opened;
+
+  public TinyOtOpenToPartyProtocol(DRes<SBool> toOpen, int receiver) {
+    this.toOpen = toOpen;
+    this.receiver = receiver;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    int myId = resourcePool.getMyId();
+    if (round == 0) {
+      mask = resourcePool.getTripleSupplier().getNextInputMask();
+      masked = ((TinyOtSBool) toOpen.out()).xor(new TinyOtSBool(mask.getMask()));
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(masked.getShare())});
+      if (myId != receiver) {
+        sendMask(mask, receiver, network);
+      }
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<byte[]> shares = network.receiveFromAll();
+      boolean value = false;
+      for (byte[] bytes : shares) {
+        value ^= BooleanSerializer.fromBytes(bytes[0]);
+      }
+      resourcePool.getOpenedValueStore().pushOpenedValue(masked.getValue(), value);
+      resourcePool.getOpenedValueStore().pushOpenedValue(mask.getZero(), false);
+      if (myId == receiver) {
+        opened = value ^ receiveMask(mask, resourcePool, network);
+      }
+      mask = null;
+      masked = null;
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+  @Override
+  public Boolean out() {
+    return opened;
+  }
+}
@@ -0,0 +1,9 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+/**
+ * Marker interface for protocols revealing a value to the application. Values opened by such
+ * protocols are MAC checked before the evaluation continues.
+ */
+public interface TinyOtOutputProtocol {
+
+}
@@ -0,0 +1,25 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+
+/**
+ * Takes a random authenticated bit from the preprocessed material.
+ */
+public class TinyOtRandomBitProtocol extends TinyOtNativeProtocol<SBool> {
+
+  private TinyOtSBool out;
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    out = new TinyOtSBool(resourcePool.getTripleSupplier().getNextRandomBit());
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public SBool out() {
+    return out;
+  }
+}
@@ -0,0 +1,34 @@
+package dk.alexandra.fresco.suite.tinyot.protocols;
+
+import dk.alexandra.fresco.framework.DRes;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.value.SBool;
+import dk.alexandra.fresco.suite.tinyot.TinyOtResourcePool;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtSBool;
+
+/**
+ * XOR of two secret shared bits. Since both the shares and the MACs are linear, each party simply
+ * XORs its shares and MAC shares.
+ */
+public class TinyOtXorProtocol extends TinyOtNativeProtocol<SBool> {
+
+  private final DRes<SBool> left;
+  private final DRes<SBool> right;
+  private TinyOtSBool out;
+
+  public TinyOtXorProtocol(DRes<SBool> left, DRes<SBool> right) {
+    this.left = left;
+    this.right = right;
+  }
+
+  @Override
+  public EvaluationStatus evaluate(int round, TinyOtResourcePool resourcePool, Network network) {
+    out = ((TinyOtSBool) left.out()).xor((TinyOtSBool) right.out());
+    return EvaluationStatus.IS_DONE;
+  }
+
+  @Override
+  public SBool out() {
+    return out;
+  }
+}
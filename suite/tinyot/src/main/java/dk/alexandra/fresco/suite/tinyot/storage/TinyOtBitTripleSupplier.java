@@ -0,0 +1,189 @@
+package dk.alexandra.fresco.suite.tinyot.storage;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.util.BackgroundProducer;
+import dk.alexandra.fresco.framework.util.BackgroundProducer.Buffer;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import dk.alexandra.fresco.tools.bitTriples.BitTriple;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePool;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleResourcePoolImpl;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleSecurityParameters;
+import dk.alexandra.fresco.tools.bitTriples.cote.CoteInstances;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import dk.alexandra.fresco.tools.bitTriples.elements.MultiplicationTriple;
+import dk.alexandra.fresco.tools.ot.otextension.CoteFactory;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Supplies authenticated bit triples generated by the {@link BitTriple} protocol on a background
+ * thread with its own network, and input masks derived from them.
+ *
+ * <p>
+ * The supplier uses a {@link BackgroundProducer} to keep one batch of triples ahead of consumption:
+ * whenever fewer than a batch of the requested triples are left unconsumed, the next batch is
+ * requested. The online phase only blocks if the triples of a batch are consumed faster than the
+ * next batch is generated. Since the triple generation is interactive, all parties must use the
+ * same batch size and consume triples in the same order. Input masks are supplied in batches of the
+ * same size in the same way.
+ * </p>
+ *
+ * <p>
+ * An input mask is the left factor of a triple. Each party authenticates its shares of a batch of
+ * masks towards every other party by correlated OT, where the other party uses its MAC key share
+ * as correlation. The resulting pairwise MACs and keys also give a second sharing of the masks
+ * under the global MAC key, and the difference of the two sharings is supplied as a sharing of zero
+ * to be MAC checked along with the opened values.
+ * </p>
+ *
+ * <p>
+ * Note that {@link BitTriple} rounds the number of triples up to one of a few fixed batch sizes,
+ * e.g. 163, 2047 or 16389 for a statistical security parameter of 40, so the batch size should be
+ * one of these to avoid generating triples that are never used.
+ * </p>
+ */
+public class TinyOtBitTripleSupplier implements TinyOtTripleSupplier, Closeable {
+
+  private final StrictBitVector macKeyShare;
+  private final BackgroundProducer producer;
+  private final Buffer<MultiplicationTriple> triples;
+  private final Buffer<TinyOtInputMask> inputMasks;
+  // Only accessed by the background thread
+  private final BitTripleResourcePool resourcePool;
+  private BitTriple bitTriple;
+  private CoteInstances coteInstances;
+  // Written by the background thread, read when closing
+  private volatile Network network;
+
+  /**
+   * Creates a new supplier and starts generating the first batch of triples in the background.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param tripleNetwork supplier of the network used for triple generation. This must not be the
+   *     network used by the online phase.
+   * @param drbg source of randomness, only used by the triple generation
+   * @param securityParameters the security parameters of the triple generation
+   * @param batchSize the number of triples generated in each batch
+   */
+  public TinyOtBitTripleSupplier(int myId, int noOfParties, Supplier<Network> tripleNetwork,
+      Drbg drbg, BitTripleSecurityParameters securityParameters, int batchSize) {
+    if (batchSize <= 0) {
+      throw new IllegalArgumentException("Batch size must be positive, was " + batchSize);
+    }
+    Objects.requireNonNull(tripleNetwork);
+    this.resourcePool =
+        new BitTripleResourcePoolImpl(myId, noOfParties, 1, drbg, securityParameters);
+    int keyLength = resourcePool.getComputationalSecurityBitParameter();
+    StrictBitVector macKeyShareLeft = resourcePool.getLocalSampler().getNext(keyLength);
+    this.macKeyShare = resourcePool.getLocalSampler().getNext(keyLength);
+    this.producer = new BackgroundProducer("TinyOt-BitTriples-" + myId);
+    producer.submit(() -> {
+      this.network = tripleNetwork.get();
+      this.bitTriple = new BitTriple(resourcePool, network, macKeyShareLeft, macKeyShare);
+    });
+    this.triples = producer.createBuffer(amount -> bitTriple.getTriples(amount), batchSize,
+        batchSize, batchSize);
+    this.inputMasks = producer.createBuffer(this::generateInputMasks, batchSize, batchSize,
+        batchSize);
+    triples.fill();
+  }
+
+  /**
+   * Generates input masks from the left factors of as many triples. The correlated OT instances
+   * are set up the first time masks are needed, so no setup is done if no inputs are given.
+   */
+  private List<TinyOtInputMask> generateInputMasks(int amount) {
+    if (coteInstances == null) {
+      coteInstances = new CoteInstances(resourcePool, network, macKeyShare);
+    }
+    List<AuthenticatedElement> masks = bitTriple.getTriples(amount).stream()
+        .map(MultiplicationTriple::getLeft)
+        .collect(Collectors.toList());
+    // The number of correlated OTs must be a power of two of at least one byte
+    int size = Math.max(Byte.SIZE, Integer.highestOneBit(masks.size() - 1) << 1);
+    StrictBitVector choices = new StrictBitVector(size);
+    for (int i = 0; i < masks.size(); i++) {
+      choices.setBit(i, masks.get(i).getBit(), false);
+    }
+    int myId = resourcePool.getMyId();
+    int noOfParties = resourcePool.getNoOfParties();
+    Map<Integer, List<StrictBitVector>> macs = new HashMap<>();
+    Map<Integer, List<StrictBitVector>> keys = new HashMap<>();
+    for (int receiver = 1; receiver <= noOfParties; receiver++) {
+      for (int sender = 1; sender <= noOfParties; sender++) {
+        if (receiver != sender) {
+          CoteFactory cote = coteInstances.get(receiver, sender);
+          if (myId == sender) {
+            keys.put(receiver, cote.getSender().extend(size));
+          } else if (myId == receiver) {
+            macs.put(sender, cote.getReceiver().extend(choices));
+          }
+        }
+      }
+    }
+    List<TinyOtInputMask> result = new ArrayList<>(masks.size());
+    for (int i = 0; i < masks.size(); i++) {
+      AuthenticatedElement mask = masks.get(i);
+      Map<Integer, StrictBitVector> maskMacs = new HashMap<>();
+      Map<Integer, StrictBitVector> maskKeys = new HashMap<>();
+      // Our shares of the global and the pairwise sharing of the mask
+      StrictBitVector zero = new StrictBitVector(mask.getMac().toByteArray().clone());
+      if (mask.getBit()) {
+        zero.xor(macKeyShare);
+      }
+      for (int otherId = 1; otherId <= noOfParties; otherId++) {
+        if (otherId != myId) {
+          StrictBitVector mac = macs.get(otherId).get(i);
+          StrictBitVector key = keys.get(otherId).get(i);
+          zero.xor(mac);
+          zero.xor(key);
+          maskMacs.put(otherId, mac);
+          maskKeys.put(otherId, key);
+        }
+      }
+      result.add(new TinyOtInputMask(mask, new AuthenticatedElement(false, zero), maskMacs,
+          maskKeys));
+    }
+    return result;
+  }
+
+  @Override
+  public MultiplicationTriple getNextTriple() {
+    return triples.take();
+  }
+
+  @Override
+  public TinyOtInputMask getNextInputMask() {
+    return inputMasks.take();
+  }
+
+  @Override
+  public StrictBitVector getMacKeyShare() {
+    return macKeyShare;
+  }
+
+  /**
+   * Stops the background thread and closes the network used for triple generation. Any consumer
+   * waiting for triples or input masks will fail. Called by {@link
+   * dk.alexandra.fresco.suite.tinyot.TinyOtResourcePoolImpl#close()} when the resource pool using
+   * this supplier is closed.
+   */
+  @Override
+  public void close() throws IOException {
+    producer.close();
+    Network network = this.network;
+    if (network instanceof Closeable) {
+      ((Closeable) network).close();
+    }
+  }
+}
@@ -0,0 +1,125 @@
+package dk.alexandra.fresco.suite.tinyot.storage;
+
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.Drbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.framework.util.ValidationUtils;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import dk.alexandra.fresco.tools.bitTriples.elements.MultiplicationTriple;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Supplies bit triples and input masks without any communication, by letting all parties derive the same sharings
+ * from a common seed. Only for testing purposes.
+ *
+ * <b>NB: Do NOT use in production!</b>
+ */
+public class TinyOtDummyTripleSupplier implements TinyOtTripleSupplier {
+
+  private static final int DEFAULT_MAC_KEY_LENGTH = 128;
+  private final int myId;
+  private final int noOfParties;
+  private final int macKeyLength;
+  private final Drbg drbg;
+  private final List<StrictBitVector> macKeyShares;
+
+  /**
+   * Creates a new dummy supplier with MAC keys of 128 bits.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   */
+  public TinyOtDummyTripleSupplier(int myId, int noOfParties) {
+    this(myId, noOfParties, DEFAULT_MAC_KEY_LENGTH);
+  }
+
+  /**
+   * Creates a new dummy supplier.
+   *
+   * @param myId this party's id
+   * @param noOfParties the number of parties
+   * @param macKeyLength the length of the MAC key in bits, must be a multiple of 8
+   */
+  public TinyOtDummyTripleSupplier(int myId, int noOfParties, int macKeyLength) {
+    ValidationUtils.assertValidId(myId, noOfParties);
+    this.myId = myId;
+    this.noOfParties = noOfParties;
+    this.macKeyLength = macKeyLength;
+    this.drbg = new AesCtrDrbg(new byte[AesCtrDrbg.SEED_LENGTH]);
+    this.macKeyShares = new ArrayList<>(noOfParties);
+    for (int i = 0; i < noOfParties; i++) {
+      macKeyShares.add(new StrictBitVector(macKeyLength, drbg));
+    }
+  }
+
+  @Override
+  public MultiplicationTriple getNextTriple() {
+    byte[] bits = new byte[2];
+    drbg.nextBytes(bits);
+    boolean left = (bits[0] & 1) == 1;
+    boolean right = (bits[1] & 1) == 1;
+    return new MultiplicationTriple(share(left).get(myId - 1), share(right).get(myId - 1),
+        share(left && right).get(myId - 1));
+  }
+
+  @Override
+  public TinyOtInputMask getNextInputMask() {
+    byte[] bit = new byte[1];
+    drbg.nextBytes(bit);
+    List<AuthenticatedElement> shares = share((bit[0] & 1) == 1);
+    Map<Integer, StrictBitVector> macs = new HashMap<>();
+    Map<Integer, StrictBitVector> keys = new HashMap<>();
+    for (int owner = 1; owner <= noOfParties; owner++) {
+      for (int keyHolder = 1; keyHolder <= noOfParties; keyHolder++) {
+        if (owner != keyHolder) {
+          StrictBitVector key = new StrictBitVector(macKeyLength, drbg);
+          if (keyHolder == myId) {
+            keys.put(owner, key);
+          }
+          if (owner == myId) {
+            StrictBitVector mac = new StrictBitVector(key.toByteArray().clone());
+            if (shares.get(owner - 1).getBit()) {
+              mac.xor(macKeyShares.get(keyHolder - 1));
+            }
+            macs.put(keyHolder, mac);
+          }
+        }
+      }
+    }
+    return new TinyOtInputMask(shares.get(myId - 1), share(false).get(myId - 1), macs, keys);
+  }
+
+  @Override
+  public StrictBitVector getMacKeyShare() {
+    return macKeyShares.get(myId - 1);
+  }
+
+  /**
+   * Shares a bit and its MAC among all parties and returns the shares of all parties.
+   */
+  private List<AuthenticatedElement> share(boolean bit) {
+    StrictBitVector macSum = new StrictBitVector(macKeyLength);
+    if (bit) {
+      for (StrictBitVector keyShare : macKeyShares) {
+        macSum.xor(keyShare);
+      }
+    }
+    byte[] shareBits = new byte[noOfParties];
+    drbg.nextBytes(shareBits);
+    boolean lastShare = bit;
+    List<AuthenticatedElement> shares = new ArrayList<>(noOfParties);
+    for (int i = 1; i < noOfParties; i++) {
+      boolean share = (shareBits[i] & 1) == 1;
+      StrictBitVector mac = new StrictBitVector(macKeyLength, drbg);
+      lastShare ^= share;
+      macSum.xor(mac);
+      shares.add(new AuthenticatedElement(share, mac));
+    }
+    shares.add(new AuthenticatedElement(lastShare, macSum));
+    return shares;
+  }
+}
@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.suite.tinyot.storage;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import dk.alexandra.fresco.tools.bitTriples.elements.MultiplicationTriple;
+
+/**
+ * Supplies the preprocessed material needed by the TinyOT protocol suite, i.e., authenticated bit
+ * triples and input masks. All parties must request material in the same order.
+ */
+public interface TinyOtTripleSupplier {
+
+  /**
+   * Supplies the next authenticated bit triple.
+   *
+   * @return the next triple
+   */
+  MultiplicationTriple getNextTriple();
+
+  /**
+   * Supplies the next authenticated random bit. By default this is the left factor of a fresh
+   * triple.
+   *
+   * @return the next random bit
+   */
+  default AuthenticatedElement getNextRandomBit() {
+    return getNextTriple().getLeft();
+  }
+
+  /**
+   * Supplies the next input mask, which can be opened towards any single party.
+   *
+   * @return the next input mask
+   */
+  TinyOtInputMask getNextInputMask();
+
+  /**
+   * Gets this party's share of the MAC key under which the supplied material is authenticated.
+   *
+   * @return the MAC key share
+   */
+  StrictBitVector getMacKeyShare();
+}
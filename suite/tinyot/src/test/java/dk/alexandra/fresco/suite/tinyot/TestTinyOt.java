@@ -0,0 +1,322 @@
+package dk.alexandra.fresco.suite.tinyot;
+
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import dk.alexandra.fresco.IntegrationTest;
+import dk.alexandra.fresco.framework.MaliciousException;
+import dk.alexandra.fresco.framework.TestFrameworkException;
+import dk.alexandra.fresco.framework.TestThreadRunner;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadConfiguration;
+import dk.alexandra.fresco.framework.TestThreadRunner.TestThreadFactory;
+import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
+import dk.alexandra.fresco.framework.configuration.NetworkConfiguration;
+import dk.alexandra.fresco.framework.configuration.NetworkUtil;
+import dk.alexandra.fresco.framework.network.socket.SocketNetwork;
+import dk.alexandra.fresco.framework.sce.SecureComputationEngineImpl;
+import dk.alexandra.fresco.framework.sce.evaluator.BatchedProtocolEvaluator;
+import dk.alexandra.fresco.framework.sce.evaluator.EvaluationStrategy;
+import dk.alexandra.fresco.framework.util.AesCtrDrbg;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import dk.alexandra.fresco.lib.bool.BasicBooleanTests;
+import dk.alexandra.fresco.lib.bristol.BristolCryptoTests;
+import dk.alexandra.fresco.lib.common.compare.ComparisonBooleanTests;
+import dk.alexandra.fresco.lib.common.math.bool.add.AddTests;
+import dk.alexandra.fresco.suite.tinyot.datatypes.TinyOtInputMask;
+import dk.alexandra.fresco.suite.tinyot.storage.TinyOtBitTripleSupplier;
+import dk.alexandra.fresco.suite.tinyot.storage.TinyOtDummyTripleSupplier;
+import dk.alexandra.fresco.suite.tinyot.storage.TinyOtTripleSupplier;
+import dk.alexandra.fresco.tools.bitTriples.BitTripleSecurityParameters;
+import dk.alexandra.fresco.tools.bitTriples.elements.AuthenticatedElement;
+import dk.alexandra.fresco.tools.bitTriples.elements.MultiplicationTriple;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+public class TestTinyOt {
+
+  private static final BitTripleSecurityParameters SECURITY_PARAMETERS =
+      new BitTripleSecurityParameters(128, 40, 256);
+
+  private void runTest(TestThreadFactory<TinyOtResourcePool, ProtocolBuilderBinary> f,
+      int noOfParties) {
+    runTest(f, noOfParties, TinyOtDummyTripleSupplier::new);
+  }
+
+  private void runTest(TestThreadFactory<TinyOtResourcePool, ProtocolBuilderBinary> f,
+      int noOfParties, BiFunction<Integer, Integer, TinyOtTripleSupplier> suppliers) {
+    List<Integer> ports = NetworkUtil.getFreePorts(noOfParties);
+    Map<Integer, NetworkConfiguration> netConf = NetworkUtil.getNetworkConfigurations(ports);
+    Map<Integer, TestThreadConfiguration<TinyOtResourcePool, ProtocolBuilderBinary>> conf =
+        new HashMap<>();
+    for (int playerId : netConf.keySet()) {
+      TinyOtProtocolSuite suite = new TinyOtProtocolSuite();
+      BatchedProtocolEvaluator<TinyOtResourcePool> evaluator =
+          new BatchedProtocolEvaluator<>(EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(),
+              suite);
+      conf.put(playerId, new TestThreadConfiguration<>(
+          new SecureComputationEngineImpl<>(suite, evaluator),
+          () -> new TinyOtResourcePoolImpl(playerId, noOfParties,
+              suppliers.apply(playerId, noOfParties), new AesCtrDrbg(new byte[32])),
+          () -> new SocketNetwork(netConf.get(playerId))));
+    }
+    TestThreadRunner.run(f, conf);
+  }
+
+  @Test
+  public void testInput() {
+    runTest(new BasicBooleanTests.TestInput<>(true), 2);
+  }
+
+  @Test
+  public void testInputDifferentSender() {
+    runTest(new BasicBooleanTests.TestInputDifferentSender<>(true), 3);
+  }
+
+  @Test
+  public void testOpenToParty() {
+    runTest(new BasicBooleanTests.TestOpenToParty<>(true), 3);
+  }
+
+  @Test
+  public void testXor() {
+    runTest(new BasicBooleanTests.TestXOR<>(true), 2);
+  }
+
+  @Test
+  public void testAnd() {
+    runTest(new BasicBooleanTests.TestAND<>(true), 2);
+  }
+
+  @Test
+  public void testAndThreeParties() {
+    runTest(new BasicBooleanTests.TestAND<>(true), 3);
+  }
+
+  @Test
+  public void testManyAnd() {
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, 2000), 2);
+  }
+
+  @Test
+  public void testNot() {
+    runTest(new BasicBooleanTests.TestNOT<>(true), 2);
+  }
+
+  @Test
+  public void testRandomBit() {
+    runTest(new BasicBooleanTests.TestRandomBit<>(false), 2);
+  }
+
+  @Test
+  public void testBasicProtocols() {
+    runTest(new BasicBooleanTests.TestBasicProtocols<>(true), 3);
+  }
+
+  @Test
+  public void testFullAdder() {
+    runTest(new AddTests.TestFullAdder<>(true), 2);
+  }
+
+  @Test
+  public void testGreaterThan() {
+    runTest(new ComparisonBooleanTests.TestGreaterThan<>(true), 2);
+  }
+
+  @Test
+  public void testEquality() {
+    runTest(new ComparisonBooleanTests.TestEquality<>(true), 3);
+  }
+
+  @Test
+  public void testCheatingOnTripleIsDetected() {
+    try {
+      runTest(new BasicBooleanTests.TestAND<>(true), 2, (myId, noOfParties) -> {
+        TinyOtTripleSupplier supplier = new TinyOtDummyTripleSupplier(myId, noOfParties);
+        return myId == 2 ? new FlippingTripleSupplier(supplier) : supplier;
+      });
+      fail("Cheating was not detected");
+    } catch (TestFrameworkException e) {
+      assertTrue(hasCause(e, MaliciousException.class));
+    }
+  }
+
+  @Test
+  public void testCheatingOnInputMaskIsDetected() {
+    try {
+      runTest(new BasicBooleanTests.TestInput<>(true), 2, (myId, noOfParties) -> {
+        TinyOtTripleSupplier supplier = new TinyOtDummyTripleSupplier(myId, noOfParties);
+        return myId == 2 ? new FlippingInputMaskSupplier(supplier, noOfParties) : supplier;
+      });
+      fail("Cheating was not detected");
+    } catch (TestFrameworkException e) {
+      assertTrue(hasCause(e, MaliciousException.class));
+    }
+  }
+
+  @Test
+  public void testBitTripleSupplier() {
+    runTestWithBitTriples(new BasicBooleanTests.TestBasicProtocols<>(true), 2);
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testBitTripleSupplierInput() {
+    runTestWithBitTriples(new BasicBooleanTests.TestInputDifferentSender<>(true), 2);
+  }
+
+  @Test
+  public void testCheatingOnBitTripleIsDetected() {
+    try {
+      runTestWithBitTriples(new BasicBooleanTests.TestAND<>(true), 2,
+          (myId, supplier) -> myId == 2 ? new FlippingTripleSupplier(supplier) : supplier);
+      fail("Cheating was not detected");
+    } catch (TestFrameworkException e) {
+      assertTrue(hasCause(e, MaliciousException.class));
+    }
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testCheatingOnBitTripleInputMaskIsDetected() {
+    try {
+      runTestWithBitTriples(new BasicBooleanTests.TestInput<>(true), 2,
+          (myId, supplier) -> myId == 2 ? new FlippingInputMaskSupplier(supplier, 2) : supplier);
+      fail("Cheating was not detected");
+    } catch (TestFrameworkException e) {
+      assertTrue(hasCause(e, MaliciousException.class));
+    }
+  }
+
+  private void runTestWithBitTriples(
+      TestThreadFactory<TinyOtResourcePool, ProtocolBuilderBinary> f, int noOfParties) {
+    runTestWithBitTriples(f, noOfParties, (myId, supplier) -> supplier);
+  }
+
+  private void runTestWithBitTriples(
+      TestThreadFactory<TinyOtResourcePool, ProtocolBuilderBinary> f, int noOfParties,
+      BiFunction<Integer, TinyOtTripleSupplier, TinyOtTripleSupplier> wrapper) {
+    List<Integer> triplePorts = NetworkUtil.getFreePorts(noOfParties);
+    Map<Integer, NetworkConfiguration> tripleNetConf =
+        NetworkUtil.getNetworkConfigurations(triplePorts);
+    runTest(f, noOfParties, (myId, parties) -> {
+      // Each party needs its own randomness, otherwise the MAC key shares cancel out
+      byte[] seed = new byte[32];
+      new Random(myId).nextBytes(seed);
+      // The resource pool closes the supplier, which closes its network
+      TinyOtBitTripleSupplier supplier = new TinyOtBitTripleSupplier(myId, parties,
+          () -> new SocketNetwork(tripleNetConf.get(myId)), new AesCtrDrbg(seed),
+          SECURITY_PARAMETERS, 163);
+      return wrapper.apply(myId, supplier);
+    });
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testAes() {
+    runTest(new BristolCryptoTests.AesTest<>(true), 2);
+  }
+
+  @Category(IntegrationTest.class)
+  @Test
+  public void testAesThreeParties() {
+    runTest(new BristolCryptoTests.AesTest<>(true), 3);
+  }
+
+  private static boolean hasCause(Throwable e, Class<? extends Throwable> type) {
+    for (Throwable t = e; t != null; t = t.getCause()) {
+      if (type.isInstance(t)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Supplies triples where the share of the left factor is flipped, without adjusting its MAC.
+   */
+  private static class FlippingTripleSupplier implements TinyOtTripleSupplier, Closeable {
+
+    private final TinyOtTripleSupplier supplier;
+
+    FlippingTripleSupplier(TinyOtTripleSupplier supplier) {
+      this.supplier = supplier;
+    }
+
+    @Override
+    public MultiplicationTriple getNextTriple() {
+      MultiplicationTriple triple = supplier.getNextTriple();
+      AuthenticatedElement left = triple.getLeft();
+      return new MultiplicationTriple(new AuthenticatedElement(!left.getBit(), left.getMac()),
+          triple.getRight(), triple.getProduct());
+    }
+
+    @Override
+    public TinyOtInputMask getNextInputMask() {
+      return supplier.getNextInputMask();
+    }
+
+    @Override
+    public StrictBitVector getMacKeyShare() {
+      return supplier.getMacKeyShare();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (supplier instanceof Closeable) {
+        ((Closeable) supplier).close();
+      }
+    }
+  }
+
+  /**
+   * Supplies input masks where the share of the mask is flipped, without adjusting its MACs.
+   */
+  private static class FlippingInputMaskSupplier implements TinyOtTripleSupplier, Closeable {
+
+    private final TinyOtTripleSupplier supplier;
+    private final int noOfParties;
+
+    FlippingInputMaskSupplier(TinyOtTripleSupplier supplier, int noOfParties) {
+      this.supplier = supplier;
+      this.noOfParties = noOfParties;
+    }
+
+    @Override
+    public MultiplicationTriple getNextTriple() {
+      return supplier.getNextTriple();
+    }
+
+    @Override
+    public TinyOtInputMask getNextInputMask() {
+      TinyOtInputMask inputMask = supplier.getNextInputMask();
+      AuthenticatedElement mask = inputMask.getMask();
+      Map<Integer, StrictBitVector> macs = new HashMap<>();
+      Map<Integer, StrictBitVector> keys = new HashMap<>();
+      for (int partyId = 1; partyId <= noOfParties; partyId++) {
+        macs.put(partyId, inputMask.getMac(partyId));
+        keys.put(partyId, inputMask.getKey(partyId));
+      }
+      return new TinyOtInputMask(new AuthenticatedElement(!mask.getBit(), mask.getMac()),
+          inputMask.getZero(), macs, keys);
+    }
+
+    @Override
+    public StrictBitVector getMacKeyShare() {
+      return supplier.getMacKeyShare();
+    }
+
+    @Override
+    public void close() throws IOException {
+      if (supplier instanceof Closeable) {
+        ((Closeable) supplier).close();
+      }
+    }
+  }
+}
@@ -3,7 +3,6 @@ package dk.alexandra.fresco.suite.tinytables.online;
 import dk.alexandra.fresco.framework.BuilderFactory;
 import dk.alexandra.fresco.framework.builder.binary.ProtocolBuilderBinary;
 import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
-import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.suite.ProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesCloseProtocol;
@@ -11,11 +10,9 @@ import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesNOTProtoc
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpenToAllProtocol;
 import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesXORProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.TinyTablesPreproProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesMappedStorage;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.io.ObjectInputStream;
 import java.util.HashMap;
 import java.util.Map;
 import org.slf4j.Logger;
@@ -36,7 +33,8 @@ import org.slf4j.LoggerFactory;
  * add actual input values to their share of the mask, and evaluate the protocol. The details on how
  * this is done can be seen in the specific protocols: {@link TinyTablesANDProtocol},
  * {@link TinyTablesCloseProtocol}, {@link TinyTablesNOTProtocol},
- * {@link TinyTablesOpenToAllProtocol} and {@link TinyTablesXORProtocol}.
+ * {@link TinyTablesOpenToAllProtocol} and {@link TinyTablesXORProtocol}. The AND and open protocols
+ * of each batch are evaluated together by the {@link TinyTablesRoundSynchronization}.
  * </p>
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
@@ -60,27 +58,18 @@ public class TinyTablesProtocolSuite
 
   @Override
   public BuilderFactory<ProtocolBuilderBinary> init(ResourcePoolImpl resourcePool) {
-    this.storage =
-        ExceptionConverter.safe(() -> loadTinyTables(tinyTablesFile), "Unable to load TinyTables");
+    logger.info("Loading TinyTables from " + tinyTablesFile);
+    this.storage = new TinyTablesMappedStorage(tinyTablesFile);
     BuilderFactory<ProtocolBuilderBinary> b = new TinyTablesBuilderFactory();
     return b;
   }
 
-  private TinyTablesStorage loadTinyTables(File file) throws IOException, ClassNotFoundException {
-    FileInputStream fin = new FileInputStream(file);
-    ObjectInputStream is = new ObjectInputStream(fin);
-    logger.info("Loading TinyTabels from " + file);
-    TinyTablesStorage storage = (TinyTablesStorage) is.readObject();
-    is.close();
-    return storage;
-  }
-
   public TinyTablesStorage getStorage() {
     return this.storage;
   }
 
   @Override
   public RoundSynchronization<ResourcePoolImpl> createRoundSynchronization() {
-    return new DummyRoundSynchronization<>();
+    return new TinyTablesRoundSynchronization(this);
   }
 }
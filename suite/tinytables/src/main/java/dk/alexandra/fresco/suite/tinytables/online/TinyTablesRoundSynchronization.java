@@ -0,0 +1,74 @@
+package dk.alexandra.fresco.suite.tinytables.online;
+
+import dk.alexandra.fresco.framework.NativeProtocol;
+import dk.alexandra.fresco.framework.ProtocolCollection;
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.framework.util.RegularBitVector;
+import dk.alexandra.fresco.suite.ProtocolSuite.RoundSynchronization;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElementVector;
+import dk.alexandra.fresco.suite.tinytables.online.protocols.TinyTablesOpeningProtocol;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.util.Util;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Round synchronization for the online phase of the TinyTables protocol suite, evaluating all AND
+ * and open protocols of a batch at once.
+ *
+ * <p>
+ * The protocols of a batch are independent, so their inputs are known before the batch is
+ * evaluated. Before each batch, each player therefore looks up his shares of the outputs of all
+ * {@link TinyTablesOpeningProtocol}s in the batch, packs them into a single bit vector and
+ * exchanges it with the other player, just as the preprocessing phase does for the AND gates. The
+ * protocols are then done without sending any messages of their own.
+ * </p>
+ */
+public class TinyTablesRoundSynchronization implements RoundSynchronization<ResourcePoolImpl> {
+
+  private final TinyTablesProtocolSuite protocolSuite;
+
+  public TinyTablesRoundSynchronization(TinyTablesProtocolSuite protocolSuite) {
+    this.protocolSuite = protocolSuite;
+  }
+
+  @Override
+  public void beforeBatch(ProtocolCollection<ResourcePoolImpl> protocols,
+      ResourcePoolImpl resourcePool, Network network) {
+    List<TinyTablesOpeningProtocol<?>> openings = new ArrayList<>();
+    for (NativeProtocol<?, ResourcePoolImpl> protocol : protocols) {
+      if (protocol instanceof TinyTablesOpeningProtocol) {
+        openings.add((TinyTablesOpeningProtocol<?>) protocol);
+      }
+    }
+    if (openings.isEmpty()) {
+      return;
+    }
+    TinyTablesStorage storage = protocolSuite.getStorage();
+    TinyTablesElementVector shares = new TinyTablesElementVector(openings.size());
+    for (int i = 0; i < openings.size(); i++) {
+      shares.setShare(i, openings.get(i).getShare(storage));
+    }
+    int otherId = Util.otherPlayerId(resourcePool.getMyId());
+    network.send(otherId, shares.payload());
+    TinyTablesElementVector otherShares =
+        new TinyTablesElementVector(network.receive(otherId), openings.size());
+    RegularBitVector opened = TinyTablesElementVector.open(shares, otherShares);
+    for (int i = 0; i < openings.size(); i++) {
+      openings.get(i).open(opened.getBit(i));
+    }
+  }
+
+  @Override
+  public void finishedBatch(int gatesEvaluated, ResourcePoolImpl resourcePool,
+      Network network) {
+    // Ignore
+  }
+
+  @Override
+  public void finishedEval(ResourcePoolImpl resourcePool, Network network) {
+    // Ignore
+  }
+
+}
@@ -1,16 +1,11 @@
 package dk.alexandra.fresco.suite.tinytables.online.protocols;
 
 import dk.alexandra.fresco.framework.DRes;
-import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
-import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.value.SBool;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
 import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
-import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
-import java.util.ArrayList;
-import java.util.List;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 import java.util.Objects;
 
 /**
@@ -32,7 +27,7 @@ import java.util.Objects;
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
-public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
+public class TinyTablesANDProtocol extends TinyTablesOpeningProtocol<SBool> {
 
   private int id;
   private DRes<SBool> inLeft, inRight;
@@ -45,27 +40,16 @@ public class TinyTablesANDProtocol extends TinyTablesProtocol<SBool> {
   }
 
   @Override
-  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
-    TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
-
-    if (round == 0) {
-      TinyTable tinyTable = Objects.requireNonNull(ps.getStorage().getTinyTable(id),
-          "Unable to find TinyTable for gate with id " + id);
-      TinyTablesElement myShare = tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
-          ((TinyTablesSBool) inRight.out()).getValue());
+  public boolean getShare(TinyTablesStorage storage) {
+    TinyTable tinyTable = Objects.requireNonNull(storage.getTinyTable(id),
+        "Unable to find TinyTable for gate with id " + id);
+    return tinyTable.getValue(((TinyTablesSBool) inLeft.out()).getValue(),
+        ((TinyTablesSBool) inRight.out()).getValue()).getShare();
+  }
 
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myShare.getShare())});
-      return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else {
-      List<byte[]> buffers = network.receiveFromAll();
-      List<TinyTablesElement> shares = new ArrayList<>();
-      for (byte[] bytes : buffers) {
-        shares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(bytes[0])));
-      }
-      boolean open = TinyTablesElement.open(shares);
-      this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(open));
-      return EvaluationStatus.IS_DONE;
-    }
+  @Override
+  protected void setOpened(boolean value) {
+    this.out = TinyTablesSBool.getInstance(TinyTablesElement.getInstance(value));
   }
 
   @Override
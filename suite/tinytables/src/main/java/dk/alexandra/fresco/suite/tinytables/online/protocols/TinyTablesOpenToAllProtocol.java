@@ -1,15 +1,9 @@
 package dk.alexandra.fresco.suite.tinytables.online.protocols;
 
 import dk.alexandra.fresco.framework.DRes;
-import dk.alexandra.fresco.framework.network.Network;
-import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
-import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
 import dk.alexandra.fresco.framework.value.SBool;
-import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
-import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
 import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
-import java.util.ArrayList;
-import java.util.List;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
 
 /**
  * <p>
@@ -24,7 +18,7 @@ import java.util.List;
  *
  * @author Jonas Lindstrøm (jonas.lindstrom@alexandra.dk)
  */
-public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean> {
+public class TinyTablesOpenToAllProtocol extends TinyTablesOpeningProtocol<Boolean> {
 
   private int id;
   private DRes<SBool> toOpen;
@@ -36,30 +30,19 @@ public class TinyTablesOpenToAllProtocol extends TinyTablesProtocol<Boolean> {
     this.toOpen = toOpen;
   }
 
+  /*
+   * When opening a value, all players open their shares of the masking value r to the other
+   * players, and each player can then calculate the unmasked value as the XOR of the masked value
+   * and all the shares of the mask.
+   */
   @Override
-  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
-    TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
+  public boolean getShare(TinyTablesStorage storage) {
+    return storage.getMaskShare(id).getShare();
+  }
 
-    /*
-     * When opening a value, all players send their shares of the masking value r to the other
-     * players, and each player can then calculate the unmasked value as the XOR of the masked value
-     * and all the shares of the mask.
-     */
-    if (round == 0) {
-      TinyTablesElement myR = ps.getStorage().getMaskShare(id);
-      network.sendToAll(new byte[]{BooleanSerializer.toBytes(myR.getShare())});
-      return EvaluationStatus.HAS_MORE_ROUNDS;
-    } else {
-      // round > 0
-      List<byte[]> buffers = network.receiveFromAll();
-      List<TinyTablesElement> maskShares = new ArrayList<>();
-      for (byte[] buffer : buffers) {
-        maskShares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(buffer[0])));
-      }
-      boolean mask = TinyTablesElement.open(maskShares);
-      this.opened = ((TinyTablesSBool) toOpen.out()).getValue().getShare() ^ mask;
-      return EvaluationStatus.IS_DONE;
-    }
+  @Override
+  protected void setOpened(boolean value) {
+    this.opened = ((TinyTablesSBool) toOpen.out()).getValue().getShare() ^ value;
   }
 
   @Override
@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import dk.alexandra.fresco.framework.network.Network;
+import dk.alexandra.fresco.framework.network.serializers.BooleanSerializer;
+import dk.alexandra.fresco.framework.sce.resources.ResourcePoolImpl;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesProtocolSuite;
+import dk.alexandra.fresco.suite.tinytables.online.TinyTablesRoundSynchronization;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * A protocol in the TinyTables protocol's online phase whose only communication is opening a
+ * single bit which is additively shared between the two players.
+ * </p>
+ *
+ * <p>
+ * Normally the shares of all such protocols in a batch are opened at once as a single packed bit
+ * vector by the {@link TinyTablesRoundSynchronization} before the batch is evaluated, in which case
+ * the protocol is done without further communication. Otherwise, each player sends his share in a
+ * message of its own.
+ * </p>
+ */
+public abstract class TinyTablesOpeningProtocol<OutputT> extends TinyTablesProtocol<OutputT> {
+
+  private boolean isOpened;
+
+  /**
+   * Gets this player's share of the bit to open.
+   *
+   * @param storage the material from the preprocessing phase
+   * @return the share
+   */
+  public abstract boolean getShare(TinyTablesStorage storage);
+
+  /**
+   * Finishes the protocol given the opened bit.
+   *
+   * @param value the opened bit
+   */
+  public void open(boolean value) {
+    setOpened(value);
+    this.isOpened = true;
+  }
+
+  protected abstract void setOpened(boolean value);
+
+  @Override
+  public EvaluationStatus evaluate(int round, ResourcePoolImpl resourcePool, Network network) {
+    if (isOpened) {
+      return EvaluationStatus.IS_DONE;
+    }
+    if (round == 0) {
+      TinyTablesProtocolSuite ps = TinyTablesProtocolSuite.getInstance(resourcePool.getMyId());
+      boolean share = getShare(ps.getStorage());
+      network.sendToAll(new byte[]{BooleanSerializer.toBytes(share)});
+      return EvaluationStatus.HAS_MORE_ROUNDS;
+    } else {
+      List<byte[]> buffers = network.receiveFromAll();
+      List<TinyTablesElement> shares = new ArrayList<>();
+      for (byte[] bytes : buffers) {
+        shares.add(TinyTablesElement.getInstance(BooleanSerializer.fromBytes(bytes[0])));
+      }
+      open(TinyTablesElement.open(shares));
+      return EvaluationStatus.IS_DONE;
+    }
+  }
+
+}
@@ -11,8 +11,9 @@ import dk.alexandra.fresco.suite.tinytables.ot.TinyTablesOt;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproANDProtocol;
 import dk.alexandra.fresco.suite.tinytables.prepro.protocols.TinyTablesPreproProtocol;
 import dk.alexandra.fresco.suite.tinytables.storage.BatchTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.ParallelTinyTablesTripleProvider;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesMappedStorageWriter;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
-import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
 import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesTripleProvider;
 import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
 import dk.alexandra.fresco.suite.tinytables.util.Util;
@@ -22,9 +23,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.ObjectOutputStream;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -36,10 +34,16 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
   private static final Logger LOGGER = LoggerFactory.getLogger(TinyTablesPreproResourcePool.class);
   private static final int TRIP_BATCH_SIZE = 8192;
+  private static final int BATCHES_AHEAD_PER_INSTANCE = 2;
+  /**
+   * The maximum number of AND gates processed in a single exchange.
+   */
+  private static final int GATE_CHUNK_SIZE = 1 << 16;
+  private static final int SEED_LENGTH = 32;
 
   private final Drng drng;
   private final List<TinyTablesPreproANDProtocol> unprocessedAnds;
-  private final TinyTablesStorage storage;
+  private final TinyTablesMappedStorageWriter storage;
   private final File tinyTablesFile;
   private final Supplier<TinyTablesTripleProvider> supplier;
   private TinyTablesTripleProvider tinyTablesTripleProvider;
@@ -59,36 +63,85 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       int otBatchSize, File tinyTablesFile, Supplier<Network> network) {
     super(myId, 2);
     this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
-    this.storage = new TinyTablesStorageImpl();
+    this.storage = new TinyTablesMappedStorageWriter(tinyTablesFile);
     this.tinyTablesFile = tinyTablesFile;
     this.drng = new DrngImpl(drbg);
     this.supplier = () -> {
-      RotList rotList = new RotList(drbg, computationalSecurity);
-      CoinTossing ct = new CoinTossing(myId, Util.otherPlayerId(myId), drbg);
-      OtExtensionResourcePool otExtRes = new BristolOtExtensionResourcePool(myId,
-              Util.otherPlayerId(myId),
-              computationalSecurity, statisticalSecurity, 1, drbg, ct, rotList);
-      baseOt.init(network.get());
-      int otherId = Util.otherPlayerId(getMyId());
-      // Execute random seed OTs
-      if (getMyId() < otherId) {
-        rotList.send(baseOt);
-        rotList.receive(baseOt);
-      } else {
-        rotList.receive(baseOt);
-        rotList.send(baseOt);
-      }
-      ct.initialize(network.get());
-      // Setup the OT extension
-      RotFactory rotFactory = new RotFactory(otExtRes, network.get());
-      BristolOtFactory otFactory = new BristolOtFactory(rotFactory, otExtRes, network.get(),
-          otBatchSize);
-      TinyTablesTripleGenerator generator =
-          new TinyTablesTripleGenerator(getMyId(), getDrng(), otFactory);
+      TinyTablesTripleGenerator generator = createTripleGenerator(baseOt, drbg, getDrng(),
+          computationalSecurity, statisticalSecurity, otBatchSize, network.get());
       return new BatchTinyTablesTripleProvider(generator, TRIP_BATCH_SIZE);
     };
   }
 
+  /**
+   * Creates a resource pool generating triples with several instances of OT extension running in
+   * parallel in the background, see {@link ParallelTinyTablesTripleProvider}. Each instance needs
+   * its own base OT and its own network, which must be different from the network used for the
+   * evaluation.
+   *
+   * @param myId The ID of the MPC party.
+   * @param baseOts OT functionality for the base OTs, one per instance
+   * @param drbg Secure bit randomness generator
+   * @param otBatchSize The amount of OTs to preprocess in a batch
+   * @param tinyTablesFile file for data
+   * @param otNetworks the networks used by the instances, one per instance
+   */
+  public TinyTablesPreproResourcePool(int myId, List<TinyTablesOt> baseOts, Drbg drbg,
+      int computationalSecurity, int statisticalSecurity,
+      int otBatchSize, File tinyTablesFile, List<Supplier<Network>> otNetworks) {
+    super(myId, 2);
+    if (baseOts.size() != otNetworks.size()) {
+      throw new IllegalArgumentException("Expected a base OT for each of the " + otNetworks.size()
+          + " networks, was " + baseOts.size());
+    }
+    this.unprocessedAnds = Collections.synchronizedList(new ArrayList<>());
+    this.storage = new TinyTablesMappedStorageWriter(tinyTablesFile);
+    this.tinyTablesFile = tinyTablesFile;
+    this.drng = new DrngImpl(drbg);
+    List<Supplier<TinyTablesTripleGenerator>> generators = new ArrayList<>();
+    for (int i = 0; i < otNetworks.size(); i++) {
+      // Each instance runs on its own thread, so it gets its own randomness
+      byte[] seed = new byte[SEED_LENGTH];
+      drbg.nextBytes(seed);
+      TinyTablesOt baseOt = baseOts.get(i);
+      Supplier<Network> network = otNetworks.get(i);
+      generators.add(() -> {
+        Drbg instanceDrbg = new AesCtrDrbg(seed);
+        return createTripleGenerator(baseOt, instanceDrbg, new DrngImpl(instanceDrbg),
+            computationalSecurity, statisticalSecurity, otBatchSize, network.get());
+      });
+    }
+    TinyTablesTripleProvider provider = new ParallelTinyTablesTripleProvider(generators,
+        TRIP_BATCH_SIZE, BATCHES_AHEAD_PER_INSTANCE * otNetworks.size());
+    this.supplier = () -> provider;
+  }
+
+  private TinyTablesTripleGenerator createTripleGenerator(TinyTablesOt baseOt, Drbg drbg,
+      Drng drng, int computationalSecurity, int statisticalSecurity, int otBatchSize,
+      Network network) {
+    RotList rotList = new RotList(drbg, computationalSecurity);
+    CoinTossing ct = new CoinTossing(getMyId(), Util.otherPlayerId(getMyId()), drbg);
+    OtExtensionResourcePool otExtRes = new BristolOtExtensionResourcePool(getMyId(),
+        Util.otherPlayerId(getMyId()),
+        computationalSecurity, statisticalSecurity, 1, drbg, ct, rotList);
+    baseOt.init(network);
+    int otherId = Util.otherPlayerId(getMyId());
+    // Execute random seed OTs
+    if (getMyId() < otherId) {
+      rotList.send(baseOt);
+      rotList.receive(baseOt);
+    } else {
+      rotList.receive(baseOt);
+      rotList.send(baseOt);
+    }
+    ct.initialize(network);
+    // Setup the OT extension
+    RotFactory rotFactory = new RotFactory(otExtRes, network);
+    BristolOtFactory otFactory = new BristolOtFactory(rotFactory, otExtRes, network,
+        otBatchSize);
+    return new TinyTablesTripleGenerator(getMyId(), drng, otFactory);
+  }
+
   public Drng getDrng() {
     return drng;
   }
@@ -102,17 +155,27 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
   }
 
   void calculateTinyTables(Network network) {
-    int unprocessedGates = this.unprocessedAnds.size();
     /*
      * Sort the unprocessed gates to make sure that the players process them in the same order.
      */
     this.unprocessedAnds.sort(Comparator.comparingInt(TinyTablesPreproProtocol::getId));
+    /*
+     * Process the gates in chunks to bound the memory used for the triples and messages.
+     */
+    for (int from = 0; from < unprocessedAnds.size(); from += GATE_CHUNK_SIZE) {
+      int to = Math.min(from + GATE_CHUNK_SIZE, unprocessedAnds.size());
+      calculateTinyTables(network, unprocessedAnds.subList(from, to));
+    }
+    this.unprocessedAnds.clear();
+  }
 
+  private void calculateTinyTables(Network network, List<TinyTablesPreproANDProtocol> gates) {
+    int unprocessedGates = gates.size();
     // Two bits per gate
     TinyTablesElementVector shares = new TinyTablesElementVector(unprocessedGates * 2);
-    List<TinyTablesTriple> usedTriples = new ArrayList<>();
+    List<TinyTablesTriple> usedTriples = new ArrayList<>(unprocessedGates);
     for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
+      TinyTablesPreproANDProtocol gate = gates.get(i);
       if (tinyTablesTripleProvider == null) {
         tinyTablesTripleProvider = supplier.get();
       }
@@ -144,7 +207,7 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
     RegularBitVector open = TinyTablesElementVector.open(shares, otherShares);
 
     for (int i = 0; i < unprocessedGates; i++) {
-      TinyTablesPreproANDProtocol gate = this.unprocessedAnds.get(i);
+      TinyTablesPreproANDProtocol gate = gates.get(i);
       boolean e = open.getBit(2 * i);
       boolean d = open.getBit(2 * i + 1);
 
@@ -155,8 +218,6 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
 
       this.storage.storeTinyTable(gate.getId(), tinyTable);
     }
-
-    this.unprocessedAnds.clear();
   }
 
   public void closeEvaluation() {
@@ -164,21 +225,10 @@ public class TinyTablesPreproResourcePool extends ResourcePoolImpl {
       tinyTablesTripleProvider.close();
     }
     /*
-     * Store the TinyTables to a file.
+     * The TinyTables are written to the file as they are computed, so we only need to finish it.
      */
-    ExceptionConverter.safe(() -> {
-      storeTinyTables(storage, tinyTablesFile);
-      LOGGER.info("TinyTables stored to {}", tinyTablesFile);
-      return null;
-    }, "Failed to store TinyTables");
-  }
-
-  private void storeTinyTables(TinyTablesStorage tinyTablesStorage, File file) throws IOException {
-    file.createNewFile();
-    try (FileOutputStream fout = new FileOutputStream(file);
-      ObjectOutputStream oos = new ObjectOutputStream(fout)) {
-      oos.writeObject(tinyTablesStorage);
-    }
+    storage.close();
+    LOGGER.info("TinyTables stored to {}", tinyTablesFile);
   }
 
   public TinyTablesStorage getStorage() {
@@ -0,0 +1,132 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.framework.util.BackgroundProducer;
+import dk.alexandra.fresco.framework.util.BackgroundProducer.Buffer;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TinyTablesTripleProvider} generating triples with several independent instances of OT
+ * extension in parallel, each on its own background thread and network.
+ * <p>
+ * Triples are generated in batches and batch number <i>b</i> is generated by instance <i>b mod
+ * N</i>. Each instance is a {@link BackgroundProducer} handing its batches to the consumer, and the
+ * consumer takes the batches in order of their numbers, so the two players use their shares of the
+ * same triples in the same order even though the instances run independently. Generation is kept a
+ * fixed number of batches ahead of consumption.
+ * </p>
+ * <p>
+ * On {@link #close()} the instances finish the batches already requested and stop. The instances
+ * keep their OT extension state and are restarted if more triples are needed later.
+ * </p>
+ */
+public class ParallelTinyTablesTripleProvider implements TinyTablesTripleProvider {
+
+  private final List<Instance> instances;
+  private final int batchSize;
+  private final int batchesAhead;
+  // Only accessed by the consumer
+  private long requestedBatches;
+  private long consumedBatches;
+  private Iterator<TinyTablesTriple> current;
+
+  /**
+   * Creates a new provider. No triples are generated before the first triple is requested.
+   *
+   * @param generators one supplier per instance, creating a generator using the network of the
+   *     instance. Suppliers are called on the background thread of the instance.
+   * @param batchSize the number of triples generated at a time by an instance
+   * @param batchesAhead the number of batches to generate ahead of consumption
+   */
+  public ParallelTinyTablesTripleProvider(List<Supplier<TinyTablesTripleGenerator>> generators,
+      int batchSize, int batchesAhead) {
+    if (generators.isEmpty()) {
+      throw new IllegalArgumentException("At least one instance is required");
+    }
+    if (batchSize < 1 || batchesAhead < 1) {
+      throw new IllegalArgumentException("Batch size and batches ahead must be positive, was "
+          + batchSize + " and " + batchesAhead);
+    }
+    this.batchSize = batchSize;
+    this.batchesAhead = batchesAhead;
+    this.instances = new ArrayList<>(generators.size());
+    for (int i = 0; i < generators.size(); i++) {
+      instances.add(new Instance(i, generators.get(i)));
+    }
+  }
+
+  @Override
+  public TinyTablesTriple getNextTriple() {
+    if (current == null || !current.hasNext()) {
+      current = nextBatch().iterator();
+    }
+    return current.next();
+  }
+
+  private List<TinyTablesTriple> nextBatch() {
+    while (requestedBatches < consumedBatches + batchesAhead) {
+      instanceOf(requestedBatches++).request();
+    }
+    return instanceOf(consumedBatches++).take();
+  }
+
+  private Instance instanceOf(long batch) {
+    return instances.get((int) (batch % instances.size()));
+  }
+
+  @Override
+  public void close() {
+    for (Instance instance : instances) {
+      instance.stop();
+    }
+  }
+
+  /**
+   * A single instance of OT extension generating batches of triples on its own thread.
+   */
+  private class Instance {
+
+    private final Supplier<TinyTablesTripleGenerator> supplier;
+    private final BackgroundProducer producer;
+    private final Buffer<List<TinyTablesTriple>> batches;
+    // Only accessed by the thread of the instance
+    private TinyTablesTripleGenerator generator;
+
+    private Instance(int index, Supplier<TinyTablesTripleGenerator> supplier) {
+      this.supplier = supplier;
+      this.producer = new BackgroundProducer("TinyTables-triples-" + index);
+      this.batches = producer.createBuffer(this::generate, 0, 0, 1);
+    }
+
+    private List<List<TinyTablesTriple>> generate(int amount) {
+      if (generator == null) {
+        generator = supplier.get();
+      }
+      List<List<TinyTablesTriple>> result = new ArrayList<>(amount);
+      for (int i = 0; i < amount; i++) {
+        result.add(generator.generate(batchSize));
+      }
+      return result;
+    }
+
+    private void request() {
+      batches.request(1);
+    }
+
+    private List<TinyTablesTriple> take() {
+      return batches.take();
+    }
+
+    /**
+     * Lets the thread finish the requested batches and waits for it to stop.
+     */
+    private void stop() {
+      producer.finish();
+    }
+  }
+
+}
@@ -0,0 +1,127 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static dk.alexandra.fresco.suite.tinytables.storage.TinyTablesMappedStorageFormat.HEADER_LENGTH;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only {@link TinyTablesStorage} for the online phase, reading a file written by a {@link
+ * TinyTablesMappedStorageWriter}.
+ * <p>
+ * The file is memory mapped and gates are decoded directly from the mapped buffer, so nothing is
+ * loaded into the heap up front. The online phase evaluates gates in the order of their ids, so
+ * the file is read sequentially and the operating system only has to keep the pages around the
+ * gates currently being evaluated in memory.
+ * </p>
+ * <p>
+ * Only the path of the file is serialized, and the file is mapped again when deserializing.
+ * </p>
+ */
+public class TinyTablesMappedStorage implements TinyTablesStorage {
+
+  private static final long serialVersionUID = 2952386394151651217L;
+  private final File file;
+  private final transient ByteBuffer data;
+  private final transient int gateCount;
+  private final transient int presenceStart;
+
+  /**
+   * Maps the given file.
+   *
+   * @param file a file written by a {@link TinyTablesMappedStorageWriter}
+   */
+  public TinyTablesMappedStorage(File file) {
+    this.file = file;
+    ByteBuffer mapped = ExceptionConverter.safe(() -> {
+      try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+        return channel.map(MapMode.READ_ONLY, 0, Math.min(channel.size(), Integer.MAX_VALUE));
+      }
+    }, "Unable to map " + file);
+    if (mapped.capacity() < HEADER_LENGTH) {
+      throw new IllegalArgumentException(file + " is not a TinyTables file");
+    }
+    this.gateCount =
+        TinyTablesMappedStorageFormat.validateHeader(mapped, file, mapped.capacity());
+    this.data = mapped.slice();
+    this.presenceStart = (int) TinyTablesMappedStorageFormat.dataLength(gateCount);
+  }
+
+  @Override
+  public TinyTable getTinyTable(int id) {
+    int bits = getBits(id);
+    return bits < 0 ? null : TinyTablesMappedStorageFormat.toTinyTable(bits);
+  }
+
+  @Override
+  public TinyTablesElement getMaskShare(int id) {
+    int bits = getBits(id);
+    return bits < 0 ? null : TinyTablesMappedStorageFormat.toMaskShare(bits);
+  }
+
+  @Override
+  public void storeTinyTable(int id, TinyTable table) {
+    throw new UnsupportedOperationException("Mapped TinyTables storage is read-only");
+  }
+
+  @Override
+  public void storeMaskShare(int id, TinyTablesElement r) {
+    throw new UnsupportedOperationException("Mapped TinyTables storage is read-only");
+  }
+
+  /**
+   * Gets the number of gate ids stored.
+   */
+  public int getGateCount() {
+    return gateCount;
+  }
+
+  private int getBits(int id) {
+    if (id < 0 || id >= gateCount) {
+      return -1;
+    }
+    byte presence =
+        data.get(presenceStart + (int) TinyTablesMappedStorageFormat.presenceOffset(id));
+    if (!TinyTablesMappedStorageFormat.isPresent(presence, id)) {
+      return -1;
+    }
+    int offset = (int) TinyTablesMappedStorageFormat.dataOffset(id);
+    return TinyTablesMappedStorageFormat.getBits(data.get(offset), id);
+  }
+
+  private Object writeReplace() {
+    return new SerializedForm(file);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("Mapped TinyTables storage is serialized as its file");
+  }
+
+  /**
+   * The serialized form of a {@link TinyTablesMappedStorage}, which maps the file again when
+   * deserialized.
+   */
+  static final class SerializedForm implements Serializable {
+
+    private static final long serialVersionUID = -4390562783367327561L;
+    private final File file;
+
+    SerializedForm(File file) {
+      this.file = file;
+    }
+
+    private Object readResolve() {
+      return new TinyTablesMappedStorage(file);
+    }
+  }
+
+}
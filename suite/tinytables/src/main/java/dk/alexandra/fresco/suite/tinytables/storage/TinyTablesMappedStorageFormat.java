@@ -0,0 +1,154 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.File;
+import java.nio.ByteBuffer;
+
+/**
+ * The binary format used by {@link TinyTablesMappedStorageWriter} and {@link
+ * TinyTablesMappedStorage}.
+ * <p>
+ * A file starts with a header of {@value HEADER_LENGTH} bytes followed by four bits for every
+ * gate id, two gates to a byte with the gate with the even id in the least significant bits. The
+ * four bits of an AND gate are the entries of its {@link TinyTable}, where entry <i>(c, d)</i> is
+ * bit <i>2c + d</i>. The mask share of an input or output gate is stored in the least significant
+ * of its four bits. The gates are followed by a bitmap with one bit for every gate id, eight ids
+ * to a byte with the lowest id in the least significant bit, which is set for the ids that have
+ * been stored. The header is laid out as follows (all values big-endian):
+ * </p>
+ * <ul>
+ * <li>magic number, 4 bytes</li>
+ * <li>format version, 4 bytes</li>
+ * <li>the number of gate ids stored, i.e., the largest id plus one, 4 bytes</li>
+ * <li>unused, 4 bytes</li>
+ * </ul>
+ */
+final class TinyTablesMappedStorageFormat {
+
+  static final int MAGIC = 0x46545454;
+  static final int VERSION = 1;
+  static final int HEADER_LENGTH = 16;
+  private static final TinyTable[] TABLES = new TinyTable[16];
+
+  static {
+    for (int bits = 0; bits < TABLES.length; bits++) {
+      TinyTablesElement[] values = new TinyTablesElement[4];
+      for (int i = 0; i < values.length; i++) {
+        values[i] = TinyTablesElement.getInstance(((bits >>> i) & 1) == 1);
+      }
+      TABLES[bits] = new TinyTable(values);
+    }
+  }
+
+  private TinyTablesMappedStorageFormat() {
+  }
+
+  /**
+   * Gets the offset of the byte holding the bits of a gate relative to the end of the header.
+   */
+  static long dataOffset(int id) {
+    return id >>> 1;
+  }
+
+  /**
+   * Gets the number of bytes needed after the header to store the given number of gates.
+   */
+  static long dataLength(int gateCount) {
+    return (gateCount + 1L) >>> 1;
+  }
+
+  /**
+   * Gets the number of bytes needed for the bitmap of stored gates.
+   */
+  static long presenceLength(int gateCount) {
+    return (gateCount + 7L) >>> 3;
+  }
+
+  /**
+   * Gets the offset of the byte holding the presence bit of a gate relative to the start of the
+   * bitmap.
+   */
+  static long presenceOffset(int id) {
+    return id >>> 3;
+  }
+
+  static boolean isPresent(byte presence, int id) {
+    return ((presence >>> (id & 7)) & 1) == 1;
+  }
+
+  static int getBits(byte data, int id) {
+    return (id & 1) == 0 ? data & 0x0F : (data >>> 4) & 0x0F;
+  }
+
+  static byte setBits(byte data, int id, int bits) {
+    if ((id & 1) == 0) {
+      return (byte) ((data & 0xF0) | bits);
+    } else {
+      return (byte) ((data & 0x0F) | (bits << 4));
+    }
+  }
+
+  static int toBits(TinyTable table) {
+    int bits = 0;
+    for (int c = 0; c < 2; c++) {
+      for (int d = 0; d < 2; d++) {
+        TinyTablesElement entry = table.getValue(TinyTablesElement.getInstance(c == 1),
+            TinyTablesElement.getInstance(d == 1));
+        if (entry.getShare()) {
+          bits |= 1 << (2 * c + d);
+        }
+      }
+    }
+    return bits;
+  }
+
+  /**
+   * Gets the {@link TinyTable} with the given bits. Tables are immutable so the same instance is
+   * returned for all gates with the same table.
+   */
+  static TinyTable toTinyTable(int bits) {
+    return TABLES[bits];
+  }
+
+  static int toBits(TinyTablesElement share) {
+    return share.getShare() ? 1 : 0;
+  }
+
+  static TinyTablesElement toMaskShare(int bits) {
+    return TinyTablesElement.getInstance((bits & 1) == 1);
+  }
+
+  static void writeHeader(ByteBuffer buffer, int gateCount) {
+    buffer.putInt(MAGIC);
+    buffer.putInt(VERSION);
+    buffer.putInt(gateCount);
+    buffer.putInt(0);
+  }
+
+  /**
+   * Checks a header and returns the number of gates stored.
+   *
+   * @param buffer the header, read from the current position up to the end of the header
+   * @param file the file read, used for error messages
+   * @param size the size of the file
+   */
+  static int validateHeader(ByteBuffer buffer, File file, long size) {
+    if (buffer.getInt() != MAGIC) {
+      throw new IllegalArgumentException(file + " is not a TinyTables file");
+    }
+    int version = buffer.getInt();
+    if (version != VERSION) {
+      throw new IllegalArgumentException(
+          "Unsupported version " + version + " of " + file + ", expected " + VERSION);
+    }
+    int gateCount = buffer.getInt();
+    buffer.getInt();
+    if (gateCount < 0
+        || HEADER_LENGTH + dataLength(gateCount) + presenceLength(gateCount) > size) {
+      throw new IllegalArgumentException(file + " is truncated");
+    }
+    return gateCount;
+  }
+
+}
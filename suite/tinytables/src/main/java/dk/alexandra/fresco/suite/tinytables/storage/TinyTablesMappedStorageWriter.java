@@ -0,0 +1,179 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static dk.alexandra.fresco.suite.tinytables.storage.TinyTablesMappedStorageFormat.HEADER_LENGTH;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * {@link TinyTablesStorage} writing TinyTables and mask shares to a file in the packed format read
+ * by {@link TinyTablesMappedStorage}.
+ * <p>
+ * Gates are written as they are preprocessed. The bits of the gates are kept in a window of {@value
+ * WINDOW_SIZE} bytes of the file which is written to disk when a gate outside the window is stored.
+ * Gates arrive in close to increasing order of their ids, so this rarely happens more than once
+ * per window. Which gates have been stored is tracked in memory and written to the file on
+ * {@link #close()}. Any existing file is overwritten when the first gate is stored, and the file
+ * is only complete after {@link #close()}. Storing more gates after closing reopens the file and
+ * adds to it.
+ * </p>
+ * <p>
+ * Serializing a writer closes it, and it is deserialized as a {@link TinyTablesMappedStorage}
+ * reading the written file.
+ * </p>
+ */
+public class TinyTablesMappedStorageWriter implements TinyTablesStorage, Closeable {
+
+  private static final long serialVersionUID = -6047906484581390712L;
+  private static final int WINDOW_SIZE = 1 << 16;
+  private final File file;
+  private final transient byte[] window;
+  private final transient BitSet present;
+  private transient FileChannel channel;
+  private boolean created;
+  private long windowStart;
+  private int windowLength;
+  private int gateCount;
+
+  /**
+   * Creates a new writer. The file is not touched until the first gate is stored or the writer is
+   * closed.
+   *
+   * @param file the file to write to
+   */
+  public TinyTablesMappedStorageWriter(File file) {
+    this.file = file;
+    this.window = new byte[WINDOW_SIZE];
+    this.present = new BitSet();
+  }
+
+  @Override
+  public synchronized void storeTinyTable(int id, TinyTable table) {
+    store(id, TinyTablesMappedStorageFormat.toBits(table));
+  }
+
+  @Override
+  public synchronized TinyTable getTinyTable(int id) {
+    int bits = load(id);
+    return bits < 0 ? null : TinyTablesMappedStorageFormat.toTinyTable(bits);
+  }
+
+  @Override
+  public synchronized void storeMaskShare(int id, TinyTablesElement r) {
+    store(id, TinyTablesMappedStorageFormat.toBits(r));
+  }
+
+  @Override
+  public synchronized TinyTablesElement getMaskShare(int id) {
+    int bits = load(id);
+    return bits < 0 ? null : TinyTablesMappedStorageFormat.toMaskShare(bits);
+  }
+
+  /**
+   * Writes all stored gates, the bitmap of stored gates and the header to the file and closes it.
+   */
+  @Override
+  public synchronized void close() {
+    open();
+    ExceptionConverter.safe(() -> {
+      flush();
+      long presenceStart = HEADER_LENGTH + TinyTablesMappedStorageFormat.dataLength(gateCount);
+      int presenceLength = (int) TinyTablesMappedStorageFormat.presenceLength(gateCount);
+      writeFully(ByteBuffer.wrap(Arrays.copyOf(present.toByteArray(), presenceLength)),
+          presenceStart);
+      // A bitmap written by an earlier close may extend beyond the new one
+      channel.truncate(presenceStart + presenceLength);
+      ByteBuffer header = ByteBuffer.allocate(HEADER_LENGTH);
+      TinyTablesMappedStorageFormat.writeHeader(header, gateCount);
+      header.flip();
+      writeFully(header, 0);
+      channel.close();
+      return null;
+    }, "Unable to write TinyTables to " + file);
+    channel = null;
+  }
+
+  private synchronized Object writeReplace() {
+    close();
+    return new TinyTablesMappedStorage.SerializedForm(file);
+  }
+
+  private void readObject(ObjectInputStream stream) throws InvalidObjectException {
+    throw new InvalidObjectException("TinyTables writers are serialized as their file");
+  }
+
+  private void store(int id, int bits) {
+    if (id < 0) {
+      throw new IllegalArgumentException("Gate id must be non-negative, was " + id);
+    }
+    open();
+    int index = moveWindowTo(TinyTablesMappedStorageFormat.dataOffset(id));
+    window[index] = TinyTablesMappedStorageFormat.setBits(window[index], id, bits);
+    windowLength = Math.max(windowLength, index + 1);
+    gateCount = Math.max(gateCount, id + 1);
+    present.set(id);
+  }
+
+  private int load(int id) {
+    if (id < 0 || !present.get(id)) {
+      return -1;
+    }
+    open();
+    int index = moveWindowTo(TinyTablesMappedStorageFormat.dataOffset(id));
+    return TinyTablesMappedStorageFormat.getBits(window[index], id);
+  }
+
+  /**
+   * Makes sure the window contains the given offset and returns its index in the window.
+   */
+  private int moveWindowTo(long offset) {
+    if (offset < windowStart || offset >= windowStart + WINDOW_SIZE) {
+      ExceptionConverter.safe(() -> {
+        flush();
+        windowStart = offset - offset % WINDOW_SIZE;
+        Arrays.fill(window, (byte) 0);
+        ByteBuffer buffer = ByteBuffer.wrap(window);
+        long position = HEADER_LENGTH + windowStart;
+        while (buffer.hasRemaining() && channel.read(buffer, position + buffer.position()) > 0) {
+          // keep reading until the window is full or the end of the file is reached
+        }
+        windowLength = buffer.position();
+        return null;
+      }, "Unable to access TinyTables in " + file);
+    }
+    return (int) (offset - windowStart);
+  }
+
+  private void flush() throws IOException {
+    writeFully(ByteBuffer.wrap(window, 0, windowLength), HEADER_LENGTH + windowStart);
+  }
+
+  private void writeFully(ByteBuffer buffer, long position) throws IOException {
+    while (buffer.hasRemaining()) {
+      position += channel.write(buffer, position);
+    }
+  }
+
+  private void open() {
+    if (channel == null) {
+      channel = ExceptionConverter.safe(() -> created
+          ? FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE)
+          : FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ,
+              StandardOpenOption.WRITE), "Unable to open " + file);
+      created = true;
+    }
+  }
+
+}
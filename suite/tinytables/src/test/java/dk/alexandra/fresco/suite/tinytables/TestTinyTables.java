@@ -38,6 +38,7 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -357,6 +358,46 @@ public class TestTinyTables {
         false, "testEQ");
   }
 
+  @Test
+  public void testParallelPreprocessing() {
+    final String name = "testParallelPreprocessing";
+    final int numAnds = 20000;
+    final int instances = 2;
+    int noPlayers = 2;
+    Map<Integer, NetworkConfiguration> netConf =
+        NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noPlayers));
+    List<Map<Integer, NetworkConfiguration>> otNetConfs = new ArrayList<>();
+    for (int i = 0; i < instances; i++) {
+      otNetConfs.add(
+          NetworkUtil.getNetworkConfigurations(NetworkUtil.getFreePorts(noPlayers)));
+    }
+    Map<Integer, TestThreadConfiguration<ResourcePoolImpl, ProtocolBuilderBinary>> conf =
+        new HashMap<>();
+    for (int playerId : netConf.keySet()) {
+      File tinyTablesFile = new File(getFilenameForTest(playerId, name));
+      TinyTablesPreproProtocolSuite suite = new TinyTablesPreproProtocolSuite();
+      Drbg random = new AesCtrDrbg(new byte[32]);
+      List<TinyTablesOt> baseOts = new ArrayList<>();
+      List<Supplier<Network>> otNetworks = new ArrayList<>();
+      for (Map<Integer, NetworkConfiguration> otNetConf : otNetConfs) {
+        baseOts.add(new TinyTablesDummyOt(Util.otherPlayerId(playerId)));
+        otNetworks.add(new NetworkSupplier(playerId, otNetConf));
+      }
+      Supplier<ResourcePoolImpl> resourcePoolSupplier = () -> new TinyTablesPreproResourcePool(
+          playerId, baseOts, random, COMPUTATIONAL_SECURITY, STATISTICAL_SECURITY, OT_BATCH_SIZE,
+          tinyTablesFile, otNetworks);
+      ProtocolEvaluator<TinyTablesPreproResourcePool> evaluator = new BatchedProtocolEvaluator<>(
+          EvaluationStrategy.SEQUENTIAL_BATCHED.getStrategy(), suite);
+      SecureComputationEngine<ResourcePoolImpl, ProtocolBuilderBinary> computationEngine =
+          (SecureComputationEngine) new SecureComputationEngineImpl<>(suite, evaluator);
+      conf.put(playerId, new TestThreadConfiguration<>(computationEngine, resourcePoolSupplier,
+          new NetworkSupplier(playerId, netConf)));
+    }
+    TestThreadRunner.run(new BasicBooleanTests.TestMultipleAnds<>(false, numAnds), conf);
+    runTest(new BasicBooleanTests.TestMultipleAnds<>(true, numAnds),
+        EvaluationStrategy.SEQUENTIAL_BATCHED, false, name);
+  }
+
   @Test
   public void testNaorPinkasBaseOtDes() {
     int noPlayers = 2;
@@ -0,0 +1,44 @@
+package dk.alexandra.fresco.suite.tinytables.online.protocols;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.NativeProtocol.EvaluationStatus;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import dk.alexandra.fresco.suite.tinytables.online.datatypes.TinyTablesSBool;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorage;
+import dk.alexandra.fresco.suite.tinytables.storage.TinyTablesStorageImpl;
+import org.junit.Test;
+
+public class TestTinyTablesOpeningProtocol {
+
+  private static TinyTablesSBool bool(boolean value) {
+    return TinyTablesSBool.getInstance(TinyTablesElement.getInstance(value));
+  }
+
+  @Test
+  public void testAndShareAndOpen() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    TinyTablesElement f = TinyTablesElement.getInstance(false);
+    TinyTablesElement t = TinyTablesElement.getInstance(true);
+    storage.storeTinyTable(3, new TinyTable(new TinyTablesElement[]{f, f, t, f}));
+    TinyTablesANDProtocol and = new TinyTablesANDProtocol(3, bool(true), bool(false));
+    assertEquals(true, and.getShare(storage));
+    and.open(true);
+    // Opened in advance, so no communication is needed
+    assertEquals(EvaluationStatus.IS_DONE, and.evaluate(0, null, null));
+    assertEquals(bool(true), and.out());
+  }
+
+  @Test
+  public void testOpenToAllShareAndOpen() {
+    TinyTablesStorage storage = new TinyTablesStorageImpl();
+    storage.storeMaskShare(5, TinyTablesElement.getInstance(true));
+    TinyTablesOpenToAllProtocol open = new TinyTablesOpenToAllProtocol(5, bool(true));
+    assertEquals(true, open.getShare(storage));
+    open.open(true);
+    assertEquals(EvaluationStatus.IS_DONE, open.evaluate(0, null, null));
+    assertEquals(false, open.out());
+  }
+
+}
@@ -0,0 +1,71 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.hamcrest.core.Is.is;
+import static org.junit.Assert.assertThat;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesTriple;
+import dk.alexandra.fresco.suite.tinytables.util.TinyTablesTripleGenerator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+import org.junit.Test;
+
+public class TestParallelTinyTablesTripleProvider {
+
+  private static TinyTablesTriple tripleOf(int instance) {
+    return TinyTablesTriple.fromShares(instance == 1, instance == 2, false);
+  }
+
+  private static Supplier<TinyTablesTripleGenerator> generator(int instance) {
+    return () -> new TinyTablesTripleGenerator(0, null, null) {
+
+      @Override
+      public List<TinyTablesTriple> generate(int amount) {
+        return new ArrayList<>(Collections.nCopies(amount, tripleOf(instance)));
+      }
+    };
+  }
+
+  @Test
+  public void testRoundRobinOrder() {
+    ParallelTinyTablesTripleProvider provider = new ParallelTinyTablesTripleProvider(
+        Arrays.asList(generator(0), generator(1), generator(2)), 4, 5);
+    for (int i = 0; i < 100; i++) {
+      assertThat(provider.getNextTriple(), is(tripleOf(i / 4 % 3)));
+    }
+    provider.close();
+  }
+
+  @Test
+  public void testContinueAfterClose() {
+    ParallelTinyTablesTripleProvider provider = new ParallelTinyTablesTripleProvider(
+        Arrays.asList(generator(0), generator(1)), 3, 2);
+    for (int i = 0; i < 10; i++) {
+      assertThat(provider.getNextTriple(), is(tripleOf(i / 3 % 2)));
+    }
+    provider.close();
+    for (int i = 10; i < 30; i++) {
+      assertThat(provider.getNextTriple(), is(tripleOf(i / 3 % 2)));
+    }
+    provider.close();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFailingInstance() {
+    Supplier<TinyTablesTripleGenerator> failing = () -> {
+      throw new RuntimeException("No network");
+    };
+    ParallelTinyTablesTripleProvider provider = new ParallelTinyTablesTripleProvider(
+        Arrays.asList(generator(0), failing), 1, 2);
+    provider.getNextTriple();
+    provider.getNextTriple();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoInstances() {
+    new ParallelTinyTablesTripleProvider(Collections.emptyList(), 1, 1);
+  }
+
+}
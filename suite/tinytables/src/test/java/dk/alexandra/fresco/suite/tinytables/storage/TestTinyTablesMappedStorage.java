@@ -0,0 +1,200 @@
+package dk.alexandra.fresco.suite.tinytables.storage;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTable;
+import dk.alexandra.fresco.suite.tinytables.datatypes.TinyTablesElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class TestTinyTablesMappedStorage {
+
+  // Spans several windows of the writer
+  private static final int GATES = 300000;
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+  private File file;
+  private Map<Integer, TinyTable> tables;
+  private Map<Integer, TinyTablesElement> maskShares;
+
+  @Before
+  public void setUp() throws Exception {
+    file = new File(folder.getRoot(), "tinytables");
+    tables = new HashMap<>();
+    maskShares = new HashMap<>();
+    Random random = new Random(42);
+    for (int id = 0; id < GATES; id++) {
+      if (id % 3 == 0) {
+        maskShares.put(id, TinyTablesElement.getInstance(random.nextBoolean()));
+      } else {
+        tables.put(id, randomTable(random));
+      }
+    }
+  }
+
+  private static TinyTable randomTable(Random random) {
+    TinyTablesElement[] values = new TinyTablesElement[4];
+    for (int i = 0; i < values.length; i++) {
+      values[i] = TinyTablesElement.getInstance(random.nextBoolean());
+    }
+    return new TinyTable(values);
+  }
+
+  private static void assertTableEquals(TinyTable expected, TinyTable actual) {
+    assertEquals(expected.toString(), actual.toString());
+  }
+
+  private void assertContent(TinyTablesStorage storage) {
+    for (Map.Entry<Integer, TinyTable> entry : tables.entrySet()) {
+      assertTableEquals(entry.getValue(), storage.getTinyTable(entry.getKey()));
+    }
+    for (Map.Entry<Integer, TinyTablesElement> entry : maskShares.entrySet()) {
+      assertEquals(entry.getValue(), storage.getMaskShare(entry.getKey()));
+    }
+  }
+
+  @Test
+  public void testWriteAndRead() {
+    TinyTablesMappedStorageWriter writer = new TinyTablesMappedStorageWriter(file);
+    // Store out of order to move the window back and forth
+    for (int id = GATES - 1; id >= 0; id -= 2) {
+      store(writer, id);
+    }
+    for (int id = 0; id < GATES; id += 2) {
+      store(writer, id);
+    }
+    assertContent(writer);
+    writer.close();
+    TinyTablesMappedStorage storage = new TinyTablesMappedStorage(file);
+    assertEquals(GATES, storage.getGateCount());
+    assertContent(storage);
+    assertNull(storage.getTinyTable(GATES));
+    assertNull(storage.getMaskShare(-1));
+    assertEquals(16 + GATES / 2 + GATES / 8, file.length());
+  }
+
+  private static Object serializeAndDeserialize(Object object) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+      out.writeObject(object);
+    }
+    try (ObjectInputStream in =
+        new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+      return in.readObject();
+    }
+  }
+
+  @Test
+  public void testSerialization() throws Exception {
+    TinyTablesMappedStorageWriter writer = new TinyTablesMappedStorageWriter(file);
+    for (int id = 0; id < GATES; id++) {
+      store(writer, id);
+    }
+    // Serializing the writer closes it
+    Object fromWriter = serializeAndDeserialize(writer);
+    assertTrue(fromWriter instanceof TinyTablesMappedStorage);
+    assertContent((TinyTablesStorage) fromWriter);
+    Object fromStorage = serializeAndDeserialize(new TinyTablesMappedStorage(file));
+    assertEquals(GATES, ((TinyTablesMappedStorage) fromStorage).getGateCount());
+    assertContent((TinyTablesStorage) fromStorage);
+  }
+
+  @Test
+  public void testMissingIds() {
+    TinyTablesMappedStorageWriter writer = new TinyTablesMappedStorageWriter(file);
+    for (int id = 0; id < GATES; id += 2) {
+      store(writer, id);
+    }
+    assertNull(writer.getTinyTable(1));
+    assertNull(writer.getMaskShare(GATES - 3));
+    writer.close();
+    TinyTablesMappedStorage storage = new TinyTablesMappedStorage(file);
+    for (int id = 0; id < GATES; id++) {
+      if (id % 2 == 1) {
+        assertNull(storage.getTinyTable(id));
+        assertNull(storage.getMaskShare(id));
+      } else if (tables.containsKey(id)) {
+        assertTableEquals(tables.get(id), storage.getTinyTable(id));
+      } else {
+        assertEquals(maskShares.get(id), storage.getMaskShare(id));
+      }
+    }
+  }
+
+  @Test
+  public void testStoreAfterClose() {
+    TinyTablesMappedStorageWriter writer = new TinyTablesMappedStorageWriter(file);
+    for (int id = 0; id < GATES / 2; id++) {
+      store(writer, id);
+    }
+    writer.close();
+    for (int id = GATES / 2; id < GATES; id++) {
+      store(writer, id);
+    }
+    writer.close();
+    assertContent(new TinyTablesMappedStorage(file));
+  }
+
+  @Test
+  public void testOverwritesExistingFile() throws Exception {
+    Files.write(file.toPath(), new byte[1000]);
+    TinyTablesMappedStorageWriter writer = new TinyTablesMappedStorageWriter(file);
+    writer.storeMaskShare(0, TinyTablesElement.getInstance(true));
+    writer.close();
+    TinyTablesMappedStorage storage = new TinyTablesMappedStorage(file);
+    assertEquals(1, storage.getGateCount());
+    assertEquals(TinyTablesElement.getInstance(true), storage.getMaskShare(0));
+  }
+
+  @Test
+  public void testEmpty() {
+    new TinyTablesMappedStorageWriter(file).close();
+    assertEquals(0, new TinyTablesMappedStorage(file).getGateCount());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNotTinyTablesFile() throws Exception {
+    Files.write(file.toPath(), new byte[100]);
+    new TinyTablesMappedStorage(file);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTruncatedFile() throws Exception {
+    TinyTablesMappedStorageWriter writer = new TinyTablesMappedStorageWriter(file);
+    writer.storeMaskShare(1000, TinyTablesElement.getInstance(true));
+    writer.close();
+    byte[] bytes = Files.readAllBytes(file.toPath());
+    Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 1));
+    new TinyTablesMappedStorage(file);
+  }
+
+  @Test(expected = UnsupportedOperationException.class)
+  public void testReadOnly() {
+    new TinyTablesMappedStorageWriter(file).close();
+    new TinyTablesMappedStorage(file).storeMaskShare(0, TinyTablesElement.getInstance(true));
+  }
+
+  private void store(TinyTablesStorage storage, int id) {
+    if (tables.containsKey(id)) {
+      storage.storeTinyTable(id, tables.get(id));
+    } else {
+      storage.storeMaskShare(id, maskShares.get(id));
+    }
+  }
+
+}
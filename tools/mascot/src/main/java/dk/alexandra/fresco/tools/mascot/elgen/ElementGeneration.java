@@ -169,7 +169,7 @@ public class ElementGeneration {
         .map(resourcePool.getFieldDefinition()::deserializeList)
         .collect(Collectors.toList());
     // recombine (step 2)
-    return Addable.sumRows(shares);
+    return Addable.sumRows(shares, resourcePool.getFieldDefinition());
   }
 
   /**
@@ -181,7 +181,7 @@ public class ElementGeneration {
     List<FieldElement> selfMacced = selfMac(values);
     List<List<FieldElement>> maccedByAll = otherPartiesMac(values);
     maccedByAll.add(selfMacced);
-    return Addable.sumRows(maccedByAll);
+    return Addable.sumRows(maccedByAll, resourcePool.getFieldDefinition());
   }
 
   /**
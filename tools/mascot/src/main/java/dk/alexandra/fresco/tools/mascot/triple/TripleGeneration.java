@@ -14,6 +14,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
@@ -25,9 +30,26 @@ import java.util.stream.Stream;
  * <p>In particular, produces random, authenticated, secret-shared triples of the form a, b, c such
  * that <i>a * b = c</i>. This protocol is refered to as <i>&Pi;<sub>Triple</sub></i> and listed as
  * <i>Protocol 4</i> in the MASCOT paper</p>
+ *
+ * <p>The two-party multiplications with the other parties are independent of each other, so they
+ * run concurrently, one thread per other party, on a thread pool shared by all instances. The
+ * network must therefore support concurrent communication with different parties, as e.g. the
+ * {@link dk.alexandra.fresco.framework.network.socket.SocketNetwork} does.</p>
  */
 public class TripleGeneration {
 
+  private static final AtomicInteger threadCounter = new AtomicInteger(1);
+  /**
+   * Shared by all instances. Idle threads are removed after a minute, so no threads are left
+   * behind when triple generation stops, and the threads are daemons so they never keep the JVM
+   * alive.
+   */
+  private static final ExecutorService EXECUTOR = Executors.newCachedThreadPool(r -> {
+    Thread thread = new Thread(r, "Mascot-Multiply-" + threadCounter.getAndIncrement());
+    thread.setDaemon(true);
+    return thread;
+  });
+
   private final ElementGeneration elementGeneration;
   private final Map<Integer, MultiplyRight> rightMultipliers;
   private final Map<Integer, MultiplyLeft> leftMultipliers;
@@ -126,21 +148,31 @@ public class TripleGeneration {
             .stretch(rightFactors, resourcePool.getNumCandidatesPerTriple());
 
     // step 2 of protocol
-    // for each value we will have two sub-factors for each other party
-    List<List<FieldElement>> subFactors = new ArrayList<>();
+    // for each value we will have two sub-factors for each other party, computed concurrently
+    // for all other parties and collected in the order of the parties
+    List<Future<List<List<FieldElement>>>> perParty = new ArrayList<>();
     for (int partyId = 1; partyId <= resourcePool.getNoOfParties(); partyId++) {
       if (partyId != resourcePool.getMyId()) {
         MultiplyLeft leftMult = leftMultipliers.get(partyId);
         MultiplyRight rightMult = rightMultipliers.get(partyId);
-        if (resourcePool.getMyId() < partyId) {
-          subFactors.add(rightMult.multiply(stretched));
-          subFactors.add(leftMult.multiply(leftFactorGroups));
-        } else {
-          subFactors.add(leftMult.multiply(leftFactorGroups));
-          subFactors.add(rightMult.multiply(stretched));
-        }
+        boolean rightFirst = resourcePool.getMyId() < partyId;
+        perParty.add(EXECUTOR.submit(() -> {
+          List<List<FieldElement>> pair = new ArrayList<>(2);
+          if (rightFirst) {
+            pair.add(rightMult.multiply(stretched));
+            pair.add(leftMult.multiply(leftFactorGroups));
+          } else {
+            pair.add(leftMult.multiply(leftFactorGroups));
+            pair.add(rightMult.multiply(stretched));
+          }
+          return pair;
+        }));
       }
     }
+    List<List<FieldElement>> subFactors = new ArrayList<>();
+    for (Future<List<List<FieldElement>>> future : perParty) {
+      subFactors.addAll(join(future));
+    }
 
     // step 3 or protocol
     // own part of the product
@@ -149,7 +181,25 @@ public class TripleGeneration {
     subFactors.add(localSubFactors);
 
     // combine all sub-factors into product shares
-    return Addable.sumRows(subFactors);
+    return Addable.sumRows(subFactors, resourcePool.getFieldDefinition());
+  }
+
+  /**
+   * Waits for the result of a two-party multiplication, rethrowing any runtime exception, e.g. a
+   * {@link dk.alexandra.fresco.framework.MaliciousException}, thrown by it.
+   */
+  private static <T> T join(Future<T> future) {
+    try {
+      return future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while multiplying", e);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException("Two-party multiplication failed", e.getCause());
+    }
   }
 
   /**
@@ -2,6 +2,7 @@ package dk.alexandra.fresco.tools.mascot.triple;
 
 import dk.alexandra.fresco.framework.builder.numeric.Addable;
 import dk.alexandra.fresco.framework.builder.numeric.field.FieldElement;
+import dk.alexandra.fresco.framework.network.Network;
 import dk.alexandra.fresco.framework.util.StrictBitVector;
 import dk.alexandra.fresco.tools.mascot.CustomAsserts;
 import dk.alexandra.fresco.tools.mascot.MascotSecurityParameters;
@@ -16,7 +17,12 @@ import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
 import org.hamcrest.collection.IsCollectionWithSize;
 import org.junit.Assert;
 import org.junit.Test;
@@ -241,4 +247,99 @@ public class TestTripleGeneration extends NetworkedTest {
     testMultiplePartiesTriple(Arrays.asList(macKeyShareOne, macKeyShareTwo, macKeyShareThree), 3
     );
   }
+
+  @Test
+  public void testFourPartiesMultTriple() {
+    FieldElement macKeyShareOne = getFieldDefinition().createElement(11231);
+    FieldElement macKeyShareTwo = getFieldDefinition().createElement(7719);
+    FieldElement macKeyShareThree = getFieldDefinition().createElement(4444);
+    FieldElement macKeyShareFour = getFieldDefinition().createElement(1234);
+    testMultiplePartiesTriple(
+        Arrays.asList(macKeyShareOne, macKeyShareTwo, macKeyShareThree, macKeyShareFour), 3);
+  }
+
+  @Test
+  public void testMultiplicationWithPeersIsConcurrent() {
+    int noOfParties = 4;
+    initContexts(noOfParties);
+    int numTriples = 4;
+    // Start all multiplications at the same time, when all parties have set up the OTs
+    CyclicBarrier barrier = new CyclicBarrier(noOfParties);
+    List<Callable<Boolean>> tasks = new ArrayList<>(noOfParties);
+    for (int partyId = 1; partyId <= noOfParties; partyId++) {
+      MascotTestContext ctx = contexts.get(partyId);
+      tasks.add(() -> {
+        OverlapCheckingNetwork network =
+            new OverlapCheckingNetwork(ctx.getNetwork(), noOfParties - 1);
+        TripleGeneration tripleGen = new TripleGeneration(ctx.getResourcePool(), network,
+            getJointPrg(ctx.getPrgSeedLength()), getFieldDefinition().createElement(1));
+        List<FieldElement> leftFactorGroups = ctx.getResourcePool().getLocalSampler()
+            .getNext(numTriples * ctx.getResourcePool().getNumCandidatesPerTriple());
+        List<FieldElement> rightFactors =
+            ctx.getResourcePool().getLocalSampler().getNext(numTriples);
+        barrier.await();
+        network.arm();
+        tripleGen.multiply(leftFactorGroups, rightFactors);
+        return network.hasOverlapped();
+      });
+    }
+    for (boolean overlapped : testRuntime.runPerPartyTasks(tasks)) {
+      Assert.assertTrue("Multiplications with the other parties did not overlap", overlapped);
+    }
+  }
+
+  /**
+   * Network checking that communication with all other parties overlaps. Once armed, the first
+   * receive from each party waits until a receive from every other party has been started as well.
+   * If the communication with the other parties runs one after the other this never happens, and
+   * the wait times out instead.
+   */
+  private static class OverlapCheckingNetwork implements Network {
+
+    private final Network network;
+    private final CountDownLatch started;
+    private final Set<Integer> seen;
+    private volatile boolean armed;
+    private volatile boolean timedOut;
+
+    OverlapCheckingNetwork(Network network, int noOfPeers) {
+      this.network = network;
+      this.started = new CountDownLatch(noOfPeers);
+      this.seen = ConcurrentHashMap.newKeySet();
+    }
+
+    void arm() {
+      armed = true;
+    }
+
+    boolean hasOverlapped() {
+      return armed && !timedOut && started.getCount() == 0;
+    }
+
+    @Override
+    public void send(int partyId, byte[] data) {
+      network.send(partyId, data);
+    }
+
+    @Override
+    public byte[] receive(int partyId) {
+      if (armed && !timedOut && seen.add(partyId)) {
+        started.countDown();
+        try {
+          if (!started.await(10, TimeUnit.SECONDS)) {
+            timedOut = true;
+          }
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new RuntimeException(e);
+        }
+      }
+      return network.receive(partyId);
+    }
+
+    @Override
+    public int getNoOfParties() {
+      return network.getNoOfParties();
+    }
+  }
 }
@@ -0,0 +1,128 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.ArrayList;
+import java.util.List;
+import javax.crypto.Cipher;
+import javax.crypto.spec.IvParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * Correlation robust hash based on AES with a fixed, public key, modelled as a random
+ * permutation <i>&pi;</i>.
+ * <p>
+ * An element <i>x</i> of 128 bits with index <i>i</i> is hashed using the tweakable Matyas-Meyer-
+ * Oseas construction of Guo et al. (https://eprint.iacr.org/2019/074), <i>H(i, x) = &pi;(&pi;(x)
+ * &oplus; i) &oplus; &pi;(x)</i>. To give outputs of the same length as SHA-256, the output is
+ * the concatenation of <i>H(2i, x)</i> and <i>H(2i + 1, x)</i>. All elements are encrypted in
+ * bulk using a single cipher instance, so that the AES intrinsics of the JVM are used. The hash
+ * only supports elements of 128 bits, i.e., a computational security parameter of 128.
+ * </p>
+ * <p>
+ * Keys are stretched using AES in counter mode keyed by the candidate key when the candidate is a
+ * valid AES key, and otherwise using the SHA-256 based PRG of {@link DigestCorrelationRobustHash}.
+ * </p>
+ */
+public class AesCorrelationRobustHash implements CorrelationRobustHash {
+
+  /**
+   * The size in bits of the elements this hash supports.
+   */
+  public static final int ELEMENT_LENGTH = 128;
+  private static final int BLOCK_BYTES = ELEMENT_LENGTH / Byte.SIZE;
+  private static final int OUTPUT_BLOCKS = 2;
+  // Number of elements encrypted in a single call to the cipher
+  private static final int CHUNK_SIZE = 1024;
+  // The fixed key, the first 128 bits of the binary expansion of pi
+  private static final byte[] FIXED_KEY = {
+      (byte) 0x24, (byte) 0x3F, (byte) 0x6A, (byte) 0x88, (byte) 0x85, (byte) 0xA3, (byte) 0x08,
+      (byte) 0xD3, (byte) 0x13, (byte) 0x19, (byte) 0x8A, (byte) 0x2E, (byte) 0x03, (byte) 0x70,
+      (byte) 0x73, (byte) 0x44};
+  private final Cipher permutation;
+  private final Cipher prg;
+  private final byte[] inner = new byte[CHUNK_SIZE * BLOCK_BYTES];
+  private final byte[] outer = new byte[CHUNK_SIZE * OUTPUT_BLOCKS * BLOCK_BYTES];
+
+  /**
+   * Constructs a new fixed-key AES hash.
+   */
+  public AesCorrelationRobustHash() {
+    this.permutation = ExceptionConverter.safe(() -> {
+      Cipher cipher = Cipher.getInstance("AES/ECB/NoPadding");
+      cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(FIXED_KEY, "AES"));
+      return cipher;
+    }, "Configuration error, AES is needed for the correlation robust hash");
+    this.prg = ExceptionConverter.safe(() -> Cipher.getInstance("AES/CTR/NoPadding"),
+        "Configuration error, AES is needed for the correlation robust hash");
+  }
+
+  @Override
+  public List<StrictBitVector> hash(List<StrictBitVector> input, int size) {
+    if (size > 0 && input.get(0).getSize() != ELEMENT_LENGTH) {
+      throw new IllegalArgumentException("Fixed-key AES hash only supports elements of "
+          + ELEMENT_LENGTH + " bits, but was " + input.get(0).getSize());
+    }
+    List<StrictBitVector> res = new ArrayList<>(size);
+    for (int start = 0; start < size; start += CHUNK_SIZE) {
+      int chunk = Math.min(CHUNK_SIZE, size - start);
+      for (int i = 0; i < chunk; i++) {
+        System.arraycopy(input.get(start + i).toByteArray(), 0, inner, i * BLOCK_BYTES,
+            BLOCK_BYTES);
+      }
+      // inner = pi(x)
+      encrypt(inner, chunk * BLOCK_BYTES, inner);
+      // outer = pi(x) xor tweak
+      for (int i = 0; i < chunk; i++) {
+        for (int j = 0; j < OUTPUT_BLOCKS; j++) {
+          int offset = (i * OUTPUT_BLOCKS + j) * BLOCK_BYTES;
+          System.arraycopy(inner, i * BLOCK_BYTES, outer, offset, BLOCK_BYTES);
+          xorTweak(outer, offset, (long) OUTPUT_BLOCKS * (start + i) + j);
+        }
+      }
+      // outer = pi(pi(x) xor tweak)
+      encrypt(outer, chunk * OUTPUT_BLOCKS * BLOCK_BYTES, outer);
+      // outer = pi(pi(x) xor tweak) xor pi(x)
+      for (int i = 0; i < chunk; i++) {
+        byte[] hash = new byte[OUTPUT_BLOCKS * BLOCK_BYTES];
+        for (int k = 0; k < hash.length; k++) {
+          hash[k] = (byte) (outer[i * hash.length + k] ^ inner[i * BLOCK_BYTES + k % BLOCK_BYTES]);
+        }
+        res.add(new StrictBitVector(hash));
+      }
+    }
+    return res;
+  }
+
+  @Override
+  public int getOutputLength() {
+    return OUTPUT_BLOCKS * ELEMENT_LENGTH;
+  }
+
+  @Override
+  public byte[] expand(byte[] candidate, int byteLength) {
+    if (candidate.length >= byteLength || !isAesKeyLength(candidate.length)) {
+      return LengthAdjustment.adjust(candidate, byteLength);
+    }
+    return ExceptionConverter.safe(() -> {
+      prg.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(candidate, "AES"),
+          new IvParameterSpec(new byte[BLOCK_BYTES]));
+      return prg.doFinal(new byte[byteLength]);
+    }, "Unable to expand key using AES");
+  }
+
+  private void encrypt(byte[] input, int length, byte[] output) {
+    ExceptionConverter.safe(() -> permutation.doFinal(input, 0, length, output, 0),
+        "Unable to evaluate fixed-key AES");
+  }
+
+  private static void xorTweak(byte[] block, int offset, long tweak) {
+    for (int i = 0; i < Long.BYTES; i++) {
+      block[offset + BLOCK_BYTES - 1 - i] ^= (byte) (tweak >>> (i * Byte.SIZE));
+    }
+  }
+
+  private static boolean isAesKeyLength(int length) {
+    return length == 16 || length == 24 || length == 32;
+  }
+}
@@ -6,6 +6,7 @@ import dk.alexandra.fresco.framework.util.ExceptionConverter;
 import dk.alexandra.fresco.framework.util.ValidationUtils;
 import dk.alexandra.fresco.tools.cointossing.CoinTossing;
 import java.security.MessageDigest;
+import java.util.Objects;
 
 public class BristolOtExtensionResourcePool extends ResourcePoolImpl implements
     OtExtensionResourcePool {
@@ -15,6 +16,7 @@ public class BristolOtExtensionResourcePool extends ResourcePoolImpl implements
   private final int adjustedLambdaSecurityParam;
   private final int instanceId;
   private final MessageDigest digest;
+  private final CorrelationRobustHash hash;
   private final RotList seedOts;
   private final CoinTossing ct;
   private final Drbg drbg;
@@ -35,6 +37,28 @@ public class BristolOtExtensionResourcePool extends ResourcePoolImpl implements
   public BristolOtExtensionResourcePool(int myId, int otherId,
       int computationalSecurityParam, int lambdaSecurityParam, int instanceId,
       Drbg drbg, CoinTossing ct, RotList seedOts) {
+    this(myId, otherId, computationalSecurityParam, lambdaSecurityParam, instanceId, drbg, ct,
+        seedOts, new DigestCorrelationRobustHash());
+  }
+
+  /**
+   * Constructs an OT extension resource pool using a specific correlation robust hash, e.g., an
+   * {@link AesCorrelationRobustHash}. Both parties must use the same kind of hash.
+   *
+   * @param myId                       The ID of the calling party
+   * @param otherId                    The ID of the other party
+   * @param computationalSecurityParam The computational security parameter
+   * @param lambdaSecurityParam        The statistical security parameter
+   * @param instanceId                 The instance ID of this specific resource pool instance
+   * @param drbg                       The randomness generator to be used by the calling party
+   * @param ct                         An instance of a coin tossing protocol to be used with this
+   *                                   specific resource pool
+   * @param seedOts                    The seed OTs to be used as the base of the extension
+   * @param hash                       The correlation robust hash used to produce the random OTs
+   */
+  public BristolOtExtensionResourcePool(int myId, int otherId,
+      int computationalSecurityParam, int lambdaSecurityParam, int instanceId,
+      Drbg drbg, CoinTossing ct, RotList seedOts, CorrelationRobustHash hash) {
     super(myId, 2);
     ValidationUtils.assertValidId(otherId);
     if (computationalSecurityParam < 1 || lambdaSecurityParam < 1
@@ -55,6 +79,7 @@ public class BristolOtExtensionResourcePool extends ResourcePoolImpl implements
     this.digest = ExceptionConverter.safe(() -> MessageDigest
             .getInstance("SHA-256"),
         "Configuration error, SHA-256 is needed for OT extension");
+    this.hash = Objects.requireNonNull(hash);
     this.ct = ct;
     this.seedOts = seedOts;
   }
@@ -83,6 +108,11 @@ public class BristolOtExtensionResourcePool extends ResourcePoolImpl implements
     return digest;
   }
 
+  @Override
+  public CorrelationRobustHash getCorrelationRobustHash() {
+    return hash;
+  }
+
   @Override
   public int getInstanceId() {
     return instanceId;
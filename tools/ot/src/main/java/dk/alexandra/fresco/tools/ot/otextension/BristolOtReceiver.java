@@ -95,7 +95,8 @@ public class BristolOtReceiver {
     } else {
       adjustment = oneAdjustment;
     }
-    return PseudoOtp.decrypt(adjustment, randomMessages.get(offset).toByteArray());
+    return PseudoOtp.decrypt(adjustment, randomMessages.get(offset).toByteArray(),
+        adjustment.length, resources.getCorrelationRobustHash());
   }
 
   /**
@@ -73,14 +73,18 @@ public class BristolOtSender {
     // If false (indicated by byte 0x00), then don't switch around
     if (switchBit[0] == 0x00) {
       network.send(resources.getOtherId(),
-          PseudoOtp.encrypt(messageZero, randomZero.toByteArray(), maxLength));
+          PseudoOtp.encrypt(messageZero, randomZero.toByteArray(), maxLength,
+              resources.getCorrelationRobustHash()));
       network.send(resources.getOtherId(),
-          PseudoOtp.encrypt(messageOne, randomOne.toByteArray(), maxLength));
+          PseudoOtp.encrypt(messageOne, randomOne.toByteArray(), maxLength,
+              resources.getCorrelationRobustHash()));
     } else {
       network.send(resources.getOtherId(),
-          PseudoOtp.encrypt(messageOne, randomZero.toByteArray(), maxLength));
+          PseudoOtp.encrypt(messageOne, randomZero.toByteArray(), maxLength,
+              resources.getCorrelationRobustHash()));
       network.send(resources.getOtherId(),
-          PseudoOtp.encrypt(messageZero, randomOne.toByteArray(), maxLength));
+          PseudoOtp.encrypt(messageZero, randomOne.toByteArray(), maxLength,
+              resources.getCorrelationRobustHash()));
     }
   }
 }
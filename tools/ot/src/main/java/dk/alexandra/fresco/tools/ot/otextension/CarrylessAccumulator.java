@@ -0,0 +1,174 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.Arrays;
+
+/**
+ * Accumulates a sum of products of binary polynomials without reducing modulo a reduction
+ * polynomial, i.e., a sum of carry-less products.
+ * <p>
+ * The polynomials are given as {@link StrictBitVector}s where the first bit (the most significant
+ * bit of the first byte) is the coefficient of <i>x<sup>0</sup></i>. Internally the polynomials are
+ * packed in 64-bit words and multiplied a word at a time, and all products are XOR'ed directly into
+ * a single buffer, so accumulating a product does not allocate.
+ * </p>
+ */
+final class CarrylessAccumulator {
+
+  private final int aBits;
+  private final int bBits;
+  private final long[] aWords;
+  private final long[] bWords;
+  private final long[] acc;
+  // Scratch space of the word multiplication and of the two-word Karatsuba multiplication
+  private final long[] table = new long[16];
+  private final long[] scratch = new long[2];
+
+  /**
+   * Creates a new accumulator of products of vectors of fixed sizes.
+   *
+   * @param aBits the size in bits of the left operands, must be a multiple of 8
+   * @param bBits the size in bits of the right operands, must be a multiple of 8
+   */
+  CarrylessAccumulator(int aBits, int bBits) {
+    if (aBits <= 0 || bBits <= 0 || aBits % Byte.SIZE != 0 || bBits % Byte.SIZE != 0) {
+      throw new IllegalArgumentException(
+          "Operand sizes must be positive multiples of 8, were " + aBits + " and " + bBits);
+    }
+    this.aBits = aBits;
+    this.bBits = bBits;
+    this.aWords = new long[words(aBits)];
+    this.bWords = new long[words(bBits)];
+    this.acc = new long[aWords.length + bWords.length];
+  }
+
+  /**
+   * Adds the product of two vectors to the accumulated sum.
+   *
+   * @param avec the left operand, of the size given at construction
+   * @param bvec the right operand, of the size given at construction
+   */
+  void multiplyAdd(StrictBitVector avec, StrictBitVector bvec) {
+    if (avec.getSize() != aBits || bvec.getSize() != bBits) {
+      throw new IllegalArgumentException("Expected operands of sizes " + aBits + " and " + bBits
+          + ", were " + avec.getSize() + " and " + bvec.getSize());
+    }
+    toWords(avec.toByteArray(), aWords);
+    toWords(bvec.toByteArray(), bWords);
+    if (aWords.length == 2 && bWords.length == 2) {
+      karatsuba(aWords, bWords);
+    } else {
+      schoolbook(aWords, bWords);
+    }
+  }
+
+  /**
+   * Gets the accumulated sum as a vector of size equal to the sum of the operand sizes.
+   *
+   * @return the sum
+   */
+  StrictBitVector toBitVector() {
+    byte[] res = new byte[(aBits + bBits) / Byte.SIZE];
+    for (int i = 0; i < res.length; i++) {
+      long word = acc[i / Long.BYTES];
+      int shift = (i % Long.BYTES) * Byte.SIZE;
+      res[i] = (byte) (Integer.reverse((int) (word >>> shift) & 0xFF) >>> (Integer.SIZE
+          - Byte.SIZE));
+    }
+    return new StrictBitVector(res);
+  }
+
+  /**
+   * Resets the accumulated sum to zero.
+   */
+  void reset() {
+    Arrays.fill(acc, 0L);
+  }
+
+  private void schoolbook(long[] a, long[] b) {
+    for (int i = 0; i < a.length; i++) {
+      for (int j = 0; j < b.length; j++) {
+        clmul(a[i], b[j], acc, i + j);
+      }
+    }
+  }
+
+  /**
+   * Multiplies two polynomials of two words each using three word multiplications instead of four:
+   * with <i>a = a<sub>1</sub>x<sup>64</sup> + a<sub>0</sub></i> and similarly for <i>b</i>, the
+   * middle term is <i>(a<sub>0</sub> + a<sub>1</sub>)(b<sub>0</sub> + b<sub>1</sub>) +
+   * a<sub>0</sub>b<sub>0</sub> + a<sub>1</sub>b<sub>1</sub></i>.
+   */
+  private void karatsuba(long[] a, long[] b) {
+    long[] tmp = scratch;
+    tmp[0] = 0;
+    tmp[1] = 0;
+    clmul(a[0], b[0], tmp, 0);
+    long low0 = tmp[0];
+    long low1 = tmp[1];
+    tmp[0] = 0;
+    tmp[1] = 0;
+    clmul(a[1], b[1], tmp, 0);
+    long high0 = tmp[0];
+    long high1 = tmp[1];
+    tmp[0] = low0 ^ high0;
+    tmp[1] = low1 ^ high1;
+    clmul(a[0] ^ a[1], b[0] ^ b[1], tmp, 0);
+    acc[0] ^= low0;
+    acc[1] ^= low1 ^ tmp[0];
+    acc[2] ^= high0 ^ tmp[1];
+    acc[3] ^= high1;
+  }
+
+  /**
+   * Computes the 128-bit carry-less product of two words and XOR's it into
+   * <code>res[offset]</code> (the low word) and <code>res[offset + 1]</code> (the high word).
+   * <p>
+   * The product of the low 60 bits of <code>a</code> is computed four bits of <code>b</code> at a
+   * time using a table of the 16 multiples of <code>a</code>, and the contribution of the top four
+   * bits of <code>a</code> is added afterwards.
+   * </p>
+   */
+  private void clmul(long a, long b, long[] res, int offset) {
+    long[] table = this.table;
+    table[1] = a & 0x0FFFFFFFFFFFFFFFL;
+    for (int i = 2; i < table.length; i += 2) {
+      table[i] = table[i / 2] << 1;
+      table[i + 1] = table[i] ^ table[1];
+    }
+    long low = table[(int) (b & 0xF)];
+    long high = 0;
+    for (int shift = 4; shift < Long.SIZE; shift += 4) {
+      long s = table[(int) ((b >>> shift) & 0xF)];
+      low ^= s << shift;
+      high ^= s >>> (Long.SIZE - shift);
+    }
+    for (int bit = 60; bit < Long.SIZE; bit++) {
+      long mask = -((a >>> bit) & 1);
+      low ^= (b << bit) & mask;
+      high ^= (b >>> (Long.SIZE - bit)) & mask;
+    }
+    res[offset] ^= low;
+    res[offset + 1] ^= high;
+  }
+
+  /**
+   * Packs a vector into words so that bit <i>i</i> of the vector, counting from the most
+   * significant bit of the first byte, becomes bit <i>i mod 64</i> of word <i>i / 64</i>.
+   */
+  static void toWords(byte[] bytes, long[] words) {
+    for (int w = 0; w < words.length; w++) {
+      long word = 0;
+      int start = w * Long.BYTES;
+      int end = Math.min(bytes.length, start + Long.BYTES);
+      for (int i = start; i < end; i++) {
+        word |= (bytes[i] & 0xFFL) << ((Long.BYTES - 1 - (i - start)) * Byte.SIZE);
+      }
+      words[w] = Long.reverse(word);
+    }
+  }
+
+  private static int words(int bits) {
+    return (bits + Long.SIZE - 1) / Long.SIZE;
+  }
+}
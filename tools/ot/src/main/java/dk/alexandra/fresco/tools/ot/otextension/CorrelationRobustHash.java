@@ -0,0 +1,42 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.List;
+
+/**
+ * A correlation robust hash function used to break the correlation of the OTs in random OT
+ * extension, along with a PRG used to stretch the resulting random messages to the length of the
+ * messages of chosen message OT.
+ * <p>
+ * Both parties of an OT extension MUST use the same implementation. Implementations are stateful
+ * and not thread safe, in the same way as a {@link java.security.MessageDigest}.
+ * </p>
+ */
+public interface CorrelationRobustHash {
+
+  /**
+   * Hashes the first {@code size} elements of a list, each tweaked by its index in the list.
+   *
+   * @param input The elements to hash, all of equal size
+   * @param size The amount of elements to hash, at most the size of the list
+   * @return The hashes, each of {@link #getOutputLength()} bits
+   */
+  List<StrictBitVector> hash(List<StrictBitVector> input, int size);
+
+  /**
+   * Gets the length in bits of the output of {@link #hash(List, int)}.
+   *
+   * @return The output length in bits
+   */
+  int getOutputLength();
+
+  /**
+   * Generates an array of the desired length, either by truncating a uniformly random candidate,
+   * or by stretching it using a PRG seeded with the candidate.
+   *
+   * @param candidate The candidate key
+   * @param byteLength The desired length
+   * @return A key of the desired length
+   */
+  byte[] expand(byte[] candidate, int byteLength);
+}
@@ -0,0 +1,61 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import dk.alexandra.fresco.framework.util.ExceptionConverter;
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Correlation robust hash based on a cryptographic hash function, by default SHA-256, modelled as
+ * a random oracle. An element is hashed as its index, as four big-endian bytes, followed by the
+ * element.
+ */
+public class DigestCorrelationRobustHash implements CorrelationRobustHash {
+
+  private final MessageDigest digest;
+  private final byte[] index = new byte[Integer.BYTES];
+
+  /**
+   * Constructs a new hash based on SHA-256.
+   */
+  public DigestCorrelationRobustHash() {
+    this(ExceptionConverter.safe(() -> MessageDigest.getInstance(LengthAdjustment.DIGEST_ALGO),
+        "Configuration error, SHA-256 is needed for OT extension"));
+  }
+
+  /**
+   * Constructs a new hash based on a given hash function.
+   *
+   * @param digest The hash function to use
+   */
+  public DigestCorrelationRobustHash(MessageDigest digest) {
+    this.digest = Objects.requireNonNull(digest);
+  }
+
+  @Override
+  public List<StrictBitVector> hash(List<StrictBitVector> input, int size) {
+    List<StrictBitVector> res = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      index[0] = (byte) (i >>> 24);
+      index[1] = (byte) (i >>> 16);
+      index[2] = (byte) (i >>> 8);
+      index[3] = (byte) i;
+      digest.update(index);
+      digest.update(input.get(i).toByteArray());
+      res.add(new StrictBitVector(digest.digest()));
+    }
+    return res;
+  }
+
+  @Override
+  public int getOutputLength() {
+    return digest.getDigestLength() * Byte.SIZE;
+  }
+
+  @Override
+  public byte[] expand(byte[] candidate, int byteLength) {
+    return LengthAdjustment.adjust(candidate, byteLength);
+  }
+}
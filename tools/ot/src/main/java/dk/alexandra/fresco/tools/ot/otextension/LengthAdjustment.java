@@ -39,8 +39,8 @@ final class LengthAdjustment {
       key = new byte[byteLength];
       int offset = 0;
       int counter = 0;
+      MessageDigest digest = getDigest(DIGEST_ALGO);
       while (offset < byteLength) {
-        MessageDigest digest = getDigest(DIGEST_ALGO);
         digest.update(intToBytes(counter++));
         digest.update(candidate);
         int len = Math.min(digest.getDigestLength(), byteLength - offset);
@@ -38,6 +38,14 @@ public interface OtExtensionResourcePool extends ResourcePool {
    */
   MessageDigest getDigest();
 
+  /**
+   * Gets the correlation robust hash used to break the correlation of the OTs in random OT
+   * extension and to stretch random OTs to the length of the messages of chosen message OT.
+   *
+   * @return The correlation robust hash
+   */
+  CorrelationRobustHash getCorrelationRobustHash();
+
   /**
    * Gets the instance ID of this resource pool.
    *
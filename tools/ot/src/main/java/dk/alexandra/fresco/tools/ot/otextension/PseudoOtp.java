@@ -59,6 +59,25 @@ public final class PseudoOtp {
     return cipherText;
   }
 
+  /**
+   * As {@link #encrypt(byte[], byte[], int)}, but stretching the key using the PRG of a given
+   * correlation robust hash.
+   *
+   * @param message the message to be encrypted
+   * @param keyCandidate the candidate key for OTP encryption
+   * @param messageLength fixes the length of the message to encrypt
+   * @param hash the correlation robust hash used to stretch the key
+   * @return the resulting cipher text
+   */
+  public static byte[] encrypt(byte[] message, byte[] keyCandidate, int messageLength,
+      CorrelationRobustHash hash) {
+    Objects.requireNonNull(message);
+    Objects.requireNonNull(keyCandidate);
+    byte[] cipherText = hash.expand(keyCandidate, messageLength);
+    ByteArrayHelper.xor(cipherText, Arrays.copyOf(message, messageLength));
+    return cipherText;
+  }
+
   /**
    * Given a candidate key OTP decrypts a cipher text using either the key directly or a key pseudo
    * randomly derived from the candidate, in order to match the length of the cipher text.
@@ -104,4 +123,23 @@ public final class PseudoOtp {
     return key;
   }
 
+  /**
+   * As {@link #decrypt(byte[], byte[], int)}, but stretching the key using the PRG of a given
+   * correlation robust hash.
+   *
+   * @param cipherText the cipher text to be decrypted
+   * @param keyCandidate the candidate key for OTP decryption
+   * @param messageLength fixes the length of the message to decrypt
+   * @param hash the correlation robust hash used to stretch the key
+   * @return the resulting message
+   */
+  public static byte[] decrypt(byte[] cipherText, byte[] keyCandidate, int messageLength,
+      CorrelationRobustHash hash) {
+    Objects.requireNonNull(cipherText);
+    Objects.requireNonNull(keyCandidate);
+    byte[] key = hash.expand(keyCandidate, messageLength);
+    ByteArrayHelper.xor(key, Arrays.copyOf(cipherText, messageLength));
+    return key;
+  }
+
 }
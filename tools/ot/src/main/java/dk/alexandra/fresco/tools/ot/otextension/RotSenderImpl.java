@@ -24,7 +24,7 @@ public class RotSenderImpl extends RotSharedImpl implements RotSender {
    */
   public RotSenderImpl(CoteSender snd, OtExtensionResourcePool resources,
       Network network) {
-    super(resources.getCoinTossing(), resources.getDigest(), resources
+    super(resources.getCoinTossing(), resources.getCorrelationRobustHash(), resources
         .getComputationalSecurityParameter());
     this.sender = snd;
     this.resources = resources;
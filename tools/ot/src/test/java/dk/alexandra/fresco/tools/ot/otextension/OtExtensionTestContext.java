@@ -62,11 +62,23 @@ public class OtExtensionTestContext {
    * @return A new resources pool
    */
   public OtExtensionResourcePool createResources(int instanceId) {
+    return createResources(instanceId, new DigestCorrelationRobustHash());
+  }
+
+  /**
+   * Creates a new OT extension resource pool based on a specific instance ID using a specific
+   * correlation robust hash.
+   *
+   * @param instanceId The id of the instance we wish to create a resource pool for
+   * @param hash The correlation robust hash to use
+   * @return A new resources pool
+   */
+  public OtExtensionResourcePool createResources(int instanceId, CorrelationRobustHash hash) {
     Drbg rand = createRand(instanceId);
     CoinTossing ct = new CoinTossing(myId, otherId, rand);
     ct.initialize(network);
     return new BristolOtExtensionResourcePool(myId, otherId, kbitLength,
-        lambdaSecurityParam, instanceId, rand, ct, seedOts);
+        lambdaSecurityParam, instanceId, rand, ct, seedOts, hash);
   }
 
   /**
@@ -0,0 +1,83 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import static org.junit.Assert.assertEquals;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCarrylessAccumulator {
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testSingleWordOperands() {
+    testAgainstReference(64, 64, 10);
+  }
+
+  @Test
+  public void testTwoWordOperands() {
+    testAgainstReference(128, 128, 10);
+  }
+
+  @Test
+  public void testUnevenOperands() {
+    testAgainstReference(8, 16, 10);
+    testAgainstReference(136, 72, 10);
+    testAgainstReference(128, 256, 10);
+  }
+
+  @Test
+  public void testReset() {
+    CarrylessAccumulator accumulator = new CarrylessAccumulator(128, 128);
+    accumulator.multiplyAdd(randomVector(128), randomVector(128));
+    accumulator.reset();
+    StrictBitVector a = randomVector(128);
+    StrictBitVector b = randomVector(128);
+    accumulator.multiplyAdd(a, b);
+    assertEquals(multiply(a, b), accumulator.toBitVector());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongOperandSize() {
+    new CarrylessAccumulator(128, 128).multiplyAdd(randomVector(128), randomVector(64));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testSizeNotMultipleOfByte() {
+    new CarrylessAccumulator(12, 128);
+  }
+
+  private void testAgainstReference(int aBits, int bBits, int terms) {
+    CarrylessAccumulator accumulator = new CarrylessAccumulator(aBits, bBits);
+    StrictBitVector expected = new StrictBitVector(aBits + bBits);
+    for (int i = 0; i < terms; i++) {
+      StrictBitVector a = randomVector(aBits);
+      StrictBitVector b = randomVector(bBits);
+      accumulator.multiplyAdd(a, b);
+      expected.xor(multiply(a, b));
+    }
+    assertEquals(expected, accumulator.toBitVector());
+  }
+
+  private StrictBitVector randomVector(int bits) {
+    byte[] bytes = new byte[bits / Byte.SIZE];
+    random.nextBytes(bytes);
+    return new StrictBitVector(bytes);
+  }
+
+  /**
+   * Reference implementation multiplying a bit at a time.
+   */
+  private static StrictBitVector multiply(StrictBitVector a, StrictBitVector b) {
+    StrictBitVector res = new StrictBitVector(a.getSize() + b.getSize());
+    for (int i = 0; i < a.getSize(); i++) {
+      for (int j = 0; j < b.getSize(); j++) {
+        if (a.getBit(i, false) && b.getBit(j, false)) {
+          res.setBit(i + j, !res.getBit(i + j, false), false);
+        }
+      }
+    }
+    return res;
+  }
+}
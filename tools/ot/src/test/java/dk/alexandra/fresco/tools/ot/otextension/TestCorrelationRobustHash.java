@@ -0,0 +1,96 @@
+package dk.alexandra.fresco.tools.ot.otextension;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import dk.alexandra.fresco.framework.util.StrictBitVector;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TestCorrelationRobustHash {
+
+  private final Random random = new Random(42);
+
+  @Test
+  public void testDigestHashMatchesSha256() throws Exception {
+    List<StrictBitVector> input = randomVectors(10, 128);
+    List<StrictBitVector> hashes = new DigestCorrelationRobustHash().hash(input, 7);
+    assertEquals(7, hashes.size());
+    MessageDigest digest = MessageDigest.getInstance("SHA-256");
+    for (int i = 0; i < hashes.size(); i++) {
+      byte[] expected = digest.digest(
+          ByteBuffer.allocate(Integer.BYTES + 16).putInt(i).put(input.get(i).toByteArray())
+              .array());
+      assertArrayEquals(expected, hashes.get(i).toByteArray());
+    }
+  }
+
+  @Test
+  public void testAesHash() {
+    AesCorrelationRobustHash hash = new AesCorrelationRobustHash();
+    // More elements than processed in one chunk
+    List<StrictBitVector> input = randomVectors(3000, 128);
+    List<StrictBitVector> hashes = hash.hash(input, input.size());
+    assertEquals(input.size(), hashes.size());
+    for (StrictBitVector h : hashes) {
+      assertEquals(hash.getOutputLength(), h.getSize());
+    }
+    // Deterministic, also across instances
+    assertEquals(hashes, new AesCorrelationRobustHash().hash(input, input.size()));
+    // The same element hashes differently at different indices
+    List<StrictBitVector> same = Collections.nCopies(2, input.get(0));
+    List<StrictBitVector> sameHashes = hash.hash(same, 2);
+    assertNotEquals(sameHashes.get(0), sameHashes.get(1));
+    assertEquals(hashes.get(0), sameHashes.get(0));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAesHashWrongElementLength() {
+    new AesCorrelationRobustHash().hash(randomVectors(2, 256), 2);
+  }
+
+  @Test
+  public void testAesExpand() {
+    AesCorrelationRobustHash hash = new AesCorrelationRobustHash();
+    byte[] candidate = new byte[32];
+    random.nextBytes(candidate);
+    byte[] key = hash.expand(candidate, 100);
+    assertEquals(100, key.length);
+    assertArrayEquals(key, hash.expand(candidate, 100));
+    // Prefixes of longer keys are consistent
+    assertArrayEquals(key, Arrays.copyOf(hash.expand(candidate, 200), 100));
+    // Long candidates are truncated
+    assertArrayEquals(Arrays.copyOf(candidate, 10), hash.expand(candidate, 10));
+    // Candidates which are not AES keys are stretched using SHA-256
+    byte[] odd = Arrays.copyOf(candidate, 20);
+    assertArrayEquals(LengthAdjustment.adjust(odd, 100), hash.expand(odd, 100));
+  }
+
+  @Test
+  public void testPseudoOtpWithAesHash() {
+    AesCorrelationRobustHash hash = new AesCorrelationRobustHash();
+    byte[] candidate = new byte[32];
+    random.nextBytes(candidate);
+    byte[] message = new byte[100];
+    random.nextBytes(message);
+    byte[] cipherText = PseudoOtp.encrypt(message, candidate, message.length, hash);
+    assertArrayEquals(message, PseudoOtp.decrypt(cipherText, candidate, message.length, hash));
+  }
+
+  private List<StrictBitVector> randomVectors(int amount, int bits) {
+    List<StrictBitVector> res = new ArrayList<>(amount);
+    for (int i = 0; i < amount; i++) {
+      byte[] bytes = new byte[bits / Byte.SIZE];
+      random.nextBytes(bytes);
+      res.add(new StrictBitVector(bytes));
+    }
+    return res;
+  }
+}
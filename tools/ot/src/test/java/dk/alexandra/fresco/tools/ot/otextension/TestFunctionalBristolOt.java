@@ -71,7 +71,11 @@ public class TestFunctionalBristolOt {
 
   private List<Pair<StrictBitVector, StrictBitVector>> bristolOtSend(OtExtensionTestContext ctx,
       int iterations, int batchSize) {
-    OtExtensionResourcePool resources = ctx.createResources(1);
+    return bristolOtSend(ctx, ctx.createResources(1), iterations, batchSize);
+  }
+
+  private List<Pair<StrictBitVector, StrictBitVector>> bristolOtSend(OtExtensionTestContext ctx,
+      OtExtensionResourcePool resources, int iterations, int batchSize) {
     Ot otSender = new BristolOtFactory(new RotFactory(resources, ctx.getNetwork()), resources,
         ctx.getNetwork(), batchSize);
     List<Pair<StrictBitVector, StrictBitVector>> messages = new ArrayList<>(iterations);
@@ -91,7 +95,11 @@ public class TestFunctionalBristolOt {
 
   private List<StrictBitVector> bristolOtReceive(OtExtensionTestContext ctx,
       StrictBitVector choices, int batchSize) {
-    OtExtensionResourcePool resources = ctx.createResources(1);
+    return bristolOtReceive(ctx, ctx.createResources(1), choices, batchSize);
+  }
+
+  private List<StrictBitVector> bristolOtReceive(OtExtensionTestContext ctx,
+      OtExtensionResourcePool resources, StrictBitVector choices, int batchSize) {
     Ot otReceiver = new BristolOtFactory(new RotFactory(resources, ctx.getNetwork()), resources,
         ctx.getNetwork(), batchSize);
     List<StrictBitVector> messages = new ArrayList<>(choices.getSize());
@@ -124,6 +132,26 @@ public class TestFunctionalBristolOt {
         (List<StrictBitVector>) extendResults.get(1), choices);
   }
 
+  /**
+   * Verify that we can execute the OT using the fixed-key AES hash.
+   */
+  @SuppressWarnings("unchecked")
+  @Test
+  public void testBristolOtAesHash() {
+    int batchSize = 800;
+    int iterations = 1032;
+    Drbg rand = new AesCtrDrbg(HelperForTests.seedThree);
+    StrictBitVector choices = new StrictBitVector(iterations, rand);
+    Callable<List<?>> partyOneOt = () -> bristolOtSend(senderContext,
+        senderContext.createResources(1, new AesCorrelationRobustHash()), iterations, batchSize);
+    Callable<List<?>> partyTwoOt = () -> bristolOtReceive(receiverContext,
+        receiverContext.createResources(1, new AesCorrelationRobustHash()), choices, batchSize);
+    List<List<?>> extendResults =
+        testRuntime.runPerPartyTasks(Arrays.asList(partyOneOt, partyTwoOt));
+    HelperForTests.verifyOts((List<Pair<StrictBitVector, StrictBitVector>>) extendResults.get(0),
+        (List<StrictBitVector>) extendResults.get(1), choices);
+  }
+
   private List<Pair<StrictBitVector, StrictBitVector>> bristolRotBatchSend(
       OtExtensionTestContext ctx, int batchSize, int id) {
     OtExtensionResourcePool resources = ctx.createResources(id);